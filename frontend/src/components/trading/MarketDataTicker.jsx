@@ -1,31 +1,12 @@
-import React, { useEffect, useState } from 'react';
-import { Client } from '@stomp/stompjs';
+import React from 'react';
 import { TrendingUp, TrendingDown, Activity } from 'lucide-react';
+import { useWatchlist } from '../../hooks/useWatchlist';
 
-const MarketDataTicker = () => {
-    const [ticks, setTicks] = useState({});
-    const [connectionStatus, setStatus] = useState('CONNECTING');
-
-    useEffect(() => {
-        const client = new Client({
-            brokerURL: 'ws://localhost:8080/ws',
-            reconnectDelay: 5000,
-            onConnect: () => {
-                setStatus('CONNECTED');
-                // Subscribe to a few major indices/stocks
-                ['NSE:3045', 'NSE:2885', 'NSE:11536'].forEach(token => {
-                    client.subscribe(`/topic/market/${token}`, (msg) => {
-                        const tick = JSON.parse(msg.body);
-                        setTicks(prev => ({ ...prev, [tick.instrumentToken]: tick }));
-                    });
-                });
-            },
-            onDisconnect: () => setStatus('DISCONNECTED')
-        });
+// A few major indices/stocks
+const WATCHLIST = ['NSE:3045', 'NSE:2885', 'NSE:11536'];
 
-        client.activate();
-        return () => client.deactivate();
-    }, []);
+const MarketDataTicker = () => {
+    const { ticks, status: connectionStatus } = useWatchlist(WATCHLIST);
 
     return (
         <div className="grid grid-cols-1 md:grid-cols-3 lg:grid-cols-4 gap-4 mb-8">
@@ -1,4 +1,4 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import { useForm } from 'react-hook-form';
 import api from '../../lib/api';
 import toast from 'react-hot-toast';
@@ -27,6 +27,10 @@ const OrderForm = ({onSymbolSelect}) => {
     const [selectedSecurityId, setSelectedSecurityId] = useState(null);
     const [selectedExchange, setSelectedExchange] = useState('NSE_EQ');
 
+    // Idempotency key for the order being submitted; kept across retries after a network failure so the
+    // server returns the original order instead of placing a second one
+    const pendingOrderKey = useRef(null);
+
     const selectedOrderType = watch('orderType');
     const selectedSide = watch('side');
 
@@ -126,7 +130,8 @@ const OrderForm = ({onSymbolSelect}) => {
         try {
             // 🔥 FIX: Send BOTH securityId and tradingSymbol
             const orderPayload = {
-                brokerAccountId: activeBrokerId,
+                // SMART lets the server pick the account and fail over between brokers
+                ...(activeBrokerId === 'SMART' ? { routing: 'SMART' } : { brokerAccountId: activeBrokerId }),
                 symbol: selectedSecurityId,  // Numeric ID (e.g., "3045")
                 side: data.side,
                 quantity: Number(data.quantity),
@@ -141,7 +146,9 @@ const OrderForm = ({onSymbolSelect}) => {
 
             console.log("📤 Sending Order:", orderPayload); // Debug log
 
-            await api.post('/orders/place', orderPayload);
+            if (!pendingOrderKey.current) pendingOrderKey.current = crypto.randomUUID();
+            await api.post('/orders/place', { ...orderPayload, clientOrderId: pendingOrderKey.current });
+            pendingOrderKey.current = null;
 
             toast.success('Order Placed Successfully');
             reset({
@@ -154,6 +161,8 @@ const OrderForm = ({onSymbolSelect}) => {
             setSelectedSecurityId(null);
 
         } catch (err) {
+            // A response means the server decided; only a lost request may be retried with the same key
+            if (err.response && err.response.status !== 409) pendingOrderKey.current = null;
             const msg = err.response?.data?.message || err.message || 'Failed to place order';
             toast.error(msg);
         } finally {
@@ -180,6 +189,7 @@ const OrderForm = ({onSymbolSelect}) => {
                                         {b.brokerId.toUpperCase()} ({b.id})
                                     </option>
                                 ))}
+                                {brokers.length > 1 && <option value="SMART">SMART ROUTE</option>}
                             </select>
                         ) : (
                             <span className="text-xs text-red-400">No Brokers</span>
@@ -1,5 +1,6 @@
 import React, { useEffect, useState, useRef } from 'react';
 import api from '../../lib/api';
+import { Client } from '@stomp/stompjs';
 import { RefreshCw, AlertCircle } from 'lucide-react';
 import toast from 'react-hot-toast';
 
@@ -77,11 +78,35 @@ const PositionsTable = () => {
         if (activeBrokerId) {
             setLoading(true);
             fetchPositions();
-            interval = setInterval(fetchPositions, 5000);
+            // Live P&L is pushed over STOMP; polling is only a slow safety net
+            interval = setInterval(fetchPositions, 30000);
         }
         return () => clearInterval(interval);
     }, [activeBrokerId]);
 
+    // 3b. Live position updates pushed by the server (/user/queue/positions)
+    useEffect(() => {
+        const token = localStorage.getItem('authToken');
+        if (!activeBrokerId || !token) return;
+
+        const client = new Client({
+            brokerURL: 'ws://localhost:8080/ws',
+            connectHeaders: { Authorization: `Bearer ${token}` },
+            reconnectDelay: 5000,
+            onConnect: () => {
+                client.subscribe('/user/queue/positions', (message) => {
+                    const update = JSON.parse(message.body);
+                    if (!isMounted.current || update.accountId !== activeBrokerId) return;
+                    setPositions(update.positions);
+                    setTotalPnl(update.totalPnl);
+                });
+            },
+        });
+
+        client.activate();
+        return () => client.deactivate();
+    }, [activeBrokerId]);
+
     // 4. Close Position Logic
     const closePosition = async (pos) => {
         if (!activeBrokerId) return;
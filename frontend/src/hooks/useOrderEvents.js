@@ -0,0 +1,29 @@
+// frontend/src/hooks/useOrderEvents.js
+import { useEffect } from 'react';
+import { Client } from '@stomp/stompjs';
+
+/**
+ * Subscribe to the current user's order lifecycle events (PENDING -> PLACED -> FILLED/REJECTED).
+ * The JWT is sent on STOMP CONNECT so the server can route /user/queue/orders to this session.
+ * @param {function} onEvent - Called with each parsed order event
+ */
+export const useOrderEvents = (onEvent) => {
+    useEffect(() => {
+        const token = localStorage.getItem('authToken');
+        if (!token) return;
+
+        const client = new Client({
+            brokerURL: 'ws://localhost:8080/ws',
+            connectHeaders: { Authorization: `Bearer ${token}` },
+            reconnectDelay: 5000,
+            onConnect: () => {
+                client.subscribe('/user/queue/orders', (message) => {
+                    onEvent(JSON.parse(message.body));
+                });
+            },
+        });
+
+        client.activate();
+        return () => client.deactivate();
+    }, [onEvent]);
+};
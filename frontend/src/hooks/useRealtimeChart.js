@@ -3,7 +3,32 @@ import { useEffect, useRef } from 'react';
 import { Client } from '@stomp/stompjs';
 
 /**
- * Custom hook to update chart with real-time ticks via WebSocket
+ * Decode a binary tick frame (server: TickFrameCodec). 36 bytes, little-endian:
+ * u8 version, u8 scale, u8 flags (1 = bid/ask, 2 = timestamp), u8 reserved,
+ * i64 timestamp ms, i64 last (scaled), i32 bid - last, i32 ask - last, i64 volume.
+ * @param {Uint8Array} bytes
+ * @returns {{lastPrice: number, bid: number|null, ask: number|null, volume: number, timestamp: number|null}|null}
+ */
+export function decodeTick(bytes) {
+    if (bytes.byteLength < 36) return null;
+    const view = new DataView(bytes.buffer, bytes.byteOffset, bytes.byteLength);
+    if (view.getUint8(0) !== 1) return null;
+    const unit = 10 ** view.getUint8(1);
+    const flags = view.getUint8(2);
+    const last = Number(view.getBigInt64(12, true));
+    const hasQuote = (flags & 1) !== 0;
+    return {
+        lastPrice: last / unit,
+        bid: hasQuote ? (last + view.getInt32(20, true)) / unit : null,
+        ask: hasQuote ? (last + view.getInt32(24, true)) / unit : null,
+        volume: Number(view.getBigInt64(28, true)),
+        timestamp: (flags & 2) !== 0 ? Number(view.getBigInt64(4, true)) : null,
+    };
+}
+
+/**
+ * Custom hook to update chart with real-time ticks via WebSocket.
+ * Opts into binary tick frames on CONNECT; JSON frames are still understood.
  * @param {string} symbol - Instrument token to subscribe
  * @param {object} candleSeries - Lightweight Charts candlestick series reference
  * @param {string} timeframe - Current timeframe (1M, 5M, etc.)
@@ -17,14 +42,17 @@ export const useRealtimeChart = (symbol, candleSeries, timeframe) => {
 
         const client = new Client({
             brokerURL: 'ws://localhost:8080/ws',
+            connectHeaders: { 'tick-encoding': 'binary' },
             reconnectDelay: 5000,
             onConnect: () => {
                 console.log('[Chart] WebSocket Connected');
 
                 // Subscribe to tick updates
                 client.subscribe(`/topic/market/${symbol}`, (message) => {
-                    const tick = JSON.parse(message.body);
-                    updateCandle(tick);
+                    const tick = message.headers['content-type'] === 'application/octet-stream'
+                        ? decodeTick(message.binaryBody)
+                        : JSON.parse(message.body);
+                    if (tick) updateCandle(tick);
                 });
             },
             onDisconnect: () => console.log('[Chart] WebSocket Disconnected'),
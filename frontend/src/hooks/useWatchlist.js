@@ -0,0 +1,71 @@
+// frontend/src/hooks/useWatchlist.js
+import { useEffect, useState } from 'react';
+import { Client } from '@stomp/stompjs';
+import { decodeTick } from './useRealtimeChart';
+
+/**
+ * Decode a binary watchlist batch (server: TickFrameCodec.encodeBatch):
+ * u8 version, u8 reserved, u16 count, then count x { u8 token length, token, 36-byte tick frame }.
+ * @param {Uint8Array} bytes
+ * @returns {Object<string, object>} token -> decoded tick
+ */
+export function decodeTickBatch(bytes) {
+    const view = new DataView(bytes.buffer, bytes.byteOffset, bytes.byteLength);
+    const ticks = {};
+    if (bytes.byteLength < 4 || view.getUint8(0) !== 1) return ticks;
+    const count = view.getUint16(2, true);
+    let offset = 4;
+    for (let i = 0; i < count && offset < bytes.byteLength; i++) {
+        const length = view.getUint8(offset);
+        const token = String.fromCharCode(...bytes.subarray(offset + 1, offset + 1 + length));
+        offset += 1 + length;
+        const tick = decodeTick(bytes.subarray(offset, offset + 36));
+        if (tick) ticks[token] = { instrumentToken: token, ...tick };
+        offset += 36;
+    }
+    return ticks;
+}
+
+/**
+ * Latest ticks for a set of instruments over one STOMP connection. The server batches every changed
+ * symbol into one frame per flush interval instead of one subscription and frame per symbol.
+ * @param {string[]} tokens - Instrument tokens to watch
+ * @returns {{ticks: Object<string, object>, status: string}}
+ */
+export const useWatchlist = (tokens) => {
+    const [ticks, setTicks] = useState({});
+    const [status, setStatus] = useState('CONNECTING');
+    const key = tokens.join(',');
+
+    useEffect(() => {
+        const token = localStorage.getItem('authToken');
+        const client = new Client({
+            brokerURL: 'ws://localhost:8080/ws',
+            connectHeaders: {
+                'tick-encoding': 'binary',
+                ...(token ? { Authorization: `Bearer ${token}` } : {}),
+            },
+            reconnectDelay: 5000,
+            onConnect: () => {
+                setStatus('CONNECTED');
+                client.subscribe('/user/queue/watchlist', (message) => {
+                    const batch = message.headers['content-type'] === 'application/octet-stream'
+                        ? decodeTickBatch(message.binaryBody)
+                        : JSON.parse(message.body);
+                    setTicks(prev => ({ ...prev, ...batch }));
+                });
+                client.subscribe('/user/queue/errors', (message) => {
+                    console.warn('[Watchlist]', JSON.parse(message.body).error);
+                });
+                client.publish({ destination: '/app/watchlist', body: JSON.stringify(tokens) });
+            },
+            onDisconnect: () => setStatus('DISCONNECTED'),
+        });
+
+        client.activate();
+        return () => client.deactivate();
+        // eslint-disable-next-line react-hooks/exhaustive-deps
+    }, [key]);
+
+    return { ticks, status };
+};
@@ -1,13 +1,25 @@
-import React, { useState } from 'react';
+import React, { useCallback, useState } from 'react';
+import toast from 'react-hot-toast';
 import MarketDataTicker from '../components/trading/MarketDataTicker';
 import OrderForm from '../components/trading/OrderForm';
 import PositionsTable from '../components/trading/PositionsTable';
 import TradingChart from '../components/chart/TradingChart';
+import { useOrderEvents } from '../hooks/useOrderEvents';
 
 const Dashboard = () => {
     // State to sync selected symbol between OrderForm and Chart
     const [selectedSymbol, setSelectedSymbol] = useState(null);
 
+    // Order fills / rejections are pushed by the server, no need to poll /orders
+    const handleOrderEvent = useCallback((event) => {
+        if (event.status === 'FILLED') {
+            toast.success(`Order #${event.orderId} filled @ ${event.avgFillPrice ?? event.price ?? 'MKT'}`);
+        } else if (event.status === 'REJECTED' || event.status === 'FAILED') {
+            toast.error(`Order #${event.orderId} ${event.status.toLowerCase()}: ${event.message ?? ''}`);
+        }
+    }, []);
+    useOrderEvents(handleOrderEvent);
+
     const handleSymbolSelect = (symbolData) => {
         console.log("📊 Dashboard received symbol:", symbolData); // 🌟 DEBUG
         setSelectedSymbol({
@@ -0,0 +1,35 @@
+package com.myorg.trading.config;
+
+import com.myorg.trading.config.properties.WebSocketBrokerProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.activemq.artemis.core.config.Configuration;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * In-process ActiveMQ Artemis with a STOMP acceptor, standing in for an external broker in RELAY mode.
+ * Non-persistent and unsecured: for development and single-machine cluster trials only. Only compiled
+ * with the embedded-broker Maven profile.
+ */
+@Slf4j
+@org.springframework.context.annotation.Configuration
+@ConditionalOnProperty(name = "app.websocket.broker.relay.embedded", havingValue = "true")
+public class EmbeddedStompBrokerConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public EmbeddedActiveMQ embeddedStompBroker(WebSocketBrokerProperties properties) throws Exception {
+        WebSocketBrokerProperties.Relay relay = properties.getRelay();
+        Configuration config = new ConfigurationImpl()
+                .setPersistenceEnabled(false)
+                .setSecurityEnabled(false)
+                .setJournalDirectory("data/artemis/journal")
+                .addAcceptorConfiguration("stomp", "tcp://" + relay.getHost() + ":" + relay.getPort()
+                        + "?protocols=STOMP;anycastPrefix=/queue/;multicastPrefix=/topic/");
+        EmbeddedActiveMQ broker = new EmbeddedActiveMQ();
+        broker.setConfiguration(config);
+        log.info("Embedded Artemis STOMP broker on {}:{}", relay.getHost(), relay.getPort());
+        return broker;
+    }
+}
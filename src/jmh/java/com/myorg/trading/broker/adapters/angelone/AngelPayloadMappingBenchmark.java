@@ -0,0 +1,48 @@
+package com.myorg.trading.broker.adapters.angelone;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myorg.trading.broker.api.BrokerOrderRequest;
+import com.myorg.trading.broker.api.OrderSide;
+import com.myorg.trading.broker.api.OrderType;
+import com.myorg.trading.config.BrokerHttpMetricsFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order request -> Angel One placeOrder payload mapping (runs on every order placement).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AngelPayloadMappingBenchmark {
+
+    private AngelOneAdapter adapter;
+    private BrokerOrderRequest limitOrder;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        adapter = new AngelOneAdapter(WebClient.builder(), new BrokerHttpMetricsFilter(new SimpleMeterRegistry()),
+                null, null, null, new ObjectMapper(), null, null);
+        limitOrder = BrokerOrderRequest.builder()
+                .symbol("2885")
+                .side(OrderSide.BUY)
+                .quantity(new BigDecimal("10"))
+                .price(new BigDecimal("2501.35"))
+                .orderType(OrderType.LIMIT)
+                .meta(Map.of("tradingSymbol", "RELIANCE-EQ", "exchange", "NSE", "productType", "CNC"))
+                .build();
+    }
+
+    @Benchmark
+    public Map<String, Object> mapToAngelPayload() {
+        return adapter.mapToAngelPayload(limitOrder);
+    }
+}
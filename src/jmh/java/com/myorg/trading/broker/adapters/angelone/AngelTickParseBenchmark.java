@@ -0,0 +1,66 @@
+package com.myorg.trading.broker.adapters.angelone;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myorg.trading.broker.api.MarketDataTick;
+import com.myorg.trading.service.marketdata.MarketDataService;
+import com.myorg.trading.service.marketdata.depth.MarketDepth;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Angel One tick parsing: JSON text frames, and binary SnapQuote frames with five-level depth.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AngelTickParseBenchmark {
+
+    private static final String TICK =
+            "{\"name\":\"sf\",\"token\":\"2885\",\"ltp\":\"2501.35\",\"c\":\"2488.10\",\"v\":\"1532114\",\"tbq\":\"221345\",\"tsq\":\"198876\"}";
+    private static final String HEARTBEAT = "{\"ak\":\"ok\",\"type\":\"pong\"}";
+
+    private AngelOneWebSocketClient client;
+    private ByteBuffer snapQuote;
+    private final MarketDepth depth = new MarketDepth();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        client = new AngelOneWebSocketClient(new MarketDataService(new SimpleMeterRegistry(), List.of()), null, null,
+                new ObjectMapper(), null, null);
+        snapQuote = ByteBuffer.allocate(379).order(ByteOrder.LITTLE_ENDIAN);
+        snapQuote.put(0, (byte) AngelOneWebSocketClient.MODE_SNAP_QUOTE).put(1, (byte) 1);
+        snapQuote.put(2, "2885".getBytes(StandardCharsets.US_ASCII));
+        snapQuote.putLong(35, System.currentTimeMillis()).putLong(43, 250135).putLong(67, 1_532_114);
+        for (int i = 0; i < 10; i++) {
+            int at = 147 + i * 20;
+            boolean buy = i < 5;
+            long price = buy ? 250130 - i * 5 : 250140 + (i - 5) * 5;
+            snapQuote.putShort(at, (short) (buy ? 1 : 0)).putLong(at + 2, 100L * (i + 1))
+                    .putLong(at + 10, price).putShort(at + 18, (short) (i + 3));
+        }
+    }
+
+    @Benchmark
+    public MarketDataTick parseTick() throws Exception {
+        return client.parseTick(TICK);
+    }
+
+    @Benchmark
+    public MarketDataTick parseHeartbeat() throws Exception {
+        return client.parseTick(HEARTBEAT);
+    }
+
+    @Benchmark
+    public MarketDataTick parseSnapQuote() {
+        return client.parseBinary(snapQuote, depth);
+    }
+}
@@ -0,0 +1,63 @@
+package com.myorg.trading.broker.adapters.dhan;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myorg.trading.broker.api.BrokerPosition;
+import com.myorg.trading.config.BrokerHttpMetricsFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dhan /v2/positions response -> BrokerPosition list, from an already-parsed tree and from raw bytes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DhanPositionsParseBenchmark {
+
+    @Param({"5", "50"})
+    public int positions;
+
+    private ObjectMapper mapper;
+    private DhanAdapter adapter;
+    private byte[] raw;
+    private JsonNode tree;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        mapper = new ObjectMapper();
+        adapter = new DhanAdapter(WebClient.builder(), new BrokerHttpMetricsFilter(new SimpleMeterRegistry()), null, mapper, null);
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < positions; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"dhanClientId\":\"1000000001\",\"tradingSymbol\":\"SYM").append(i)
+                    .append("\",\"securityId\":\"").append(1000 + i)
+                    .append("\",\"positionType\":\"LONG\",\"exchangeSegment\":\"NSE_EQ\",\"productType\":\"INTRADAY\"")
+                    .append(",\"buyAvg\":").append(100.5 + i).append(",\"buyQty\":").append(10 + i)
+                    .append(",\"sellAvg\":0.0,\"sellQty\":0,\"netQty\":").append(10 + i)
+                    .append(",\"realizedProfit\":0.0,\"unrealizedProfit\":").append(12.25 * i)
+                    .append(",\"dayBuyQty\":").append(10 + i).append(",\"dayBuyValue\":").append((100.5 + i) * (10 + i))
+                    .append(",\"lastTradedPrice\":").append(101.75 + i).append('}');
+        }
+        raw = sb.append(']').toString().getBytes(StandardCharsets.UTF_8);
+        tree = mapper.readTree(raw);
+    }
+
+    @Benchmark
+    public List<BrokerPosition> parsePositions() {
+        return adapter.parsePositions(tree);
+    }
+
+    @Benchmark
+    public List<BrokerPosition> readAndParsePositions() throws Exception {
+        return adapter.parsePositions(mapper.readTree(raw));
+    }
+}
@@ -0,0 +1,45 @@
+package com.myorg.trading.service.indicator;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-update cost of each streaming indicator; SMA(20) vs SMA(200) shows it does not depend on the window.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndicatorBenchmark {
+
+    @Param({"SMA(20)", "SMA(200)", "EMA(20)", "RSI(14)", "ATR(14)", "VWAP(0)", "BB(20,2)"})
+    public String spec;
+
+    private static final int PRICES = 4096;
+
+    private Indicator indicator;
+    private final double[] prices = new double[PRICES];
+    private int i;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        indicator = IndicatorSpec.parse(spec).create();
+        Random rnd = new Random(7);
+        double p = 2500;
+        for (int k = 0; k < PRICES; k++) {
+            p *= 1 + rnd.nextGaussian() * 0.001;
+            prices[k] = p;
+        }
+    }
+
+    @Benchmark
+    public double update() {
+        double p = prices[i++ & (PRICES - 1)];
+        indicator.update(p * 1.001, p * 0.999, p, 100);
+        return indicator.value();
+    }
+}
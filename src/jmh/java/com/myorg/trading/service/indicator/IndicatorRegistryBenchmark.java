@@ -0,0 +1,61 @@
+package com.myorg.trading.service.indicator;
+
+import com.myorg.trading.broker.api.MarketDataTick;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One tick through the registry with EMA(20) and RSI(14) per tick and BB(20,2) on 1-minute bars.
+ * Subscribers share the instances, so their number must not change the per-tick cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndicatorRegistryBenchmark {
+
+    @Param({"1", "100"})
+    public int subscribers;
+
+    private static final int TICKS = 4096;
+
+    private IndicatorRegistry registry;
+    private final List<IndicatorHandle> handles = new ArrayList<>();
+    private final MarketDataTick[] ticks = new MarketDataTick[TICKS];
+    private int i;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        registry = new IndicatorRegistry();
+        for (int s = 0; s < subscribers; s++) {
+            handles.add(registry.acquire("2885", Timeframe.TICK, IndicatorSpec.parse("EMA(20)")));
+            handles.add(registry.acquire("2885", Timeframe.TICK, IndicatorSpec.parse("RSI(14)")));
+            handles.add(registry.acquire("2885", Timeframe.parse("1M"), IndicatorSpec.parse("BB(20,2)")));
+        }
+        long t0 = Instant.parse("2026-10-16T04:00:00Z").toEpochMilli();
+        Random rnd = new Random(7);
+        double p = 2500;
+        for (int k = 0; k < TICKS; k++) {
+            p *= 1 + rnd.nextGaussian() * 0.001;
+            // Feed prices are multiples of the 0.05 tick size; a raw double's 17 digits would push
+            // BigDecimal.doubleValue() off its fast path and measure string parsing instead
+            BigDecimal price = BigDecimal.valueOf(Math.round(p * 20)).divide(BigDecimal.valueOf(20)).setScale(2);
+            ticks[k] = new MarketDataTick("2885", price, null, null, k * 10L,
+                    Instant.ofEpochMilli(t0 + k * 250L));
+        }
+    }
+
+    @Benchmark
+    public double onTick() {
+        registry.onTick("2885", ticks[i++ & (TICKS - 1)]);
+        return handles.get(0).value();
+    }
+}
@@ -0,0 +1,52 @@
+package com.myorg.trading.service.marketdata;
+
+import com.myorg.trading.broker.api.MarketDataTick;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import reactor.core.Disposable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cost of routing one tick through MarketDataService to N subscribers of the same instrument.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MarketDataFanOutBenchmark {
+
+    @Param({"0", "1", "8", "64"})
+    public int subscribers;
+
+    private MarketDataService service;
+    private MarketDataTick tick;
+    private final List<Disposable> subscriptions = new ArrayList<>();
+    private final LongAdder received = new LongAdder();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        service = new MarketDataService(new SimpleMeterRegistry(), List.of());
+        tick = new MarketDataTick("2885", new BigDecimal("2501.35"), BigDecimal.ZERO, BigDecimal.ZERO, 0L, Instant.now());
+        for (int i = 0; i < subscribers; i++) {
+            subscriptions.add(service.streamFor("2885").subscribe(t -> received.increment()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        subscriptions.forEach(Disposable::dispose);
+    }
+
+    @Benchmark
+    public void pushTick() {
+        service.pushTick("2885", tick);
+    }
+}
@@ -0,0 +1,56 @@
+package com.myorg.trading.service.marketdata;
+
+import com.myorg.trading.domain.model.SecurityMaster;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Instrument search over a synthetic scrip master roughly the size of the NSE slice we keep (~60k rows).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecurityMasterSearchBenchmark {
+
+    private static final String[] REAL = {"RELIANCE", "INFY", "TCS", "HDFCBANK", "ICICIBANK", "SBIN", "NIFTY", "BANKNIFTY"};
+
+    // common prefix with many hits / short query matching most rows / no hit at all
+    @Param({"RELIANCE", "AB", "QZQZQZ"})
+    public String query;
+
+    private SecurityMasterService service;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        Random rnd = new Random(42);
+        StringBuilder csv = new StringBuilder("SEM_EXM_EXCH_ID,SEM_SEGMENT,SEM_SMST_SECURITY_ID,SEM_INSTRUMENT_NAME,SEM_CUSTOM_SYMBOL,SEM_TRADING_SYMBOL,X,Y,SEM_LOT_UNITS\n");
+        for (int i = 0; i < 60_000; i++) {
+            String name = i < REAL.length * 50 ? REAL[i % REAL.length] : randomName(rnd);
+            String symbol = i % 3 == 0 ? name + "-EQ" : name + (24000 + i % 500) + (i % 2 == 0 ? "CE" : "PE");
+            csv.append("NSE,E,").append(1000 + i).append(",EQUITY,").append(name).append(',')
+                    .append(symbol).append(",x,y,").append(1 + i % 75).append('\n');
+        }
+        service = new SecurityMasterService();
+        service.load(new BufferedReader(new StringReader(csv.toString())));
+    }
+
+    @Benchmark
+    public List<SecurityMaster> search() {
+        return service.search(query);
+    }
+
+    private static String randomName(Random rnd) {
+        int len = 3 + rnd.nextInt(8);
+        char[] c = new char[len];
+        for (int i = 0; i < len; i++) c[i] = (char) ('A' + rnd.nextInt(26));
+        return new String(c);
+    }
+}
@@ -0,0 +1,59 @@
+package com.myorg.trading.service.marketdata.depth;
+
+import com.myorg.trading.config.properties.WebSocketBrokerProperties;
+import com.myorg.trading.service.cluster.ClusterFeedRelay;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applying one depth packet: diff against the stored book, in-place update and JSON encoding of the delta
+ * (the broker channel is a no-op). changedLevels = 10 is a full re-price, i.e. the cost of sending snapshots.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MarketDepthBenchmark {
+
+    @Param({"1", "10"})
+    public int changedLevels;
+
+    private MarketDepthService service;
+    private final MarketDepth packet = new MarketDepth();
+    private long n;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SimpMessagingTemplate template = new SimpMessagingTemplate((message, timeout) -> true);
+        template.setMessageConverter(new MappingJackson2MessageConverter());
+        // SIMPLE broker mode: the cluster relay is a no-op
+        ClusterFeedRelay relay = new ClusterFeedRelay(new WebSocketBrokerProperties(), template, null, null, null, null, null);
+        service = new MarketDepthService(template, relay, new SimpleMeterRegistry());
+        for (int l = 0; l < MarketDepth.LEVELS; l++) {
+            packet.setBid(l, 2501.30 - l * 0.05, 100L * (l + 1), l + 3);
+            packet.setAsk(l, 2501.40 + l * 0.05, 100L * (l + 1), l + 3);
+        }
+        service.update("2885", packet);
+    }
+
+    @Benchmark
+    public void update() {
+        n++;
+        if (changedLevels == 1) {
+            packet.setBid(0, packet.bidPrice(0), 100 + (n & 1), packet.bidOrders(0));
+        } else {
+            double shift = (n & 1) * 0.05;
+            for (int l = 0; l < MarketDepth.LEVELS; l++) {
+                packet.setBid(l, 2501.30 + shift - l * 0.05, 100L * (l + 1), l + 3);
+                packet.setAsk(l, 2501.40 + shift + l * 0.05, 100L * (l + 1), l + 3);
+            }
+        }
+        service.update("2885", packet);
+    }
+}
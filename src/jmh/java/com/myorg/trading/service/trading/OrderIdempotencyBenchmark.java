@@ -0,0 +1,53 @@
+package com.myorg.trading.service.trading;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the idempotency check on order submission: claiming a fresh key, versus
+ * answering a repeat from the cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderIdempotencyBenchmark {
+
+    private OrderIdempotencyCache cache;
+    private OrderIdempotencyCache.Fingerprint fingerprint;
+    private long next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        cache = new OrderIdempotencyCache(new SimpleMeterRegistry(), 900_000, 10_000_000);
+        fingerprint = OrderIdempotencyCache.fingerprint(7L, "2885", "BUY", new BigDecimal("10"),
+                new BigDecimal("2501.35"), "LIMIT", "INTRADAY");
+        cache.begin(1L, "repeat-key", fingerprint);
+        cache.complete(1L, "repeat-key", fingerprint, 42L);
+    }
+
+    // Claim then release, so the map stays at its steady-state size instead of growing for the whole run
+    @Benchmark
+    public Long freshKey() {
+        String key = "k-" + (next++ & 1023);
+        Long existing = cache.begin(1L, key, fingerprint);
+        cache.abandon(1L, key);
+        return existing;
+    }
+
+    @Benchmark
+    public Long repeatedKey() {
+        return cache.begin(1L, "repeat-key", fingerprint);
+    }
+
+    @Benchmark
+    public OrderIdempotencyCache.Fingerprint fingerprintOnly() {
+        return OrderIdempotencyCache.fingerprint(7L, "2885", "BUY", new BigDecimal("10"),
+                new BigDecimal("2501.35"), "LIMIT", "INTRADAY");
+    }
+}
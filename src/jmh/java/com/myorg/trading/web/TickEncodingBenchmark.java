@@ -0,0 +1,36 @@
+package com.myorg.trading.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.myorg.trading.broker.api.MarketDataTick;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-tick payload encoding for the UI stream: Jackson JSON (the default) against the binary frame.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TickEncodingBenchmark {
+
+    private final ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final MarketDataTick tick = new MarketDataTick("2885", new BigDecimal("2501.35"),
+            new BigDecimal("2501.30"), new BigDecimal("2501.40"), 1_532_114L, Instant.now());
+
+    @Benchmark
+    public byte[] json() throws Exception {
+        return mapper.writeValueAsBytes(tick);
+    }
+
+    @Benchmark
+    public byte[] binary() {
+        return TickFrameCodec.encode(tick);
+    }
+}
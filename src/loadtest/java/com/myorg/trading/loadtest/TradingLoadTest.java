@@ -0,0 +1,252 @@
+package com.myorg.trading.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a running instance (ideally with --spring.profiles.active=simulator) through REST and STOMP:
+ * N STOMP clients subscribe to the synthetic instruments while worker threads place orders at a target
+ * rate. Prints order latency percentiles per HTTP status plus tick throughput and tick latency.
+ *
+ * Run:  mvn -Ploadtest test-compile exec:exec -Dloadtest.args="orders=5000 rate=200 concurrency=16 subscribers=50"
+ *
+ * Options (key=value): base, user, password, orders, rate (orders/s, 0 = as fast as possible), concurrency,
+ * subscribers, instruments, firstToken, durationSec (STOMP phase length when orders=0).
+ */
+public class TradingLoadTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opt = new HashMap<>();
+        for (String a : args) {
+            int i = a.indexOf('=');
+            if (i > 0) opt.put(a.substring(0, i), a.substring(i + 1));
+        }
+        String base = opt.getOrDefault("base", "http://localhost:8080");
+        String user = opt.getOrDefault("user", "loadtest");
+        String password = opt.getOrDefault("password", "loadtest-password");
+        int orders = Integer.parseInt(opt.getOrDefault("orders", "1000"));
+        double rate = Double.parseDouble(opt.getOrDefault("rate", "100"));
+        int concurrency = Integer.parseInt(opt.getOrDefault("concurrency", "8"));
+        int subscribers = Integer.parseInt(opt.getOrDefault("subscribers", "10"));
+        int instruments = Integer.parseInt(opt.getOrDefault("instruments", "20"));
+        long firstToken = Long.parseLong(opt.getOrDefault("firstToken", "900001"));
+        int durationSec = Integer.parseInt(opt.getOrDefault("durationSec", "30"));
+
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        String jwt = login(http, base, user, password);
+        long accountId = simulatorAccount(http, base, jwt);
+        System.out.printf("Logged in as %s, simulator account %d%n", user, accountId);
+
+        FeedStats feed = new FeedStats();
+        List<StompSession> sessions = connectSubscribers(base, jwt, subscribers, instruments, firstToken, feed);
+        System.out.printf("%d STOMP subscribers on %d instruments%n", sessions.size(), instruments);
+
+        long phaseStart = System.nanoTime();
+        feed.reset();
+        Map<Integer, List<Long>> latencies = orders > 0
+                ? placeOrders(http, base, jwt, accountId, orders, rate, concurrency, instruments, firstToken)
+                : Map.of();
+        if (orders == 0) Thread.sleep(durationSec * 1000L);
+        double elapsed = (System.nanoTime() - phaseStart) / 1e9;
+
+        sessions.forEach(StompSession::disconnect);
+
+        System.out.println();
+        System.out.printf("Elapsed %.1fs%n", elapsed);
+        latencies.forEach((status, l) -> report("orders HTTP " + status, l, elapsed));
+        System.out.printf("%-36s n=%-8d %8.1f/s%n", "ticks received (all subscribers)", feed.count(), feed.count() / elapsed);
+        report("tick latency sample (us)", feed.latenciesMicros(), elapsed);
+        System.out.println("  (order latencies in ms, from the scheduled send time)");
+    }
+
+    private static String login(HttpClient http, String base, String user, String password) throws Exception {
+        String body = MAPPER.writeValueAsString(Map.of("username", user, "password", password));
+        HttpResponse<String> r = post(http, base + "/api/v1/auth/login", null, body);
+        if (r.statusCode() != 200) {
+            r = post(http, base + "/api/v1/auth/register", null, body);
+        }
+        if (r.statusCode() != 200) throw new IllegalStateException("Login failed: " + r.statusCode() + " " + r.body());
+        return MAPPER.readTree(r.body()).path("token").asText();
+    }
+
+    private static long simulatorAccount(HttpClient http, String base, String jwt) throws Exception {
+        HttpResponse<String> linked = http.send(HttpRequest.newBuilder(URI.create(base + "/api/v1/brokers/linked"))
+                .header("Authorization", "Bearer " + jwt).GET().build(), HttpResponse.BodyHandlers.ofString());
+        for (JsonNode a : MAPPER.readTree(linked.body())) {
+            if ("simulator".equals(a.path("brokerId").asText())) return a.path("id").asLong();
+        }
+        String body = MAPPER.writeValueAsString(Map.of("brokerId", "simulator", "credentialsJson", "{}",
+                "metadataJson", "{\"name\":\"load test\"}"));
+        HttpResponse<String> r = post(http, base + "/api/v1/brokers/link", jwt, body);
+        if (r.statusCode() != 200) {
+            throw new IllegalStateException("Linking simulator account failed (is broker.simulator.enabled set?): " + r.body());
+        }
+        return MAPPER.readTree(r.body()).path("id").asLong();
+    }
+
+    private static Map<Integer, List<Long>> placeOrders(HttpClient http, String base, String jwt, long accountId,
+                                                        int orders, double rate, int concurrency,
+                                                        int instruments, long firstToken) throws Exception {
+        Map<Integer, List<Long>> byStatus = new ConcurrentHashMap<>();
+        AtomicInteger issued = new AtomicInteger();
+        long start = System.nanoTime();
+        long intervalNanos = rate > 0 ? (long) (1e9 / rate) : 0;
+
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        for (int w = 0; w < concurrency; w++) {
+            pool.submit(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                int n;
+                while ((n = issued.getAndIncrement()) < orders) {
+                    // Open-loop schedule: order n is due at start + n * interval, independent of response times
+                    long due = start + n * intervalNanos;
+                    long wait = due - System.nanoTime();
+                    if (wait > 0) LockSupport.parkNanos(wait);
+
+                    String token = Long.toString(firstToken + rnd.nextInt(instruments));
+                    Map<String, Object> req = new HashMap<>();
+                    req.put("brokerAccountId", accountId);
+                    req.put("symbol", token);
+                    req.put("side", rnd.nextBoolean() ? "BUY" : "SELL");
+                    req.put("quantity", 1 + rnd.nextInt(10));
+                    req.put("orderType", "MARKET");
+                    req.put("productType", "INTRADAY");
+                    req.put("meta", Map.of("tradingSymbol", "SIM" + token, "exchange", "NSE_EQ"));
+
+                    long t0 = System.nanoTime();
+                    int status;
+                    try {
+                        status = post(http, base + "/api/v1/orders/place", jwt, MAPPER.writeValueAsString(req)).statusCode();
+                    } catch (Exception e) {
+                        status = -1;
+                    }
+                    // Latency measured from the scheduled time, so queueing behind slow responses is counted
+                    long latency = System.nanoTime() - (intervalNanos > 0 ? Math.min(due, t0) : t0);
+                    byStatus.computeIfAbsent(status, k -> Collections.synchronizedList(new ArrayList<>()))
+                            .add(latency / 1_000_000);
+                }
+                return null;
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.HOURS);
+        return byStatus;
+    }
+
+    private static List<StompSession> connectSubscribers(String base, String jwt, int subscribers, int instruments,
+                                                         long firstToken, FeedStats feed) throws Exception {
+        WebSocketStompClient stomp = new WebSocketStompClient(new StandardWebSocketClient());
+        stomp.setMessageConverter(new StringMessageConverter());
+        String wsUrl = base.replaceFirst("^http", "ws") + "/ws";
+
+        List<StompSession> sessions = new ArrayList<>();
+        for (int s = 0; s < subscribers; s++) {
+            StompHeaders connect = new StompHeaders();
+            connect.add("Authorization", "Bearer " + jwt);
+            StompSession session = stomp.connectAsync(wsUrl, new WebSocketHttpHeaders(),
+                    connect, new StompSessionHandlerAdapter() { }).get(10, TimeUnit.SECONDS);
+            for (int i = 0; i < instruments; i++) {
+                session.subscribe("/topic/market/" + (firstToken + i), new StompFrameHandler() {
+                    @Override
+                    public Type getPayloadType(StompHeaders headers) {
+                        return String.class;
+                    }
+
+                    @Override
+                    public void handleFrame(StompHeaders headers, Object payload) {
+                        feed.onTick((String) payload);
+                    }
+                });
+            }
+            sessions.add(session);
+        }
+        return sessions;
+    }
+
+    private static HttpResponse<String> post(HttpClient http, String url, String jwt, String body) throws Exception {
+        HttpRequest.Builder b = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (jwt != null) b.header("Authorization", "Bearer " + jwt);
+        return http.send(b.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void report(String label, List<Long> values, double elapsedSec) {
+        long[] v;
+        synchronized (values) {
+            v = values.stream().mapToLong(Long::longValue).sorted().toArray();
+        }
+        if (v.length == 0) {
+            System.out.printf("%-36s n=0%n", label);
+            return;
+        }
+        System.out.printf("%-36s n=%-8d %8.1f/s  p50=%d p90=%d p99=%d p99.9=%d max=%d%n",
+                label, v.length, v.length / elapsedSec,
+                pct(v, 50), pct(v, 90), pct(v, 99), pct(v, 99.9), v[v.length - 1]);
+    }
+
+    private static long pct(long[] sorted, double p) {
+        int i = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(i, sorted.length - 1))];
+    }
+
+    /**
+     * Tick counts and latency (tick timestamp to receipt) in microseconds; sampled 1-in-16 to keep memory flat.
+     */
+    static final class FeedStats {
+        private final AtomicLong count = new AtomicLong();
+        private final List<Long> samples = Collections.synchronizedList(new ArrayList<>());
+
+        void reset() {
+            count.set(0);
+            samples.clear();
+        }
+
+        void onTick(String json) {
+            long n = count.incrementAndGet();
+            if ((n & 15) != 0) return;
+            try {
+                JsonNode ts = MAPPER.readTree(json).path("timestamp");
+                Instant sent = ts.isNumber()
+                        ? Instant.ofEpochSecond(0, (long) (ts.asDouble() * 1e9))
+                        : Instant.parse(ts.asText());
+                samples.add(Duration.between(sent, Instant.now()).toNanos() / 1000);
+            } catch (Exception ignored) {
+                // timestamp missing or in an unexpected format
+            }
+        }
+
+        long count() {
+            return count.get();
+        }
+
+        List<Long> latenciesMicros() {
+            return samples;
+        }
+    }
+
+}
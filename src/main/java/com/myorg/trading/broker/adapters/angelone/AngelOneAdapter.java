@@ -4,7 +4,9 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.myorg.trading.broker.api.*;
 import com.myorg.trading.broker.model.AngelOneCredentials;
+import com.myorg.trading.broker.resilience.BrokerResilience;
 import com.myorg.trading.broker.token.TokenStore;
+import com.myorg.trading.config.BrokerHttpMetricsFilter;
 import com.myorg.trading.config.properties.AngelOneProperties;
 import com.myorg.trading.service.broker.BrokerAccountService;
 import com.myorg.trading.util.CryptoUtil;
@@ -36,22 +38,26 @@ public class AngelOneAdapter implements BrokerClient {
     private final BrokerAccountService brokerAccountService;
     private final ObjectMapper objectMapper;
     private final AngelOneWebSocketClient wsClient;
+    private final BrokerResilience resilience;
 
     // Hardcoded constant for production API, can also be moved to properties
     private static final String ANGEL_BASE_URL = "https://apiconnect.angelone.in";
 
     public AngelOneAdapter(WebClient.Builder webClientBuilder,
+                           BrokerHttpMetricsFilter metricsFilter,
                            AngelOneProperties props,
                            TokenStore<AngelAuthResponse> tokenStore,
                            BrokerAccountService brokerAccountService,
                            ObjectMapper objectMapper,
-                           AngelOneWebSocketClient wsClient) {
-        this.webClient = webClientBuilder.baseUrl(ANGEL_BASE_URL).build();
+                           AngelOneWebSocketClient wsClient,
+                           BrokerResilience resilience) {
+        this.webClient = webClientBuilder.clone().filter(metricsFilter).baseUrl(ANGEL_BASE_URL).build();
         this.props = props;
         this.tokenStore = tokenStore;
         this.brokerAccountService = brokerAccountService;
         this.objectMapper = objectMapper;
         this.wsClient = wsClient;
+        this.resilience = resilience;
     }
 
     @Override
@@ -61,7 +67,8 @@ public class AngelOneAdapter implements BrokerClient {
 
     @Override
     public Set<BrokerCapability> capabilities() {
-        return Set.of(BrokerCapability.PLACE_ORDER, BrokerCapability.MARKET_DATA_STREAM, BrokerCapability.GET_POSITIONS);
+        return Set.of(BrokerCapability.PLACE_ORDER, BrokerCapability.CANCEL_ORDER, BrokerCapability.MODIFY_ORDER,
+                BrokerCapability.MARKET_DATA_STREAM, BrokerCapability.GET_POSITIONS, BrokerCapability.ORDER_BOOK);
     }
 
     // --- Authentication Logic ---
@@ -86,7 +93,7 @@ public class AngelOneAdapter implements BrokerClient {
                                 "totp", totp
                         );
 
-                        return webClient.post()
+                        return resilience.guard("angelone", "login", BrokerResilience.Kind.AUTH, () -> webClient.post()
                                 .uri("/rest/auth/angelbroking/user/v1/loginByPassword") // Standard Login Endpoint
                                 .header("Content-Type", "application/json")
                                 .header("Accept", "application/json")
@@ -98,7 +105,7 @@ public class AngelOneAdapter implements BrokerClient {
                                 .header("X-MACAddress", "00:00:00:00:00:00") // Required MAC format
                                 .bodyValue(loginBody)
                                 .retrieve()
-                                .bodyToMono(JsonNode.class)
+                                .bodyToMono(JsonNode.class))
                                 .flatMap(responseJson -> {
                                     boolean status = responseJson.path("status").asBoolean(false);
                                     if (!status) {
@@ -118,7 +125,8 @@ public class AngelOneAdapter implements BrokerClient {
                                     authResponse.markObtainedNow();
 
                                     // Initialize WebSocket immediately after login
-                                    wsClient.connect(authResponse.getAccessToken(), creds.getApiKey(), creds.getClientCode());
+                                    wsClient.connect(authResponse.getAccessToken(), creds.getApiKey(), creds.getClientCode(),
+                                            authResponse.getSessionId(), authResponse.getExpiryInstant());
 
                                     return tokenStore.saveToken(accountId, authResponse).thenReturn(authResponse);
                                 });
@@ -143,7 +151,7 @@ public class AngelOneAdapter implements BrokerClient {
                                 throw new RuntimeException(e);
                             }
                         })
-                        .flatMap(apiKey -> webClient.post()
+                        .flatMap(apiKey -> resilience.guard("angelone", "placeOrder", BrokerResilience.Kind.WRITE, () -> webClient.post()
                                 .uri("/rest/secure/angelbroking/order/v1/placeOrder")
                                 .header(HttpHeaders.AUTHORIZATION, "Bearer " + auth.getAccessToken())
                                 .header("X-PrivateKey", apiKey)
@@ -154,21 +162,63 @@ public class AngelOneAdapter implements BrokerClient {
                                 .header("X-MACAddress", "00:00:00:00:00:00")
                                 .bodyValue(mapToAngelPayload(req))
                                 .retrieve()
-                                .bodyToMono(JsonNode.class) // Parse raw JSON first to check status
+                                .bodyToMono(JsonNode.class)) // Parse raw JSON first to check status
                                 .map(this::toBrokerOrderResponse)
                         ));
     }
 
-    private Map<String, Object> mapToAngelPayload(BrokerOrderRequest req) {
+    @Override
+    public Mono<BrokerOrderResponse> modifyOrder(String accountId, String brokerOrderId, BrokerOrderRequest amended) {
+        // Angel's modify takes the full order, so start from the placement payload
+        Map<String, Object> payload = mapToAngelPayload(amended);
+        payload.put("orderid", brokerOrderId);
+        return securePost(accountId, "modifyOrder", "/rest/secure/angelbroking/order/v1/modifyOrder", payload)
+                .map(this::toBrokerOrderResponse);
+    }
+
+    @Override
+    public Mono<Void> cancelOrder(String accountId, String brokerOrderId) {
+        return securePost(accountId, "cancelOrder", "/rest/secure/angelbroking/order/v1/cancelOrder",
+                Map.of("variety", "NORMAL", "orderid", brokerOrderId))
+                .map(this::toBrokerOrderResponse)
+                .then();
+    }
+
+    private Mono<JsonNode> securePost(String accountId, String endpoint, String path, Object body) {
+        return authenticateAccount(accountId)
+                .flatMap(auth -> Mono.fromCallable(() -> brokerAccountService.readDecryptedCredentials(Long.valueOf(accountId)))
+                        .flatMap(opt -> opt.map(Mono::just).orElse(Mono.error(new IllegalArgumentException("No credentials found"))))
+                        .map(json -> {
+                            try {
+                                return objectMapper.readValue(json, AngelOneCredentials.class).getApiKey();
+                            } catch (Exception e) {
+                                throw new RuntimeException(e);
+                            }
+                        })
+                        .flatMap(apiKey -> resilience.guard("angelone", endpoint, BrokerResilience.Kind.WRITE, () -> webClient.post()
+                                .uri(path)
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + auth.getAccessToken())
+                                .header("X-PrivateKey", apiKey)
+                                .header("X-UserType", "USER")
+                                .header("X-SourceID", "WEB")
+                                .header("X-ClientLocalIP", "127.0.0.1")
+                                .header("X-ClientPublicIP", "127.0.0.1")
+                                .header("X-MACAddress", "00:00:00:00:00:00")
+                                .bodyValue(body)
+                                .retrieve()
+                                .bodyToMono(JsonNode.class))));
+    }
+
+    Map<String, Object> mapToAngelPayload(BrokerOrderRequest req) {
         Map<String, Object> payload = new HashMap<>();
         Map<String, Object> meta = req.getMeta() != null ? req.getMeta() : Map.of();
 
         // 🔥 DEBUG: Log what we received
-        log.info("🔍 Mapping Order Request:");
-        log.info("   Symbol (ID): {}", req.getSymbol());
-        log.info("   Side: {}", req.getSide());
-        log.info("   Quantity: {}", req.getQuantity());
-        log.info("   Meta: {}", meta);
+        log.debug("🔍 Mapping Order Request:");
+        log.debug("   Symbol (ID): {}", req.getSymbol());
+        log.debug("   Side: {}", req.getSide());
+        log.debug("   Quantity: {}", req.getQuantity());
+        log.debug("   Meta: {}", meta);
 
         payload.put("variety", "NORMAL");
 
@@ -206,9 +256,10 @@ public class AngelOneAdapter implements BrokerClient {
         payload.put("quantity", req.getQuantity().toString());
         payload.put("squareoff", "0");
         payload.put("stoploss", "0");
+        if (req.getClientOrderId() != null) payload.put("ordertag", req.getClientOrderId());
 
         // 🔥 DEBUG: Log final payload
-        log.info("📦 Angel One Payload: {}", payload);
+        log.debug("📦 Angel One Payload: {}", payload);
 
         return payload;
     }
@@ -225,6 +276,66 @@ public class AngelOneAdapter implements BrokerClient {
         return new BrokerOrderResponse(orderId, "PLACED", message, null);
     }
 
+    // --- Order Book ---
+
+    @Override
+    public Mono<List<BrokerOrderStatus>> getOrderBook(String accountId) {
+        return authenticateAccount(accountId)
+                .flatMap(auth -> Mono.fromCallable(() -> brokerAccountService.readDecryptedCredentials(Long.valueOf(accountId)))
+                        .flatMap(opt -> opt.map(Mono::just).orElse(Mono.error(new IllegalArgumentException("No credentials found"))))
+                        .map(json -> {
+                            try {
+                                return objectMapper.readValue(json, AngelOneCredentials.class).getApiKey();
+                            } catch (Exception e) {
+                                throw new RuntimeException(e);
+                            }
+                        })
+                        .flatMap(apiKey -> resilience.guard("angelone", "orderBook", BrokerResilience.Kind.READ, () -> webClient.get()
+                                .uri("/rest/secure/angelbroking/order/v1/getOrderBook")
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + auth.getAccessToken())
+                                .header("X-PrivateKey", apiKey)
+                                .header("X-UserType", "USER")
+                                .header("X-SourceID", "WEB")
+                                .header("X-ClientLocalIP", "127.0.0.1")
+                                .header("X-ClientPublicIP", "127.0.0.1")
+                                .header("X-MACAddress", "00:00:00:00:00:00")
+                                .retrieve()
+                                .bodyToMono(JsonNode.class))
+                                .map(this::parseOrderBook)
+                        ));
+    }
+
+    private List<BrokerOrderStatus> parseOrderBook(JsonNode root) {
+        JsonNode dataNode = root.path("data");
+        if (!dataNode.isArray()) {
+            return List.of();
+        }
+
+        List<BrokerOrderStatus> orders = new ArrayList<>(dataNode.size());
+        for (JsonNode node : dataNode) {
+            BigDecimal filled = new BigDecimal(node.path("filledshares").asText("0"));
+            BrokerOrderStatus st = new BrokerOrderStatus();
+            st.setOrderId(node.path("orderid").asText());
+            st.setStatus(mapOrderStatus(node.path("status").asText(), filled));
+            st.setFilledQuantity(filled);
+            st.setRemainingQuantity(new BigDecimal(node.path("unfilledshares").asText("0")));
+            st.setAvgFillPrice(new BigDecimal(node.path("averageprice").asText("0")));
+            st.setClientOrderId(node.path("ordertag").asText(null));
+            orders.add(st);
+        }
+        return orders;
+    }
+
+    private String mapOrderStatus(String angelStatus, BigDecimal filled) {
+        // Angel reports lowercase free-text statuses ("open", "complete", "trigger pending", ...)
+        return switch (angelStatus.toLowerCase()) {
+            case "complete" -> "FILLED";
+            case "rejected" -> "REJECTED";
+            case "cancelled" -> "CANCELLED";
+            default -> filled.signum() > 0 ? "PARTIALLY_FILLED" : "NEW";
+        };
+    }
+
     // --- Position Fetching ---
 
     @Override
@@ -239,7 +350,7 @@ public class AngelOneAdapter implements BrokerClient {
                                 throw new RuntimeException(e);
                             }
                         })
-                        .flatMap(apiKey -> webClient.get()
+                        .flatMap(apiKey -> resilience.guard("angelone", "positions", BrokerResilience.Kind.READ, () -> webClient.get()
                                 .uri("/rest/secure/angelbroking/order/v1/getPosition")
                                 .header(HttpHeaders.AUTHORIZATION, "Bearer " + auth.getAccessToken())
                                 .header("X-PrivateKey", apiKey)
@@ -249,7 +360,7 @@ public class AngelOneAdapter implements BrokerClient {
                                 .header("X-ClientPublicIP", "127.0.0.1")
                                 .header("X-MACAddress", "00:00:00:00:00:00")
                                 .retrieve()
-                                .bodyToMono(JsonNode.class)
+                                .bodyToMono(JsonNode.class))
                                 .map(rootNode -> {
                                     JsonNode dataNode = rootNode.path("data");
                                     if (dataNode.isMissingNode() || !dataNode.isArray()) {
@@ -291,7 +402,7 @@ public class AngelOneAdapter implements BrokerClient {
                         String totp = CryptoUtil.generateTotp(creds.getTotpKey());
                         Map<String, Object> loginBody = Map.of("clientcode", creds.getClientCode(), "password", creds.getPassword(), "totp", totp);
 
-                        return webClient.post().uri("/rest/auth/angelbroking/user/v1/loginByPassword")
+                        return resilience.guard("angelone", "login", BrokerResilience.Kind.AUTH, () -> webClient.post().uri("/rest/auth/angelbroking/user/v1/loginByPassword")
                                 .header("Content-Type", "application/json")
                                 .header("Accept", "application/json")
                                 .header("X-UserType", "USER")
@@ -302,7 +413,7 @@ public class AngelOneAdapter implements BrokerClient {
                                 .header("X-MACAddress", "00:00:00:00:00:00")
                                 .bodyValue(loginBody)
                                 .retrieve()
-                                .bodyToMono(JsonNode.class)
+                                .bodyToMono(JsonNode.class))
                                 .map(node -> node.path("status").asBoolean(false));
                     } catch (Exception e) {
                         return Mono.just(false);
@@ -337,7 +448,7 @@ public class AngelOneAdapter implements BrokerClient {
                                     "todate", formatter.format(to)
                             );
 
-                            return webClient.post()
+                            return resilience.<JsonNode>guard("angelone", "history", BrokerResilience.Kind.READ, () -> webClient.post()
                                     .uri("/rest/secure/angelbroking/historical/v1/getCandleData")
                                     .header(HttpHeaders.AUTHORIZATION, "Bearer " + auth.getAccessToken())
                                     .header("X-PrivateKey", apiKey)
@@ -348,7 +459,7 @@ public class AngelOneAdapter implements BrokerClient {
                                     .header("X-MACAddress", "00:00:00:00:00:00")
                                     .bodyValue(requestBody)
                                     .retrieve()
-                                    .bodyToMono(JsonNode.class)
+                                    .bodyToMono(JsonNode.class))
                                     .map(this::parseHistoricalData);
                         })
                 );
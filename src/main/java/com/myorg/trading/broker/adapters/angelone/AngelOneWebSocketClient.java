@@ -3,56 +3,205 @@ package com.myorg.trading.broker.adapters.angelone;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.myorg.trading.broker.api.MarketDataTick;
+import com.myorg.trading.service.cluster.FeedCredentialStore;
+import com.myorg.trading.service.cluster.FeedLeaderElection;
 import com.myorg.trading.service.marketdata.MarketDataService;
+import com.myorg.trading.service.marketdata.depth.MarketDepth;
+import com.myorg.trading.service.marketdata.depth.MarketDepthService;
 import com.myorg.trading.web.MarketDataWebSocketController;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.client.WebSocketClient;
 import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHttpHeaders;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.TextMessage;
-import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Connects to Angel One's SmartAPI WebSocket to receive live ticks.
+ * Connects to Angel One's SmartStream (WebSocket v2) to receive live ticks. Each client's socket subscribes,
+ * in SnapQuote mode, to every instrument requested through {@link MarketDataService#requestFeed}.
+ *
+ * In a cluster only the node holding the "angelone" feed lease opens sockets. Logins are shared through
+ * {@link FeedCredentialStore}, so a login taken by any node reaches the current leader (within one lease
+ * renewal) and survives a change of leader.
  */
 @Slf4j
 @Component
 public class AngelOneWebSocketClient {
 
+    // SmartStream binary packet: subscription mode byte, then mode-specific layout (little-endian)
+    static final int MODE_LTP = 1;
+    static final int MODE_QUOTE = 2;
+    static final int MODE_SNAP_QUOTE = 3;
+    private static final int TOKEN_OFFSET = 2;
+    private static final int TOKEN_LENGTH = 25;
+    private static final int LTP_OFFSET = 43;
+    private static final int VOLUME_OFFSET = 67;
+    private static final int EXCHANGE_TS_OFFSET = 35;
+    private static final int BEST_FIVE_OFFSET = 147;
+    private static final int BEST_FIVE_ENTRY = 20; // flag(2) qty(8) price(8) orders(2)
+    private static final int LTP_PACKET = 51;
+    private static final int QUOTE_PACKET = 123;
+    private static final int SNAP_QUOTE_PACKET = 379;
+    private static final int CDS_EXCHANGE_TYPE = 13;
+    static final String FEED = "angelone";
+
+    private static final URI STREAM_URI = URI.create("wss://smartapisocket.angelone.in/smart-stream");
+    private static final int ACTION_SUBSCRIBE = 1;
+    private static final int ACTION_UNSUBSCRIBE = 0;
+    private static final String CORRELATION_ID = "subscribe0"; // echoed back in errors; must be 10 characters
+    // SmartStream exchangeType by the exchange codes used in orders
+    private static final Map<String, Integer> EXCHANGE_TYPES = Map.of(
+            "NSE", 1, "NFO", 2, "BSE", 3, "BFO", 4, "MCX", 5, "NCDEX", 7, "CDS", CDS_EXCHANGE_TYPE);
+    private static final int SEND_TIME_LIMIT_MS = 5_000;
+    private static final int SEND_BUFFER_LIMIT = 512 * 1024;
+
     private final MarketDataService marketDataService;
+    private final MarketDepthService marketDepthService;
     private final MarketDataWebSocketController webSocketController;
     private final ObjectMapper objectMapper;
+    private final FeedLeaderElection feedLeaderElection;
+    private final FeedCredentialStore credentialStore;
+
+    private record Credentials(String authToken, String apiKey, String feedToken) {
+    }
 
-    // Map of AccountId -> Active Session
+    // Client Code -> latest login seen by this node, whether taken here or loaded from the shared store
+    private final Map<String, Credentials> credentials = new ConcurrentHashMap<>();
+    // Client Code -> Active Session (thread-safe sends)
     private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+    // Instrument token -> SmartStream exchangeType, subscribed on every session
+    private final Map<String, Integer> subscriptions = new ConcurrentHashMap<>();
 
     public AngelOneWebSocketClient(MarketDataService marketDataService,
+                                   MarketDepthService marketDepthService,
                                    MarketDataWebSocketController webSocketController,
-                                   ObjectMapper objectMapper) {
+                                   ObjectMapper objectMapper,
+                                   FeedLeaderElection feedLeaderElection,
+                                   FeedCredentialStore credentialStore) {
         this.marketDataService = marketDataService;
+        this.marketDepthService = marketDepthService;
         this.webSocketController = webSocketController;
         this.objectMapper = objectMapper;
+        this.feedLeaderElection = feedLeaderElection;
+        this.credentialStore = credentialStore;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void joinElection() {
+        marketDataService.addFeedSubscriber(this::subscribe, this::unsubscribe);
+        feedLeaderElection.participate(FEED, this::connectAll, this::disconnectAll);
     }
 
     /**
-     * Connects to the WebSocket for a specific user.
+     * Connects to the WebSocket for a specific user, or just shares the login if another node leads the feed.
      * @param authToken The JWT/Session token from Angel login
      * @param apiKey The user's API Key
      * @param clientCode The user's Client Code
+     * @param feedToken The feed token from the same login
+     * @param expiresAt When the session ends (null: assume a trading day)
      */
-    public void connect(String authToken, String apiKey, String clientCode) {
+    public void connect(String authToken, String apiKey, String clientCode, String feedToken, Instant expiresAt) {
+        Credentials creds = new Credentials(authToken, apiKey, feedToken);
+        credentials.put(clientCode, creds);
+        try {
+            credentialStore.save(FEED, clientCode, objectMapper.writeValueAsString(creds),
+                    expiresAt != null ? expiresAt : Instant.now().plus(Duration.ofHours(8)));
+        } catch (IOException e) {
+            log.warn("Could not serialise Angel feed login for client {}: {}", clientCode, e.toString());
+        }
+        if (feedLeaderElection.isLeader(FEED)) open(clientCode);
+    }
+
+    private void connectAll() {
+        loadShared();
+        for (String clientCode : List.copyOf(credentials.keySet())) open(clientCode);
+    }
+
+    /**
+     * While leading, pick up logins taken on other nodes since the last look (runs with each lease renewal).
+     */
+    @Scheduled(fixedDelayString = "${app.cluster.leader-election.renew-ms:5000}")
+    public void connectShared() {
+        if (!feedLeaderElection.isLeader(FEED)) return;
+        for (String clientCode : loadShared()) open(clientCode);
+    }
+
+    /**
+     * Merge the shared store into {@link #credentials}.
+     *
+     * @return client codes whose login is new or changed
+     */
+    private List<String> loadShared() {
+        List<String> changed = new ArrayList<>();
+        credentialStore.load(FEED).forEach((clientCode, json) -> {
+            try {
+                Credentials creds = objectMapper.readValue(json, Credentials.class);
+                if (!creds.equals(credentials.put(clientCode, creds))) changed.add(clientCode);
+            } catch (IOException e) {
+                log.warn("Unreadable shared Angel feed login for client {}: {}", clientCode, e.toString());
+            }
+        });
+        return changed;
+    }
+
+    private void disconnectAll() {
+        for (String clientCode : List.copyOf(sessions.keySet())) {
+            WebSocketSession session = sessions.remove(clientCode);
+            try {
+                if (session != null) session.close();
+            } catch (IOException e) {
+                log.warn("Failed to close Angel WebSocket for client {}: {}", clientCode, e.toString());
+            }
+        }
+    }
+
+    private void open(String clientCode) {
+        Credentials creds = credentials.get(clientCode);
+        if (creds == null) return;
+        if (creds.feedToken() == null || creds.feedToken().isBlank()) {
+            log.warn("No feed token for Angel client {}; log in again to stream", clientCode);
+            return;
+        }
+        WebSocketSession previous = sessions.remove(clientCode);
+        try {
+            if (previous != null) previous.close();
+        } catch (IOException e) {
+            log.debug("Closing previous Angel WebSocket for {} failed: {}", clientCode, e.toString());
+        }
         try {
             WebSocketClient client = new StandardWebSocketClient();
-            // Angel One SmartAPI WebSocket URL (Confirm URL in docs as it changes)
-            String wsUrl = "wss://smartapi.angelbroking.com/websocket?jwt=" + authToken + "&clientCode=" + clientCode + "&apiKey=" + apiKey;
+            WebSocketHttpHeaders headers = new WebSocketHttpHeaders();
+            headers.add("Authorization", "Bearer " + creds.authToken());
+            headers.add("x-api-key", creds.apiKey());
+            headers.add("x-client-code", clientCode);
+            headers.add("x-feed-token", creds.feedToken());
 
-            client.doHandshake(new AngelSocketHandler(), wsUrl);
+            client.execute(new AngelSocketHandler(clientCode), headers, STREAM_URI).whenComplete((session, e) -> {
+                if (e != null) log.error("Angel SmartStream connection for client {} failed: {}", clientCode, e.toString());
+            });
             log.info("Initiated WebSocket connection for client: {}", clientCode);
 
         } catch (Exception e) {
@@ -60,38 +209,190 @@ public class AngelOneWebSocketClient {
         }
     }
 
+    /**
+     * Stream an instrument on every Angel session, now and on each reconnect.
+     *
+     * @param exchange exchange code (NSE, NFO, BSE, BFO, MCX, NCDEX, CDS)
+     */
+    void subscribe(String exchange, String token) {
+        Integer type = EXCHANGE_TYPES.get(exchange.toUpperCase(Locale.ROOT));
+        if (type == null) {
+            log.warn("Angel SmartStream has no exchange {}; not streaming {}", exchange, token);
+            return;
+        }
+        if (subscriptions.putIfAbsent(token, type) != null) return;
+        String frame = subscribeFrame(Map.of(token, type));
+        sessions.forEach((clientCode, session) -> send(clientCode, session, frame));
+    }
+
+    /**
+     * Stop streaming an instrument once nothing on this node needs it any more.
+     */
+    void unsubscribe(String exchange, String token) {
+        Integer type = subscriptions.remove(token);
+        if (type == null) return;
+        String frame = frame(ACTION_UNSUBSCRIBE, Map.of(token, type));
+        sessions.forEach((clientCode, session) -> send(clientCode, session, frame));
+    }
+
+    /**
+     * SmartStream subscribe request for the tokens, in SnapQuote mode (LTP, quote and best five).
+     */
+    String subscribeFrame(Map<String, Integer> tokens) {
+        return frame(ACTION_SUBSCRIBE, tokens);
+    }
+
+    private String frame(int action, Map<String, Integer> tokens) {
+        Map<Integer, List<String>> byExchange = new LinkedHashMap<>();
+        tokens.forEach((token, type) -> byExchange.computeIfAbsent(type, k -> new ArrayList<>()).add(token));
+        List<Map<String, Object>> tokenList = new ArrayList<>();
+        byExchange.forEach((type, list) -> tokenList.add(Map.of("exchangeType", type, "tokens", list)));
+        try {
+            return objectMapper.writeValueAsString(Map.of(
+                    "correlationID", CORRELATION_ID,
+                    "action", action,
+                    "params", Map.of("mode", MODE_SNAP_QUOTE, "tokenList", tokenList)));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot encode SmartStream request", e);
+        }
+    }
+
+    /**
+     * SmartStream drops a connection that sends no "ping" for 30 seconds.
+     */
+    @Scheduled(fixedDelay = 25_000)
+    public void heartbeat() {
+        sessions.forEach((clientCode, session) -> send(clientCode, session, "ping"));
+    }
+
+    private void send(String clientCode, WebSocketSession session, String text) {
+        try {
+            session.sendMessage(new TextMessage(text));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Send to Angel SmartStream for client {} failed: {}", clientCode, e.toString());
+        }
+    }
+
+    /**
+     * Parse a JSON text frame into a tick, or null if the frame is not a tick (heartbeat, ack...).
+     */
+    MarketDataTick parseTick(String payload) throws IOException {
+        JsonNode node = objectMapper.readTree(payload);
+
+        // Parse Logic (Varies by Angel API version)
+        // Assuming standard JSON tick structure:
+        if (!node.has("token") || !node.has("ltp")) return null;
+
+        return new MarketDataTick(
+                node.get("token").asText(),
+                new BigDecimal(node.get("ltp").asText()),
+                BigDecimal.ZERO, // bid
+                BigDecimal.ZERO, // ask
+                0L,              // vol
+                Instant.now()
+        );
+    }
+
+    /**
+     * Decode a binary SmartStream packet into a tick, or null if it is too short for its mode. SnapQuote
+     * packets also fill {@code depth} with the best five bids and asks; the tick's bid/ask are level 0.
+     */
+    MarketDataTick parseBinary(ByteBuffer buf, MarketDepth depth) {
+        buf = buf.slice().order(ByteOrder.LITTLE_ENDIAN);
+        int mode = buf.get(0);
+        int required = switch (mode) {
+            case MODE_LTP -> LTP_PACKET;
+            case MODE_QUOTE -> QUOTE_PACKET;
+            case MODE_SNAP_QUOTE -> SNAP_QUOTE_PACKET;
+            default -> Integer.MAX_VALUE;
+        };
+        if (buf.remaining() < required) return null;
+
+        // Prices are integers in paise, except currency derivatives which carry 7 decimals
+        double divisor = buf.get(1) == CDS_EXCHANGE_TYPE ? 10_000_000.0 : 100.0;
+        String token = readToken(buf);
+        long exchangeMillis = buf.getLong(EXCHANGE_TS_OFFSET);
+        Instant ts = exchangeMillis > 0 ? Instant.ofEpochMilli(exchangeMillis) : Instant.now();
+        BigDecimal ltp = BigDecimal.valueOf(buf.getLong(LTP_OFFSET) / divisor);
+        long volume = mode == MODE_LTP ? 0L : buf.getLong(VOLUME_OFFSET);
+        BigDecimal bid = BigDecimal.ZERO;
+        BigDecimal ask = BigDecimal.ZERO;
+
+        if (mode == MODE_SNAP_QUOTE) {
+            depth.clear();
+            int bids = 0, asks = 0;
+            for (int i = 0; i < 2 * MarketDepth.LEVELS; i++) {
+                int at = BEST_FIVE_OFFSET + i * BEST_FIVE_ENTRY;
+                boolean buy = buf.getShort(at) == 1;
+                long qty = buf.getLong(at + 2);
+                double price = buf.getLong(at + 10) / divisor;
+                int orders = buf.getShort(at + 18);
+                if (buy && bids < MarketDepth.LEVELS) depth.setBid(bids++, price, qty, orders);
+                else if (!buy && asks < MarketDepth.LEVELS) depth.setAsk(asks++, price, qty, orders);
+            }
+            depth.setTimestampMillis(ts.toEpochMilli());
+            bid = BigDecimal.valueOf(depth.bidPrice(0));
+            ask = BigDecimal.valueOf(depth.askPrice(0));
+        }
+        return new MarketDataTick(token, ltp, bid, ask, volume, ts);
+    }
+
+    private static String readToken(ByteBuffer buf) {
+        int len = 0;
+        while (len < TOKEN_LENGTH && buf.get(TOKEN_OFFSET + len) != 0) len++;
+        byte[] bytes = new byte[len];
+        buf.get(TOKEN_OFFSET, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private static WebSocketSession unwrap(WebSocketSession session) {
+        return session instanceof ConcurrentWebSocketSessionDecorator d ? d.getLastSession() : session;
+    }
+
+    private void publish(MarketDataTick tick) {
+        String token = tick.getInstrumentToken();
+
+        // 1. Push to Internal Service (for Algo Strategies)
+        marketDataService.pushTick(token, tick);
+
+        // 2. Broadcast to Frontend (for UI)
+        webSocketController.broadcastTick(token, tick);
+    }
+
     /**
      * Inner Handler to process incoming messages
      */
-    private class AngelSocketHandler extends TextWebSocketHandler {
+    private class AngelSocketHandler extends AbstractWebSocketHandler {
+        private final String clientCode;
+        // Reused for every SnapQuote on this connection; MarketDepthService copies out of it
+        private final MarketDepth depth = new MarketDepth();
+
+        AngelSocketHandler(String clientCode) {
+            this.clientCode = clientCode;
+        }
+
+        @Override
+        protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) {
+            try {
+                ByteBuffer payload = message.getPayload();
+                if (!payload.hasRemaining()) return;
+                MarketDataTick tick = parseBinary(payload, depth);
+                if (tick == null) return;
+                if (payload.get(payload.position()) == MODE_SNAP_QUOTE) {
+                    marketDepthService.update(tick.getInstrumentToken(), depth);
+                }
+                publish(tick);
+            } catch (Exception e) {
+                log.error("Error parsing binary tick", e);
+            }
+        }
+
         @Override
         public void handleTextMessage(WebSocketSession session, TextMessage message) {
             try {
-                // Angel sends binary mostly, but if Text, parse JSON
                 String payload = message.getPayload();
-                JsonNode node = objectMapper.readTree(payload);
-
-                // Parse Logic (Varies by Angel API version)
-                // Assuming standard JSON tick structure:
-                if (node.has("token") && node.has("ltp")) {
-                    String token = node.get("token").asText();
-                    BigDecimal price = new BigDecimal(node.get("ltp").asText());
-
-                    MarketDataTick tick = new MarketDataTick(
-                            token,
-                            price,
-                            BigDecimal.ZERO, // bid
-                            BigDecimal.ZERO, // ask
-                            0L,              // vol
-                            Instant.now()
-                    );
-
-                    // 1. Push to Internal Service (for Algo Strategies)
-                    marketDataService.pushTick(token, tick);
-
-                    // 2. Broadcast to Frontend (for UI)
-                    webSocketController.broadcastTick(token, tick);
-                }
+                MarketDataTick tick = parseTick(payload);
+                if (tick != null) publish(tick);
 
                 // Keep alive / Heartbeat handling
                 if (payload.contains("pong")) {
@@ -105,7 +406,16 @@ public class AngelOneWebSocketClient {
 
         @Override
         public void afterConnectionEstablished(WebSocketSession session) {
-            log.info("Angel Broker WebSocket Connected!");
+            WebSocketSession safe = new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MS, SEND_BUFFER_LIMIT);
+            sessions.put(clientCode, safe);
+            log.info("Angel Broker WebSocket Connected! Client {}, {} instruments", clientCode, subscriptions.size());
+            if (!subscriptions.isEmpty()) send(clientCode, safe, subscribeFrame(Map.copyOf(subscriptions)));
+        }
+
+        @Override
+        public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+            sessions.computeIfPresent(clientCode, (k, s) -> unwrap(s) == session ? null : s);
+            log.info("Angel Broker WebSocket for client {} closed: {}", clientCode, status);
         }
     }
 }
\ No newline at end of file
@@ -4,6 +4,8 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.myorg.trading.broker.api.*;
 import com.myorg.trading.broker.model.DhanCredentials;
+import com.myorg.trading.broker.resilience.BrokerResilience;
+import com.myorg.trading.config.BrokerHttpMetricsFilter;
 import com.myorg.trading.service.broker.BrokerAccountService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -25,15 +27,19 @@ public class DhanAdapter implements BrokerClient {
     private final WebClient webClient;
     private final BrokerAccountService brokerAccountService;
     private final ObjectMapper objectMapper;
+    private final BrokerResilience resilience;
 
     private static final String DHAN_BASE_URL = "https://api.dhan.co";
 
     public DhanAdapter(WebClient.Builder webClientBuilder,
+                       BrokerHttpMetricsFilter metricsFilter,
                        BrokerAccountService brokerAccountService,
-                       ObjectMapper objectMapper) {
-        this.webClient = webClientBuilder.baseUrl(DHAN_BASE_URL).build();
+                       ObjectMapper objectMapper,
+                       BrokerResilience resilience) {
+        this.webClient = webClientBuilder.clone().filter(metricsFilter).baseUrl(DHAN_BASE_URL).build();
         this.brokerAccountService = brokerAccountService;
         this.objectMapper = objectMapper;
+        this.resilience = resilience;
     }
 
     @Override
@@ -41,7 +47,8 @@ public class DhanAdapter implements BrokerClient {
 
     @Override
     public Set<BrokerCapability> capabilities() {
-        return Set.of(BrokerCapability.PLACE_ORDER, BrokerCapability.CANCEL_ORDER);
+        return Set.of(BrokerCapability.PLACE_ORDER, BrokerCapability.CANCEL_ORDER, BrokerCapability.MODIFY_ORDER,
+                BrokerCapability.ORDER_BOOK);
     }
 
     private Mono<DhanCredentials> getCredentials(String accountId) {
@@ -78,17 +85,75 @@ public class DhanAdapter implements BrokerClient {
     @Override
     public Mono<BrokerOrderResponse> placeOrder(String accountId, BrokerOrderRequest req) {
         return getCredentials(accountId)
-                .flatMap(creds -> webClient.post()
+                .flatMap(creds -> resilience.guard("dhan", "placeOrder", BrokerResilience.Kind.WRITE, () -> webClient.post()
                         .uri("/v2/orders")
                         .header("access-token", creds.getAccessToken().trim())
                         .header("Content-Type", "application/json")
                         .bodyValue(mapToDhanPayload(req, creds.getClientId()))
                         .retrieve()
-                        .bodyToMono(JsonNode.class)
+                        .bodyToMono(JsonNode.class))
                         .map(this::toBrokerOrderResponse)
                 );
     }
 
+    @Override
+    public Mono<BrokerOrderResponse> modifyOrder(String accountId, String brokerOrderId, BrokerOrderRequest amended) {
+        return getCredentials(accountId)
+                .flatMap(creds -> resilience.guard("dhan", "modifyOrder", BrokerResilience.Kind.WRITE, () -> webClient.put()
+                        .uri("/v2/orders/{orderId}", brokerOrderId)
+                        .header("access-token", creds.getAccessToken().trim())
+                        .header("Content-Type", "application/json")
+                        .bodyValue(mapToDhanModifyPayload(brokerOrderId, amended, creds.getClientId()))
+                        .retrieve()
+                        .bodyToMono(JsonNode.class))
+                        .map(this::toBrokerOrderResponse)
+                );
+    }
+
+    @Override
+    public Mono<Void> cancelOrder(String accountId, String brokerOrderId) {
+        return getCredentials(accountId)
+                .flatMap(creds -> resilience.guard("dhan", "cancelOrder", BrokerResilience.Kind.WRITE, () -> webClient.delete()
+                        .uri("/v2/orders/{orderId}", brokerOrderId)
+                        .header("access-token", creds.getAccessToken().trim())
+                        .retrieve()
+                        .bodyToMono(JsonNode.class)))
+                .then();
+    }
+
+    @Override
+    public Mono<BrokerOrderStatus> getOrderStatus(String accountId, String brokerOrderId) {
+        return getCredentials(accountId)
+                .flatMap(creds -> resilience.guard("dhan", "orderStatus", BrokerResilience.Kind.READ, () -> webClient.get()
+                        .uri("/v2/orders/{orderId}", brokerOrderId)
+                        .header("access-token", creds.getAccessToken().trim())
+                        .header("Content-Type", "application/json")
+                        .retrieve()
+                        .bodyToMono(JsonNode.class))
+                        .map(this::toBrokerOrderStatus)
+                );
+    }
+
+    @Override
+    public Mono<List<BrokerOrderStatus>> getOrderBook(String accountId) {
+        return getCredentials(accountId)
+                .flatMap(creds -> resilience.guard("dhan", "orderBook", BrokerResilience.Kind.READ, () -> webClient.get()
+                        .uri("/v2/orders")
+                        .header("access-token", creds.getAccessToken().trim())
+                        .header("Content-Type", "application/json")
+                        .retrieve()
+                        .bodyToMono(JsonNode.class))
+                        .map(root -> {
+                            if (!root.isArray()) return List.<BrokerOrderStatus>of();
+                            List<BrokerOrderStatus> orders = new ArrayList<>(root.size());
+                            for (JsonNode node : root) {
+                                orders.add(toBrokerOrderStatus(node));
+                            }
+                            return orders;
+                        })
+                );
+    }
+
     @Override
     public Mono<List<BrokerPosition>> getPositions(String accountId) {
         return getCredentials(accountId)
@@ -98,14 +163,14 @@ public class DhanAdapter implements BrokerClient {
     private Mono<List<BrokerPosition>> fetchPositionsInternal(DhanCredentials creds) {
         String token = creds.getAccessToken().trim();
         // Log simplified token for debugging
-        log.info("Dhan: Fetching positions for ClientID: {}", creds.getClientId());
-
-        return webClient.get()
-                .uri("/v2/positions")
-                .header("access-token", token)
-                .header("Content-Type", "application/json")
-                .retrieve()
-                .bodyToMono(JsonNode.class)
+        log.debug("Dhan: Fetching positions for ClientID: {}", creds.getClientId());
+
+        return resilience.guard("dhan", "positions", BrokerResilience.Kind.READ, () -> webClient.get()
+                        .uri("/v2/positions")
+                        .header("access-token", token)
+                        .header("Content-Type", "application/json")
+                        .retrieve()
+                        .bodyToMono(JsonNode.class))
                 .map(this::parsePositions)
                 .onErrorResume(e -> {
                     if(e instanceof WebClientResponseException wcre) {
@@ -115,9 +180,11 @@ public class DhanAdapter implements BrokerClient {
                 });
     }
 
-    private List<BrokerPosition> parsePositions(JsonNode rootNode) {
+    List<BrokerPosition> parsePositions(JsonNode rootNode) {
         // DEBUG LOG: Print what Dhan actually sent
-        log.info(">>> DHAN POSITIONS RAW RESPONSE: {}", rootNode.toString());
+        if (log.isDebugEnabled()) {
+            log.debug(">>> DHAN POSITIONS RAW RESPONSE: {}", rootNode);
+        }
 
         List<BrokerPosition> positions = new ArrayList<>();
         if (rootNode.isArray()) {
@@ -178,6 +245,7 @@ public class DhanAdapter implements BrokerClient {
         payload.put("validity", "DAY");
         payload.put("securityId", req.getSymbol());
         payload.put("quantity", req.getQuantity());
+        if (req.getClientOrderId() != null) payload.put("correlationId", req.getClientOrderId());
 
         if (req.getPrice() != null && req.getPrice().doubleValue() > 0) {
             payload.put("price", req.getPrice());
@@ -185,6 +253,42 @@ public class DhanAdapter implements BrokerClient {
         return payload;
     }
 
+    private Map<String, Object> mapToDhanModifyPayload(String brokerOrderId, BrokerOrderRequest req, String clientId) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("dhanClientId", clientId);
+        payload.put("orderId", brokerOrderId);
+        payload.put("orderType", req.getOrderType().name());
+        payload.put("validity", "DAY");
+        payload.put("quantity", req.getQuantity());
+        payload.put("price", req.getPrice() != null ? req.getPrice() : BigDecimal.ZERO);
+        return payload;
+    }
+
+    private BrokerOrderStatus toBrokerOrderStatus(JsonNode node) {
+        // Single-order lookups come back wrapped in an array
+        if (node.isArray()) {
+            node = node.path(0);
+        }
+        BrokerOrderStatus st = new BrokerOrderStatus();
+        st.setOrderId(node.path("orderId").asText());
+        st.setStatus(mapOrderStatus(node.path("orderStatus").asText()));
+        st.setFilledQuantity(new BigDecimal(node.path("filledQty").asInt(0)));
+        st.setRemainingQuantity(new BigDecimal(node.path("remainingQuantity").asInt(0)));
+        st.setAvgFillPrice(BigDecimal.valueOf(node.path("averageTradedPrice").asDouble(0.0)));
+        st.setClientOrderId(node.path("correlationId").asText(null));
+        return st;
+    }
+
+    private String mapOrderStatus(String dhanStatus) {
+        return switch (dhanStatus) {
+            case "TRADED" -> "FILLED";
+            case "PART_TRADED" -> "PARTIALLY_FILLED";
+            case "REJECTED" -> "REJECTED";
+            case "CANCELLED", "EXPIRED" -> "CANCELLED";
+            default -> "NEW"; // TRANSIT, PENDING
+        };
+    }
+
     private BrokerOrderResponse toBrokerOrderResponse(JsonNode root) {
         String orderId = root.path("orderId").asText();
         String status = root.path("orderStatus").asText();
@@ -1,6 +1,8 @@
 package com.myorg.trading.broker.adapters.fyers;
 
 import com.myorg.trading.broker.api.*;
+import com.myorg.trading.broker.resilience.BrokerResilience;
+import com.myorg.trading.config.BrokerHttpMetricsFilter;
 import com.myorg.trading.config.properties.FyersProperties;
 import com.myorg.trading.broker.token.TokenStore;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -11,6 +13,7 @@ import reactor.core.publisher.Mono;
 import reactor.core.publisher.Flux;
 
 import java.time.Instant;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
@@ -24,12 +27,14 @@ public class FyersAdapter implements BrokerClient {
     private final WebClient webClient;
     private final FyersProperties props;
     private final TokenStore<FyersAuthResponse> tokenStore;
+    private final BrokerResilience resilience;
 
-    public FyersAdapter(WebClient.Builder webClientBuilder, FyersProperties props,
-                        TokenStore<FyersAuthResponse> tokenStore) {
-        this.webClient = webClientBuilder.baseUrl(props.getBaseUrl()).build();
+    public FyersAdapter(WebClient.Builder webClientBuilder, BrokerHttpMetricsFilter metricsFilter, FyersProperties props,
+                        TokenStore<FyersAuthResponse> tokenStore, BrokerResilience resilience) {
+        this.webClient = webClientBuilder.clone().filter(metricsFilter).baseUrl(props.getBaseUrl()).build();
         this.props = props;
         this.tokenStore = tokenStore;
+        this.resilience = resilience;
     }
 
     @Override
@@ -37,61 +42,83 @@ public class FyersAdapter implements BrokerClient {
 
     @Override
     public Set<BrokerCapability> capabilities() {
-        return Set.of(BrokerCapability.PLACE_ORDER, BrokerCapability.MARKET_DATA_STREAM, BrokerCapability.OCO);
+        return Set.of(BrokerCapability.PLACE_ORDER, BrokerCapability.CANCEL_ORDER, BrokerCapability.MODIFY_ORDER,
+                BrokerCapability.MARKET_DATA_STREAM, BrokerCapability.OCO);
     }
 
     private Mono<FyersAuthResponse> requestToken(String accountId) {
         // Fyers token endpoint specifics vary; adjust payload as per their docs
         Map<String, Object> body = Map.of("appId", props.getApiKey());
-        return webClient.post()
+        return resilience.guard("fyers", "login", BrokerResilience.Kind.AUTH, () -> webClient.post()
                 .uri(props.getAuthPath())
                 .bodyValue(body)
                 .retrieve()
-                .bodyToMono(FyersAuthResponse.class)
+                .bodyToMono(FyersAuthResponse.class))
                 .flatMap(r -> tokenStore.saveToken(accountId, r).thenReturn(r));
     }
 
+    /**
+     * The account's session token, logging in for it on first use. Each account has its own token, so an
+     * order is always cancelled or amended with the session of the account that placed it.
+     */
     @Override
-    public Mono<BrokerAuthToken> authenticateIfNeeded() {
-        return requestToken("default")
+    public Mono<BrokerAuthToken> authenticateIfNeeded(String accountId) {
+        return tokenStore.getToken(accountId)
+                .switchIfEmpty(Mono.defer(() -> requestToken(accountId)))
                 .map(r -> new BrokerAuthToken(r.getAccessToken(), r.getRefreshToken(), r.getTokenType(),
-                        Instant.now().plusSeconds(r.getExpiresIn())));
+                        r.getExpiresIn() != null ? Instant.now().plusSeconds(r.getExpiresIn()) : null));
     }
 
     @Override
-    public Mono<BrokerOrderResponse> placeOrder(BrokerOrderRequest req) {
-        return authenticateIfNeeded()
-                .flatMap(auth -> webClient.post()
+    public Mono<BrokerOrderResponse> placeOrder(String accountId, BrokerOrderRequest req) {
+        return authenticateIfNeeded(accountId)
+                .flatMap(auth -> resilience.guard("fyers", "placeOrder", BrokerResilience.Kind.WRITE, () -> webClient.post()
                         .uri(props.getPlaceOrderPath())
                         .header(HttpHeaders.AUTHORIZATION, "Bearer " + auth.getAccessToken())
                         .bodyValue(mapToFyersPayload(req))
                         .retrieve()
-                        .bodyToMono(FyersOrderResponse.class)
+                        .bodyToMono(FyersOrderResponse.class))
                         .map(this::toBrokerOrderResponse)
                 );
     }
 
     @Override
-    public Mono<BrokerOrderStatus> getOrderStatus(String brokerOrderId) {
-        return authenticateIfNeeded()
-                .flatMap(auth -> webClient.get()
+    public Mono<BrokerOrderStatus> getOrderStatus(String accountId, String brokerOrderId) {
+        return authenticateIfNeeded(accountId)
+                .flatMap(auth -> resilience.guard("fyers", "orderStatus", BrokerResilience.Kind.READ, () -> webClient.get()
                         .uri(uriBuilder -> uriBuilder.path(props.getOrderStatusPath()).queryParam("id", brokerOrderId).build())
                         .header(HttpHeaders.AUTHORIZATION, "Bearer " + auth.getAccessToken())
                         .retrieve()
-                        .bodyToMono(FyersOrderStatusResponse.class)
+                        .bodyToMono(FyersOrderStatusResponse.class))
                         .map(this::toBrokerOrderStatus)
                 );
     }
 
     @Override
-    public Mono<Void> cancelOrder(String brokerOrderId) {
-        return authenticateIfNeeded()
-                .flatMap(auth -> webClient.post()
+    public Mono<Void> cancelOrder(String accountId, String brokerOrderId) {
+        return authenticateIfNeeded(accountId)
+                .flatMap(auth -> resilience.guard("fyers", "cancelOrder", BrokerResilience.Kind.WRITE, () -> webClient.post()
                         .uri(props.getCancelOrderPath())
                         .header(HttpHeaders.AUTHORIZATION, "Bearer " + auth.getAccessToken())
                         .bodyValue(Map.of("id", brokerOrderId))
                         .retrieve()
-                        .bodyToMono(Void.class)
+                        .bodyToMono(Void.class))
+                );
+    }
+
+    /**
+     * Fyers amends in place with PATCH on the sync orders endpoint; only qty, type and limitPrice can change.
+     */
+    @Override
+    public Mono<BrokerOrderResponse> modifyOrder(String accountId, String brokerOrderId, BrokerOrderRequest amended) {
+        return authenticateIfNeeded(accountId)
+                .flatMap(auth -> resilience.guard("fyers", "modifyOrder", BrokerResilience.Kind.WRITE, () -> webClient.patch()
+                        .uri(props.getModifyOrderPath())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + auth.getAccessToken())
+                        .bodyValue(mapToFyersModifyPayload(brokerOrderId, amended))
+                        .retrieve()
+                        .bodyToMono(FyersOrderResponse.class))
+                        .map(this::toBrokerOrderResponse)
                 );
     }
 
@@ -113,6 +140,18 @@ public class FyersAdapter implements BrokerClient {
         );
     }
 
+    private Map<String, Object> mapToFyersModifyPayload(String brokerOrderId, BrokerOrderRequest req) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("id", brokerOrderId);
+        body.put("qty", req.getQuantity());
+        // Fyers order types: 1 = limit, 2 = market
+        body.put("type", req.getOrderType() == OrderType.MARKET ? 2 : 1);
+        if (req.getOrderType() != OrderType.MARKET && req.getPrice() != null) {
+            body.put("limitPrice", req.getPrice());
+        }
+        return body;
+    }
+
     private BrokerOrderResponse toBrokerOrderResponse(FyersOrderResponse r) {
         if (r == null) return new BrokerOrderResponse(null, "REJECTED", "empty-response", Map.of());
         return new BrokerOrderResponse(r.getOrderId(), r.getStatus(), r.getMessage(), r.getRaw());
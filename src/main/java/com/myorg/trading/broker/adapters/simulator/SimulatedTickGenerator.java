@@ -0,0 +1,152 @@
+package com.myorg.trading.broker.adapters.simulator;
+
+import com.myorg.trading.broker.api.MarketDataTick;
+import com.myorg.trading.config.properties.SimulatorProperties;
+import com.myorg.trading.service.cluster.FeedLeaderElection;
+import com.myorg.trading.service.marketdata.MarketDataService;
+import com.myorg.trading.service.marketdata.depth.MarketDepth;
+import com.myorg.trading.service.marketdata.depth.MarketDepthService;
+import com.myorg.trading.web.MarketDataWebSocketController;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Synthetic feed for N instruments at M ticks/sec each, routed exactly like a broker feed
+ * (MarketDataService + /topic/market/{token}). Runs on one dedicated thread; when it falls behind it
+ * emits the backlog in a burst (capped at one second's worth) rather than drifting.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "broker.simulator", name = "enabled", havingValue = "true")
+public class SimulatedTickGenerator {
+
+    public static final String FEED = "simulator";
+    private static final long MAX_BURST_NANOS = 1_000_000_000L;
+    private static final double DEPTH_TICK_SIZE = 0.05;
+
+    private final SimulatorProperties props;
+    private final MarketDataService marketDataService;
+    private final MarketDepthService marketDepthService;
+    private final MarketDataWebSocketController webSocketController;
+    private final FeedLeaderElection feedLeaderElection;
+
+    private volatile Thread worker;
+
+    public SimulatedTickGenerator(SimulatorProperties props,
+                                  MarketDataService marketDataService,
+                                  MarketDepthService marketDepthService,
+                                  MarketDataWebSocketController webSocketController,
+                                  FeedLeaderElection feedLeaderElection) {
+        this.props = props;
+        this.marketDataService = marketDataService;
+        this.marketDepthService = marketDepthService;
+        this.webSocketController = webSocketController;
+        this.feedLeaderElection = feedLeaderElection;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        SimulatorProperties.Ticks cfg = props.getTicks();
+        if (cfg.getInstruments() <= 0 || cfg.getTicksPerSecond() <= 0) return;
+        // In a cluster only the feed leader generates; the others get the ticks through the broker relay
+        feedLeaderElection.participate(FEED, () -> startWorker(cfg), this::stop);
+    }
+
+    private synchronized void startWorker(SimulatorProperties.Ticks cfg) {
+        if (worker != null) return;
+        worker = new Thread(() -> run(cfg), "simulator-ticks");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("Simulated feed: {} instruments x {} ticks/s (tokens {}..{})", cfg.getInstruments(),
+                cfg.getTicksPerSecond(), cfg.getFirstToken(), cfg.getFirstToken() + cfg.getInstruments() - 1);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        Thread t = worker;
+        worker = null;
+        if (t != null) t.interrupt();
+    }
+
+    private void run(SimulatorProperties.Ticks cfg) {
+        int n = cfg.getInstruments();
+        String[] tokens = new String[n];
+        double[] prices = new double[n];
+        MarketDepth[] books = cfg.isDepth() ? new MarketDepth[n] : null;
+        for (int i = 0; i < n; i++) {
+            tokens[i] = Long.toString(cfg.getFirstToken() + i);
+            prices[i] = cfg.getBasePrice();
+            if (books != null) books[i] = new MarketDepth();
+        }
+        SplittableRandom rnd = new SplittableRandom(42);
+        double ratePerNano = n * cfg.getTicksPerSecond() / 1e9;
+        long start = System.nanoTime();
+        long emitted = 0;
+        int next = 0;
+
+        while (worker == Thread.currentThread()) {
+            long now = System.nanoTime();
+            long due = (long) ((now - start) * ratePerNano);
+            long maxBacklog = (long) (MAX_BURST_NANOS * ratePerNano) + 1;
+            if (due - emitted > maxBacklog) emitted = due - maxBacklog;
+
+            Instant ts = due > emitted ? Instant.now() : null;
+            for (; emitted < due; emitted++) {
+                int i = next;
+                next = next + 1 == n ? 0 : next + 1;
+                double p = prices[i] * (1 + cfg.getVolatility() * gaussian(rnd));
+                prices[i] = Math.max(0.05, p);
+
+                BigDecimal ltp = BigDecimal.valueOf(prices[i]).setScale(2, RoundingMode.HALF_UP);
+                BigDecimal half = ltp.multiply(BigDecimal.valueOf(0.0001)).setScale(2, RoundingMode.UP);
+                MarketDataTick tick = new MarketDataTick(tokens[i], ltp, ltp.subtract(half), ltp.add(half),
+                        1 + rnd.nextInt(500), ts);
+                marketDataService.pushTick(tokens[i], tick);
+                webSocketController.broadcastTick(tokens[i], tick);
+                if (books != null) {
+                    updateDepth(tokens[i], books[i], tick.getBid().doubleValue(), tick.getAsk().doubleValue(), rnd);
+                }
+            }
+            LockSupport.parkNanos(Math.max(50_000L, (long) (1 / ratePerNano)));
+        }
+    }
+
+    /**
+     * Re-price the whole book when the touch moved, otherwise change the size on one random level,
+     * which is roughly how a real book evolves between quotes.
+     */
+    private void updateDepth(String token, MarketDepth book, double bid, double ask, SplittableRandom rnd) {
+        if (book.bidPrice(0) != bid || book.askPrice(0) != ask) {
+            for (int l = 0; l < MarketDepth.LEVELS; l++) {
+                book.setBid(l, roundToPaise(bid - l * DEPTH_TICK_SIZE), 1 + rnd.nextInt(2000), 1 + rnd.nextInt(20));
+                book.setAsk(l, roundToPaise(ask + l * DEPTH_TICK_SIZE), 1 + rnd.nextInt(2000), 1 + rnd.nextInt(20));
+            }
+        } else {
+            int l = rnd.nextInt(MarketDepth.LEVELS);
+            if (rnd.nextBoolean()) book.setBid(l, book.bidPrice(l), 1 + rnd.nextInt(2000), book.bidOrders(l));
+            else book.setAsk(l, book.askPrice(l), 1 + rnd.nextInt(2000), book.askOrders(l));
+        }
+        book.setTimestampMillis(System.currentTimeMillis());
+        marketDepthService.update(token, book);
+    }
+
+    private static double roundToPaise(double price) {
+        return Math.round(price * 100) / 100.0;
+    }
+
+    // Box-Muller; SplittableRandom has no nextGaussian on JDK 17
+    private static double gaussian(SplittableRandom rnd) {
+        double u = 1 - rnd.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * rnd.nextDouble());
+    }
+}
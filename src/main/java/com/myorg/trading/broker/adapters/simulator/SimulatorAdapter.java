@@ -0,0 +1,318 @@
+package com.myorg.trading.broker.adapters.simulator;
+
+import com.myorg.trading.broker.api.*;
+import com.myorg.trading.config.properties.SimulatorProperties;
+import com.myorg.trading.service.marketdata.MarketDataService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * In-process broker for load testing and offline development. Accepts any credentials, answers every call
+ * after a simulated latency, rejects a configurable share of orders and fills the rest from the synthetic
+ * feed (or the limit price). Enabled with broker.simulator.enabled=true.
+ */
+@Slf4j
+@Component("simulator")
+@ConditionalOnProperty(prefix = "broker.simulator", name = "enabled", havingValue = "true")
+public class SimulatorAdapter implements BrokerClient {
+
+    private final SimulatorProperties props;
+    private final MarketDataService marketDataService;
+
+    private final AtomicLong orderSeq = new AtomicLong(System.currentTimeMillis() % 1_000_000 * 1000);
+    // accountId -> brokerOrderId -> order
+    private final Map<String, Map<String, SimOrder>> orders = new ConcurrentHashMap<>();
+    // accountId -> symbol -> position
+    private final Map<String, Map<String, SimPosition>> positions = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService fillScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "simulator-fills");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public SimulatorAdapter(SimulatorProperties props, MarketDataService marketDataService) {
+        this.props = props;
+        this.marketDataService = marketDataService;
+        log.warn("Broker simulator enabled: orders on 'simulator' accounts never reach a real exchange");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fillScheduler.shutdownNow();
+    }
+
+    @Override
+    public String getBrokerId() {
+        return "simulator";
+    }
+
+    @Override
+    public Set<BrokerCapability> capabilities() {
+        return Set.of(BrokerCapability.PLACE_ORDER, BrokerCapability.CANCEL_ORDER, BrokerCapability.MODIFY_ORDER,
+                BrokerCapability.ORDER_BOOK, BrokerCapability.GET_POSITIONS, BrokerCapability.MARKET_DATA_STREAM);
+    }
+
+    @Override
+    public Mono<Boolean> validateCredentials(String rawCredentialsJson) {
+        return Mono.just(true);
+    }
+
+    @Override
+    public Mono<BrokerAuthToken> authenticateIfNeeded(String accountId) {
+        return delayed(() -> new BrokerAuthToken("sim-" + accountId, null, "Bearer", Instant.now().plus(Duration.ofDays(1))));
+    }
+
+    @Override
+    public Mono<BrokerOrderResponse> placeOrder(String accountId, BrokerOrderRequest req) {
+        return delayed(() -> {
+            ThreadLocalRandom rnd = ThreadLocalRandom.current();
+            if (rnd.nextDouble() < props.getRejectionRate()) {
+                return new BrokerOrderResponse(null, "REJECTED", "Simulated rejection", null);
+            }
+            String id = "SIM" + orderSeq.incrementAndGet();
+            SimOrder o = new SimOrder(id, req.getClientOrderId(), req.getSymbol(), req.getSide() == OrderSide.BUY,
+                    req.getQuantity() != null ? req.getQuantity() : BigDecimal.ONE, req.getPrice());
+            orders.computeIfAbsent(accountId, k -> new ConcurrentHashMap<>()).put(id, o);
+
+            SimulatorProperties.Fills fills = props.getFills();
+            if (rnd.nextDouble() < fills.getProbability()) {
+                boolean partial = rnd.nextDouble() < fills.getPartialRate();
+                fillScheduler.schedule(() -> fill(accountId, o, partial), fills.getDelayMs(), TimeUnit.MILLISECONDS);
+            }
+            return new BrokerOrderResponse(id, "PLACED", "Simulated order accepted", null);
+        });
+    }
+
+    @Override
+    public Mono<BrokerOrderStatus> getOrderStatus(String accountId, String brokerOrderId) {
+        return delayed(() -> {
+            SimOrder o = orders.getOrDefault(accountId, Map.of()).get(brokerOrderId);
+            if (o == null) throw new IllegalArgumentException("Unknown simulated order: " + brokerOrderId);
+            return o.toStatus();
+        });
+    }
+
+    @Override
+    public Mono<List<BrokerOrderStatus>> getOrderBook(String accountId) {
+        return delayed(() -> {
+            List<BrokerOrderStatus> out = new ArrayList<>();
+            orders.getOrDefault(accountId, Map.of()).values().forEach(o -> out.add(o.toStatus()));
+            return out;
+        });
+    }
+
+    @Override
+    public Mono<Void> cancelOrder(String accountId, String brokerOrderId) {
+        return delayed(() -> {
+            SimOrder o = orders.getOrDefault(accountId, Map.of()).get(brokerOrderId);
+            if (o == null) throw new IllegalArgumentException("Unknown simulated order: " + brokerOrderId);
+            synchronized (o) {
+                if (!o.isTerminal()) {
+                    o.status = "CANCELLED";
+                    o.updatedAt = Instant.now();
+                    scheduleEviction(accountId, o);
+                }
+            }
+            return Boolean.TRUE;
+        }).then();
+    }
+
+    @Override
+    public Mono<BrokerOrderResponse> modifyOrder(String accountId, String brokerOrderId, BrokerOrderRequest amended) {
+        return delayed(() -> {
+            SimOrder o = orders.getOrDefault(accountId, Map.of()).get(brokerOrderId);
+            if (o == null) throw new IllegalArgumentException("Unknown simulated order: " + brokerOrderId);
+            synchronized (o) {
+                if (o.isTerminal()) {
+                    return new BrokerOrderResponse(null, "REJECTED", "Order is already " + o.status, null);
+                }
+                BigDecimal qty = amended.getQuantity() != null ? amended.getQuantity() : o.quantity;
+                if (qty.compareTo(o.filled) < 0) {
+                    return new BrokerOrderResponse(null, "REJECTED", "Quantity below filled quantity " + o.filled, null);
+                }
+                o.quantity = qty;
+                o.limitPrice = amended.getPrice();
+                o.updatedAt = Instant.now();
+            }
+            return new BrokerOrderResponse(brokerOrderId, "MODIFIED", "Simulated order modified", null);
+        });
+    }
+
+    @Override
+    public Mono<List<BrokerPosition>> getPositions(String accountId) {
+        return delayed(() -> {
+            List<BrokerPosition> out = new ArrayList<>();
+            positions.getOrDefault(accountId, Map.of()).forEach((symbol, p) -> {
+                synchronized (p) {
+                    BigDecimal ltp = lastPrice(symbol, p.avgPrice);
+                    out.add(BrokerPosition.builder()
+                            .symbol(symbol)
+                            .securityId(symbol)
+                            .exchange("SIM")
+                            .productType("INTRADAY")
+                            .netQuantity(p.netQty)
+                            .avgPrice(p.avgPrice)
+                            .ltp(ltp)
+                            .pnl(p.realized.add(ltp.subtract(p.avgPrice).multiply(p.netQty)))
+                            .buyQty(p.buyQty)
+                            .sellQty(p.sellQty)
+                            .build());
+                }
+            });
+            return out;
+        });
+    }
+
+    @Override
+    public Flux<MarketDataTick> marketDataStream(String accountId, String instrumentToken) {
+        return marketDataService.streamFor(instrumentToken);
+    }
+
+    private void fill(String accountId, SimOrder o, boolean partial) {
+        synchronized (o) {
+            if (o.isTerminal()) return;
+            BigDecimal qty = partial && o.filled.signum() == 0
+                    ? o.quantity.divide(BigDecimal.valueOf(2), 0, RoundingMode.DOWN).max(BigDecimal.ONE)
+                    : o.quantity.subtract(o.filled);
+            BigDecimal px = fillPrice(o);
+
+            BigDecimal newFilled = o.filled.add(qty);
+            o.avgFillPrice = o.filled.signum() == 0 ? px
+                    : o.avgFillPrice.multiply(o.filled).add(px.multiply(qty)).divide(newFilled, 4, RoundingMode.HALF_UP);
+            o.filled = newFilled;
+            o.status = o.filled.compareTo(o.quantity) >= 0 ? "FILLED" : "PARTIALLY_FILLED";
+            o.updatedAt = Instant.now();
+            applyToPosition(accountId, o.symbol, o.buy, qty, px);
+
+            if ("PARTIALLY_FILLED".equals(o.status)) {
+                fillScheduler.schedule(() -> fill(accountId, o, false), props.getFills().getDelayMs(), TimeUnit.MILLISECONDS);
+            } else {
+                scheduleEviction(accountId, o);
+            }
+        }
+    }
+
+    private BigDecimal fillPrice(SimOrder o) {
+        BigDecimal base = o.limitPrice != null && o.limitPrice.signum() > 0 ? o.limitPrice : lastPrice(o.symbol, BigDecimal.valueOf(100));
+        double slip = props.getFills().getSlippageBps() / 10_000.0 * ThreadLocalRandom.current().nextDouble();
+        double adj = o.buy ? 1 + slip : 1 - slip;
+        return base.multiply(BigDecimal.valueOf(adj)).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private void applyToPosition(String accountId, String symbol, boolean buy, BigDecimal qty, BigDecimal px) {
+        SimPosition p = positions.computeIfAbsent(accountId, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(symbol, k -> new SimPosition());
+        synchronized (p) {
+            BigDecimal signed = buy ? qty : qty.negate();
+            if (buy) p.buyQty = p.buyQty.add(qty);
+            else p.sellQty = p.sellQty.add(qty);
+
+            if (p.netQty.signum() == 0 || p.netQty.signum() == signed.signum()) {
+                BigDecimal newQty = p.netQty.add(signed);
+                p.avgPrice = p.avgPrice.multiply(p.netQty.abs()).add(px.multiply(qty))
+                        .divide(newQty.abs(), 4, RoundingMode.HALF_UP);
+                p.netQty = newQty;
+            } else {
+                BigDecimal closing = p.netQty.abs().min(qty);
+                p.realized = p.realized.add(px.subtract(p.avgPrice).multiply(closing)
+                        .multiply(BigDecimal.valueOf(p.netQty.signum())));
+                p.netQty = p.netQty.add(signed);
+                if (p.netQty.signum() == 0) p.avgPrice = BigDecimal.ZERO;
+                else if (p.netQty.signum() == signed.signum()) p.avgPrice = px;
+            }
+        }
+    }
+
+    private void scheduleEviction(String accountId, SimOrder o) {
+        fillScheduler.schedule(() -> orders.getOrDefault(accountId, Map.of()).remove(o.id),
+                props.getFills().getRetentionMs(), TimeUnit.MILLISECONDS);
+    }
+
+    private BigDecimal lastPrice(String symbol, BigDecimal fallback) {
+        MarketDataTick t = marketDataService.lastTick(symbol);
+        return t != null && t.getLastPrice() != null ? t.getLastPrice() : fallback;
+    }
+
+    /**
+     * Run the call after a latency drawn from the configured distribution, off the caller's thread.
+     */
+    private <T> Mono<T> delayed(Supplier<T> call) {
+        return Mono.delay(Duration.ofNanos(sampleLatencyNanos())).map(x -> call.get());
+    }
+
+    long sampleLatencyNanos() {
+        SimulatorProperties.Latency l = props.getLatency();
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        double ms = switch (l.getDistribution()) {
+            case FIXED -> l.getMedianMs();
+            case UNIFORM -> l.getMinMs() + rnd.nextDouble() * Math.max(0, l.getMaxMs() - l.getMinMs());
+            case LOGNORMAL -> {
+                // median = e^mu, p99 = e^(mu + 2.326 sigma)
+                double mu = Math.log(Math.max(l.getMedianMs(), 0.001));
+                double sigma = Math.max(0, Math.log(Math.max(l.getP99Ms(), l.getMedianMs()) / Math.max(l.getMedianMs(), 0.001)) / 2.326);
+                yield Math.exp(mu + sigma * rnd.nextGaussian());
+            }
+        };
+        return (long) (Math.max(0, ms) * 1_000_000);
+    }
+
+    private static final class SimOrder {
+        final String id;
+        final String clientOrderId;
+        final String symbol;
+        final boolean buy;
+        volatile BigDecimal quantity;
+        volatile BigDecimal limitPrice;
+        final Instant createdAt = Instant.now();
+        volatile String status = "NEW";
+        volatile BigDecimal filled = BigDecimal.ZERO;
+        volatile BigDecimal avgFillPrice;
+        volatile Instant updatedAt = createdAt;
+
+        SimOrder(String id, String clientOrderId, String symbol, boolean buy, BigDecimal quantity, BigDecimal limitPrice) {
+            this.id = id;
+            this.clientOrderId = clientOrderId;
+            this.symbol = symbol;
+            this.buy = buy;
+            this.quantity = quantity;
+            this.limitPrice = limitPrice;
+        }
+
+        boolean isTerminal() {
+            return "FILLED".equals(status) || "CANCELLED".equals(status);
+        }
+
+        synchronized BrokerOrderStatus toStatus() {
+            return new BrokerOrderStatus(id, status, filled, quantity.subtract(filled), avgFillPrice, createdAt, updatedAt,
+                    clientOrderId);
+        }
+    }
+
+    private static final class SimPosition {
+        BigDecimal netQty = BigDecimal.ZERO;
+        BigDecimal avgPrice = BigDecimal.ZERO;
+        BigDecimal realized = BigDecimal.ZERO;
+        BigDecimal buyQty = BigDecimal.ZERO;
+        BigDecimal sellQty = BigDecimal.ZERO;
+    }
+}
@@ -37,6 +37,26 @@ public interface BrokerClient {
                 "cancelOrder() not implemented for broker: " + getBrokerId()));
     }
 
+    /**
+     * Amend a live order in place (MODIFY_ORDER capability). {@code amended} is the complete order as it
+     * should stand afterwards (the original placement request with the new quantity / price / type), so
+     * adapters can build the same payload they place with. Brokers without native modify are handled by
+     * OrderModificationService with a cancel-replace.
+     */
+    default Mono<BrokerOrderResponse> modifyOrder(String accountId, String brokerOrderId, BrokerOrderRequest amended) {
+        return Mono.error(new UnsupportedOperationException(
+                "modifyOrder() not implemented for broker: " + getBrokerId()));
+    }
+
+    /**
+     * Fetch the status of every order on the account in a single call (ORDER_BOOK capability).
+     * Lets pollers refresh all open orders of an account with one round-trip instead of one per order.
+     */
+    default Mono<List<BrokerOrderStatus>> getOrderBook(String accountId) {
+        return Mono.error(new UnsupportedOperationException(
+                "getOrderBook() not implemented for broker: " + getBrokerId()));
+    }
+
     /**
      * NEW: Fetch open positions (Netwise) for the specific account.
      */
@@ -18,4 +18,5 @@ public class BrokerOrderStatus {
     private BigDecimal avgFillPrice;
     private Instant createdAt;
     private Instant updatedAt;
+    private String clientOrderId;         // tag the order was placed with, where the broker echoes it
 }
@@ -0,0 +1,159 @@
+package com.myorg.trading.broker.resilience;
+
+import com.myorg.trading.config.properties.BrokerResilienceProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Guards outbound broker calls. Every call gets a deadline and goes through a circuit breaker for its
+ * (broker, endpoint), so a broker that is down or has become slow fails fast with
+ * {@link BrokerUnavailableException} instead of tying up threads blocked on it.
+ *
+ * Reads (positions, order book, history) are idempotent, so they also get a hedged backup request when
+ * the first is slower than the endpoint's recent p95, and a couple of jittered retries on transport
+ * errors, timeouts, 5xx and 429. Writes are never hedged or retried: a second order placement could
+ * double a position. Logins are retried but not hedged.
+ *
+ * Breakers are per endpoint, shared by every account on the broker, so a 429 does not count against
+ * one: brokers throttle per account, and one account hitting its rate limit must not cut the others off.
+ */
+@Component
+public class BrokerResilience {
+
+    public enum Kind { READ, WRITE, AUTH }
+
+    private final BrokerResilienceProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public BrokerResilience(BrokerResilienceProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Run {@code call} under the policy for {@code kind}. The supplier is invoked once per attempt, so it
+     * must build a fresh request each time (a WebClient chain does).
+     */
+    public <T> Mono<T> guard(String brokerId, String endpoint, Kind kind, Supplier<Mono<T>> call) {
+        Endpoint ep = endpoints.computeIfAbsent(brokerId + " " + endpoint, k -> new Endpoint(brokerId, endpoint));
+        Duration timeout = Duration.ofMillis(kind == Kind.WRITE ? properties.getWriteTimeoutMs() : properties.getReadTimeoutMs());
+        Mono<T> attempt = Mono.defer(() -> attempt(ep, call, timeout));
+
+        Mono<T> guarded = kind == Kind.READ && properties.getHedge().isEnabled() ? hedged(ep, attempt) : attempt;
+        if (kind == Kind.WRITE || properties.getRetry().getMaxAttempts() <= 0) return guarded;
+
+        BrokerResilienceProperties.Retry retry = properties.getRetry();
+        return guarded.retryWhen(Retry.backoff(retry.getMaxAttempts(), Duration.ofMillis(retry.getBackoffMs()))
+                .maxBackoff(Duration.ofMillis(retry.getMaxBackoffMs()))
+                .jitter(retry.getJitter())
+                .filter(BrokerResilience::isRetryable)
+                .doBeforeRetry(s -> ep.retries.increment())
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    private <T> Mono<T> attempt(Endpoint ep, Supplier<Mono<T>> call, Duration timeout) {
+        long start = System.nanoTime();
+        if (!ep.breaker.tryAcquire(start)) {
+            ep.rejected.increment();
+            return Mono.error(new BrokerUnavailableException(ep.brokerId, ep.endpoint));
+        }
+        return call.get()
+                .timeout(timeout)
+                .doOnSuccess(v -> ep.breaker.record(System.nanoTime() - start, false, System.nanoTime()))
+                .doOnError(e -> ep.breaker.record(System.nanoTime() - start, isBrokerFault(e), System.nanoTime()))
+                .doOnCancel(() -> ep.breaker.cancelled());
+    }
+
+    /**
+     * Race the call against a backup started after the hedge delay, if the hedge budget allows one.
+     * The primary's outcome (value or error) always counts; a failed backup just leaves the primary
+     * to finish, which it will since every attempt has a deadline.
+     */
+    private <T> Mono<T> hedged(Endpoint ep, Mono<T> attempt) {
+        BrokerResilienceProperties.Hedge hedge = properties.getHedge();
+        ep.creditHedge(hedge.getBudgetRatio());
+        long p95 = ep.breaker.p95Nanos();
+        long delayMs = p95 < 0 ? hedge.getMaxDelayMs()
+                : Math.min(hedge.getMaxDelayMs(), Math.max(hedge.getMinDelayMs(), p95 / 1_000_000));
+
+        Mono<T> backup = Mono.delay(Duration.ofMillis(delayMs))
+                .flatMap(tick -> {
+                    if (!ep.tryHedge()) return Mono.<T>never();
+                    ep.hedges.increment();
+                    return attempt.onErrorResume(e -> Mono.never());
+                });
+        return Mono.firstWithSignal(attempt, backup);
+    }
+
+    /**
+     * Whether an error says something about the broker as a whole (as opposed to this request or this
+     * account): transport errors, timeouts and server errors. Only these count against the breaker.
+     */
+    static boolean isBrokerFault(Throwable error) {
+        Throwable e = Exceptions.unwrap(error);
+        if (e instanceof WebClientResponseException w) return w.getStatusCode().is5xxServerError();
+        return e instanceof WebClientRequestException || e instanceof TimeoutException;
+    }
+
+    /**
+     * What reads and logins are retried on: broker faults, plus throttling, which clears after a backoff.
+     */
+    static boolean isRetryable(Throwable error) {
+        Throwable e = Exceptions.unwrap(error);
+        if (e instanceof WebClientResponseException w && w.getStatusCode().value() == 429) return true;
+        return isBrokerFault(e);
+    }
+
+    private final class Endpoint {
+        final String brokerId;
+        final String endpoint;
+        final CircuitBreaker breaker;
+        final Counter hedges;
+        final Counter retries;
+        final Counter rejected;
+        // Hedges earned: each read adds budgetRatio, each hedge spends one
+        private double hedgeCredit;
+
+        Endpoint(String brokerId, String endpoint) {
+            this.brokerId = brokerId;
+            this.endpoint = endpoint;
+            this.breaker = new CircuitBreaker(properties.getBreaker());
+            this.hedges = counter("trading.broker.hedges");
+            this.retries = counter("trading.broker.retries");
+            this.rejected = counter("trading.broker.rejected");
+            Gauge.builder("trading.broker.breaker.state", breaker, b -> b.state().ordinal())
+                    .description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+                    .tag("broker", brokerId)
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry);
+        }
+
+        private Counter counter(String name) {
+            return Counter.builder(name).tag("broker", brokerId).tag("endpoint", endpoint).register(meterRegistry);
+        }
+
+        synchronized void creditHedge(double ratio) {
+            hedgeCredit = Math.min(10, hedgeCredit + ratio);
+        }
+
+        synchronized boolean tryHedge() {
+            if (hedgeCredit < 1) return false;
+            hedgeCredit -= 1;
+            return true;
+        }
+    }
+}
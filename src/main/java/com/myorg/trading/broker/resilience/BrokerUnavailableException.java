@@ -0,0 +1,30 @@
+package com.myorg.trading.broker.resilience;
+
+/**
+ * A broker endpoint's circuit breaker is open, so the call was not attempted.
+ */
+public class BrokerUnavailableException extends RuntimeException {
+
+    private final String brokerId;
+    private final String endpoint;
+
+    public BrokerUnavailableException(String brokerId, String endpoint) {
+        super("Broker " + brokerId + " is unavailable (" + endpoint + " circuit open)");
+        this.brokerId = brokerId;
+        this.endpoint = endpoint;
+    }
+
+    public String getBrokerId() {
+        return brokerId;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    // Thrown for every call while a breaker is open; skip the stack walk
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
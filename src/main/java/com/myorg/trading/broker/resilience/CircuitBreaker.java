@@ -0,0 +1,112 @@
+package com.myorg.trading.broker.resilience;
+
+import com.myorg.trading.config.properties.BrokerResilienceProperties;
+
+import java.util.Arrays;
+
+/**
+ * Count-based breaker for one (broker, endpoint). A call counts as bad if it failed or took longer than
+ * the slow-call threshold, so a broker that has become slow opens the breaker as well as one that fails.
+ * When the bad share of the last {@code window} calls reaches the ratio, the breaker opens and fails calls
+ * fast for {@code openMs}. After that it is half-open: a few trial calls are let through. If they all
+ * succeed it closes, and the first bad one reopens it.
+ *
+ * Also keeps recent latencies so the hedge delay can follow the endpoint's p95.
+ */
+final class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final BrokerResilienceProperties.Breaker config;
+    private final long slowNanos;
+    private final boolean[] bad;
+    private final long[] latencies;
+    private int next;
+    private int count;
+    private int badCount;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int trialsStarted;
+    private int trialsPassed;
+
+    CircuitBreaker(BrokerResilienceProperties.Breaker config) {
+        this.config = config;
+        this.slowNanos = config.getSlowCallMs() * 1_000_000L;
+        this.bad = new boolean[Math.max(1, config.getWindow())];
+        this.latencies = new long[bad.length];
+    }
+
+    /**
+     * Whether a call may go ahead now. Counts a trial call when half-open.
+     */
+    synchronized boolean tryAcquire(long now) {
+        if (state == State.OPEN) {
+            if (now - openedAt < config.getOpenMs() * 1_000_000L) return false;
+            state = State.HALF_OPEN;
+            trialsStarted = 0;
+            trialsPassed = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsStarted >= config.getHalfOpenCalls()) return false;
+            trialsStarted++;
+        }
+        return true;
+    }
+
+    synchronized void record(long latencyNanos, boolean failed, long now) {
+        boolean isBad = failed || latencyNanos > slowNanos;
+        if (state == State.HALF_OPEN) {
+            if (isBad) {
+                open(now);
+            } else if (++trialsPassed >= config.getHalfOpenCalls()) {
+                state = State.CLOSED;
+                reset();
+            }
+            return;
+        }
+        if (state == State.OPEN) return; // a call that started before the breaker opened
+
+        if (count == bad.length && bad[next]) badCount--;
+        bad[next] = isBad;
+        latencies[next] = latencyNanos;
+        if (isBad) badCount++;
+        next = (next + 1) % bad.length;
+        if (count < bad.length) count++;
+
+        if (count >= config.getMinCalls() && badCount >= config.getFailureRatio() * count) open(now);
+    }
+
+    /**
+     * A call that was let through got cancelled (lost a hedge race, caller gave up): give its trial back.
+     */
+    synchronized void cancelled() {
+        if (state == State.HALF_OPEN && trialsStarted > trialsPassed) trialsStarted--;
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    /**
+     * Recent p95 latency in nanos, or -1 with fewer than minCalls samples.
+     */
+    synchronized long p95Nanos() {
+        if (count < config.getMinCalls()) return -1;
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(count * 0.95) - 1];
+    }
+
+    private void open(long now) {
+        state = State.OPEN;
+        openedAt = now;
+        reset();
+    }
+
+    private void reset() {
+        Arrays.fill(bad, false);
+        next = 0;
+        count = 0;
+        badCount = 0;
+    }
+}
@@ -0,0 +1,62 @@
+package com.myorg.trading.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Times every outbound broker HTTP call as broker.http.client{host, method, uri, status, outcome}.
+ * Transport failures and timeouts are recorded with status CLIENT_ERROR / outcome ERROR.
+ */
+public class BrokerHttpMetricsFilter implements ExchangeFilterFunction {
+
+    static final String METRIC = "broker.http.client";
+
+    private static final String URI_TEMPLATE_ATTRIBUTE = WebClient.class.getName() + ".uriTemplate";
+    // Path segments carrying ids (order ids, security ids...) would blow up tag cardinality
+    private static final Pattern ID_SEGMENT = Pattern.compile("/[^/]*\\d[^/]*(?=/|$)");
+
+    private final MeterRegistry registry;
+
+    public BrokerHttpMetricsFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return next.exchange(request)
+                    .doOnSuccess(response -> record(request, start,
+                            response != null ? String.valueOf(response.statusCode().value()) : "NONE",
+                            response != null && !response.statusCode().isError() ? "SUCCESS" : "ERROR"))
+                    .doOnError(e -> record(request, start, "CLIENT_ERROR", "ERROR"));
+        });
+    }
+
+    private void record(ClientRequest request, long start, String status, String outcome) {
+        Timer.builder(METRIC)
+                .tag("host", String.valueOf(request.url().getHost()))
+                .tag("method", request.method().name())
+                .tag("uri", uri(request))
+                .tag("status", status)
+                .tag("outcome", outcome)
+                .register(registry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private static String uri(ClientRequest request) {
+        return request.attribute(URI_TEMPLATE_ATTRIBUTE)
+                .map(Object::toString)
+                .map(t -> t.replaceFirst("^https?://[^/]+", ""))
+                .orElseGet(() -> ID_SEGMENT.matcher(request.url().getPath()).replaceAll("/{id}"));
+    }
+}
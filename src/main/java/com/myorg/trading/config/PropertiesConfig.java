@@ -1,8 +1,13 @@
 package com.myorg.trading.config;
 
 import com.myorg.trading.config.properties.AngelOneProperties;
+import com.myorg.trading.config.properties.BrokerResilienceProperties;
 import com.myorg.trading.config.properties.DhanProperties;
 import com.myorg.trading.config.properties.FyersProperties;
+import com.myorg.trading.config.properties.RiskProperties;
+import com.myorg.trading.config.properties.RoutingProperties;
+import com.myorg.trading.config.properties.SimulatorProperties;
+import com.myorg.trading.config.properties.WebSocketBrokerProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
@@ -10,7 +15,12 @@ import org.springframework.context.annotation.Configuration;
 @EnableConfigurationProperties({
         DhanProperties.class,
         FyersProperties.class,
-        AngelOneProperties.class
+        AngelOneProperties.class,
+        BrokerResilienceProperties.class,
+        RiskProperties.class,
+        RoutingProperties.class,
+        SimulatorProperties.class,
+        WebSocketBrokerProperties.class
 })
 public class PropertiesConfig {
 }
@@ -1,5 +1,6 @@
 package com.myorg.trading.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.quartz.LocalDataSourceJobStore;
@@ -12,7 +13,7 @@ import java.util.Properties;
 public class QuartzConfig {
 
     @Bean
-    public SchedulerFactoryBean schedulerFactoryBean(DataSource dataSource) {
+    public SchedulerFactoryBean schedulerFactoryBean(DataSource dataSource, MeterRegistry meterRegistry) {
 
         Properties quartzProps = new Properties();
         quartzProps.setProperty("org.quartz.scheduler.instanceName", "TradingQuartzScheduler");
@@ -35,6 +36,7 @@ public class QuartzConfig {
         factory.setQuartzProperties(quartzProps);
         factory.setOverwriteExistingJobs(true);
         factory.setWaitForJobsToCompleteOnShutdown(false);
+        factory.setGlobalTriggerListeners(new QuartzMisfireMetricsListener(meterRegistry));
 
         return factory;
     }
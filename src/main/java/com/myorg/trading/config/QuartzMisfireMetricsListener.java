@@ -0,0 +1,39 @@
+package com.myorg.trading.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.quartz.JobExecutionContext;
+import org.quartz.Trigger;
+import org.quartz.listeners.TriggerListenerSupport;
+
+/**
+ * Counts Quartz misfires (scheduled orders that did not fire on time) as trading.quartz.misfires{group}.
+ */
+public class QuartzMisfireMetricsListener extends TriggerListenerSupport {
+
+    private final MeterRegistry registry;
+
+    public QuartzMisfireMetricsListener(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public String getName() {
+        return "misfire-metrics";
+    }
+
+    @Override
+    public void triggerMisfired(Trigger trigger) {
+        Counter.builder("trading.quartz.misfires")
+                .description("Quartz trigger misfires")
+                .tag("group", trigger.getKey().getGroup())
+                .register(registry)
+                .increment();
+    }
+
+    @Override
+    public void triggerComplete(Trigger trigger, JobExecutionContext context,
+                                Trigger.CompletedExecutionInstruction instruction) {
+        // only misfires are of interest
+    }
+}
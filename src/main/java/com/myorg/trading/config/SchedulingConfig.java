@@ -0,0 +1,13 @@
+package com.myorg.trading.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background tasks (order status polling etc.).
+ * Pool size is configured via spring.task.scheduling.pool.size.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
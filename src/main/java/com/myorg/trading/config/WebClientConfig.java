@@ -1,5 +1,8 @@
 package com.myorg.trading.config;
 
+import com.myorg.trading.config.properties.BrokerResilienceProperties;
+import com.myorg.trading.util.WebClientBuilderUtil;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
@@ -8,21 +11,24 @@ import org.springframework.web.reactive.function.client.WebClient;
 import reactor.netty.http.client.HttpClient;
 import reactor.netty.resources.ConnectionProvider;
 
+import java.time.Duration;
+
 @Configuration
 public class WebClientConfig {
 
+    /**
+     * Shared HTTP client setup. Broker adapters clone it and add {@link BrokerHttpMetricsFilter}, so only
+     * broker traffic is recorded as broker.http.client (not, say, order forwarding between nodes).
+     */
     @Bean
-    public WebClient.Builder webClientBuilder() {
+    public WebClient.Builder webClientBuilder(BrokerResilienceProperties resilience) {
 
         // Connection pool for stable broker API calls
-        ConnectionProvider provider = ConnectionProvider.builder("broker-pool")
-                .maxConnections(100)
-                .pendingAcquireMaxCount(500)
-                .build();
+        Duration responseTimeout = Duration.ofMillis(resilience.getResponseTimeoutMs());
+        ConnectionProvider provider = WebClientBuilderUtil.brokerConnectionProvider(responseTimeout);
 
-        HttpClient httpClient = HttpClient.create(provider)
-                .followRedirect(true)
-                .compress(true);
+        HttpClient httpClient = WebClientBuilderUtil.brokerHttpClient(provider,
+                resilience.getConnectTimeoutMs(), responseTimeout);
 
         return WebClient.builder()
                 .clientConnector(new ReactorClientHttpConnector(httpClient))
@@ -30,4 +36,9 @@ public class WebClientConfig {
                         .codecs(cfg -> cfg.defaultCodecs().maxInMemorySize(2 * 1024 * 1024))
                         .build());
     }
+
+    @Bean
+    public BrokerHttpMetricsFilter brokerHttpMetricsFilter(MeterRegistry meterRegistry) {
+        return new BrokerHttpMetricsFilter(meterRegistry);
+    }
 }
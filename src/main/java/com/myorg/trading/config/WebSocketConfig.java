@@ -1,6 +1,11 @@
 package com.myorg.trading.config;
 
+import com.myorg.trading.config.properties.WebSocketBrokerProperties;
+import com.myorg.trading.security.StompAuthChannelInterceptor;
+import com.myorg.trading.web.FeedSubscriptionInterceptor;
+import com.myorg.trading.web.TickEncodingInterceptor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.*;
 
@@ -8,11 +13,49 @@ import org.springframework.web.socket.config.annotation.*;
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
+    private final TickEncodingInterceptor tickEncodingInterceptor;
+    private final FeedSubscriptionInterceptor feedSubscriptionInterceptor;
+    private final WebSocketBrokerProperties brokerProperties;
+
+    public WebSocketConfig(StompAuthChannelInterceptor stompAuthChannelInterceptor,
+                           TickEncodingInterceptor tickEncodingInterceptor,
+                           FeedSubscriptionInterceptor feedSubscriptionInterceptor,
+                           WebSocketBrokerProperties brokerProperties) {
+        this.stompAuthChannelInterceptor = stompAuthChannelInterceptor;
+        this.tickEncodingInterceptor = tickEncodingInterceptor;
+        this.feedSubscriptionInterceptor = feedSubscriptionInterceptor;
+        this.brokerProperties = brokerProperties;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        // broker for server -> client
-        config.enableSimpleBroker("/topic"); // for small deployments; replace with RabbitMQ/STOMP broker for scale
+        // broker for server -> client (/queue is used for per-user destinations, e.g. /user/queue/orders)
+        if (brokerProperties.getMode() == WebSocketBrokerProperties.Mode.RELAY) {
+            WebSocketBrokerProperties.Relay relay = brokerProperties.getRelay();
+            config.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relay.getHost())
+                    .setRelayPort(relay.getPort())
+                    .setClientLogin(relay.getClientLogin())
+                    .setClientPasscode(relay.getClientPasscode())
+                    .setSystemLogin(relay.getSystemLogin())
+                    .setSystemPasscode(relay.getSystemPasscode())
+                    .setVirtualHost(relay.getVirtualHost())
+                    // Let /user/** destinations reach sessions connected to other nodes
+                    .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                    .setUserRegistryBroadcast("/topic/user-registry");
+        } else {
+            config.enableSimpleBroker("/topic", "/queue"); // single node only; use RELAY mode to scale out
+        }
         config.setApplicationDestinationPrefixes("/app"); // client -> server
+        config.setUserDestinationPrefix("/user");
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // Resolve the JWT on CONNECT so user destinations can be routed; request the feed for instrument
+        // subscriptions; then pick JSON or binary ticks
+        registration.interceptors(stompAuthChannelInterceptor, feedSubscriptionInterceptor, tickEncodingInterceptor);
     }
 
     @Override
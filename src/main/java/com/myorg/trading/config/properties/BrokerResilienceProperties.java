@@ -0,0 +1,56 @@
+package com.myorg.trading.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Timeouts, circuit breakers, hedging and retries for outbound broker API calls.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.broker-resilience")
+public class BrokerResilienceProperties {
+
+    // Transport: TCP connect and whole-response deadlines on the shared HttpClient
+    private int connectTimeoutMs = 3000;
+    private long responseTimeoutMs = 15000;
+
+    // Per-call deadlines, tighter than the transport one; writes get longer since they are not retried
+    private long readTimeoutMs = 5000;
+    private long writeTimeoutMs = 10000;
+
+    private Breaker breaker = new Breaker();
+    private Hedge hedge = new Hedge();
+    private Retry retry = new Retry();
+
+    @Data
+    public static class Breaker {
+        // Outcomes per (broker, endpoint) the failure ratio is computed over
+        private int window = 50;
+        private int minCalls = 10;
+        // Open when this share of the window failed or was slower than slowCallMs
+        private double failureRatio = 0.5;
+        private long slowCallMs = 3000;
+        private long openMs = 30000;
+        // Trial calls let through when half-open; all must succeed to close
+        private int halfOpenCalls = 3;
+    }
+
+    @Data
+    public static class Hedge {
+        private boolean enabled = true;
+        // Backup request after the endpoint's recent p95, clamped to these bounds
+        private long minDelayMs = 50;
+        private long maxDelayMs = 2000;
+        // Hedges allowed as a share of read calls, so a slow broker does not get double the traffic
+        private double budgetRatio = 0.1;
+    }
+
+    @Data
+    public static class Retry {
+        // Extra attempts for reads and logins; order placement / cancel are never retried
+        private int maxAttempts = 2;
+        private long backoffMs = 100;
+        private long maxBackoffMs = 1000;
+        private double jitter = 0.5;
+    }
+}
@@ -15,4 +15,5 @@ public class FyersProperties {
     private String placeOrderPath = "/api/v2/orders";
     private String orderStatusPath = "/api/v2/orders/status";
     private String cancelOrderPath = "/api/v2/orders/cancel";
+    private String modifyOrderPath = "/api/v3/orders/sync";
 }
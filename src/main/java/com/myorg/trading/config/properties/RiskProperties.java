@@ -0,0 +1,31 @@
+package com.myorg.trading.config.properties;
+
+import com.myorg.trading.service.risk.RiskLimits;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "app.risk")
+public class RiskProperties {
+    private boolean enabled = true;
+
+    // Limits applied to every user unless overridden below
+    private RiskLimits defaults = new RiskLimits();
+
+    // Per-user overrides, keyed by userId
+    private Map<Long, RiskLimits> users = new HashMap<>();
+
+    // Rebuilding the ledger from open orders and broker positions at startup
+    private Recovery recovery = new Recovery();
+
+    @Data
+    public static class Recovery {
+        // Per account; an account that misses it starts flat
+        private long accountTimeoutMs = 10_000;
+        // Accounts fetched at once
+        private int concurrency = 8;
+    }
+}
@@ -0,0 +1,29 @@
+package com.myorg.trading.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Smart order routing: how broker health is judged and how much order traffic each broker accepts.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.routing")
+public class RoutingProperties {
+
+    // Placement latencies kept per broker for the percentiles
+    private int latencyWindow = 200;
+
+    // Consecutive placement errors that take a broker out of rotation, and for how long
+    private int failureThreshold = 3;
+    private long downMs = 30000;
+
+    // Pause after a 429 when the broker sends no Retry-After
+    private long throttleMs = 1000;
+
+    // Order placements per second each broker allows (SEBI / broker API limits); unlisted brokers use the default
+    private int defaultOrdersPerSecond = 10;
+    private Map<String, Integer> ordersPerSecond = new HashMap<>();
+}
@@ -0,0 +1,62 @@
+package com.myorg.trading.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Local broker simulator (brokerId "simulator") for load testing and offline development.
+ */
+@Data
+@ConfigurationProperties(prefix = "broker.simulator")
+public class SimulatorProperties {
+    private boolean enabled = false;
+
+    // Share of orders rejected outright (0..1)
+    private double rejectionRate = 0.0;
+
+    private Latency latency = new Latency();
+    private Fills fills = new Fills();
+    private Ticks ticks = new Ticks();
+
+    public enum Distribution { FIXED, UNIFORM, LOGNORMAL }
+
+    /**
+     * Simulated broker round-trip for every call.
+     * FIXED uses medianMs; UNIFORM draws from [minMs, maxMs]; LOGNORMAL is fitted to medianMs / p99Ms.
+     */
+    @Data
+    public static class Latency {
+        private Distribution distribution = Distribution.LOGNORMAL;
+        private double medianMs = 40;
+        private double p99Ms = 250;
+        private double minMs = 10;
+        private double maxMs = 100;
+    }
+
+    @Data
+    public static class Fills {
+        // Share of accepted orders that fill; the rest stay open until cancelled
+        private double probability = 1.0;
+        private long delayMs = 200;
+        // Share of fills delivered in two parts (PARTIALLY_FILLED first)
+        private double partialRate = 0.0;
+        private double slippageBps = 0.0;
+        // Finished orders are forgotten after this long
+        private long retentionMs = 600_000;
+    }
+
+    /**
+     * Synthetic feed: a random walk per instrument pushed through MarketDataService.
+     * Instruments get numeric tokens firstToken, firstToken+1, ...
+     */
+    @Data
+    public static class Ticks {
+        private int instruments = 0; // 0 = no synthetic feed
+        private double ticksPerSecond = 1; // per instrument
+        private long firstToken = 900_001;
+        private double basePrice = 1000;
+        private double volatility = 0.0005; // per-tick stddev of the relative move
+        // Also publish a five-level book around each quote (MarketDepthService + /topic/depth/{token})
+        private boolean depth = false;
+    }
+}
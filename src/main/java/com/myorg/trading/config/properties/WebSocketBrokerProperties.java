@@ -0,0 +1,34 @@
+package com.myorg.trading.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Where STOMP /topic and /queue messages are brokered.
+ * SIMPLE keeps the in-memory broker: clients only see messages published on the node they are connected to.
+ * RELAY forwards to an external STOMP broker (ActiveMQ Artemis, RabbitMQ...), so any node can publish to
+ * clients connected anywhere. The broker must treat /topic/ as multicast and /queue/ as anycast
+ * (Artemis acceptor: multicastPrefix=/topic/;anycastPrefix=/queue/).
+ */
+@Data
+@ConfigurationProperties(prefix = "app.websocket.broker")
+public class WebSocketBrokerProperties {
+
+    public enum Mode { SIMPLE, RELAY }
+
+    private Mode mode = Mode.SIMPLE;
+    private Relay relay = new Relay();
+
+    @Data
+    public static class Relay {
+        private String host = "localhost";
+        private int port = 61613;
+        private String clientLogin = "guest";
+        private String clientPasscode = "guest";
+        private String systemLogin = "guest";
+        private String systemPasscode = "guest";
+        private String virtualHost;
+        // Start an in-process Artemis STOMP broker on host:port (needs the embedded-broker Maven profile)
+        private boolean embedded = false;
+    }
+}
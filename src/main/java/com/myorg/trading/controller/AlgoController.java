@@ -0,0 +1,70 @@
+package com.myorg.trading.controller;
+
+import com.myorg.trading.service.algo.AlgoRequest;
+import com.myorg.trading.service.algo.AlgoView;
+import com.myorg.trading.service.algo.ExecutionAlgoEngine;
+import com.myorg.trading.service.broker.BrokerAccountService;
+import com.myorg.trading.service.user.UserService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Start, inspect and cancel execution algos (TWAP, VWAP, ICEBERG). An algo is addressed by the id of
+ * the parent order it works.
+ */
+@RestController
+@RequestMapping("/api/v1/algos")
+public class AlgoController {
+
+    private final ExecutionAlgoEngine engine;
+    private final BrokerAccountService brokerAccountService;
+    private final UserService userService;
+
+    public AlgoController(ExecutionAlgoEngine engine,
+                          BrokerAccountService brokerAccountService,
+                          UserService userService) {
+        this.engine = engine;
+        this.brokerAccountService = brokerAccountService;
+        this.userService = userService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<AlgoView>> list(@AuthenticationPrincipal UserDetails user) {
+        return ResponseEntity.ok(engine.list(getUserIdFromPrincipal(user)));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<AlgoView> get(@AuthenticationPrincipal UserDetails user, @PathVariable Long id) {
+        AlgoView view = engine.get(getUserIdFromPrincipal(user), id);
+        return view != null ? ResponseEntity.ok(view) : ResponseEntity.notFound().build();
+    }
+
+    @PostMapping
+    public ResponseEntity<AlgoView> start(@AuthenticationPrincipal UserDetails user, @RequestBody AlgoRequest request) {
+        Long userId = getUserIdFromPrincipal(user);
+        if (request.brokerAccountId() == null
+                || brokerAccountService.findOwnedAccount(userId, request.brokerAccountId()).isEmpty()) {
+            throw new IllegalArgumentException("Broker account not found");
+        }
+        return ResponseEntity.ok(engine.start(userId, request));
+    }
+
+    /**
+     * Stop the algo and cancel its working child orders; fills already made stand. An algo run by another
+     * node is stopped there within one checkpoint interval.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> cancel(@AuthenticationPrincipal UserDetails user, @PathVariable Long id) {
+        return engine.cancel(getUserIdFromPrincipal(user), id)
+                ? ResponseEntity.accepted().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    private Long getUserIdFromPrincipal(UserDetails user) {
+        return userService.getUserId(user);
+    }
+}
@@ -0,0 +1,45 @@
+package com.myorg.trading.controller;
+
+import com.myorg.trading.service.backtest.BacktestReport;
+import com.myorg.trading.service.backtest.BacktestRequest;
+import com.myorg.trading.service.backtest.BacktestService;
+import com.myorg.trading.service.user.UserService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/backtest")
+public class BacktestController {
+
+    private final BacktestService backtestService;
+    private final UserService userService;
+
+    public BacktestController(BacktestService backtestService, UserService userService) {
+        this.backtestService = backtestService;
+        this.userService = userService;
+    }
+
+    @GetMapping("/strategies")
+    public ResponseEntity<List<Map<String, Object>>> strategies() {
+        return ResponseEntity.ok(backtestService.strategies());
+    }
+
+    /**
+     * Sweep a strategy's parameter grid over historical bars and return the best combinations.
+     * Runs synchronously; the grid size is capped by app.backtest.max-combinations.
+     */
+    @PostMapping
+    public ResponseEntity<BacktestReport> run(@AuthenticationPrincipal UserDetails user,
+                                              @RequestBody BacktestRequest request) {
+        return ResponseEntity.ok(backtestService.run(getUserIdFromPrincipal(user), request));
+    }
+
+    private Long getUserIdFromPrincipal(UserDetails user) {
+        return userService.getUserId(user);
+    }
+}
@@ -1,11 +1,17 @@
 package com.myorg.trading.controller;
 
 import com.myorg.trading.broker.api.BrokerClient;
+import com.myorg.trading.broker.api.BrokerOrderResponse;
 import com.myorg.trading.broker.api.BrokerPosition;
 import com.myorg.trading.controller.dto.LinkBrokerRequest;
 import com.myorg.trading.domain.entity.BrokerAccount;
+import com.myorg.trading.service.audit.AuditAction;
+import com.myorg.trading.service.audit.AuditLogWriter;
 import com.myorg.trading.service.broker.BrokerAccountService;
 import com.myorg.trading.broker.registry.BrokerRegistry;
+import com.myorg.trading.service.portfolio.PositionCacheService;
+import com.myorg.trading.service.portfolio.PositionExitService;
+import com.myorg.trading.service.routing.SmartOrderRouter;
 import com.myorg.trading.service.user.UserService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -14,11 +20,9 @@ import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
 
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
-import java.math.BigDecimal;
 
 @Slf4j
 
@@ -29,13 +33,25 @@ public class BrokerController {
     private final BrokerAccountService brokerAccountService;
     private final BrokerRegistry brokerRegistry;
     private final UserService userService;
+    private final PositionCacheService positionCacheService;
+    private final SmartOrderRouter smartOrderRouter;
+    private final PositionExitService positionExitService;
+    private final AuditLogWriter auditLog;
 
     public BrokerController(BrokerAccountService brokerAccountService,
                             BrokerRegistry brokerRegistry,
-                            UserService userService) {
+                            UserService userService,
+                            PositionCacheService positionCacheService,
+                            SmartOrderRouter smartOrderRouter,
+                            PositionExitService positionExitService,
+                            AuditLogWriter auditLog) {
         this.brokerAccountService = brokerAccountService;
         this.brokerRegistry = brokerRegistry;
         this.userService = userService;
+        this.positionCacheService = positionCacheService;
+        this.smartOrderRouter = smartOrderRouter;
+        this.positionExitService = positionExitService;
+        this.auditLog = auditLog;
     }
 
     /**
@@ -64,6 +80,10 @@ public class BrokerController {
                             .build();
 
                     BrokerAccount saved = brokerAccountService.saveEncryptedCredentials(acc, req.getCredentialsJson());
+                    // Credentials never go into the audit trail
+                    auditLog.record(saved.getUserId(), AuditAction.LINK_BROKER, AuditLogWriter.fields(
+                            "brokerAccountId", saved.getId(),
+                            "brokerId", saved.getBrokerId()));
                     return Mono.just(ResponseEntity.ok((Object) saved));
                 })
                 .onErrorResume(e -> {
@@ -84,27 +104,30 @@ public class BrokerController {
         return ResponseEntity.ok(list);
     }
 
+    /**
+     * The user's order-capable accounts in the order SMART routing would try them, with each broker's health.
+     */
+    @GetMapping("/routing")
+    public ResponseEntity<List<SmartOrderRouter.RouteCandidate>> routing(@AuthenticationPrincipal UserDetails user) {
+        return ResponseEntity.ok(smartOrderRouter.rank(getUserIdFromPrincipal(user)));
+    }
+
     /**
      * Get Open Positions from the Broker.
-     * 🌟 FIX: Return List<BrokerPosition> instead of Mono<List<...>>
-     * This prevents async dispatch errors (401 on /error) and ensures reliable data delivery.
+     * Blocks the request thread on the broker; GET /api/v1/rx/brokers/{accountId}/positions is the
+     * non-blocking variant.
      */
     @GetMapping("/{accountId}/positions")
     public List<BrokerPosition> getPositions(@AuthenticationPrincipal UserDetails user,
                                              @PathVariable Long accountId) {
         // 1. Find account and verify ownership
-        BrokerAccount acc = brokerAccountService.listAccountsForUser(getUserIdFromPrincipal(user))
-                .stream()
-                .filter(a -> a.getId().equals(accountId))
-                .findFirst()
+        BrokerAccount acc = brokerAccountService.findOwnedAccount(getUserIdFromPrincipal(user), accountId)
                 .orElseThrow(() -> new IllegalArgumentException("Account not found or access denied"));
 
-        // 2. Delegate to adapter and BLOCK to return data synchronously
-        BrokerClient client = brokerRegistry.getById(acc.getBrokerId());
-
+        // 2. Serve from the positions cache (broker round-trip only when missing/stale) and BLOCK
         // .block() unwraps the Mono. If an exception occurs, it is thrown here
         // and caught by GlobalExceptionHandler, preventing the 401 issue.
-        return client.getPositions(accountId.toString()).block();
+        return positionCacheService.getPositions(acc).block();
     }
 
     /**
@@ -112,13 +135,13 @@ public class BrokerController {
      */
     @DeleteMapping("/{accountId}")
     public ResponseEntity<?> unlink(@AuthenticationPrincipal UserDetails user, @PathVariable Long accountId) {
-        BrokerAccount acc = brokerAccountService.listAccountsForUser(getUserIdFromPrincipal(user))
-                .stream()
-                .filter(a -> a.getId().equals(accountId))
-                .findFirst()
+        BrokerAccount acc = brokerAccountService.findOwnedAccount(getUserIdFromPrincipal(user), accountId)
                 .orElseThrow(() -> new IllegalArgumentException("Account not found or access denied"));
 
         brokerAccountService.delete(acc.getId());
+        auditLog.record(acc.getUserId(), AuditAction.UNLINK_BROKER, AuditLogWriter.fields(
+                "brokerAccountId", acc.getId(),
+                "brokerId", acc.getBrokerId()));
         return ResponseEntity.noContent().build();
     }
     @PostMapping("/{accountId}/positions/close")
@@ -126,72 +149,33 @@ public class BrokerController {
                                            @PathVariable Long accountId,
                                            @RequestBody Map<String, Object> req) {
 
-        BrokerAccount acc = brokerAccountService.listAccountsForUser(getUserIdFromPrincipal(user))
-                .stream()
-                .filter(a -> a.getId().equals(accountId))
-                .findFirst()
+        BrokerAccount acc = brokerAccountService.findOwnedAccount(getUserIdFromPrincipal(user), accountId)
                 .orElseThrow(() -> new IllegalArgumentException("Account not found"));
 
-        BrokerClient client = brokerRegistry.getById(acc.getBrokerId());
-
-        // 🔥 FIX: Construct proper exit order
-        String positionType = (String) req.get("positionType");
-        String side = "LONG".equalsIgnoreCase(positionType) ? "SELL" : "BUY";
-
-        // Extract required fields with null checks
-        String securityId = (String) req.get("securityId");
-        String symbol = (String) req.get("symbol");
-
-        if (securityId == null || securityId.isEmpty()) {
+        Object securityId = req.get("securityId");
+        if (securityId == null || securityId.toString().isEmpty()) {
             return ResponseEntity.badRequest().body(Map.of(
                     "error", "missing_security_id",
                     "message", "Security ID is required to close position"
             ));
         }
 
-        String exchange = (String) req.getOrDefault("exchange", "NSE");
-        String productType = (String) req.getOrDefault("productType", "INTRADAY");
-
-        // Convert quantity to BigDecimal
-        Object qtyObj = req.get("quantity");
-        BigDecimal quantity;
-        if (qtyObj instanceof Integer) {
-            quantity = new BigDecimal((Integer) qtyObj);
-        } else if (qtyObj instanceof Double) {
-            quantity = BigDecimal.valueOf((Double) qtyObj);
-        } else if (qtyObj instanceof String) {
-            quantity = new BigDecimal((String) qtyObj);
-        } else {
-            quantity = new BigDecimal(qtyObj.toString());
-        }
-
-        // Construct Order Request
-        com.myorg.trading.broker.api.BrokerOrderRequest orderReq =
-                com.myorg.trading.broker.api.BrokerOrderRequest.builder()
-                        .symbol(securityId)  // Send securityId as symbol
-                        .quantity(quantity)
-                        .side(com.myorg.trading.broker.api.OrderSide.valueOf(side))
-                        .orderType(com.myorg.trading.broker.api.OrderType.MARKET)
-                        .meta(Map.of(
-                                "exchange", exchange,
-                                "productType", productType,
-                                "tradingSymbol", symbol != null ? symbol : ""
-                        ))
-                        .build();
-
+        Mono<BrokerOrderResponse> exit = positionExitService.exit(acc, req);
         try {
-            var response = client.placeOrder(accountId.toString(), orderReq).block();
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(exit.block());
         } catch (Exception e) {
-            log.error("Failed to close position", e);
-            return ResponseEntity.status(500).body(Map.of(
-                    "error", "exit_failed",
-                    "message", e.getMessage() != null ? e.getMessage() : "Unknown error occurred"
-            ));
+            return exitFailed(e);
         }
     }
 
+    static ResponseEntity<Object> exitFailed(Throwable e) {
+        return ResponseEntity.status(500).body(Map.of(
+                "error", "exit_failed",
+                "message", e.getMessage() != null ? e.getMessage() : "Unknown error occurred"
+        ));
+    }
+
     private Long getUserIdFromPrincipal(UserDetails user) {
-        return userService.getUserIdForUsername(user.getUsername());
+        return userService.getUserId(user);
     }
 }
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.myorg.trading.controller;
+
+import com.myorg.trading.domain.entity.Order;
+import com.myorg.trading.service.cluster.ClusterMembership;
+import com.myorg.trading.service.cluster.ClusterOrderRouter;
+import com.myorg.trading.service.trading.OrderExecutionService;
+import com.myorg.trading.service.trading.OrderModificationService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Node-to-node endpoints. Not user facing: callers authenticate with the shared app.cluster.secret,
+ * and the endpoints answer 404 unless membership is enabled with a secret configured.
+ */
+@RestController
+@RequestMapping("/internal/cluster")
+public class ClusterController {
+
+    private final ClusterMembership membership;
+    private final OrderExecutionService executionService;
+    private final OrderModificationService modificationService;
+    private final byte[] secret;
+
+    public ClusterController(ClusterMembership membership,
+                             OrderExecutionService executionService,
+                             OrderModificationService modificationService,
+                             @Value("${app.cluster.secret:}") String secret) {
+        this.membership = membership;
+        this.executionService = executionService;
+        this.modificationService = modificationService;
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Execute an order forwarded by another node because this node owns its broker account.
+     */
+    @PostMapping("/orders/{id}/execute")
+    public ResponseEntity<Void> execute(@RequestHeader(value = ClusterOrderRouter.SECRET_HEADER, required = false) String caller,
+                                        @PathVariable("id") Long orderId,
+                                        @RequestBody ClusterOrderRouter.ForwardedOrder body) {
+        if (!accepts(caller)) return ResponseEntity.notFound().build();
+        // Run it here even if ownership has just moved again; bouncing it on could loop
+        executionService.executeForwarded(orderId, body.tradingSymbol(), body.meta());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Modify an order forwarded by another node because this node owns its broker account. Errors come back
+     * as the usual REST error responses.
+     */
+    @PostMapping("/orders/{id}/modify")
+    public ResponseEntity<Order> modify(@RequestHeader(value = ClusterOrderRouter.SECRET_HEADER, required = false) String caller,
+                                        @PathVariable("id") Long orderId,
+                                        @RequestBody ClusterOrderRouter.ForwardedModify body) {
+        if (!accepts(caller)) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(modificationService.modify(body.userId(), orderId, body.quantity(), body.price(),
+                body.orderType()));
+    }
+
+    @GetMapping("/members")
+    public ResponseEntity<List<ClusterMembership.Member>> members(
+            @RequestHeader(value = ClusterOrderRouter.SECRET_HEADER, required = false) String caller) {
+        if (!accepts(caller)) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(membership.members());
+    }
+
+    private boolean accepts(String caller) {
+        return membership.isEnabled() && secret.length > 0 && caller != null
+                && MessageDigest.isEqual(secret, caller.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -9,7 +9,11 @@ import com.myorg.trading.domain.model.SecurityMaster;
 import com.myorg.trading.service.broker.BrokerAccountService;
 import com.myorg.trading.service.marketdata.MarketDataService;
 import com.myorg.trading.service.marketdata.SecurityMasterService;
+import com.myorg.trading.service.marketdata.depth.DepthUpdate;
+import com.myorg.trading.service.marketdata.depth.MarketDepthService;
 import com.myorg.trading.service.user.UserService;
+import com.myorg.trading.web.TickFrameCodec;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -17,7 +21,9 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Base64;
 import java.util.List;
 
 @RestController
@@ -25,22 +31,28 @@ import java.util.List;
 public class MarketDataController {
 
     private final MarketDataService marketDataService;
+    private final MarketDepthService marketDepthService;
     private final SecurityMasterService securityMasterService;
     private final BrokerRegistry brokerRegistry;
     private final BrokerAccountService brokerAccountService;
     private final UserService userService;
+    private final Duration snapshotFeedHold;
 
     public MarketDataController(
             MarketDataService marketDataService,
+            MarketDepthService marketDepthService,
             SecurityMasterService securityMasterService,
             BrokerRegistry brokerRegistry,
             BrokerAccountService brokerAccountService,
-            UserService userService) {
+            UserService userService,
+            @Value("${app.marketdata.snapshot-feed-hold-ms:60000}") long snapshotFeedHoldMs) {
         this.marketDataService = marketDataService;
+        this.marketDepthService = marketDepthService;
         this.securityMasterService = securityMasterService;
         this.brokerRegistry = brokerRegistry;
         this.brokerAccountService = brokerAccountService;
         this.userService = userService;
+        this.snapshotFeedHold = Duration.ofMillis(snapshotFeedHoldMs);
     }
 
     /**
@@ -52,11 +64,45 @@ public class MarketDataController {
     }
 
     /**
-     * Real-time tick stream (Server-Sent Events)
+     * Real-time tick stream (Server-Sent Events). The broker feed is requested while the client listens.
+     *
+     * @param exchange exchange of the instrument (NSE, NFO...), NSE if absent
      */
     @GetMapping(value = "/stream/{instrumentToken}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public Flux<MarketDataTick> stream(@PathVariable String instrumentToken) {
-        return marketDataService.streamFor(instrumentToken);
+    public Flux<MarketDataTick> stream(@PathVariable String instrumentToken,
+                                       @RequestParam(required = false) String exchange) {
+        return feedWhileSubscribed(exchange, instrumentToken);
+    }
+
+    /**
+     * Same stream with ?encoding=binary: each event's data is a base64 {@link TickFrameCodec} frame
+     */
+    @GetMapping(value = "/stream/{instrumentToken}", params = "encoding=binary", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<String> streamBinary(@PathVariable String instrumentToken,
+                                     @RequestParam(required = false) String exchange) {
+        Base64.Encoder base64 = Base64.getEncoder();
+        return feedWhileSubscribed(exchange, instrumentToken).map(tick -> base64.encodeToString(TickFrameCodec.encode(tick)));
+    }
+
+    private Flux<MarketDataTick> feedWhileSubscribed(String exchange, String instrumentToken) {
+        return Flux.defer(() -> {
+            marketDataService.requestFeed(exchange, instrumentToken);
+            return marketDataService.streamFor(instrumentToken)
+                    .doFinally(signal -> marketDataService.releaseFeed(instrumentToken));
+        });
+    }
+
+    /**
+     * Five-level depth snapshot. Clients load this, then apply deltas from /topic/depth/{instrumentToken}
+     * whose seq follows the snapshot's, refetching on a gap. The broker feed is held for a while after
+     * each snapshot, so a 404 for an instrument nobody streamed turns into data on a retry.
+     */
+    @GetMapping("/depth/{instrumentToken}")
+    public ResponseEntity<DepthUpdate> depth(@PathVariable String instrumentToken,
+                                             @RequestParam(required = false) String exchange) {
+        marketDataService.requestFeedFor(exchange, instrumentToken, snapshotFeedHold);
+        DepthUpdate snapshot = marketDepthService.snapshot(instrumentToken);
+        return snapshot != null ? ResponseEntity.ok(snapshot) : ResponseEntity.notFound().build();
     }
 
     /**
@@ -75,7 +121,7 @@ public class MarketDataController {
             @RequestParam String from,
             @RequestParam String to) {
 
-        Long userId = userService.getUserIdForUsername(user.getUsername());
+        Long userId = userService.getUserId(user);
 
         // Get user's first linked broker account
         List<BrokerAccount> accounts = brokerAccountService.listAccountsForUser(userId);
@@ -102,7 +148,7 @@ public class MarketDataController {
         return ResponseEntity.ok(candles != null ? candles : List.of());
     }
 
-    private Instant parseTimestamp(String timestamp) {
+    static Instant parseTimestamp(String timestamp) {
         try {
             // Try parsing as epoch seconds
             long epochSeconds = Long.parseLong(timestamp);
@@ -1,11 +1,17 @@
 package com.myorg.trading.controller;
 
+import com.myorg.trading.controller.dto.ModifyOrderRequest;
+import com.myorg.trading.controller.dto.OrderHistoryPage;
 import com.myorg.trading.controller.dto.PlaceOrderRequest;
 import com.myorg.trading.controller.dto.PlaceOrderResponse;
 import com.myorg.trading.controller.dto.ScheduleOrderRequest;
 import com.myorg.trading.domain.entity.Order;
 import com.myorg.trading.domain.entity.OrderStatus;
 import com.myorg.trading.domain.entity.ScheduledOrder;
+import com.myorg.trading.service.cluster.ClusterOrderRouter;
+import com.myorg.trading.service.risk.PreTradeRiskService;
+import com.myorg.trading.service.trading.OrderModificationService;
+import com.myorg.trading.service.trading.OrderPlacementService;
 import com.myorg.trading.service.trading.OrderService;
 import com.myorg.trading.domain.repository.OrderRepository;
 import com.myorg.trading.service.user.UserService;
@@ -16,64 +22,66 @@ import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
 import java.time.Instant;
-import java.util.List;
-import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/orders")
 public class OrderController {
 
+    public static final String IDEMPOTENCY_HEADER = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAY_HEADER = "Idempotent-Replayed";
+
     private final OrderService orderService;
     private final OrderRepository orderRepository;
     private final UserService userService;
+    private final PreTradeRiskService riskService;
+    private final OrderPlacementService placementService;
+    private final OrderModificationService modificationService;
+    private final ClusterOrderRouter orderRouter;
 
     public OrderController(OrderService orderService,
                            OrderRepository orderRepository,
-                           UserService userService) {
+                           UserService userService,
+                           PreTradeRiskService riskService,
+                           OrderPlacementService placementService,
+                           OrderModificationService modificationService,
+                           ClusterOrderRouter orderRouter) {
         this.orderService = orderService;
         this.orderRepository = orderRepository;
         this.userService = userService;
+        this.riskService = riskService;
+        this.placementService = placementService;
+        this.modificationService = modificationService;
+        this.orderRouter = orderRouter;
     }
 
     @PostMapping("/place")
     public ResponseEntity<PlaceOrderResponse> placeOrder(@AuthenticationPrincipal UserDetails user,
+                                                         @RequestHeader(value = IDEMPOTENCY_HEADER, required = false) String idempotencyKey,
                                                          @Valid @RequestBody PlaceOrderRequest req) {
+        return placed(placementService.place(getUserIdFromPrincipal(user), idempotencyKey, req));
+    }
 
-        // 🔥 CRITICAL FIX: Extract tradingSymbol from meta before creating order
-        String tradingSymbol = req.getSymbol(); // Default to securityId
-
-        if (req.getMeta() != null && req.getMeta().containsKey("tradingSymbol")) {
-            tradingSymbol = (String) req.getMeta().get("tradingSymbol");
-            System.out.println("✅ Extracted Trading Symbol from meta: " + tradingSymbol);
-        } else {
-            System.err.println("⚠️ WARNING: No tradingSymbol in meta! Using securityId as fallback.");
-        }
-
-        Order o = Order.builder()
-                .userId(getUserIdFromPrincipal(user))
-                .brokerAccountId(req.getBrokerAccountId())
-                .symbol(req.getSymbol()) // Security ID (numeric)
-                .side(req.getSide().name())
-                .quantity(req.getQuantity())
-                .price(req.getPrice())
-                .orderType(req.getOrderType().name())
-                .productType(req.getProductType())
-                .status(OrderStatus.PENDING)
-                .build();
-
-        Order saved = orderService.createOrder(o);
-
-        // 🌟 NEW: Pass tradingSymbol explicitly to execution service
-        orderService.placeOrderNow(saved.getId(), tradingSymbol, req.getMeta());
-
-        return ResponseEntity.ok(new PlaceOrderResponse(saved.getId(), "CREATED"));
+    /**
+     * The place-order response; a replayed idempotency key is flagged with {@link #IDEMPOTENT_REPLAY_HEADER}.
+     */
+    public static ResponseEntity<PlaceOrderResponse> placed(OrderPlacementService.Placement placement) {
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (placement.replayed()) ok.header(IDEMPOTENT_REPLAY_HEADER, "true");
+        return ok.body(new PlaceOrderResponse(placement.orderId(), "CREATED"));
     }
 
+    /**
+     * Schedule an order. Only per-order risk limits are checked now; exposure, daily loss and the order
+     * rate are checked when it fires, and a breach then marks it REJECTED.
+     */
     @PostMapping("/schedule")
     public ResponseEntity<?> scheduleOrder(@AuthenticationPrincipal UserDetails user,
                                            @Valid @RequestBody ScheduleOrderRequest req) throws Exception {
+        Long userId = getUserIdFromPrincipal(user);
+        riskService.checkOrder(userId, req.getSymbol(), req.getQuantity(), req.getPrice());
+
         Order o = Order.builder()
-                .userId(getUserIdFromPrincipal(user))
+                .userId(userId)
                 .brokerAccountId(req.getBrokerAccountId())
                 .symbol(req.getSymbol())
                 .side(req.getSide().name())
@@ -89,11 +97,24 @@ public class OrderController {
         return ResponseEntity.ok(so);
     }
 
+    /**
+     * Order history, newest first, keyset-paginated.
+     * Pass the returned nextCursor as ?cursor= to fetch the following page.
+     *
+     * @param from inclusive lower bound on creation time (ISO-8601)
+     * @param to exclusive upper bound on creation time (ISO-8601)
+     */
     @GetMapping
-    public ResponseEntity<List<Order>> listOrders(@AuthenticationPrincipal UserDetails user) {
+    public ResponseEntity<OrderHistoryPage> listOrders(@AuthenticationPrincipal UserDetails user,
+                                                       @RequestParam(required = false) OrderStatus status,
+                                                       @RequestParam(required = false) String symbol,
+                                                       @RequestParam(required = false) Long accountId,
+                                                       @RequestParam(required = false) Instant from,
+                                                       @RequestParam(required = false) Instant to,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(required = false) Integer limit) {
         Long userId = getUserIdFromPrincipal(user);
-        List<Order> orders = orderService.getOrdersForUser(userId);
-        return ResponseEntity.ok(orders);
+        return ResponseEntity.ok(orderService.getOrderHistory(userId, status, symbol, accountId, from, to, cursor, limit));
     }
 
     @GetMapping("/{id}")
@@ -102,7 +123,28 @@ public class OrderController {
         return ResponseEntity.ok(o);
     }
 
+    /**
+     * Change quantity, price or type of a live order in one call: a native modify where the broker has
+     * one, otherwise a confirmed cancel followed by a replacement under the same order id. Runs on the
+     * node that owns the order's broker account.
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<Order> modifyOrder(@AuthenticationPrincipal UserDetails user, @PathVariable Long id,
+                                             @RequestBody ModifyOrderRequest req) {
+        Long userId = getUserIdFromPrincipal(user);
+        return ResponseEntity.ok(orderRouter.modify(userId, id, req.getQuantity(), req.getPrice(), req.getOrderType()));
+    }
+
+    /**
+     * Request cancellation of a live order; the CANCELLED status follows on the order event stream.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Order> cancelOrder(@AuthenticationPrincipal UserDetails user, @PathVariable Long id) {
+        Long userId = getUserIdFromPrincipal(user);
+        return ResponseEntity.accepted().body(modificationService.cancel(userId, id));
+    }
+
     private Long getUserIdFromPrincipal(UserDetails user) {
-        return userService.getUserIdForUsername(user.getUsername());
+        return userService.getUserId(user);
     }
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.myorg.trading.controller;
+
+import com.myorg.trading.service.portfolio.PortfolioService;
+import com.myorg.trading.service.portfolio.PortfolioView;
+import com.myorg.trading.service.user.UserService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/portfolio")
+public class PortfolioController {
+
+    private final PortfolioService portfolioService;
+    private final UserService userService;
+
+    public PortfolioController(PortfolioService portfolioService, UserService userService) {
+        this.portfolioService = portfolioService;
+        this.userService = userService;
+    }
+
+    /**
+     * Positions of every linked account, fetched in parallel, plus exposure netted per instrument.
+     * Accounts that miss the per-call deadline are returned with status TIMEOUT (complete=false).
+     */
+    @GetMapping
+    public ResponseEntity<PortfolioView> getPortfolio(@AuthenticationPrincipal UserDetails user) {
+        Long userId = userService.getUserId(user);
+        return ResponseEntity.ok(portfolioService.getPortfolio(userId));
+    }
+}
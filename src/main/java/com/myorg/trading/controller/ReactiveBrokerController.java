@@ -0,0 +1,134 @@
+package com.myorg.trading.controller;
+
+import com.myorg.trading.broker.api.BrokerPosition;
+import com.myorg.trading.controller.dto.PlaceOrderRequest;
+import com.myorg.trading.controller.dto.PlaceOrderResponse;
+import com.myorg.trading.domain.entity.BrokerAccount;
+import com.myorg.trading.domain.model.OHLCV;
+import com.myorg.trading.service.broker.BrokerAccountService;
+import com.myorg.trading.broker.registry.BrokerRegistry;
+import com.myorg.trading.service.portfolio.PositionCacheService;
+import com.myorg.trading.service.portfolio.PositionExitService;
+import com.myorg.trading.service.trading.OrderPlacementService;
+import com.myorg.trading.service.user.UserService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Non-blocking variants of the broker-facing endpoints: positions, candle history, closing a position and
+ * placing an order. Same contracts as their /api/v1 counterparts, but they return a {@link Mono} and never
+ * block the request thread. The thread goes back to the pool while the broker answers, and the response is
+ * written on async dispatch. JPA work runs on the bounded-elastic scheduler.
+ *
+ * The caller's id is resolved from the principal on the request thread; nothing inside the reactive chain
+ * reads the SecurityContextHolder, which is not propagated to Reactor threads.
+ */
+@RestController
+@RequestMapping("/api/v1/rx")
+public class ReactiveBrokerController {
+
+    private final BrokerAccountService brokerAccountService;
+    private final BrokerRegistry brokerRegistry;
+    private final PositionCacheService positionCacheService;
+    private final PositionExitService positionExitService;
+    private final OrderPlacementService placementService;
+    private final UserService userService;
+
+    public ReactiveBrokerController(BrokerAccountService brokerAccountService,
+                                    BrokerRegistry brokerRegistry,
+                                    PositionCacheService positionCacheService,
+                                    PositionExitService positionExitService,
+                                    OrderPlacementService placementService,
+                                    UserService userService) {
+        this.brokerAccountService = brokerAccountService;
+        this.brokerRegistry = brokerRegistry;
+        this.positionCacheService = positionCacheService;
+        this.positionExitService = positionExitService;
+        this.placementService = placementService;
+        this.userService = userService;
+    }
+
+    @GetMapping("/brokers/{accountId}/positions")
+    public Mono<List<BrokerPosition>> getPositions(@AuthenticationPrincipal UserDetails user,
+                                                   @PathVariable Long accountId) {
+        return ownedAccount(getUserIdFromPrincipal(user), accountId, "Account not found or access denied")
+                .flatMap(acc -> positionCacheService.getPositions(acc)
+                        // adapters read credentials from JPA on subscribe
+                        .subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    @PostMapping("/brokers/{accountId}/positions/close")
+    public Mono<ResponseEntity<Object>> closePosition(@AuthenticationPrincipal UserDetails user,
+                                                      @PathVariable Long accountId,
+                                                      @RequestBody Map<String, Object> req) {
+        Object securityId = req.get("securityId");
+        if (securityId == null || securityId.toString().isEmpty()) {
+            return Mono.just(ResponseEntity.badRequest().body(Map.of(
+                    "error", "missing_security_id",
+                    "message", "Security ID is required to close position"
+            )));
+        }
+        return ownedAccount(getUserIdFromPrincipal(user), accountId, "Account not found")
+                .flatMap(acc -> positionExitService.exit(acc, req)
+                        .map(response -> ResponseEntity.ok((Object) response))
+                        .onErrorResume(e -> Mono.just(BrokerController.exitFailed(e))));
+    }
+
+    /**
+     * Candles from the user's first linked account, as GET /api/v1/marketdata/history/{symbol}.
+     */
+    @GetMapping("/marketdata/history/{symbol}")
+    public Mono<List<OHLCV>> getHistory(@AuthenticationPrincipal UserDetails user,
+                                        @PathVariable String symbol,
+                                        @RequestParam(defaultValue = "5M") String interval,
+                                        @RequestParam String from,
+                                        @RequestParam String to) {
+        Long userId = getUserIdFromPrincipal(user);
+        Instant fromInstant = MarketDataController.parseTimestamp(from);
+        Instant toInstant = MarketDataController.parseTimestamp(to);
+
+        return Mono.fromCallable(() -> brokerAccountService.listAccountsForUser(userId))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(accounts -> {
+                    if (accounts.isEmpty()) return Mono.error(new IllegalArgumentException("No broker account linked"));
+                    BrokerAccount account = accounts.get(0);
+                    return brokerRegistry.getById(account.getBrokerId())
+                            .getHistoricalData(account.getId().toString(), symbol, interval, fromInstant, toInstant)
+                            .subscribeOn(Schedulers.boundedElastic());
+                })
+                .defaultIfEmpty(List.of());
+    }
+
+    /**
+     * As POST /api/v1/orders/place. The broker call was already asynchronous there; here the idempotency,
+     * risk and insert work leaves the request thread as well.
+     */
+    @PostMapping("/orders/place")
+    public Mono<ResponseEntity<PlaceOrderResponse>> placeOrder(@AuthenticationPrincipal UserDetails user,
+                                                               @RequestHeader(value = OrderController.IDEMPOTENCY_HEADER, required = false) String idempotencyKey,
+                                                               @Valid @RequestBody PlaceOrderRequest req) {
+        Long userId = getUserIdFromPrincipal(user);
+        return Mono.fromCallable(() -> placementService.place(userId, idempotencyKey, req))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(OrderController::placed);
+    }
+
+    private Mono<BrokerAccount> ownedAccount(Long userId, Long accountId, String notFound) {
+        return Mono.fromCallable(() -> brokerAccountService.findOwnedAccount(userId, accountId).orElse(null))
+                .subscribeOn(Schedulers.boundedElastic())
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException(notFound)));
+    }
+
+    private Long getUserIdFromPrincipal(UserDetails user) {
+        return userService.getUserId(user);
+    }
+}
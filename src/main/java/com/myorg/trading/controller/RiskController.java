@@ -0,0 +1,44 @@
+package com.myorg.trading.controller;
+
+import com.myorg.trading.service.risk.PreTradeRiskService;
+import com.myorg.trading.service.risk.RiskLimits;
+import com.myorg.trading.service.risk.RiskView;
+import com.myorg.trading.service.user.UserService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/risk")
+public class RiskController {
+
+    private final PreTradeRiskService riskService;
+    private final UserService userService;
+
+    public RiskController(PreTradeRiskService riskService, UserService userService) {
+        this.riskService = riskService;
+        this.userService = userService;
+    }
+
+    /**
+     * Effective limits plus current exposure, realized P&L and order rate from the in-memory ledger.
+     */
+    @GetMapping
+    public ResponseEntity<RiskView> getRisk(@AuthenticationPrincipal UserDetails user) {
+        return ResponseEntity.ok(riskService.view(getUserIdFromPrincipal(user)));
+    }
+
+    /**
+     * Set the caller's own limits. Values looser than the configured limits are capped to them.
+     */
+    @PutMapping("/limits")
+    public ResponseEntity<RiskLimits> updateLimits(@AuthenticationPrincipal UserDetails user,
+                                                   @RequestBody RiskLimits limits) {
+        return ResponseEntity.ok(riskService.updateUserLimits(getUserIdFromPrincipal(user), limits));
+    }
+
+    private Long getUserIdFromPrincipal(UserDetails user) {
+        return userService.getUserId(user);
+    }
+}
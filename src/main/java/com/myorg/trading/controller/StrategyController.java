@@ -0,0 +1,72 @@
+package com.myorg.trading.controller;
+
+import com.myorg.trading.service.broker.BrokerAccountService;
+import com.myorg.trading.service.strategy.StrategyDefinition;
+import com.myorg.trading.service.strategy.StrategyRuntime;
+import com.myorg.trading.service.strategy.StrategyView;
+import com.myorg.trading.service.user.UserService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load, inspect and unload live strategies.
+ */
+@RestController
+@RequestMapping("/api/v1/strategies")
+public class StrategyController {
+
+    private final StrategyRuntime runtime;
+    private final BrokerAccountService brokerAccountService;
+    private final UserService userService;
+
+    public StrategyController(StrategyRuntime runtime,
+                              BrokerAccountService brokerAccountService,
+                              UserService userService) {
+        this.runtime = runtime;
+        this.brokerAccountService = brokerAccountService;
+        this.userService = userService;
+    }
+
+    @GetMapping("/types")
+    public ResponseEntity<List<Map<String, Object>>> types() {
+        return ResponseEntity.ok(runtime.types());
+    }
+
+    @GetMapping
+    public ResponseEntity<List<StrategyView>> list(@AuthenticationPrincipal UserDetails user) {
+        return ResponseEntity.ok(runtime.list(getUserIdFromPrincipal(user)));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<StrategyView> get(@AuthenticationPrincipal UserDetails user, @PathVariable String id) {
+        StrategyView view = runtime.get(getUserIdFromPrincipal(user), id);
+        return view != null ? ResponseEntity.ok(view) : ResponseEntity.notFound().build();
+    }
+
+    @PostMapping
+    public ResponseEntity<StrategyView> load(@AuthenticationPrincipal UserDetails user,
+                                             @RequestBody StrategyDefinition definition) {
+        Long userId = getUserIdFromPrincipal(user);
+        if (definition.brokerAccountId() == null
+                || brokerAccountService.findOwnedAccount(userId, definition.brokerAccountId()).isEmpty()) {
+            throw new IllegalArgumentException("Broker account not found");
+        }
+        return ResponseEntity.ok(runtime.load(userId, definition));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> unload(@AuthenticationPrincipal UserDetails user, @PathVariable String id) {
+        return runtime.unload(getUserIdFromPrincipal(user), id)
+                ? ResponseEntity.ok().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    private Long getUserIdFromPrincipal(UserDetails user) {
+        return userService.getUserId(user);
+    }
+}
@@ -0,0 +1,89 @@
+package com.myorg.trading.controller;
+
+import com.myorg.trading.broker.api.MarketDataTick;
+import com.myorg.trading.service.marketdata.journal.ReplayRequest;
+import com.myorg.trading.service.marketdata.journal.ReplaySession;
+import com.myorg.trading.service.marketdata.journal.TickJournal;
+import com.myorg.trading.service.marketdata.journal.TickJournalReader;
+import com.myorg.trading.service.marketdata.journal.TickReplayService;
+import com.myorg.trading.service.user.UserService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recorded tick days and replay control. A replay is private to the user who started it; admins
+ * (ROLE_ADMIN) can see and stop every session.
+ */
+@RestController
+@RequestMapping("/api/v1/ticks")
+public class TickJournalController {
+
+    private final TickJournal journal;
+    private final TickReplayService replayService;
+    private final UserService userService;
+
+    public TickJournalController(TickJournal journal, TickReplayService replayService, UserService userService) {
+        this.journal = journal;
+        this.replayService = replayService;
+        this.userService = userService;
+    }
+
+    @GetMapping("/days")
+    public ResponseEntity<List<LocalDate>> days() {
+        return ResponseEntity.ok(journal.recordedDays());
+    }
+
+    @GetMapping("/days/{day}")
+    public ResponseEntity<?> day(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate day) throws IOException {
+        try (TickJournalReader reader = journal.open(day)) {
+            return ResponseEntity.ok(Map.of("day", day, "ticks", reader.count(), "instruments", reader.symbols()));
+        }
+    }
+
+    /**
+     * Start replaying a recorded day (speed 1 = real time, 0 = max). Ticks go to the session's own stream,
+     * GET /replay/{id}/stream, never to the live market data streams.
+     */
+    @PostMapping("/replay")
+    public ResponseEntity<ReplaySession> startReplay(@AuthenticationPrincipal UserDetails user,
+                                                     @RequestBody ReplayRequest req) throws IOException {
+        return ResponseEntity.ok(replayService.start(getUserIdFromPrincipal(user), req));
+    }
+
+    @GetMapping("/replay")
+    public ResponseEntity<Collection<ReplaySession>> replays(@AuthenticationPrincipal UserDetails user) {
+        return ResponseEntity.ok(replayService.list(getUserIdFromPrincipal(user), isAdmin(user)));
+    }
+
+    @GetMapping(value = "/replay/{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<MarketDataTick>> replayStream(@AuthenticationPrincipal UserDetails user,
+                                                             @PathVariable String id) {
+        Flux<MarketDataTick> ticks = replayService.stream(getUserIdFromPrincipal(user), isAdmin(user), id);
+        return ticks != null ? ResponseEntity.ok(ticks) : ResponseEntity.notFound().build();
+    }
+
+    @DeleteMapping("/replay/{id}")
+    public ResponseEntity<?> stopReplay(@AuthenticationPrincipal UserDetails user, @PathVariable String id) {
+        return replayService.stop(getUserIdFromPrincipal(user), isAdmin(user), id)
+                ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
+    }
+
+    private static boolean isAdmin(UserDetails user) {
+        return user.getAuthorities().stream().anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+    }
+
+    private Long getUserIdFromPrincipal(UserDetails user) {
+        return userService.getUserId(user);
+    }
+}
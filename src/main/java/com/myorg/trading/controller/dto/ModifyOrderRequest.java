@@ -0,0 +1,19 @@
+package com.myorg.trading.controller.dto;
+
+import com.myorg.trading.broker.api.OrderType;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * New terms for a live order; omitted fields keep their current value.
+ */
+@Data
+public class ModifyOrderRequest {
+
+    private BigDecimal quantity;
+
+    private BigDecimal price;
+
+    private OrderType orderType;
+}
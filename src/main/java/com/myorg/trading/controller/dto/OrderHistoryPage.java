@@ -0,0 +1,18 @@
+package com.myorg.trading.controller.dto;
+
+import com.myorg.trading.domain.model.OrderSummary;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One keyset page of order history. Pass nextCursor back as ?cursor= to fetch the next page;
+ * it is null when there are no more rows.
+ */
+@Data
+@AllArgsConstructor
+public class OrderHistoryPage {
+    private List<OrderSummary> items;
+    private String nextCursor;
+}
@@ -5,14 +5,18 @@ import com.myorg.trading.broker.api.OrderType;
 import lombok.Data;
 
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import java.math.BigDecimal;
 import java.util.Map;
 
 @Data
 public class PlaceOrderRequest {
-    @NotNull
+    // Required unless routing is SMART
     private Long brokerAccountId;
 
+    // SMART = let the router pick the account (and fail over to another account on the same broker if it is refused)
+    private String routing;
+
     @NotNull
     private String symbol; // Security ID (e.g., "3499")
 
@@ -29,6 +33,10 @@ public class PlaceOrderRequest {
 
     private String productType; // INTRADAY, CNC, etc.
 
+    // Idempotency key: repeats within the replay window return the original order (Idempotency-Key header also accepted)
+    @Size(max = 64)
+    private String clientOrderId;
+
     // 🔥 NEW: Accept meta from frontend
     private Map<String, Object> meta; // Contains tradingSymbol, exchange, etc.
 }
\ No newline at end of file
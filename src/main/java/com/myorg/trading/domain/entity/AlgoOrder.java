@@ -0,0 +1,48 @@
+package com.myorg.trading.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
+
+/**
+ * Checkpoint of an execution algo working a parent {@link Order}. The live state is in memory; this row
+ * is rewritten every few seconds so a restarted node can resume the algo.
+ */
+@Entity
+@Table(name = "algo_orders")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AlgoOrder {
+    @Id
+    @Column(name = "parent_order_id")
+    private Long parentOrderId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "broker_account_id", nullable = false)
+    private Long brokerAccountId;
+
+    @Column(name = "algo_type", nullable = false, length = 16)
+    private String algoType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private AlgoStatus status;
+
+    // JSON: parameters, progress and per-child fills
+    @Lob
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String snapshot;
+
+    @CreationTimestamp
+    private Instant createdAt;
+
+    @UpdateTimestamp
+    private Instant updatedAt;
+}
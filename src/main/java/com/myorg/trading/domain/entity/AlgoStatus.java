@@ -0,0 +1,12 @@
+package com.myorg.trading.domain.entity;
+
+/**
+ * Lifecycle of an execution algo. CANCELLING waits for the cancel of working child orders to be confirmed.
+ */
+public enum AlgoStatus {
+    RUNNING, CANCELLING, COMPLETED, CANCELLED, FAILED;
+
+    public boolean isTerminal() {
+        return this == COMPLETED || this == CANCELLED || this == FAILED;
+    }
+}
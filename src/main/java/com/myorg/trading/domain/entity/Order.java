@@ -3,13 +3,21 @@ package com.myorg.trading.domain.entity;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_orders_account_status", columnList = "broker_account_id, status"),
+        @Index(name = "idx_orders_parent", columnList = "parent_order_id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uq_orders_user_client_order", columnNames = {"user_id", "client_order_id"})
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -46,12 +54,28 @@ public class Order {
     // -----------------
 
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR) // not a MySQL ENUM, which would need a migration per new status
     @Column(length = 30)
     private OrderStatus status;
 
     @Column(name = "broker_order_id", length = 128)
     private String brokerOrderId;
 
+    // Broker-facing symbol and exchange the order was placed with, so a modification can resend them
+    @Column(name = "trading_symbol", length = 64)
+    private String tradingSymbol;
+
+    @Column(length = 16)
+    private String exchange;
+
+    // Client-supplied idempotency key; unique per user when present
+    @Column(name = "client_order_id", length = 64)
+    private String clientOrderId;
+
+    // Set on child slices of an execution algo; points at the parent order the algo is working
+    @Column(name = "parent_order_id")
+    private Long parentOrderId;
+
     @CreationTimestamp
     private Instant createdAt;
 
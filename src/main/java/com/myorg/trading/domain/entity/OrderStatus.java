@@ -2,11 +2,38 @@ package com.myorg.trading.domain.entity;
 
 public enum OrderStatus {
     PENDING,
+    // Claimed by a node that is sending it to the broker
+    SUBMITTING,
     PLACED,
     PARTIALLY_FILLED,
+    // Parent of an execution algo while it runs; its child orders are the ones at the broker
+    WORKING,
     FILLED,
     CANCELLED,
     FAILED,
     REJECTED,
-    EXECUTED
+    EXECUTED;
+
+    /**
+     * True once the order can no longer change state at the broker.
+     */
+    public boolean isTerminal() {
+        return this == FILLED || this == CANCELLED || this == FAILED || this == REJECTED || this == EXECUTED;
+    }
+
+    /**
+     * Map a canonical broker status (see BrokerOrderStatus) to our lifecycle status.
+     * Returns null for statuses we don't track (the order is left unchanged).
+     */
+    public static OrderStatus fromBrokerStatus(String brokerStatus) {
+        if (brokerStatus == null) return null;
+        return switch (brokerStatus.toUpperCase()) {
+            case "NEW", "OPEN", "PLACED", "PENDING", "TRANSIT" -> PLACED;
+            case "PARTIALLY_FILLED", "PART_TRADED" -> PARTIALLY_FILLED;
+            case "FILLED", "TRADED", "COMPLETE" -> FILLED;
+            case "CANCELLED", "EXPIRED" -> CANCELLED;
+            case "REJECTED" -> REJECTED;
+            default -> null;
+        };
+    }
 }
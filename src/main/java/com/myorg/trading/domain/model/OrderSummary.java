@@ -0,0 +1,31 @@
+package com.myorg.trading.domain.model;
+
+import com.myorg.trading.domain.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Read-only projection of an Order row for history listings.
+ * Populated by a JPQL constructor expression so list pages don't hydrate managed entities.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummary {
+    private Long id;
+    private Long brokerAccountId;
+    private String symbol;
+    private String side;
+    private BigDecimal quantity;
+    private BigDecimal price;
+    private String orderType;
+    private String productType;
+    private OrderStatus status;
+    private String brokerOrderId;
+    private Instant createdAt;
+    private Instant executedAt;
+}
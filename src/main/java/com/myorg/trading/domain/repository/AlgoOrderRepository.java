@@ -0,0 +1,38 @@
+package com.myorg.trading.domain.repository;
+
+import com.myorg.trading.domain.entity.AlgoOrder;
+import com.myorg.trading.domain.entity.AlgoStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface AlgoOrderRepository extends JpaRepository<AlgoOrder, Long> {
+    List<AlgoOrder> findByStatusIn(Collection<AlgoStatus> statuses);
+    List<AlgoOrder> findByUserId(Long userId);
+
+    /**
+     * Which of these order ids are algo parents (their fills are booked through their child orders).
+     */
+    @Query("select a.parentOrderId from AlgoOrder a where a.parentOrderId in :orderIds")
+    List<Long> findParentOrderIdsIn(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Ask whichever node runs the algo to cancel it; returns 1 if the user has such an active algo.
+     * cancel_requested is not mapped on {@link AlgoOrder}, so the owner's checkpoints never overwrite it.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "update algo_orders set cancel_requested = true"
+            + " where parent_order_id = :id and user_id = :userId and status in ('RUNNING', 'CANCELLING')",
+            nativeQuery = true)
+    int requestCancel(@Param("id") Long parentOrderId, @Param("userId") Long userId);
+
+    @Query(value = "select parent_order_id from algo_orders where cancel_requested = true and status = 'RUNNING'",
+            nativeQuery = true)
+    List<Long> findCancelRequested();
+}
@@ -9,4 +9,5 @@ import java.util.Optional;
 public interface BrokerAccountRepository extends JpaRepository<BrokerAccount, Long> {
     List<BrokerAccount> findByUserId(Long userId);
     Optional<BrokerAccount> findByUserIdAndBrokerId(Long userId, String brokerId);
+    Optional<BrokerAccount> findByIdAndUserId(Long id, Long userId);
 }
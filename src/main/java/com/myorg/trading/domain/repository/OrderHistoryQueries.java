@@ -0,0 +1,21 @@
+package com.myorg.trading.domain.repository;
+
+import com.myorg.trading.domain.entity.OrderStatus;
+import com.myorg.trading.domain.model.OrderSummary;
+import org.springframework.data.domain.Limit;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Order history listing, with a query built for the filters actually given.
+ */
+public interface OrderHistoryQueries {
+
+    /**
+     * Keyset page of a user's order history, newest first. Served by idx_orders_user_created.
+     * Pass null cursor values for the first page and null filters to disable them.
+     */
+    List<OrderSummary> findHistoryPage(Long userId, OrderStatus status, String symbol, Long accountId,
+                                       Instant from, Instant to, Instant cursorCreatedAt, Long cursorId, Limit limit);
+}
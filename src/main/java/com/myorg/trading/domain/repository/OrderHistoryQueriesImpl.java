@@ -0,0 +1,76 @@
+package com.myorg.trading.domain.repository;
+
+import com.myorg.trading.domain.entity.OrderStatus;
+import com.myorg.trading.domain.model.OrderSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Limit;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Only the filters that are set go into the where clause. A single query with {@code (:x is null or ...)}
+ * for every filter is planned once for all combinations, and MySQL will not use idx_orders_user_created
+ * as a range through those ORs. Each combination gets its own JPQL string (at most 64) and so its own
+ * cached plan.
+ */
+class OrderHistoryQueriesImpl implements OrderHistoryQueries {
+
+    private static final String SELECT = """
+            select new com.myorg.trading.domain.model.OrderSummary(
+                o.id, o.brokerAccountId, o.symbol, o.side, o.quantity, o.price, o.orderType,
+                o.productType, o.status, o.brokerOrderId, o.createdAt, o.executedAt)
+            from Order o
+            where o.userId = :userId""";
+
+    private final EntityManager entityManager;
+
+    OrderHistoryQueriesImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<OrderSummary> findHistoryPage(Long userId, OrderStatus status, String symbol, Long accountId,
+                                              Instant from, Instant to, Instant cursorCreatedAt, Long cursorId,
+                                              Limit limit) {
+        StringBuilder jpql = new StringBuilder(SELECT);
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("userId", userId);
+        if (status != null) {
+            jpql.append(" and o.status = :status");
+            params.put("status", status);
+        }
+        if (symbol != null) {
+            jpql.append(" and o.symbol = :symbol");
+            params.put("symbol", symbol);
+        }
+        if (accountId != null) {
+            jpql.append(" and o.brokerAccountId = :accountId");
+            params.put("accountId", accountId);
+        }
+        if (from != null) {
+            jpql.append(" and o.createdAt >= :from");
+            params.put("from", from);
+        }
+        if (to != null) {
+            jpql.append(" and o.createdAt < :to");
+            params.put("to", to);
+        }
+        if (cursorCreatedAt != null) {
+            // The <= bounds the index range; the OR only breaks ties on the cursor's own timestamp
+            jpql.append(" and o.createdAt <= :cursorCreatedAt"
+                    + " and (o.createdAt < :cursorCreatedAt or o.id < :cursorId)");
+            params.put("cursorCreatedAt", cursorCreatedAt);
+            params.put("cursorId", cursorId);
+        }
+        jpql.append(" order by o.createdAt desc, o.id desc");
+
+        TypedQuery<OrderSummary> query = entityManager.createQuery(jpql.toString(), OrderSummary.class);
+        params.forEach(query::setParameter);
+        if (limit.isLimited()) query.setMaxResults(limit.max());
+        return query.getResultList();
+    }
+}
@@ -3,11 +3,41 @@ package com.myorg.trading.domain.repository;
 import com.myorg.trading.domain.entity.Order;
 import com.myorg.trading.domain.entity.OrderStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderHistoryQueries {
     List<Order> findByUserId(Long userId);
     List<Order> findByBrokerAccountId(Long brokerAccountId);
     List<Order> findByStatus(OrderStatus status);
+    List<Order> findByStatusIn(Collection<OrderStatus> statuses);
+    Optional<Order> findByUserIdAndClientOrderId(Long userId, String clientOrderId);
+
+    /**
+     * Move an order to {@code to} only if it is still in {@code from}; returns 1 if this caller won.
+     * Commits on its own, so a second node racing for the same order sees the claim immediately.
+     */
+    default int compareAndSetStatus(Long id, OrderStatus from, OrderStatus to) {
+        return compareAndSetStatus(id, from, to, Instant.now());
+    }
+
+    /**
+     * {@link #compareAndSetStatus(Long, OrderStatus, OrderStatus)}, stamping {@code updatedAt} with the
+     * time of the move (a bulk update bypasses {@code @UpdateTimestamp}).
+     */
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query("update Order o set o.status = :to, o.updatedAt = :at where o.id = :id and o.status = :from")
+    int compareAndSetStatus(@Param("id") Long id, @Param("from") OrderStatus from, @Param("to") OrderStatus to,
+                            @Param("at") Instant at);
+
+    List<Order> findByStatusAndUpdatedAtBefore(OrderStatus status, Instant before);
 }
@@ -2,10 +2,19 @@ package com.myorg.trading.domain.repository;
 
 import com.myorg.trading.domain.entity.ScheduledOrder;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ScheduledOrderRepository extends JpaRepository<ScheduledOrder, Long> {
     List<ScheduledOrder> findByActiveTrue();
     List<ScheduledOrder> findByOrderId(Long orderId);
+
+    /**
+     * Which of these orders are waiting on a schedule.
+     */
+    @Query("select s.orderId from ScheduledOrder s where s.orderId in :orderIds and s.active = true")
+    List<Long> findScheduledOrderIdsIn(@Param("orderIds") Collection<Long> orderIds);
 }
@@ -23,13 +23,11 @@ public class AccessGuard {
      */
     public boolean isOrderOwner(Long orderId, Object principal) {
         if (principal == null) return false;
-        String username;
-        if (principal instanceof UserDetails ud) username = ud.getUsername();
-        else username = principal.toString();
-
         Long userId;
         try {
-            userId = userService.getUserIdForUsername(username);
+            userId = principal instanceof UserDetails ud
+                    ? userService.getUserId(ud)
+                    : userService.getUserIdForUsername(principal.toString());
         } catch (Exception e) {
             return false;
         }
@@ -6,6 +6,10 @@ import com.myorg.trading.security.dto.RegisterRequest;
 
 import com.myorg.trading.domain.entity.User;
 import com.myorg.trading.domain.repository.UserRepository;
+import com.myorg.trading.service.audit.AuditAction;
+import com.myorg.trading.service.audit.AuditLogWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.*;
@@ -23,15 +27,23 @@ public class AuthController {
     private final JwtUtil jwtUtil;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final AuditLogWriter auditLog;
+    private final Counter loginSuccess;
+    private final Counter loginFailure;
 
     public AuthController(AuthenticationManager authenticationManager,
                           JwtUtil jwtUtil,
                           UserRepository userRepository,
-                          PasswordEncoder passwordEncoder) {
+                          PasswordEncoder passwordEncoder,
+                          AuditLogWriter auditLog,
+                          MeterRegistry meterRegistry) {
         this.authenticationManager = authenticationManager;
         this.jwtUtil = jwtUtil;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.auditLog = auditLog;
+        this.loginSuccess = Counter.builder("trading.auth.logins").tag("outcome", "success").register(meterRegistry);
+        this.loginFailure = Counter.builder("trading.auth.logins").tag("outcome", "failure").register(meterRegistry);
     }
 
     @PostMapping("/login")
@@ -41,9 +53,14 @@ public class AuthController {
                     new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
             );
 
-            String token = jwtUtil.generateToken(request.getUsername(), Map.of("role", "ROLE_USER"));
+            User u = userRepository.findByUsername(request.getUsername()).orElseThrow();
+            String token = jwtUtil.generateToken(u.getUsername(), claims(u));
+            loginSuccess.increment();
+            auditLog.record(u.getId(), AuditAction.LOGIN, AuditLogWriter.fields("username", request.getUsername()));
             return ResponseEntity.ok(new LoginResponse(token));
         } catch (BadCredentialsException ex) {
+            loginFailure.increment();
+            auditLog.record(null, AuditAction.LOGIN_FAILED, AuditLogWriter.fields("username", request.getUsername()));
             return ResponseEntity.status(401).body(Map.of("error", "Invalid username/password"));
         }
     }
@@ -59,7 +76,14 @@ public class AuthController {
                 .role("ROLE_USER")
                 .build();
         userRepository.save(u);
-        String token = jwtUtil.generateToken(u.getUsername(), Map.of("role", u.getRole()));
+        auditLog.record(u.getId(), AuditAction.REGISTER, AuditLogWriter.fields("username", u.getUsername()));
+        String token = jwtUtil.generateToken(u.getUsername(), claims(u));
         return ResponseEntity.ok(new LoginResponse(token));
     }
+
+    // Everything a request needs to authenticate travels in the token, so it costs no user lookup
+    private static Map<String, Object> claims(User u) {
+        return Map.of(VerifiedTokenCache.ROLE_CLAIM, u.getRole() != null ? u.getRole() : "ROLE_USER",
+                VerifiedTokenCache.USER_ID_CLAIM, u.getId());
+    }
 }
@@ -0,0 +1,49 @@
+package com.myorg.trading.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal of a JWT-authenticated request, built from the token's claims (subject, "uid", "role") so
+ * that neither authentication nor controllers need a user lookup. Has no password.
+ */
+public final class AuthenticatedUser implements UserDetails {
+
+    private final Long userId;
+    private final String username;
+    private final List<GrantedAuthority> authorities;
+
+    public AuthenticatedUser(Long userId, String username, String role) {
+        this.userId = userId;
+        this.username = username;
+        this.authorities = List.of(new SimpleGrantedAuthority(role != null ? role : "ROLE_USER"));
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String toString() {
+        return username;
+    }
+}
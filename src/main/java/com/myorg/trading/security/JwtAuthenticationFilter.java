@@ -7,9 +7,10 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -20,12 +21,13 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
-    private final JwtUtil jwtUtil;
-    private final UserDetailsService userDetailsService;
+    private final VerifiedTokenCache tokenCache;
+    // Async dispatches (Mono/Flux/SSE responses) and error dispatches skip this filter; they restore the
+    // authentication from the request instead of ending up anonymous (401)
+    private final SecurityContextRepository contextRepository = new RequestAttributeSecurityContextRepository();
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
-        this.jwtUtil = jwtUtil;
-        this.userDetailsService = userDetailsService;
+    public JwtAuthenticationFilter(VerifiedTokenCache tokenCache) {
+        this.tokenCache = tokenCache;
     }
 
     @Override
@@ -50,39 +52,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         logger.debug("Processing request: {} {}", request.getMethod(), requestURI);
 
         if (StringUtils.hasText(header) && header.startsWith("Bearer ")) {
-            String token = header.substring(7);
-            try {
-                // Extract username from token
-                String username = jwtUtil.getUsername(token);
-                logger.debug("Extracted username from token: {}", username);
-
-                // Only authenticate if not already authenticated
-                if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-
-                    // Load user details
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-                    // Validate token
-                    try {
-                        jwtUtil.validateToken(token);
-
-                        // Token is valid, set authentication
-                        UsernamePasswordAuthenticationToken authentication =
-                                new UsernamePasswordAuthenticationToken(
-                                        userDetails,
-                                        null,
-                                        userDetails.getAuthorities()
-                                );
-                        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                        SecurityContextHolder.getContext().setAuthentication(authentication);
-
-                        logger.debug("✅ Authentication successful for user: {} on path: {}", username, requestURI);
-                    } catch (Exception validationEx) {
-                        logger.warn("⚠️ Token validation failed for user {}: {}", username, validationEx.getMessage());
-                    }
+            // Only authenticate if not already authenticated
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                try {
+                    // Verified once per token, then served from the cache: no DB hit per request
+                    AuthenticatedUser user = tokenCache.authenticate(header.substring(7));
+
+                    UsernamePasswordAuthenticationToken authentication =
+                            new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContext context = SecurityContextHolder.createEmptyContext();
+                    context.setAuthentication(authentication);
+                    SecurityContextHolder.setContext(context);
+                    contextRepository.saveContext(context, request, response);
+
+                    logger.debug("✅ Authentication successful for user: {} on path: {}", user.getUsername(), requestURI);
+                } catch (Exception ex) {
+                    logger.warn("⚠️ Token validation failed for {}: {}", requestURI, ex.getMessage());
                 }
-            } catch (Exception ex) {
-                logger.error("❌ Error processing JWT for {}: {}", requestURI, ex.getMessage());
             }
         } else if (!shouldNotFilter(request)) {
             logger.debug("No Authorization header found for protected route: {}", requestURI);
@@ -1,6 +1,7 @@
 package com.myorg.trading.security;
 
 import com.myorg.trading.security.JwtAuthenticationFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -25,9 +26,12 @@ import java.util.List;
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final int managementPort;
 
-    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter) {
+    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter,
+                          @Value("${management.server.port:-1}") int managementPort) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.managementPort = managementPort;
     }
 
     @Bean
@@ -41,6 +45,13 @@ public class SecurityConfig {
                         // Public Endpoints
                         .requestMatchers("/api/v1/auth/**").permitAll()
                         .requestMatchers("/ws/**").permitAll()
+                        // Node-to-node calls carry the cluster secret instead of a user JWT
+                        .requestMatchers("/internal/cluster/**").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        // Prometheus scrape: unauthenticated only on the separate management port, which
+                        // stays off the public network; anywhere else it needs a login like the API
+                        .requestMatchers(request -> request.getLocalPort() == managementPort
+                                && "/actuator/prometheus".equals(request.getRequestURI())).permitAll()
                         // Secured Endpoints
                         .anyRequest().authenticated()
                 )
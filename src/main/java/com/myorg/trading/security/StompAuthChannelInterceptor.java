@@ -0,0 +1,46 @@
+package com.myorg.trading.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Authenticates STOMP CONNECT frames carrying an "Authorization: Bearer <jwt>" native header.
+ * Anonymous connections are still accepted (public market data topics); they simply can't
+ * receive /user/** destinations.
+ */
+@Slf4j
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private final VerifiedTokenCache tokenCache;
+
+    public StompAuthChannelInterceptor(VerifiedTokenCache tokenCache) {
+        this.tokenCache = tokenCache;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || !StompCommand.CONNECT.equals(accessor.getCommand())) {
+            return message;
+        }
+
+        String header = accessor.getFirstNativeHeader("Authorization");
+        if (StringUtils.hasText(header) && header.startsWith("Bearer ")) {
+            try {
+                AuthenticatedUser user = tokenCache.authenticate(header.substring(7));
+                accessor.setUser(new StompPrincipal(user.getUserId().toString(), user.getUsername()));
+            } catch (Exception e) {
+                log.warn("Rejected STOMP credentials: {}", e.getMessage());
+            }
+        }
+        return message;
+    }
+}
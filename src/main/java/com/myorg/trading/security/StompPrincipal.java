@@ -0,0 +1,15 @@
+package com.myorg.trading.security;
+
+import java.security.Principal;
+
+/**
+ * Principal attached to authenticated STOMP sessions. The name is the userId so that
+ * server code can address users with convertAndSendToUser(userId.toString(), ...).
+ */
+public record StompPrincipal(String name, String username) implements Principal {
+
+    @Override
+    public String getName() {
+        return name;
+    }
+}
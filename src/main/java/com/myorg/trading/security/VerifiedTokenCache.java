@@ -0,0 +1,112 @@
+package com.myorg.trading.security;
+
+import com.myorg.trading.domain.entity.User;
+import com.myorg.trading.domain.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns a bearer token into an {@link AuthenticatedUser}. The signature is verified once per token; the
+ * result is then cached, keyed by the token's SHA-256 (raw tokens are not kept), until the token expires.
+ * The principal comes from the claims alone. Only tokens issued before they carried a "uid" claim cost
+ * a user lookup, once.
+ *
+ * As with any stateless JWT, a token stays valid until it expires, cached or not.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLE_CLAIM = "role";
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private record Entry(AuthenticatedUser user, long expiresAt) {
+    }
+
+    private final JwtUtil jwtUtil;
+    private final UserRepository userRepository;
+    private final int maxEntries;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public VerifiedTokenCache(JwtUtil jwtUtil,
+                              UserRepository userRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.jwt.cache-max-entries:50000}") int maxEntries) {
+        this.jwtUtil = jwtUtil;
+        this.userRepository = userRepository;
+        this.maxEntries = maxEntries;
+        this.hits = Counter.builder("trading.auth.token.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("trading.auth.token.cache").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("trading.auth.token.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * @throws JwtException if the token is malformed, badly signed, expired or names an unknown user
+     */
+    public AuthenticatedUser authenticate(String token) {
+        String key = hash(token);
+        long now = System.currentTimeMillis();
+        Entry cached = entries.get(key);
+        if (cached != null) {
+            if (now < cached.expiresAt) {
+                hits.increment();
+                return cached.user;
+            }
+            entries.remove(key, cached);
+        }
+        misses.increment();
+
+        Claims claims = jwtUtil.validateToken(token).getBody();
+        AuthenticatedUser user = principal(claims);
+        if (claims.getExpiration() != null) {
+            if (entries.size() >= maxEntries) evictExpired();
+            if (entries.size() < maxEntries) entries.put(key, new Entry(user, claims.getExpiration().getTime()));
+        }
+        return user;
+    }
+
+    private AuthenticatedUser principal(Claims claims) {
+        String username = claims.getSubject();
+        if (username == null) throw new JwtException("Token has no subject");
+        Number uid = claims.get(USER_ID_CLAIM, Number.class);
+        if (uid != null) return new AuthenticatedUser(uid.longValue(), username, claims.get(ROLE_CLAIM, String.class));
+
+        // Issued before tokens carried the user id
+        User u = userRepository.findByUsername(username)
+                .orElseThrow(() -> new JwtException("Unknown user " + username));
+        return new AuthenticatedUser(u.getId(), username, u.getRole());
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.cache-sweep-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(e -> e.expiresAt <= now);
+    }
+
+    private static String hash(String token) {
+        byte[] digest = SHA256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().withoutPadding().encodeToString(digest);
+    }
+}
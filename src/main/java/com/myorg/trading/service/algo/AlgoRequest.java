@@ -0,0 +1,32 @@
+package com.myorg.trading.service.algo;
+
+/**
+ * A parent order and how to work it.
+ *
+ * @param durationSeconds  TWAP: the schedule length (required). VWAP: optional deadline, after which the
+ *                         remainder is sent regardless of volume
+ * @param slices           TWAP slice count (default one per 30 seconds)
+ * @param participation    VWAP share of traded volume, 0 &lt; p &lt;= 0.5
+ * @param displayQuantity  ICEBERG visible size
+ * @param limitPrice       worst price for any child; required for ICEBERG. Without it and without
+ *                         {@code priceOffsetBps} children are MARKET orders
+ * @param priceOffsetBps   peg children this far through the last traded price (positive = more aggressive);
+ *                         pegged children that go stale are repriced
+ * @param maxChildQuantity cap on a single child, e.g. the exchange freeze quantity
+ */
+public record AlgoRequest(String type,
+                          Long brokerAccountId,
+                          String instrumentToken,
+                          String tradingSymbol,
+                          String exchange,
+                          String side,
+                          Double quantity,
+                          Double limitPrice,
+                          String productType,
+                          Integer durationSeconds,
+                          Integer slices,
+                          Double participation,
+                          Double displayQuantity,
+                          Double priceOffsetBps,
+                          Double maxChildQuantity) {
+}
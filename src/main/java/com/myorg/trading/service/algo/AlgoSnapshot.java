@@ -0,0 +1,30 @@
+package com.myorg.trading.service.algo;
+
+import com.myorg.trading.domain.entity.AlgoStatus;
+import com.myorg.trading.domain.entity.OrderStatus;
+
+import java.util.List;
+
+/**
+ * What is checkpointed to {@code algo_orders.snapshot}: enough to rebuild a {@link ParentAlgo} after a
+ * restart. Only open children are kept; the fills of finished ones are already in {@code filled}/{@code notional}.
+ */
+record AlgoSnapshot(AlgoRequest request,
+                    AlgoStatus status,
+                    AlgoStatus finalStatus,
+                    String reason,
+                    long startedAt,
+                    long endsAt,
+                    int slices,
+                    double maxChild,
+                    double volumeSeen,
+                    double filled,
+                    double notional,
+                    int childrenSent,
+                    int consecutiveFailures,
+                    List<Child> children) {
+
+    record Child(Long orderId, double quantity, Double price, double filled, double notional,
+                 OrderStatus status, long sentAt) {
+    }
+}
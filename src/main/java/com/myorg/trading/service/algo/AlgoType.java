@@ -0,0 +1,13 @@
+package com.myorg.trading.service.algo;
+
+/**
+ * How an execution algo decides how much of the parent order should have been sent by now.
+ */
+public enum AlgoType {
+    /** Equal slices on a timer: slice k of n is released at start + k * duration / n. */
+    TWAP,
+    /** Volume participation: sends {@code participation} of the volume traded in each completed bar. */
+    VWAP,
+    /** Shows only {@code displayQuantity} at the limit price; the next slice goes out when one is done. */
+    ICEBERG
+}
@@ -0,0 +1,25 @@
+package com.myorg.trading.service.algo;
+
+import com.myorg.trading.domain.entity.AlgoStatus;
+
+import java.time.Instant;
+
+/**
+ * Snapshot of an execution algo for the REST API.
+ *
+ * @param working quantity in child orders that are open at the broker (or being placed)
+ */
+public record AlgoView(Long parentOrderId,
+                       AlgoType type,
+                       String instrumentToken,
+                       String side,
+                       double quantity,
+                       double filled,
+                       Double avgFillPrice,
+                       double working,
+                       int childrenSent,
+                       AlgoStatus status,
+                       String reason,
+                       Instant startedAt,
+                       Instant endsAt) {
+}
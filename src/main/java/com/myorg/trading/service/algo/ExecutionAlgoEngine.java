@@ -0,0 +1,767 @@
+package com.myorg.trading.service.algo;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myorg.trading.broker.api.MarketDataTick;
+import com.myorg.trading.domain.entity.AlgoOrder;
+import com.myorg.trading.domain.entity.AlgoStatus;
+import com.myorg.trading.domain.entity.Order;
+import com.myorg.trading.domain.entity.OrderStatus;
+import com.myorg.trading.domain.repository.AlgoOrderRepository;
+import com.myorg.trading.domain.repository.OrderRepository;
+import com.myorg.trading.service.audit.AuditAction;
+import com.myorg.trading.service.audit.AuditLogWriter;
+import com.myorg.trading.service.cluster.ClusterMembership;
+import com.myorg.trading.service.indicator.Bar;
+import com.myorg.trading.service.indicator.BarAggregator;
+import com.myorg.trading.service.indicator.Timeframe;
+import com.myorg.trading.service.marketdata.MarketDataService;
+import com.myorg.trading.service.marketdata.TickListener;
+import com.myorg.trading.service.strategy.StrategyOrderGateway;
+import com.myorg.trading.service.trading.OrderEvent;
+import com.myorg.trading.service.trading.OrderEventPublisher;
+import com.myorg.trading.service.trading.OrderModificationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Works large parent orders as a stream of child orders (TWAP, VWAP-style volume participation, iceberg)
+ * instead of one {@code placeOrder} that moves the price or trips the exchange freeze quantity.
+ *
+ * All algo state lives on one "algo-engine" thread: a timer wakes it every {@code tick-ms} to release the
+ * next slices, reprice stale pegged children and wind down cancelled algos, and child order events are
+ * posted to it. The feed thread only updates last price and bar volume for instruments that have algos.
+ * Children go through {@link StrategyOrderGateway}, so each one gets the normal pre-trade risk check, and
+ * are linked to the parent by {@code parent_order_id}.
+ *
+ * Progress is checkpointed to {@code algo_orders} every {@code persist-ms}; the parent order's status and
+ * fill are published from there too. An algo runs on the node that owns its broker account; a row whose
+ * checkpoint has gone stale (its node died or the account moved) is adopted by the new owner.
+ */
+@Slf4j
+@Component
+@org.springframework.core.annotation.Order(300)
+public class ExecutionAlgoEngine implements TickListener {
+
+    private static final double EPS = 1e-9;
+    private static final EnumSet<AlgoStatus> ACTIVE = EnumSet.of(AlgoStatus.RUNNING, AlgoStatus.CANCELLING);
+
+    private final StrategyOrderGateway gateway;
+    private final OrderModificationService modificationService;
+    private final OrderRepository orderRepository;
+    private final AlgoOrderRepository algoRepository;
+    private final OrderEventPublisher eventPublisher;
+    private final ClusterMembership membership;
+    private final MarketDataService marketDataService;
+    private final ObjectMapper objectMapper;
+    private final AuditLogWriter auditLog;
+    private final Timeframe barTimeframe;
+    private final long repriceAfterMs;
+    private final long cancelTimeoutMs;
+    private final long staleAfterMs;
+    private final int maxChildFailures;
+    private final int maxWorkingChildren;
+    private final int maxPerUser;
+    private final double defaultMaxChild;
+    private final double priceTick;
+    private final ScheduledExecutorService loop;
+    // Blocking modify / cancel calls, kept off the engine thread
+    private final ExecutorService brokerCalls;
+    private final Map<Long, ParentAlgo> algos = new ConcurrentHashMap<>();
+    private final Map<Long, ParentAlgo.ChildSlice> byChild = new ConcurrentHashMap<>();
+    private final Map<String, InstrumentFeed> feeds = new ConcurrentHashMap<>();
+    private final Counter childrenSent;
+    private final Counter reprices;
+
+    public ExecutionAlgoEngine(StrategyOrderGateway gateway,
+                               OrderModificationService modificationService,
+                               OrderRepository orderRepository,
+                               AlgoOrderRepository algoRepository,
+                               OrderEventPublisher eventPublisher,
+                               ClusterMembership membership,
+                               MarketDataService marketDataService,
+                               ObjectMapper objectMapper,
+                               AuditLogWriter auditLog,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.algos.tick-ms:500}") long tickMs,
+                               @Value("${app.algos.bar-timeframe:1M}") String barTimeframe,
+                               @Value("${app.algos.reprice-after-ms:10000}") long repriceAfterMs,
+                               @Value("${app.algos.cancel-timeout-ms:30000}") long cancelTimeoutMs,
+                               @Value("${app.algos.persist-ms:2000}") long persistMs,
+                               @Value("${app.algos.max-child-failures:3}") int maxChildFailures,
+                               @Value("${app.algos.max-working-children:2}") int maxWorkingChildren,
+                               @Value("${app.algos.max-per-user:20}") int maxPerUser,
+                               @Value("${app.algos.max-child-quantity:0}") double defaultMaxChild,
+                               @Value("${app.algos.price-tick:0.05}") double priceTick) {
+        this.gateway = gateway;
+        this.modificationService = modificationService;
+        this.orderRepository = orderRepository;
+        this.algoRepository = algoRepository;
+        this.eventPublisher = eventPublisher;
+        this.membership = membership;
+        this.marketDataService = marketDataService;
+        this.objectMapper = objectMapper;
+        this.auditLog = auditLog;
+        this.barTimeframe = Timeframe.parse(barTimeframe);
+        if (this.barTimeframe.isTick()) throw new IllegalArgumentException("app.algos.bar-timeframe needs a bar width");
+        this.repriceAfterMs = repriceAfterMs;
+        this.cancelTimeoutMs = cancelTimeoutMs;
+        this.staleAfterMs = 3 * persistMs;
+        this.maxChildFailures = Math.max(1, maxChildFailures);
+        this.maxWorkingChildren = Math.max(1, maxWorkingChildren);
+        this.maxPerUser = maxPerUser;
+        this.defaultMaxChild = defaultMaxChild > 0 ? Math.floor(defaultMaxChild) : Double.MAX_VALUE;
+        this.priceTick = priceTick;
+
+        this.loop = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "algo-engine");
+            t.setDaemon(true);
+            return t;
+        });
+        loop.scheduleWithFixedDelay(this::evaluateAll, tickMs, tickMs, TimeUnit.MILLISECONDS);
+        AtomicInteger n = new AtomicInteger();
+        this.brokerCalls = Executors.newFixedThreadPool(2, r -> {
+            Thread t = new Thread(r, "algo-broker-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        this.childrenSent = Counter.builder("trading.algos.children")
+                .description("Child orders sent by execution algos")
+                .register(meterRegistry);
+        this.reprices = Counter.builder("trading.algos.reprices")
+                .description("Stale pegged child orders repriced")
+                .register(meterRegistry);
+        Gauge.builder("trading.algos.running", algos,
+                m -> m.values().stream().filter(a -> !a.status.isTerminal()).count()).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loop.shutdownNow();
+        brokerCalls.shutdownNow();
+    }
+
+    @Override
+    public void onTick(String instrumentToken, MarketDataTick tick) {
+        InstrumentFeed feed = feeds.get(instrumentToken);
+        if (feed == null || tick.getLastPrice() == null) return;
+        long ts = tick.getTimestamp() != null ? tick.getTimestamp().toEpochMilli() : System.currentTimeMillis();
+        feed.onTick(ts, tick.getLastPrice().doubleValue(), tick.getVolume());
+    }
+
+    /**
+     * Validate and start an algo: saves the parent order (WORKING while it runs) and its first
+     * checkpoint. Account ownership is checked by the caller.
+     */
+    public AlgoView start(Long userId, AlgoRequest req) {
+        AlgoType type = validate(req);
+        long owned = algos.values().stream().filter(a -> a.userId.equals(userId) && !a.status.isTerminal()).count();
+        if (owned >= maxPerUser) throw new IllegalArgumentException("At most " + maxPerUser + " running algos per user");
+
+        long now = System.currentTimeMillis();
+        long endsAt = req.durationSeconds() != null ? now + req.durationSeconds() * 1000L : 0;
+        int slices = type == AlgoType.TWAP
+                ? (req.slices() != null ? req.slices() : Math.max(1, req.durationSeconds() / 30))
+                : 1;
+        double maxChild = req.maxChildQuantity() != null ? Math.floor(req.maxChildQuantity()) : defaultMaxChild;
+
+        Order parent = orderRepository.save(Order.builder()
+                .userId(userId)
+                .brokerAccountId(req.brokerAccountId())
+                .symbol(req.instrumentToken())
+                .side(req.side().toUpperCase(Locale.ROOT))
+                .quantity(BigDecimal.valueOf(req.quantity()))
+                .price(req.limitPrice() != null ? BigDecimal.valueOf(req.limitPrice()) : null)
+                .orderType(req.limitPrice() != null ? "LIMIT" : "MARKET")
+                .productType(req.productType() != null ? req.productType() : "INTRADAY")
+                .status(OrderStatus.WORKING)
+                .build());
+        eventPublisher.publishAlgoParent(parent, null, null, null, type + " algo started");
+
+        ParentAlgo algo = new ParentAlgo(parent.getId(), userId, type, req, now, endsAt, slices, maxChild);
+        algo.refreshView();
+        algoRepository.save(checkpointRow(algo));
+        algos.put(algo.parentOrderId, algo);
+        post(() -> activate(algo));
+        auditLog.record(userId, AuditAction.START_ALGO, AuditLogWriter.fields(
+                "parentOrderId", algo.parentOrderId,
+                "type", type.name(),
+                "request", req));
+        log.info("Started {} algo {} for user {}: {} {} {}", type, algo.parentOrderId, userId, req.side(),
+                req.quantity(), req.instrumentToken());
+        return algo.view;
+    }
+
+    /**
+     * Stop releasing slices and cancel working children; the algo ends CANCELLED once they are closed.
+     * An algo run by another node is flagged in {@code algo_orders}, and its node stops it on the next
+     * checkpoint.
+     *
+     * @return false if the user has no such active algo
+     */
+    public boolean cancel(Long userId, Long parentOrderId) {
+        ParentAlgo algo = algos.get(parentOrderId);
+        if (algo != null) {
+            if (!algo.userId.equals(userId)) return false;
+            post(() -> stop(algo, AlgoStatus.CANCELLED, "Cancelled by user"));
+        } else if (algoRepository.requestCancel(parentOrderId, userId) == 0) {
+            return false;
+        }
+        auditLog.record(userId, AuditAction.CANCEL_ALGO, AuditLogWriter.fields("parentOrderId", parentOrderId));
+        return true;
+    }
+
+    public AlgoView get(Long userId, Long parentOrderId) {
+        ParentAlgo algo = algos.get(parentOrderId);
+        if (algo != null) return algo.userId.equals(userId) ? algo.view : null;
+        return algoRepository.findById(parentOrderId)
+                .filter(row -> row.getUserId().equals(userId))
+                .map(row -> restore(row).view)
+                .orElse(null);
+    }
+
+    /**
+     * The user's algos, newest first: live state where this node runs them, the last checkpoint otherwise.
+     */
+    public List<AlgoView> list(Long userId) {
+        Map<Long, AlgoView> views = new LinkedHashMap<>();
+        for (AlgoOrder row : algoRepository.findByUserId(userId)) views.put(row.getParentOrderId(), restore(row).view);
+        for (ParentAlgo algo : algos.values()) {
+            if (algo.userId.equals(userId)) views.put(algo.parentOrderId, algo.view);
+        }
+        List<AlgoView> out = new ArrayList<>(views.values());
+        out.sort(Comparator.comparing(AlgoView::startedAt).reversed());
+        return out;
+    }
+
+    @EventListener
+    public void onOrderEvent(OrderEvent event) {
+        if (event.getOrderId() == null) return;
+        ParentAlgo.ChildSlice child = byChild.get(event.getOrderId());
+        if (child != null) post(() -> applyChildEvent(child, event));
+    }
+
+    /**
+     * Checkpoint every live algo (which doubles as its heartbeat), publish parent order progress, pick up
+     * child statuses whose events were published on another node, stop algos cancelled through another
+     * node, and adopt orphaned algos.
+     */
+    @Scheduled(fixedDelayString = "${app.algos.persist-ms:2000}")
+    public void persist() {
+        for (Checkpoint cp : onLoop(this::checkpoints)) {
+            try {
+                algoRepository.save(cp.row());
+                if (cp.parentStatus() != null) publishParent(cp);
+                if (cp.release()) algos.remove(cp.row().getParentOrderId());
+            } catch (RuntimeException e) {
+                log.warn("Checkpoint of algo {} failed: {}", cp.row().getParentOrderId(), e.getMessage());
+            }
+        }
+        reconcileChildren();
+        applyCancelRequests();
+        adoptOrphans();
+    }
+
+    // ---- engine thread ----
+
+    private void activate(ParentAlgo algo) {
+        marketDataService.requestFeed(algo.request.exchange(), algo.request.instrumentToken());
+        algo.feed = feeds.computeIfAbsent(algo.request.instrumentToken(), t -> new InstrumentFeed(t, barTimeframe));
+        algo.feed.users++;
+        algo.volumeBase = algo.feed.completedVolume - algo.volumeSeen;
+        for (ParentAlgo.ChildSlice c : algo.children) byChild.put(c.orderId, c);
+        algo.refreshView();
+    }
+
+    private void evaluateAll() {
+        long now = System.currentTimeMillis();
+        for (ParentAlgo algo : algos.values()) {
+            if (algo.feed == null || algo.status.isTerminal()) continue;
+            try {
+                evaluate(algo, now);
+            } catch (RuntimeException e) {
+                // Never let an exception escape: it would cancel the periodic task for every algo
+                log.warn("Algo {} evaluation failed", algo.parentOrderId, e);
+                stop(algo, AlgoStatus.FAILED, "Internal error: " + e.getMessage());
+            }
+        }
+    }
+
+    private void evaluate(ParentAlgo algo, long now) {
+        algo.volumeSeen = algo.feed.completedVolume - algo.volumeBase;
+        if (algo.status == AlgoStatus.CANCELLING) {
+            if (algo.children.isEmpty() || now - algo.stoppingSince > cancelTimeoutMs) {
+                close(algo, algo.finalStatus);
+            } else {
+                cancelChildren(algo); // children that were still being placed when the algo stopped
+            }
+            return;
+        }
+        if (algo.filled >= algo.quantity - EPS) {
+            close(algo, AlgoStatus.COMPLETED);
+            return;
+        }
+
+        double last = algo.feed.lastPrice;
+        repriceStale(algo, last, now);
+
+        double due = Math.floor(algo.target(now) - algo.filled - algo.working() + EPS);
+        if (due < 1 || algo.children.size() >= maxWorkingChildren) return;
+        Double price = childPrice(algo, last);
+        if (price != null && price.isNaN()) return; // pegged, and no trade seen yet
+        send(algo, Math.min(due, algo.maxChild), price, now);
+    }
+
+    private void send(ParentAlgo algo, double quantity, Double price, long now) {
+        ParentAlgo.ChildSlice child = new ParentAlgo.ChildSlice(algo, quantity, price, now);
+        algo.children.add(child);
+        algo.childrenSent++;
+        childrenSent.increment();
+
+        AlgoRequest req = algo.request;
+        Order order = Order.builder()
+                .userId(algo.userId)
+                .brokerAccountId(req.brokerAccountId())
+                .symbol(req.instrumentToken())
+                .side(algo.buy ? "BUY" : "SELL")
+                .quantity(BigDecimal.valueOf(quantity))
+                .price(price != null ? BigDecimal.valueOf(price) : null)
+                .orderType(price != null ? "LIMIT" : "MARKET")
+                .productType(req.productType() != null ? req.productType() : "INTRADAY")
+                .status(OrderStatus.PENDING)
+                .parentOrderId(algo.parentOrderId)
+                .build();
+        Map<String, Object> meta = new HashMap<>();
+        meta.put("tradingSymbol", req.tradingSymbol() != null ? req.tradingSymbol() : req.instrumentToken());
+        if (req.exchange() != null) meta.put("exchange", req.exchange());
+
+        gateway.submit(order, meta, saved -> {
+            child.orderId = saved.getId();
+            byChild.put(saved.getId(), child);
+        }, reason -> post(() -> childFailed(child, reason)));
+        algo.refreshView();
+    }
+
+    /**
+     * Limit price for the next child: pegged to the last trade when an offset is set, capped by the limit
+     * price. Null means MARKET; NaN means pegged but no price seen yet.
+     */
+    private Double childPrice(ParentAlgo algo, double last) {
+        Double limit = algo.request.limitPrice();
+        Double bps = algo.request.priceOffsetBps();
+        if (bps == null) return limit;
+        if (Double.isNaN(last)) return Double.NaN;
+        double px = roundToTick(algo.buy ? last * (1 + bps / 10_000) : last * (1 - bps / 10_000));
+        if (limit != null) px = algo.buy ? Math.min(px, limit) : Math.max(px, limit);
+        return px;
+    }
+
+    private double roundToTick(double price) {
+        if (priceTick <= 0) return price;
+        return BigDecimal.valueOf(Math.round(price / priceTick))
+                .multiply(BigDecimal.valueOf(priceTick))
+                .setScale(4, RoundingMode.HALF_UP)
+                .doubleValue();
+    }
+
+    /**
+     * Move pegged children that have rested longer than reprice-after-ms and whose peg has moved. If the
+     * broker cannot amend one (a partly filled order without native modify), it is cancelled instead and
+     * its remainder goes out again as a new slice.
+     */
+    private void repriceStale(ParentAlgo algo, double last, long now) {
+        if (algo.request.priceOffsetBps() == null || Double.isNaN(last)) return;
+        for (ParentAlgo.ChildSlice c : algo.children) {
+            if (c.busy || c.cancelRequested || c.orderId == null || c.price == null) continue;
+            if (now - c.sentAt < repriceAfterMs) continue;
+            if (c.status != OrderStatus.PLACED && c.status != OrderStatus.PARTIALLY_FILLED) continue;
+            Double px = childPrice(algo, last);
+            if (px == null || Math.abs(px - c.price) < priceTick / 2) continue;
+
+            c.busy = true;
+            c.sentAt = now;
+            reprices.increment();
+            Long orderId = c.orderId;
+            brokerCalls.execute(() -> {
+                try {
+                    modificationService.modify(algo.userId, orderId, null, BigDecimal.valueOf(px), null);
+                } catch (IllegalArgumentException e) {
+                    log.debug("Algo {} child {} not repriced ({}); cancelling it", algo.parentOrderId, orderId, e.getMessage());
+                    requestCancel(algo.userId, orderId);
+                } catch (RuntimeException e) {
+                    log.warn("Algo {} child {} reprice failed: {}", algo.parentOrderId, orderId, e.getMessage());
+                } finally {
+                    post(() -> c.busy = false);
+                }
+            });
+        }
+    }
+
+    private void applyChildEvent(ParentAlgo.ChildSlice child, OrderEvent event) {
+        ParentAlgo algo = child.parent;
+        OrderStatus status = event.getStatus();
+        if (status == null || !algo.children.contains(child)) return; // already closed
+
+        if (status == OrderStatus.FILLED || status == OrderStatus.PARTIALLY_FILLED) {
+            double cumulative = event.getFilledQuantity() != null ? event.getFilledQuantity().doubleValue()
+                    : (status == OrderStatus.FILLED ? child.quantity : child.filled);
+            double px = event.getAvgFillPrice() != null ? event.getAvgFillPrice().doubleValue()
+                    : event.getPrice() != null ? event.getPrice().doubleValue()
+                    : child.price != null ? child.price
+                    : algo.feed != null ? algo.feed.lastPrice : Double.NaN;
+            if (algo.applyFill(child, cumulative, px)) algo.consecutiveFailures = 0;
+        }
+        if (!status.isTerminal() && event.getQuantity() != null) {
+            // Placed, or amended by a reprice
+            child.quantity = event.getQuantity().doubleValue();
+            child.price = event.getPrice() != null ? event.getPrice().doubleValue() : null;
+        }
+        child.status = status;
+        if (status.isTerminal()) {
+            algo.children.remove(child);
+            byChild.remove(child.orderId);
+            if (status == OrderStatus.REJECTED || status == OrderStatus.FAILED) {
+                countFailure(algo, event.getMessage() != null ? event.getMessage() : status.name());
+            }
+        }
+        algo.refreshView();
+    }
+
+    private void childFailed(ParentAlgo.ChildSlice child, String reason) {
+        ParentAlgo algo = child.parent;
+        if (!algo.children.remove(child)) return;
+        if (child.orderId != null) byChild.remove(child.orderId);
+        countFailure(algo, reason);
+        algo.refreshView();
+    }
+
+    private void countFailure(ParentAlgo algo, String reason) {
+        algo.consecutiveFailures++;
+        algo.reason = "Child order failed: " + reason;
+        if (algo.consecutiveFailures >= maxChildFailures) {
+            stop(algo, AlgoStatus.FAILED, algo.consecutiveFailures + " child orders in a row failed; last: " + reason);
+        }
+    }
+
+    private void stop(ParentAlgo algo, AlgoStatus finalStatus, String reason) {
+        if (algo.status != AlgoStatus.RUNNING) return;
+        algo.status = AlgoStatus.CANCELLING;
+        algo.finalStatus = finalStatus;
+        algo.reason = reason;
+        algo.stoppingSince = System.currentTimeMillis();
+        cancelChildren(algo);
+        algo.refreshView();
+        log.info("Stopping algo {}: {}", algo.parentOrderId, reason);
+    }
+
+    private void cancelChildren(ParentAlgo algo) {
+        for (ParentAlgo.ChildSlice c : algo.children) {
+            if (c.busy || c.cancelRequested || c.orderId == null) continue;
+            if (c.status != OrderStatus.PLACED && c.status != OrderStatus.PARTIALLY_FILLED) continue;
+            c.cancelRequested = true;
+            c.busy = true;
+            Long orderId = c.orderId;
+            brokerCalls.execute(() -> {
+                requestCancel(algo.userId, orderId);
+                post(() -> c.busy = false);
+            });
+        }
+    }
+
+    private void requestCancel(Long userId, Long orderId) {
+        try {
+            modificationService.cancel(userId, orderId);
+        } catch (RuntimeException e) {
+            log.warn("Cancel of algo child {} failed: {}", orderId, e.getMessage());
+        }
+    }
+
+    private void close(ParentAlgo algo, AlgoStatus status) {
+        algo.status = status;
+        if (status == AlgoStatus.COMPLETED) algo.reason = null;
+        if (!algo.children.isEmpty()) {
+            log.warn("Algo {} closed with {} child orders still open; they are no longer tracked",
+                    algo.parentOrderId, algo.children.size());
+        }
+        release(algo);
+        algo.refreshView();
+        log.info("Algo {} {}: filled {} of {} at avg {}", algo.parentOrderId, status, algo.filled, algo.quantity,
+                algo.avgFillPrice());
+    }
+
+    /**
+     * Stop feeding and tracking an algo on this node.
+     */
+    private void release(ParentAlgo algo) {
+        for (ParentAlgo.ChildSlice c : algo.children) {
+            if (c.orderId != null) byChild.remove(c.orderId);
+        }
+        if (algo.feed == null) return;
+        if (--algo.feed.users == 0) feeds.remove(algo.request.instrumentToken());
+        algo.feed = null;
+        marketDataService.releaseFeed(algo.request.instrumentToken());
+    }
+
+    private List<Checkpoint> checkpoints() {
+        List<Checkpoint> out = new ArrayList<>();
+        for (ParentAlgo algo : algos.values()) {
+            boolean handOff = !algo.status.isTerminal() && !membership.isLocal(algo.request.brokerAccountId());
+            if (handOff) {
+                log.info("Broker account {} moved to another node; handing off algo {}",
+                        algo.request.brokerAccountId(), algo.parentOrderId);
+                release(algo);
+            }
+
+            OrderStatus parentStatus = switch (algo.status) {
+                case COMPLETED -> OrderStatus.FILLED;
+                case CANCELLED -> OrderStatus.CANCELLED;
+                case FAILED -> algo.filled > 0 ? OrderStatus.CANCELLED : OrderStatus.FAILED;
+                default -> OrderStatus.WORKING;
+            };
+            boolean publish = parentStatus != algo.publishedStatus || algo.filled != algo.publishedFilled;
+            algo.publishedStatus = parentStatus;
+            algo.publishedFilled = algo.filled;
+            Double avg = algo.avgFillPrice();
+            out.add(new Checkpoint(checkpointRow(algo), publish ? parentStatus : null,
+                    BigDecimal.valueOf(algo.filled), avg != null ? BigDecimal.valueOf(avg) : null,
+                    algo.reason, algo.status.isTerminal() || handOff));
+        }
+        return out;
+    }
+
+    private AlgoOrder checkpointRow(ParentAlgo algo) {
+        try {
+            return AlgoOrder.builder()
+                    .parentOrderId(algo.parentOrderId)
+                    .userId(algo.userId)
+                    .brokerAccountId(algo.request.brokerAccountId())
+                    .algoType(algo.type.name())
+                    .status(algo.status)
+                    .snapshot(objectMapper.writeValueAsString(algo.snapshot()))
+                    .createdAt(Instant.ofEpochMilli(algo.startedAt))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize algo " + algo.parentOrderId, e);
+        }
+    }
+
+    private void publishParent(Checkpoint cp) {
+        Order parent = orderRepository.findById(cp.row().getParentOrderId()).orElse(null);
+        if (parent == null) return;
+        OrderStatus previous = parent.getStatus();
+        parent.setStatus(cp.parentStatus());
+        if (cp.parentStatus() == OrderStatus.FILLED) parent.setExecutedAt(Instant.now());
+        orderRepository.save(parent);
+        eventPublisher.publishAlgoParent(parent, previous, cp.filled(), cp.avgFillPrice(), cp.message());
+    }
+
+    /**
+     * Children placed for an account served by another node have their events published there. Their
+     * terminal status still reaches the orders table, so read it back for children that have gone quiet.
+     */
+    private void reconcileChildren() {
+        List<Long> open = new ArrayList<>(byChild.keySet());
+        if (open.isEmpty()) return;
+        Instant quietSince = Instant.now().minusMillis(staleAfterMs);
+        for (Order o : orderRepository.findAllById(open)) {
+            if (o.getStatus() == null || !o.getStatus().isTerminal()) continue;
+            if (o.getUpdatedAt() != null && o.getUpdatedAt().isAfter(quietSince)) continue; // its event may be on the way
+            ParentAlgo.ChildSlice child = byChild.get(o.getId());
+            if (child == null) continue;
+            OrderEvent event = OrderEvent.builder()
+                    .orderId(o.getId())
+                    .status(o.getStatus())
+                    .quantity(o.getQuantity())
+                    .price(o.getPrice())
+                    .filledQuantity(o.getStatus() == OrderStatus.FILLED ? o.getQuantity() : null)
+                    .message("Reconciled from order table")
+                    .build();
+            post(() -> applyChildEvent(child, event));
+        }
+    }
+
+    private void applyCancelRequests() {
+        List<Long> requested;
+        try {
+            requested = algoRepository.findCancelRequested();
+        } catch (RuntimeException e) {
+            log.debug("Algo cancel-request scan failed: {}", e.getMessage());
+            return;
+        }
+        for (Long id : requested) {
+            ParentAlgo algo = algos.get(id);
+            if (algo != null) post(() -> stop(algo, AlgoStatus.CANCELLED, "Cancelled by user"));
+        }
+    }
+
+    private void adoptOrphans() {
+        List<AlgoOrder> rows;
+        try {
+            rows = algoRepository.findByStatusIn(ACTIVE);
+        } catch (RuntimeException e) {
+            log.debug("Algo adoption scan failed: {}", e.getMessage());
+            return;
+        }
+        Instant staleBefore = Instant.now().minusMillis(staleAfterMs);
+        for (AlgoOrder row : rows) {
+            if (algos.containsKey(row.getParentOrderId()) || !membership.isLocal(row.getBrokerAccountId())) continue;
+            if (row.getUpdatedAt() != null && row.getUpdatedAt().isAfter(staleBefore)) continue; // its node is still checkpointing it
+            try {
+                ParentAlgo algo = restore(row);
+                algos.put(algo.parentOrderId, algo);
+                post(() -> activate(algo));
+                log.info("Resumed {} algo {} ({} of {} filled)", algo.type, algo.parentOrderId, algo.filled, algo.quantity);
+            } catch (RuntimeException e) {
+                log.warn("Cannot resume algo {}: {}", row.getParentOrderId(), e.getMessage());
+            }
+        }
+    }
+
+    private ParentAlgo restore(AlgoOrder row) {
+        AlgoSnapshot s;
+        try {
+            s = objectMapper.readValue(row.getSnapshot(), AlgoSnapshot.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt snapshot for algo " + row.getParentOrderId(), e);
+        }
+        ParentAlgo algo = new ParentAlgo(row.getParentOrderId(), row.getUserId(), AlgoType.valueOf(row.getAlgoType()),
+                s.request(), s.startedAt(), s.endsAt(), s.slices(), s.maxChild());
+        algo.status = row.getStatus();
+        algo.finalStatus = s.finalStatus();
+        algo.reason = s.reason();
+        algo.stoppingSince = System.currentTimeMillis();
+        algo.volumeSeen = s.volumeSeen();
+        algo.filled = s.filled();
+        algo.notional = s.notional();
+        algo.childrenSent = s.childrenSent();
+        algo.consecutiveFailures = s.consecutiveFailures();
+        algo.publishedFilled = s.filled();
+        algo.publishedStatus = OrderStatus.WORKING;
+        for (AlgoSnapshot.Child c : s.children()) {
+            ParentAlgo.ChildSlice child = new ParentAlgo.ChildSlice(algo, c.quantity(), c.price(), c.sentAt());
+            child.orderId = c.orderId();
+            child.filled = c.filled();
+            child.notional = c.notional();
+            child.status = c.status();
+            algo.children.add(child);
+        }
+        algo.refreshView();
+        return algo;
+    }
+
+    private AlgoType validate(AlgoRequest req) {
+        if (req.type() == null) throw new IllegalArgumentException("type is required");
+        AlgoType type;
+        try {
+            type = AlgoType.valueOf(req.type().trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown algo type " + req.type() + "; expected one of " + EnumSet.allOf(AlgoType.class));
+        }
+        if (req.brokerAccountId() == null) throw new IllegalArgumentException("brokerAccountId is required");
+        if (req.instrumentToken() == null || req.instrumentToken().isBlank()) {
+            throw new IllegalArgumentException("instrumentToken is required");
+        }
+        if (!"BUY".equalsIgnoreCase(req.side()) && !"SELL".equalsIgnoreCase(req.side())) {
+            throw new IllegalArgumentException("side must be BUY or SELL");
+        }
+        requireWhole(req.quantity(), "quantity");
+        if (req.maxChildQuantity() != null) requireWhole(req.maxChildQuantity(), "maxChildQuantity");
+        if (req.limitPrice() != null && req.limitPrice() <= 0) throw new IllegalArgumentException("limitPrice must be positive");
+        if (req.durationSeconds() != null && req.durationSeconds() <= 0) {
+            throw new IllegalArgumentException("durationSeconds must be positive");
+        }
+        switch (type) {
+            case TWAP -> {
+                if (req.durationSeconds() == null) throw new IllegalArgumentException("TWAP needs durationSeconds");
+                if (req.slices() != null && (req.slices() < 1 || req.slices() > req.quantity())) {
+                    throw new IllegalArgumentException("slices must be between 1 and quantity");
+                }
+            }
+            case VWAP -> {
+                if (req.participation() == null || req.participation() <= 0 || req.participation() > 0.5) {
+                    throw new IllegalArgumentException("VWAP needs participation in (0, 0.5]");
+                }
+            }
+            case ICEBERG -> {
+                requireWhole(req.displayQuantity(), "displayQuantity");
+                if (req.limitPrice() == null) throw new IllegalArgumentException("ICEBERG needs limitPrice");
+            }
+        }
+        return type;
+    }
+
+    private static void requireWhole(Double value, String field) {
+        if (value == null || value < 1 || value % 1 != 0) throw new IllegalArgumentException(field + " must be a whole number >= 1");
+    }
+
+    private void post(Runnable task) {
+        try {
+            loop.execute(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    log.warn("Algo engine task failed", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Algo engine is shut down; dropping task");
+        }
+    }
+
+    private <T> T onLoop(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, loop).join();
+    }
+
+    private record Checkpoint(AlgoOrder row, OrderStatus parentStatus, BigDecimal filled, BigDecimal avgFillPrice,
+                              String message, boolean release) {
+    }
+
+    /**
+     * Last price and completed-bar volume for one instrument. Written on the feed thread, read by the engine.
+     */
+    static final class InstrumentFeed {
+        private final BarAggregator bars;
+        volatile double lastPrice = Double.NaN;
+        volatile double completedVolume;
+        int users; // engine thread only
+
+        InstrumentFeed(String instrumentToken, Timeframe timeframe) {
+            this.bars = new BarAggregator(instrumentToken, timeframe);
+        }
+
+        synchronized void onTick(long epochMillis, double price, long cumulativeVolume) {
+            lastPrice = price;
+            Bar bar = bars.onTick(epochMillis, price, cumulativeVolume);
+            if (bar != null) completedVolume += bar.volume();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.myorg.trading.service.algo;
+
+import com.myorg.trading.domain.entity.AlgoStatus;
+import com.myorg.trading.domain.entity.OrderStatus;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Live state of one execution algo. Only the engine thread touches it; the REST API reads the
+ * {@link #view} published after every change.
+ */
+final class ParentAlgo {
+
+    final Long parentOrderId;
+    final Long userId;
+    final AlgoType type;
+    final AlgoRequest request;
+    final double quantity;
+    final boolean buy;
+    final long startedAt;
+    final long endsAt; // 0 = no deadline
+    final int slices;
+    final double maxChild;
+
+    ExecutionAlgoEngine.InstrumentFeed feed;
+    double volumeBase;
+    double volumeSeen;
+
+    AlgoStatus status = AlgoStatus.RUNNING;
+    AlgoStatus finalStatus; // what CANCELLING ends as
+    String reason;
+    long stoppingSince;
+
+    double filled;
+    double notional;
+    int childrenSent;
+    int consecutiveFailures;
+    // Children being placed or open at the broker; finished ones are dropped once their fills are counted
+    final List<ChildSlice> children = new ArrayList<>();
+
+    OrderStatus publishedStatus = OrderStatus.WORKING;
+    double publishedFilled;
+    volatile AlgoView view;
+
+    ParentAlgo(Long parentOrderId, Long userId, AlgoType type, AlgoRequest request, long startedAt, long endsAt,
+               int slices, double maxChild) {
+        this.parentOrderId = parentOrderId;
+        this.userId = userId;
+        this.type = type;
+        this.request = request;
+        this.quantity = request.quantity();
+        this.buy = "BUY".equalsIgnoreCase(request.side());
+        this.startedAt = startedAt;
+        this.endsAt = endsAt;
+        this.slices = slices;
+        this.maxChild = maxChild;
+    }
+
+    /**
+     * Cumulative quantity that should have been released by {@code now}.
+     */
+    double target(long now) {
+        if (endsAt > 0 && now >= endsAt) return quantity;
+        return switch (type) {
+            case TWAP -> {
+                long interval = Math.max(1, (endsAt - startedAt) / slices);
+                long due = Math.min(slices, (now - startedAt) / interval + 1);
+                yield quantity * due / slices;
+            }
+            case VWAP -> Math.min(quantity, request.participation() * volumeSeen);
+            // One display slice at a time: only release more once nothing is working
+            case ICEBERG -> working() > 0 ? 0 : Math.min(quantity, filled + request.displayQuantity());
+        };
+    }
+
+    /**
+     * Quantity still open in children (sent or being placed, not yet filled).
+     */
+    double working() {
+        double w = 0;
+        for (ChildSlice c : children) w += c.quantity - c.filled;
+        return w;
+    }
+
+    /**
+     * Book a child's cumulative fill from an order event. Events can repeat or arrive out of order, so only
+     * an increase counts; {@code price} is the child's average fill price, NaN if unknown.
+     *
+     * @return true if the child's fill grew
+     */
+    boolean applyFill(ChildSlice child, double cumulative, double price) {
+        if (cumulative <= child.filled) return false;
+        double childNotional = Double.isNaN(price) ? child.notional : cumulative * price;
+        filled += cumulative - child.filled;
+        notional += childNotional - child.notional;
+        child.filled = cumulative;
+        child.notional = childNotional;
+        return true;
+    }
+
+    Double avgFillPrice() {
+        return filled > 0 ? notional / filled : null;
+    }
+
+    void refreshView() {
+        view = new AlgoView(parentOrderId, type, request.instrumentToken(), request.side(), quantity, filled,
+                avgFillPrice(), working(), childrenSent, status, reason, Instant.ofEpochMilli(startedAt),
+                endsAt > 0 ? Instant.ofEpochMilli(endsAt) : null);
+    }
+
+    AlgoSnapshot snapshot() {
+        List<AlgoSnapshot.Child> open = new ArrayList<>();
+        for (ChildSlice c : children) {
+            if (c.orderId != null) {
+                open.add(new AlgoSnapshot.Child(c.orderId, c.quantity, c.price, c.filled, c.notional, c.status, c.sentAt));
+            }
+        }
+        return new AlgoSnapshot(request, status, finalStatus, reason, startedAt, endsAt, slices, maxChild, volumeSeen,
+                filled, notional, childrenSent, consecutiveFailures, open);
+    }
+
+    static final class ChildSlice {
+        final ParentAlgo parent;
+        // Assigned on a gateway thread once the order row exists
+        volatile Long orderId;
+        double quantity;
+        Double price;
+        double filled;
+        double notional;
+        OrderStatus status = OrderStatus.PENDING;
+        long sentAt;
+        // A modify or cancel is in flight
+        boolean busy;
+        boolean cancelRequested;
+
+        ChildSlice(ParentAlgo parent, double quantity, Double price, long sentAt) {
+            this.parent = parent;
+            this.quantity = quantity;
+            this.price = price;
+            this.sentAt = sentAt;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.myorg.trading.service.audit;
+
+/**
+ * What an {@code audit_logs} row records; stored by name in the {@code action} column.
+ */
+public enum AuditAction {
+    LOGIN,
+    LOGIN_FAILED,
+    REGISTER,
+    PLACE_ORDER,
+    MODIFY_ORDER,
+    CANCEL_ORDER,
+    LINK_BROKER,
+    UNLINK_BROKER,
+    EXIT_POSITION,
+    START_ALGO,
+    CANCEL_ALGO
+}
@@ -0,0 +1,355 @@
+package com.myorg.trading.service.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Writes {@code audit_logs} off the request path. {@link #record} only enqueues onto a lock-free queue; an
+ * "audit-writer" thread drains it every {@code flush-ms} (sooner once a batch is waiting) and inserts with
+ * JDBC batches.
+ *
+ * When MySQL fails a batch or is slower than {@code slow-batch-ms}, the writer stops sending to it for
+ * {@code retry-after-ms} and appends batches to JSON-lines spill files under {@code spill-dir} instead.
+ * The queue is bounded: when it is full (the writer is behind) callers spill their record directly rather
+ * than block or drop it. Spill files are replayed into the table once the database keeps up again,
+ * including any left over from before a restart.
+ */
+@Slf4j
+@Component
+public class AuditLogWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO audit_logs (user_id, action, payload_json, created_at) VALUES (?, ?, ?, ?)";
+    private static final String SPILL_SUFFIX = ".jsonl";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushNanos;
+    private final long slowBatchMs;
+    private final long retryAfterMs;
+    private final Path spillDir;
+
+    private final ConcurrentLinkedQueue<Pending> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Thread writer;
+    private volatile boolean running = true;
+    // Writer thread only: no inserts before this time (epoch millis) after a failed or slow batch
+    private long databaseBackoffUntil;
+
+    private final Object spillLock = new Object();
+    private BufferedWriter spillOut;
+    private int spillSeq;
+    private volatile boolean spillPending;
+
+    private final Counter written;
+    private final Counter spilled;
+    private final Counter dropped;
+    private final Timer batchTimer;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate,
+                          ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.audit.enabled:true}") boolean enabled,
+                          @Value("${app.audit.queue-capacity:50000}") int capacity,
+                          @Value("${app.audit.batch-size:500}") int batchSize,
+                          @Value("${app.audit.flush-ms:200}") long flushMs,
+                          @Value("${app.audit.slow-batch-ms:1000}") long slowBatchMs,
+                          @Value("${app.audit.retry-after-ms:5000}") long retryAfterMs,
+                          @Value("${app.audit.spill-dir:./data/audit-spill}") String spillDir) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.capacity = Math.max(1, capacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.flushNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, flushMs));
+        this.slowBatchMs = slowBatchMs;
+        this.retryAfterMs = retryAfterMs;
+        this.spillDir = Path.of(spillDir);
+        this.spillPending = hasSpillFiles();
+
+        this.written = Counter.builder("trading.audit.written").description("Audit records inserted").register(meterRegistry);
+        this.spilled = Counter.builder("trading.audit.spilled").description("Audit records spilled to disk").register(meterRegistry);
+        this.dropped = Counter.builder("trading.audit.dropped").description("Audit records lost (spill failed)").register(meterRegistry);
+        this.batchTimer = Timer.builder("trading.audit.batch").description("Audit batch insert latency").register(meterRegistry);
+        Gauge.builder("trading.audit.queued", queued, AtomicInteger::get).register(meterRegistry);
+
+        this.writer = new Thread(this::run, "audit-writer");
+        writer.setDaemon(true);
+    }
+
+    /**
+     * Start the writer once the bean is fully built, not from the constructor: the thread must not see a
+     * half-constructed writer.
+     */
+    @PostConstruct
+    public void start() {
+        if (enabled) writer.start();
+    }
+
+    /**
+     * Key/value pairs for an audit payload, in order; pairs with a null value are left out.
+     */
+    public static Map<String, Object> fields(Object... keyValues) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < keyValues.length; i += 2) {
+            if (keyValues[i + 1] != null) out.put(String.valueOf(keyValues[i]), keyValues[i + 1]);
+        }
+        return out;
+    }
+
+    /**
+     * Queue an audit record. Never blocks on the database and never throws.
+     *
+     * @param userId acting user, or null when unknown (e.g. a failed login)
+     */
+    public void record(Long userId, AuditAction action, Map<String, Object> payload) {
+        if (!enabled) return;
+        Pending p = new Pending(userId, action, payload, System.currentTimeMillis());
+        if (queued.incrementAndGet() > capacity) {
+            queued.decrementAndGet();
+            spill(List.of(toRow(p)));
+            return;
+        }
+        queue.offer(p);
+        if (queued.get() >= batchSize) LockSupport.unpark(writer);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!enabled) return;
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Whatever the writer could not get to goes to disk for the next start
+        List<AuditRow> rest = new ArrayList<>();
+        for (Pending p; (p = queue.poll()) != null; ) rest.add(toRow(p));
+        if (!rest.isEmpty()) spill(rest);
+        synchronized (spillLock) {
+            closeSpill();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            LockSupport.parkNanos(flushNanos);
+            try {
+                flushQueue();
+                if (spillPending && queued.get() < batchSize) replaySpills();
+            } catch (RuntimeException e) {
+                log.warn("Audit writer iteration failed: {}", e.toString());
+            }
+        }
+        flushQueue();
+    }
+
+    private void flushQueue() {
+        List<AuditRow> batch = new ArrayList<>(batchSize);
+        while (true) {
+            for (Pending p; batch.size() < batchSize && (p = queue.poll()) != null; ) {
+                queued.decrementAndGet();
+                batch.add(toRow(p));
+            }
+            if (batch.isEmpty()) return;
+            if (!insert(batch)) spill(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * @return false if the rows were not written (database backing off, failed or the batch was refused)
+     */
+    private boolean insert(List<AuditRow> rows) {
+        long now = System.currentTimeMillis();
+        if (now < databaseBackoffUntil) return false;
+        long start = System.nanoTime();
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, row) -> {
+                if (row.userId() != null) ps.setLong(1, row.userId());
+                else ps.setNull(1, Types.BIGINT);
+                ps.setString(2, row.action());
+                ps.setString(3, row.payloadJson());
+                ps.setTimestamp(4, new Timestamp(row.createdAt()));
+            });
+        } catch (DataAccessException e) {
+            databaseBackoffUntil = now + retryAfterMs;
+            log.warn("Audit batch of {} failed, spilling to disk for {} ms: {}", rows.size(), retryAfterMs, e.getMessage());
+            return false;
+        }
+        long tookNanos = System.nanoTime() - start;
+        batchTimer.record(tookNanos, TimeUnit.NANOSECONDS);
+        written.increment(rows.size());
+        if (TimeUnit.NANOSECONDS.toMillis(tookNanos) > slowBatchMs) {
+            // Written, but the database is struggling: give it room rather than pile on
+            databaseBackoffUntil = System.currentTimeMillis() + retryAfterMs;
+            log.warn("Audit batch of {} took {} ms; spilling to disk for {} ms", rows.size(),
+                    TimeUnit.NANOSECONDS.toMillis(tookNanos), retryAfterMs);
+        }
+        return true;
+    }
+
+    private void spill(List<AuditRow> rows) {
+        synchronized (spillLock) {
+            try {
+                if (spillOut == null) {
+                    Files.createDirectories(spillDir);
+                    Path file = spillDir.resolve("audit-" + System.currentTimeMillis() + "-" + (spillSeq++) + SPILL_SUFFIX);
+                    spillOut = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                }
+                for (AuditRow row : rows) {
+                    spillOut.write(objectMapper.writeValueAsString(row));
+                    spillOut.newLine();
+                }
+                spillOut.flush();
+                spilled.increment(rows.size());
+                spillPending = true;
+            } catch (IOException e) {
+                dropped.increment(rows.size());
+                log.error("Audit spill failed, {} audit records lost: {}", rows.size(), e.toString());
+            }
+        }
+    }
+
+    private void closeSpill() {
+        if (spillOut == null) return;
+        try {
+            spillOut.close();
+        } catch (IOException e) {
+            log.warn("Closing audit spill file failed: {}", e.toString());
+        }
+        spillOut = null;
+    }
+
+    /**
+     * Load spill files into the table, oldest first. The open spill file is closed first so it can be
+     * replayed too; the next spill starts a new one.
+     */
+    private void replaySpills() {
+        if (System.currentTimeMillis() < databaseBackoffUntil) return;
+        List<Path> files;
+        synchronized (spillLock) {
+            closeSpill();
+            files = spillFiles();
+            spillPending = false;
+        }
+        for (Path file : files) {
+            if (!replay(file)) {
+                spillPending = true;
+                return;
+            }
+        }
+        if (!files.isEmpty()) log.info("Replayed {} audit spill file(s)", files.size());
+    }
+
+    private boolean replay(Path file) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.warn("Cannot read audit spill file {}: {}", file, e.toString());
+            return false;
+        }
+        List<AuditRow> batch = new ArrayList<>(batchSize);
+        int done = 0;
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (!line.isBlank()) {
+                try {
+                    batch.add(objectMapper.readValue(line, AuditRow.class));
+                } catch (JsonProcessingException e) {
+                    log.warn("Skipping unreadable line {} of {} (torn write?)", i + 1, file);
+                }
+            }
+            if (batch.size() == batchSize || i == lines.size() - 1) {
+                if (!batch.isEmpty() && !insert(batch)) {
+                    // Keep only what is not in the table yet, so a later replay does not duplicate rows
+                    rewrite(file, lines.subList(done, lines.size()));
+                    return false;
+                }
+                batch.clear();
+                done = i + 1;
+            }
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Cannot delete replayed audit spill file {}: {}", file, e.toString());
+        }
+        return true;
+    }
+
+    private void rewrite(Path file, List<String> remaining) {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.write(tmp, remaining, StandardCharsets.UTF_8);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Cannot trim audit spill file {}; replayed rows may be inserted again: {}", file, e.toString());
+        }
+    }
+
+    private List<Path> spillFiles() {
+        if (!Files.isDirectory(spillDir)) return List.of();
+        try (Stream<Path> files = Files.list(spillDir)) {
+            return files.filter(f -> f.getFileName().toString().endsWith(SPILL_SUFFIX)).sorted().toList();
+        } catch (IOException e) {
+            log.warn("Cannot list audit spill directory {}: {}", spillDir, e.toString());
+            return List.of();
+        }
+    }
+
+    private boolean hasSpillFiles() {
+        return !spillFiles().isEmpty();
+    }
+
+    private AuditRow toRow(Pending p) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(p.payload() != null ? p.payload() : Map.of());
+        } catch (JsonProcessingException e) {
+            log.warn("Audit payload for {} is not serializable: {}", p.action(), e.getMessage());
+            json = "{}";
+        }
+        return new AuditRow(p.userId(), p.action().name(), json, p.createdAt());
+    }
+
+    private record Pending(Long userId, AuditAction action, Map<String, Object> payload, long createdAt) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.myorg.trading.service.audit;
+
+/**
+ * One audit record as written to {@code audit_logs}, and as a line of a spill file.
+ */
+record AuditRow(Long userId, String action, String payloadJson, long createdAt) {
+}
@@ -0,0 +1,290 @@
+package com.myorg.trading.service.backtest;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs a strategy over every combination of a {@link ParameterGrid} on a dedicated fork-join pool (kept
+ * apart from the common pool, which order execution uses). The sweep records only summary metrics per
+ * combination; the top-ranked combinations are then replayed once more to collect their trade lists.
+ *
+ * Fills are at the next bar's open after a signal. Stops and targets are checked against each bar's
+ * low/high, stop first, filling at the level or at the open if the bar gapped through it. After a stop or
+ * target exit the strategy must leave that side before it can re-enter it.
+ */
+@Slf4j
+@Component
+public class BacktestEngine {
+
+    public static final String STOP_LOSS = "stopLossPct";
+    public static final String TAKE_PROFIT = "takeProfitPct";
+
+    // Combinations per leaf task; a leaf is a full pass over the series so this is plenty of work to amortise forking
+    private static final int LEAF_SIZE = 4;
+
+    private final ForkJoinPool pool;
+    private final long maxCombinations;
+    private final int maxTradesPerResult;
+
+    public BacktestEngine(@Value("${app.backtest.parallelism:0}") int parallelism,
+                          @Value("${app.backtest.max-combinations:200000}") long maxCombinations,
+                          @Value("${app.backtest.max-trades-per-result:2000}") int maxTradesPerResult) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.maxCombinations = maxCombinations;
+        this.maxTradesPerResult = maxTradesPerResult;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public enum Rank {
+        NET_PNL, RETURN_OVER_DRAWDOWN, PROFIT_FACTOR
+    }
+
+    public record Costs(double quantity, double costBps) {
+    }
+
+    /**
+     * Grid over the strategy's own parameters plus the engine's stop-loss / take-profit percentages.
+     */
+    public ParameterGrid grid(BacktestStrategy strategy, Map<String, String> specs) {
+        List<String> names = new ArrayList<>(strategy.parameters());
+        names.add(STOP_LOSS);
+        names.add(TAKE_PROFIT);
+        double[] defaults = Arrays.copyOf(strategy.defaults(), names.size()); // stop / target default to 0 = off
+        return ParameterGrid.of(names, defaults, specs, maxCombinations);
+    }
+
+    public BacktestReport run(String symbol, BarSeries series, BacktestStrategy strategy, ParameterGrid grid,
+                              Costs costs, Rank rank, int top) {
+        long started = System.nanoTime();
+        int n = (int) grid.size();
+        Metrics[] metrics = new Metrics[n];
+        IndicatorCache indicators = new IndicatorCache(series);
+        int stopIdx = grid.names().indexOf(STOP_LOSS);
+
+        try {
+            pool.submit(new Sweep(series, strategy, grid, indicators, costs, stopIdx, metrics, 0, n)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Backtest interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Backtest failed: " + e.getCause(), e.getCause());
+        }
+
+        Comparator<Metrics> order = switch (rank) {
+            case NET_PNL -> Comparator.comparingDouble(m -> m.netPnl);
+            case RETURN_OVER_DRAWDOWN -> Comparator.comparingDouble(Metrics::returnOverDrawdown);
+            case PROFIT_FACTOR -> Comparator.comparingDouble(Metrics::profitFactor);
+        };
+        List<Metrics> ranked = Arrays.stream(metrics)
+                .filter(m -> m != null)
+                .sorted(order.reversed())
+                .limit(Math.max(1, top))
+                .toList();
+
+        List<BacktestResult> results = new ArrayList<>(ranked.size());
+        for (Metrics m : ranked) {
+            double[] params = new double[grid.names().size()];
+            grid.combination(m.index, params);
+            List<BacktestTrade> trades = new ArrayList<>();
+            simulate(series, strategy.prepare(series, indicators, params), params[stopIdx], params[stopIdx + 1],
+                    costs, trades);
+            results.add(m.toResult(grid.describe(params), trades));
+        }
+
+        long evaluated = Arrays.stream(metrics).filter(m -> m != null).count();
+        long elapsed = (System.nanoTime() - started) / 1_000_000;
+        log.info("Backtest {} on {}: {} bars x {} combinations ({} valid) in {} ms",
+                strategy.name(), symbol, series.length, n, evaluated, elapsed);
+        return new BacktestReport(strategy.name(), symbol, series.length,
+                series.length > 0 ? Instant.ofEpochMilli(series.time[0]) : null,
+                series.length > 0 ? Instant.ofEpochMilli(series.time[series.length - 1]) : null,
+                n, evaluated, elapsed, results);
+    }
+
+    private final class Sweep extends RecursiveAction {
+        private final BarSeries series;
+        private final BacktestStrategy strategy;
+        private final ParameterGrid grid;
+        private final IndicatorCache indicators;
+        private final Costs costs;
+        private final int stopIdx;
+        private final Metrics[] out;
+        private final int from;
+        private final int to;
+
+        Sweep(BarSeries series, BacktestStrategy strategy, ParameterGrid grid, IndicatorCache indicators,
+              Costs costs, int stopIdx, Metrics[] out, int from, int to) {
+            this.series = series;
+            this.strategy = strategy;
+            this.grid = grid;
+            this.indicators = indicators;
+            this.costs = costs;
+            this.stopIdx = stopIdx;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_SIZE) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Sweep(series, strategy, grid, indicators, costs, stopIdx, out, from, mid),
+                        new Sweep(series, strategy, grid, indicators, costs, stopIdx, out, mid, to));
+                return;
+            }
+            double[] params = new double[grid.names().size()];
+            for (int i = from; i < to; i++) {
+                grid.combination(i, params);
+                BacktestStrategy.Signal signal = strategy.prepare(series, indicators, params);
+                if (signal == null) continue;
+                Metrics m = simulate(series, signal, params[stopIdx], params[stopIdx + 1], costs, null);
+                m.index = i;
+                out[i] = m;
+            }
+        }
+    }
+
+    /**
+     * Walk the series once for one parameter combination.
+     *
+     * @param trades collects round trips when non-null (capped); null during the sweep
+     */
+    Metrics simulate(BarSeries s, BacktestStrategy.Signal signal, double stopPct, double targetPct,
+                     Costs costs, List<BacktestTrade> trades) {
+        final double qty = costs.quantity();
+        final double costRate = costs.costBps() / 10_000.0;
+        final double stop = stopPct / 100.0, target = targetPct / 100.0;
+        final double[] open = s.open, high = s.high, low = s.low, close = s.close;
+        final int n = s.length;
+
+        Metrics m = new Metrics();
+        int pos = 0, pending = 0, blocked = 0, inMarket = 0;
+        double entry = 0, entryCost = 0, realized = 0, peak = 0;
+        long entryTime = 0;
+
+        for (int i = Math.max(signal.warmup(), 0); i < n; i++) {
+            if (pending != pos) {
+                if (pos != 0) {
+                    realized += closeTrade(m, pos, entry, entryCost, entryTime, open[i], s.time[i], qty, costRate, "SIGNAL", trades);
+                }
+                pos = pending;
+                if (pos != 0) {
+                    entry = open[i];
+                    entryCost = entry * qty * costRate;
+                    entryTime = s.time[i];
+                }
+            }
+
+            if (pos != 0 && (stop > 0 || target > 0)) {
+                double exit = Double.NaN;
+                String reason = null;
+                if (pos > 0) {
+                    if (stop > 0 && low[i] <= entry * (1 - stop)) {
+                        exit = Math.min(open[i], entry * (1 - stop));
+                        reason = "STOP";
+                    } else if (target > 0 && high[i] >= entry * (1 + target)) {
+                        exit = Math.max(open[i], entry * (1 + target));
+                        reason = "TARGET";
+                    }
+                } else {
+                    if (stop > 0 && high[i] >= entry * (1 + stop)) {
+                        exit = Math.max(open[i], entry * (1 + stop));
+                        reason = "STOP";
+                    } else if (target > 0 && low[i] <= entry * (1 - target)) {
+                        exit = Math.min(open[i], entry * (1 - target));
+                        reason = "TARGET";
+                    }
+                }
+                if (reason != null) {
+                    realized += closeTrade(m, pos, entry, entryCost, entryTime, exit, s.time[i], qty, costRate, reason, trades);
+                    blocked = pos;
+                    pos = 0;
+                }
+            }
+
+            if (pos != 0) inMarket++;
+            double equity = realized + (pos == 0 ? 0 : pos * (close[i] - entry) * qty - entryCost);
+            if (equity > peak) peak = equity;
+            else if (peak - equity > m.maxDrawdown) m.maxDrawdown = peak - equity;
+
+            int want = signal.target(i, pos);
+            if (blocked != 0) {
+                if (want == blocked) want = 0;
+                else blocked = 0;
+            }
+            pending = want;
+        }
+
+        if (pos != 0 && n > 0) {
+            realized += closeTrade(m, pos, entry, entryCost, entryTime, close[n - 1], s.time[n - 1], qty, costRate, "END", trades);
+        }
+        m.netPnl = realized;
+        int span = n - Math.max(signal.warmup(), 0);
+        m.exposure = span > 0 ? (double) inMarket / span : 0;
+        return m;
+    }
+
+    private double closeTrade(Metrics m, int pos, double entry, double entryCost, long entryTime,
+                              double exit, long exitTime, double qty, double costRate, String reason,
+                              List<BacktestTrade> trades) {
+        double pnl = pos * (exit - entry) * qty - entryCost - exit * qty * costRate;
+        m.trades++;
+        if (pnl > 0) {
+            m.wins++;
+            m.grossProfit += pnl;
+        } else {
+            m.grossLoss -= pnl;
+        }
+        if (trades != null && trades.size() < maxTradesPerResult) {
+            trades.add(new BacktestTrade(pos > 0 ? "LONG" : "SHORT", Instant.ofEpochMilli(entryTime), entry,
+                    Instant.ofEpochMilli(exitTime), exit, reason, pnl));
+        }
+        return pnl;
+    }
+
+    static final class Metrics {
+        int index;
+        double netPnl;
+        double maxDrawdown;
+        double grossProfit;
+        double grossLoss;
+        int trades;
+        int wins;
+        double exposure;
+
+        double returnOverDrawdown() {
+            return maxDrawdown > 0 ? netPnl / maxDrawdown : (netPnl > 0 ? Double.MAX_VALUE : 0);
+        }
+
+        double profitFactor() {
+            return grossLoss > 0 ? grossProfit / grossLoss : (grossProfit > 0 ? Double.MAX_VALUE : 0);
+        }
+
+        BacktestResult toResult(Map<String, Double> params, List<BacktestTrade> tradeList) {
+            return new BacktestResult(params, netPnl, maxDrawdown, finite(returnOverDrawdown()), finite(profitFactor()),
+                    trades, trades > 0 ? (double) wins / trades : 0, exposure, tradeList);
+        }
+
+        // Ratios with a zero denominator rank first but are reported as absent rather than as a huge number
+        private static Double finite(double v) {
+            return v == Double.MAX_VALUE ? null : v;
+        }
+    }
+}
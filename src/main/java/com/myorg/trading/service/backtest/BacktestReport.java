@@ -0,0 +1,15 @@
+package com.myorg.trading.service.backtest;
+
+import java.time.Instant;
+import java.util.List;
+
+public record BacktestReport(String strategy,
+                             String symbol,
+                             int bars,
+                             Instant from,
+                             Instant to,
+                             long combinations,
+                             long evaluated,
+                             long elapsedMillis,
+                             List<BacktestResult> top) {
+}
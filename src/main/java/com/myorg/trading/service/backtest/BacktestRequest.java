@@ -0,0 +1,29 @@
+package com.myorg.trading.service.backtest;
+
+import java.util.Map;
+
+/**
+ * @param source   BROKER (historical candles from the account's broker, the default) or JOURNAL (bars built from recorded ticks)
+ * @param interval bar width: 1M, 5M, 15M, 1H, 1D (journal source also accepts any n + S/M/H/D)
+ * @param from     epoch seconds or ISO-8601
+ * @param to       epoch seconds or ISO-8601
+ * @param params   value spec per parameter ("14", "10,20,50" or "5:60:5"), see {@link ParameterGrid};
+ *                 every strategy also takes stopLossPct and takeProfitPct (0 = off)
+ * @param quantity units per trade (default 1)
+ * @param costBps  commission plus slippage per leg, in basis points of traded value
+ * @param rankBy   NET_PNL (default), RETURN_OVER_DRAWDOWN or PROFIT_FACTOR
+ * @param top      how many ranked results to return with their trade lists (default 10)
+ */
+public record BacktestRequest(String strategy,
+                              String symbol,
+                              String source,
+                              Long brokerAccountId,
+                              String interval,
+                              String from,
+                              String to,
+                              Map<String, String> params,
+                              Double quantity,
+                              Double costBps,
+                              String rankBy,
+                              Integer top) {
+}
@@ -0,0 +1,19 @@
+package com.myorg.trading.service.backtest;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of one parameter combination. {@code trades} is only filled for the top-ranked combinations;
+ * the two ratios are null when their denominator is zero.
+ */
+public record BacktestResult(Map<String, Double> params,
+                             double netPnl,
+                             double maxDrawdown,
+                             Double returnOverDrawdown,
+                             Double profitFactor,
+                             int trades,
+                             double winRate,
+                             double exposure,
+                             List<BacktestTrade> tradeList) {
+}
@@ -0,0 +1,193 @@
+package com.myorg.trading.service.backtest;
+
+import com.myorg.trading.broker.api.BrokerClient;
+import com.myorg.trading.broker.registry.BrokerRegistry;
+import com.myorg.trading.domain.entity.BrokerAccount;
+import com.myorg.trading.domain.model.OHLCV;
+import com.myorg.trading.service.broker.BrokerAccountService;
+import com.myorg.trading.service.indicator.Timeframe;
+import com.myorg.trading.service.marketdata.journal.TickJournal;
+import com.myorg.trading.service.marketdata.journal.TickJournalReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Loads bar history for a backtest request and hands it to the {@link BacktestEngine}. Loaded series are
+ * kept in a small LRU so repeated sweeps over the same window (the usual workflow when tuning) do not
+ * refetch from the broker.
+ */
+@Service
+public class BacktestService {
+
+    private static final ZoneId TRADING_ZONE = ZoneId.of("Asia/Kolkata");
+
+    private final BacktestEngine engine;
+    private final BrokerRegistry brokerRegistry;
+    private final BrokerAccountService brokerAccountService;
+    private final TickJournal tickJournal;
+    private final Map<String, BarSeries> seriesCache;
+
+    public BacktestService(BacktestEngine engine,
+                           BrokerRegistry brokerRegistry,
+                           BrokerAccountService brokerAccountService,
+                           TickJournal tickJournal,
+                           @Value("${app.backtest.series-cache-size:8}") int seriesCacheSize) {
+        this.engine = engine;
+        this.brokerRegistry = brokerRegistry;
+        this.brokerAccountService = brokerAccountService;
+        this.tickJournal = tickJournal;
+        this.seriesCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, BarSeries> eldest) {
+                return size() > seriesCacheSize;
+            }
+        });
+    }
+
+    /**
+     * Strategy catalogue for clients: name, description and default value of every sweepable parameter.
+     */
+    public List<Map<String, Object>> strategies() {
+        return Arrays.stream(BuiltInStrategy.values())
+                .map(s -> Map.<String, Object>of("name", s.name(), "description", s.description(),
+                        "parameters", engine.grid(s, Map.of()).describe(defaultsWithExits(s))))
+                .toList();
+    }
+
+    private static double[] defaultsWithExits(BacktestStrategy s) {
+        return Arrays.copyOf(s.defaults(), s.parameters().size() + 2);
+    }
+
+    public BacktestReport run(Long userId, BacktestRequest req) {
+        if (req.symbol() == null || req.symbol().isBlank()) throw new IllegalArgumentException("symbol is required");
+        if (req.from() == null || req.to() == null) throw new IllegalArgumentException("from and to are required");
+
+        BacktestStrategy strategy = strategy(req.strategy());
+        ParameterGrid grid = engine.grid(strategy, req.params());
+        Instant from = parseTimestamp(req.from());
+        Instant to = parseTimestamp(req.to());
+        if (!from.isBefore(to)) throw new IllegalArgumentException("from must be before to");
+        String interval = req.interval() != null ? req.interval() : "1M";
+
+        String source = req.source() != null ? req.source().toUpperCase(Locale.ROOT) : "BROKER";
+        BarSeries series = switch (source) {
+            case "BROKER" -> brokerSeries(userId, req.brokerAccountId(), req.symbol(), interval, from, to);
+            case "JOURNAL" -> journalSeries(req.symbol(), interval, from, to);
+            default -> throw new IllegalArgumentException("Unknown source " + req.source() + "; use BROKER or JOURNAL");
+        };
+        if (series.length == 0) {
+            throw new IllegalArgumentException("No bars for " + req.symbol() + " between " + from + " and " + to);
+        }
+
+        BacktestEngine.Costs costs = new BacktestEngine.Costs(
+                req.quantity() != null && req.quantity() > 0 ? req.quantity() : 1,
+                req.costBps() != null ? Math.max(0, req.costBps()) : 0);
+        BacktestEngine.Rank rank = req.rankBy() != null
+                ? parseEnum(BacktestEngine.Rank.class, req.rankBy(), "rankBy")
+                : BacktestEngine.Rank.NET_PNL;
+        int top = req.top() != null ? Math.min(Math.max(req.top(), 1), 100) : 10;
+
+        return engine.run(req.symbol(), series, strategy, grid, costs, rank, top);
+    }
+
+    private BacktestStrategy strategy(String name) {
+        if (name == null) throw new IllegalArgumentException("strategy is required");
+        return parseEnum(BuiltInStrategy.class, name, "strategy");
+    }
+
+    private BarSeries brokerSeries(Long userId, Long accountId, String symbol, String interval, Instant from, Instant to) {
+        BrokerAccount account;
+        if (accountId != null) {
+            account = brokerAccountService.findOwnedAccount(userId, accountId)
+                    .orElseThrow(() -> new IllegalArgumentException("Broker account not found"));
+        } else {
+            List<BrokerAccount> accounts = brokerAccountService.listAccountsForUser(userId);
+            if (accounts.isEmpty()) throw new IllegalArgumentException("No broker account linked");
+            account = accounts.get(0);
+        }
+
+        // Candles are the same whichever account fetched them, so the cache is keyed by broker
+        String key = "B|" + account.getBrokerId() + "|" + symbol + "|" + interval + "|" + from + "|" + to;
+        BarSeries cached = seriesCache.get(key);
+        if (cached != null) return cached;
+
+        BrokerClient client = brokerRegistry.getById(account.getBrokerId());
+        List<OHLCV> candles = client.getHistoricalData(account.getId().toString(), symbol, interval, from, to).block();
+        BarSeries series = BarSeries.fromCandles(candles != null ? candles : List.of());
+        seriesCache.put(key, series);
+        return series;
+    }
+
+    private BarSeries journalSeries(String token, String interval, Instant from, Instant to) {
+        String key = "J|" + token + "|" + interval + "|" + from + "|" + to;
+        BarSeries cached = seriesCache.get(key);
+        if (cached != null) return cached;
+
+        LocalDate firstDay = LocalDate.ofInstant(from, TRADING_ZONE);
+        LocalDate lastDay = LocalDate.ofInstant(to, TRADING_ZONE);
+        BarSeries.TickAggregator bars = new BarSeries.TickAggregator(barMillis(interval));
+        try {
+            for (LocalDate day : tickJournal.recordedDays()) {
+                if (day.isBefore(firstDay) || day.isAfter(lastDay)) continue;
+                try (TickJournalReader reader = tickJournal.open(day)) {
+                    bars.addDay(reader, token);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        BarSeries series = slice(bars.build(), from.toEpochMilli(), to.toEpochMilli());
+        // Today's journal is still growing, so only cache windows that ended before today
+        if (lastDay.isBefore(LocalDate.now(TRADING_ZONE))) seriesCache.put(key, series);
+        return series;
+    }
+
+    private static long barMillis(String interval) {
+        Timeframe tf = Timeframe.parse(interval);
+        if (tf.isTick()) throw new IllegalArgumentException("Backtests need a bar interval, not TICK");
+        return tf.millis();
+    }
+
+    private static BarSeries slice(BarSeries s, long fromMillis, long toMillis) {
+        int lo = 0, hi = s.length;
+        while (lo < s.length && s.time[lo] < fromMillis) lo++;
+        while (hi > lo && s.time[hi - 1] > toMillis) hi--;
+        if (lo == 0 && hi == s.length) return s;
+        return new BarSeries(Arrays.copyOfRange(s.time, lo, hi), Arrays.copyOfRange(s.open, lo, hi),
+                Arrays.copyOfRange(s.high, lo, hi), Arrays.copyOfRange(s.low, lo, hi),
+                Arrays.copyOfRange(s.close, lo, hi), Arrays.copyOfRange(s.volume, lo, hi));
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String field) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown " + field + " " + value + "; expected one of "
+                    + Arrays.toString(type.getEnumConstants()));
+        }
+    }
+
+    private static Instant parseTimestamp(String timestamp) {
+        try {
+            return Instant.ofEpochSecond(Long.parseLong(timestamp));
+        } catch (NumberFormatException e) {
+            try {
+                return Instant.parse(timestamp);
+            } catch (RuntimeException ex) {
+                throw new IllegalArgumentException("Invalid timestamp " + timestamp);
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.myorg.trading.service.backtest;
+
+import java.util.List;
+
+/**
+ * A rule set evaluated bar by bar over a {@link BarSeries}. Implementations do their heavy lifting in
+ * {@link #prepare} (pulling whole-series indicator arrays from the shared cache) so that the per-bar
+ * {@link Signal#target} is a couple of array reads and comparisons.
+ */
+public interface BacktestStrategy {
+
+    String name();
+
+    String description();
+
+    /**
+     * Parameter names, in the order their values are passed to {@link #prepare}.
+     */
+    List<String> parameters();
+
+    /**
+     * Value used for a parameter the request does not sweep.
+     */
+    double[] defaults();
+
+    /**
+     * Bind a parameter combination to a series.
+     *
+     * @return null if the combination is meaningless (e.g. fast period >= slow period) and should be skipped
+     */
+    Signal prepare(BarSeries series, IndicatorCache indicators, double[] params);
+
+    interface Signal {
+
+        /**
+         * First bar at which {@link #target} may be called.
+         */
+        int warmup();
+
+        /**
+         * Desired position after bar {@code i} closes: 1 long, -1 short, 0 flat. It is acted on at the next
+         * bar's open, so a rule may look at bar {@code i}'s close without lookahead.
+         */
+        int target(int i, int position);
+    }
+}
@@ -0,0 +1,10 @@
+package com.myorg.trading.service.backtest;
+
+import java.time.Instant;
+
+/**
+ * One round trip; pnl is net of costs on both legs.
+ */
+public record BacktestTrade(String side, Instant entryTime, double entryPrice,
+                            Instant exitTime, double exitPrice, String exitReason, double pnl) {
+}
@@ -0,0 +1,130 @@
+package com.myorg.trading.service.backtest;
+
+import com.myorg.trading.domain.model.OHLCV;
+import com.myorg.trading.service.marketdata.journal.TickJournalReader;
+import com.myorg.trading.service.marketdata.journal.TickRecord;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable bar history in columnar primitive arrays, so strategy loops walk contiguous doubles instead of
+ * chasing OHLCV objects and BigDecimals.
+ */
+public final class BarSeries {
+
+    public final long[] time; // bar start, epoch millis
+    public final double[] open;
+    public final double[] high;
+    public final double[] low;
+    public final double[] close;
+    public final double[] volume;
+    public final int length;
+
+    public BarSeries(long[] time, double[] open, double[] high, double[] low, double[] close, double[] volume) {
+        this.length = time.length;
+        if (open.length != length || high.length != length || low.length != length
+                || close.length != length || volume.length != length) {
+            throw new IllegalArgumentException("Column lengths differ");
+        }
+        this.time = time;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+    }
+
+    public static BarSeries fromCandles(List<OHLCV> candles) {
+        int n = candles.size();
+        long[] t = new long[n];
+        double[] o = new double[n], h = new double[n], l = new double[n], c = new double[n], v = new double[n];
+        int k = 0;
+        for (OHLCV bar : candles) {
+            if (bar.getTimestamp() == null || bar.getClose() == null) continue;
+            t[k] = bar.getTimestamp().toEpochMilli();
+            c[k] = bar.getClose().doubleValue();
+            o[k] = value(bar.getOpen(), c[k]);
+            h[k] = value(bar.getHigh(), c[k]);
+            l[k] = value(bar.getLow(), c[k]);
+            v[k] = bar.getVolume() != null ? bar.getVolume() : 0;
+            k++;
+        }
+        return k == n ? new BarSeries(t, o, h, l, c, v)
+                : new BarSeries(Arrays.copyOf(t, k), Arrays.copyOf(o, k), Arrays.copyOf(h, k),
+                Arrays.copyOf(l, k), Arrays.copyOf(c, k), Arrays.copyOf(v, k));
+    }
+
+    /**
+     * Accumulates ticks into fixed-width bars; feed days in chronological order to span several journal days.
+     */
+    public static final class TickAggregator {
+        private final long barMillis;
+        private int n;
+        private long[] t = new long[1024];
+        private double[] o = new double[1024], h = new double[1024], l = new double[1024], c = new double[1024], v = new double[1024];
+
+        public TickAggregator(long barMillis) {
+            if (barMillis <= 0) throw new IllegalArgumentException("Bar width must be positive");
+            this.barMillis = barMillis;
+        }
+
+        /**
+         * Add one instrument's ticks from a journal day. Bar volume is the increase in the feed's cumulative
+         * day volume within the bar (0 if the feed carries none).
+         */
+        public TickAggregator addDay(TickJournalReader reader, String token) throws IOException {
+            int id = reader.instrumentId(token);
+            if (id < 0) return this;
+            TickRecord r = new TickRecord();
+            long lastVolume = -1;
+            for (long i = Math.max(0, reader.startFor(id, Long.MIN_VALUE)); i < reader.count(); i++) {
+                reader.read(i, r);
+                if (r.instrumentId != id) continue;
+                add(r.timestampNanos / 1_000_000L, r.price / 10_000.0,
+                        lastVolume >= 0 && r.volume > lastVolume ? r.volume - lastVolume : 0);
+                lastVolume = r.volume;
+            }
+            return this;
+        }
+
+        public void add(long epochMillis, double price, double volume) {
+            long bucket = Math.floorDiv(epochMillis, barMillis) * barMillis;
+            if (n == 0 || bucket > t[n - 1]) {
+                if (n == t.length) grow();
+                t[n] = bucket;
+                o[n] = h[n] = l[n] = c[n] = price;
+                v[n] = 0;
+                n++;
+            } else {
+                // late ticks from feed jitter land in the current bar
+                int k = n - 1;
+                if (price > h[k]) h[k] = price;
+                if (price < l[k]) l[k] = price;
+                c[k] = price;
+            }
+            v[n - 1] += volume;
+        }
+
+        private void grow() {
+            int cap = t.length * 2;
+            t = Arrays.copyOf(t, cap);
+            o = Arrays.copyOf(o, cap);
+            h = Arrays.copyOf(h, cap);
+            l = Arrays.copyOf(l, cap);
+            c = Arrays.copyOf(c, cap);
+            v = Arrays.copyOf(v, cap);
+        }
+
+        public BarSeries build() {
+            return new BarSeries(Arrays.copyOf(t, n), Arrays.copyOf(o, n), Arrays.copyOf(h, n),
+                    Arrays.copyOf(l, n), Arrays.copyOf(c, n), Arrays.copyOf(v, n));
+        }
+    }
+
+    private static double value(BigDecimal v, double fallback) {
+        return v != null ? v.doubleValue() : fallback;
+    }
+}
@@ -0,0 +1,108 @@
+package com.myorg.trading.service.backtest;
+
+import java.util.List;
+
+/**
+ * Strategies available to the backtest endpoint. Every one takes an {@code allowShort} flag (0/1); when it
+ * is 0 the short side of the rule goes flat instead.
+ */
+public enum BuiltInStrategy implements BacktestStrategy {
+
+    SMA_CROSS("Long while the fast SMA of closes is above the slow SMA",
+            List.of("fast", "slow", "allowShort"), new double[]{10, 30, 0}) {
+        @Override
+        public Signal prepare(BarSeries s, IndicatorCache ind, double[] p) {
+            int fast = period(p[0]), slow = period(p[1]);
+            if (fast < 1 || fast >= slow || slow > s.length) return null;
+            double[] f = ind.sma(fast), sl = ind.sma(slow);
+            int shortSide = p[2] > 0 ? -1 : 0;
+            return signal(slow - 1, (i, pos) -> f[i] > sl[i] ? 1 : shortSide);
+        }
+    },
+
+    BREAKOUT("Donchian breakout: enter on a close beyond the prior entry-bar extreme, exit on a close beyond the prior exit-bar extreme",
+            List.of("entry", "exit", "allowShort"), new double[]{20, 10, 0}) {
+        @Override
+        public Signal prepare(BarSeries s, IndicatorCache ind, double[] p) {
+            int entry = period(p[0]), exit = period(p[1]);
+            if (entry < 1 || exit < 1 || Math.max(entry, exit) >= s.length) return null;
+            double[] close = s.close;
+            double[] upper = ind.highest(entry), lower = ind.lowest(entry);
+            double[] exitLow = ind.lowest(exit), exitHigh = ind.highest(exit);
+            boolean shorts = p[2] > 0;
+            return signal(Math.max(entry, exit), (i, pos) -> {
+                double c = close[i];
+                if (c > upper[i - 1]) return 1;
+                if (shorts && c < lower[i - 1]) return -1;
+                if (pos > 0 && c < exitLow[i - 1]) return 0;
+                if (pos < 0 && c > exitHigh[i - 1]) return 0;
+                return pos;
+            });
+        }
+    },
+
+    RSI_REVERSION("Mean reversion: long below the lower RSI band, exit (or short) above the upper band",
+            List.of("period", "lower", "upper", "allowShort"), new double[]{14, 30, 70, 0}) {
+        @Override
+        public Signal prepare(BarSeries s, IndicatorCache ind, double[] p) {
+            int period = period(p[0]);
+            double lower = p[1], upper = p[2];
+            if (period < 2 || period >= s.length || lower >= upper) return null;
+            double[] rsi = ind.rsi(period);
+            boolean shorts = p[3] > 0;
+            return signal(period, (i, pos) -> {
+                double r = rsi[i];
+                if (r < lower) return 1;
+                if (r > upper) return shorts ? -1 : 0;
+                return pos;
+            });
+        }
+    };
+
+    private final String description;
+    private final List<String> parameters;
+    private final double[] defaults;
+
+    BuiltInStrategy(String description, List<String> parameters, double[] defaults) {
+        this.description = description;
+        this.parameters = parameters;
+        this.defaults = defaults;
+    }
+
+    @Override
+    public String description() {
+        return description;
+    }
+
+    @Override
+    public List<String> parameters() {
+        return parameters;
+    }
+
+    @Override
+    public double[] defaults() {
+        return defaults.clone();
+    }
+
+    private static int period(double v) {
+        return (int) Math.round(v);
+    }
+
+    private interface Rule {
+        int target(int i, int position);
+    }
+
+    private static Signal signal(int warmup, Rule rule) {
+        return new Signal() {
+            @Override
+            public int warmup() {
+                return warmup;
+            }
+
+            @Override
+            public int target(int i, int position) {
+                return rule.target(i, position);
+            }
+        };
+    }
+}
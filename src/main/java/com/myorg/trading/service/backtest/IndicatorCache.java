@@ -0,0 +1,104 @@
+package com.myorg.trading.service.backtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Whole-series indicator arrays for one backtest run, computed once per distinct (indicator, period) and
+ * shared by every parameter combination that needs them. Values before the warm-up are NaN.
+ */
+public final class IndicatorCache {
+
+    private final BarSeries series;
+    private final Map<String, double[]> cache = new ConcurrentHashMap<>();
+
+    public IndicatorCache(BarSeries series) {
+        this.series = series;
+    }
+
+    public double[] sma(int period) {
+        return get("sma:" + period, k -> sma(series.close, period));
+    }
+
+    public double[] rsi(int period) {
+        return get("rsi:" + period, k -> rsi(series.close, period));
+    }
+
+    public double[] highest(int period) {
+        return get("hh:" + period, k -> rollingMax(series.high, period));
+    }
+
+    public double[] lowest(int period) {
+        return get("ll:" + period, k -> rollingMin(series.low, period));
+    }
+
+    private double[] get(String key, Function<String, double[]> compute) {
+        return cache.computeIfAbsent(key, compute);
+    }
+
+    // --- batch implementations, O(n) each ---
+
+    static double[] sma(double[] x, int period) {
+        double[] out = nan(x.length);
+        double sum = 0;
+        for (int i = 0; i < x.length; i++) {
+            sum += x[i];
+            if (i >= period) sum -= x[i - period];
+            if (i >= period - 1) out[i] = sum / period;
+        }
+        return out;
+    }
+
+    /**
+     * Wilder's RSI.
+     */
+    static double[] rsi(double[] x, int period) {
+        double[] out = nan(x.length);
+        if (x.length <= period) return out;
+        double gain = 0, loss = 0;
+        for (int i = 1; i <= period; i++) {
+            double d = x[i] - x[i - 1];
+            if (d > 0) gain += d; else loss -= d;
+        }
+        gain /= period;
+        loss /= period;
+        out[period] = loss == 0 ? 100 : 100 - 100 / (1 + gain / loss);
+        for (int i = period + 1; i < x.length; i++) {
+            double d = x[i] - x[i - 1];
+            gain = (gain * (period - 1) + Math.max(d, 0)) / period;
+            loss = (loss * (period - 1) + Math.max(-d, 0)) / period;
+            out[i] = loss == 0 ? 100 : 100 - 100 / (1 + gain / loss);
+        }
+        return out;
+    }
+
+    // Monotonic deque over indices: amortised O(1) per bar
+    static double[] rollingMax(double[] x, int period) {
+        return rolling(x, period, true);
+    }
+
+    static double[] rollingMin(double[] x, int period) {
+        return rolling(x, period, false);
+    }
+
+    private static double[] rolling(double[] x, int period, boolean max) {
+        double[] out = nan(x.length);
+        int[] dq = new int[x.length];
+        int head = 0, tail = 0;
+        for (int i = 0; i < x.length; i++) {
+            while (tail > head && (max ? x[dq[tail - 1]] <= x[i] : x[dq[tail - 1]] >= x[i])) tail--;
+            dq[tail++] = i;
+            if (dq[head] <= i - period) head++;
+            if (i >= period - 1) out[i] = x[dq[head]];
+        }
+        return out;
+    }
+
+    private static double[] nan(int n) {
+        double[] out = new double[n];
+        Arrays.fill(out, Double.NaN);
+        return out;
+    }
+}
@@ -0,0 +1,116 @@
+package com.myorg.trading.service.backtest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cartesian product of parameter values, addressed by index so a sweep never materialises the combinations.
+ * Each value spec is a single number ({@code "14"}), a list ({@code "10,20,50"}) or an inclusive range
+ * {@code "from:to:step"} ({@code "5:60:5"}).
+ *
+ * The combination limit is enforced while parsing, dimension by dimension, so an oversized range is
+ * rejected before any value array is allocated.
+ */
+public final class ParameterGrid {
+
+    private final List<String> names;
+    private final double[][] values;
+    private final long size;
+
+    private ParameterGrid(List<String> names, double[][] values) {
+        this.names = names;
+        this.values = values;
+        long n = 1;
+        for (double[] v : values) n *= v.length; // bounded by the limit checked in of()
+        this.size = n;
+    }
+
+    /**
+     * @param names    parameter names in positional order
+     * @param defaults value for each name absent from {@code specs}
+     * @param specs    value specs by name; unknown names are rejected
+     * @param maxCombinations largest grid accepted
+     */
+    public static ParameterGrid of(List<String> names, double[] defaults, Map<String, String> specs,
+                                   long maxCombinations) {
+        Map<String, String> remaining = new LinkedHashMap<>(specs != null ? specs : Map.of());
+        double[][] values = new double[names.size()][];
+        long combinations = 1;
+        for (int i = 0; i < names.size(); i++) {
+            String spec = remaining.remove(names.get(i));
+            // Each dimension may use only what the dimensions before it left of the limit
+            values[i] = spec == null ? new double[]{defaults[i]}
+                    : parse(names.get(i), spec, maxCombinations / combinations, maxCombinations);
+            combinations *= values[i].length;
+        }
+        if (!remaining.isEmpty()) {
+            throw new IllegalArgumentException("Unknown parameters " + remaining.keySet() + "; expected " + names);
+        }
+        return new ParameterGrid(List.copyOf(names), values);
+    }
+
+    /**
+     * @param maxValues most values this dimension may have without taking the grid over {@code maxCombinations}
+     */
+    static double[] parse(String name, String spec, long maxValues, long maxCombinations) {
+        String s = spec.trim();
+        try {
+            if (s.contains(":")) {
+                String[] p = s.split(":");
+                if (p.length != 3) throw new IllegalArgumentException("Range for " + name + " must be from:to:step");
+                double from = Double.parseDouble(p[0].trim()), to = Double.parseDouble(p[1].trim()), step = Double.parseDouble(p[2].trim());
+                if (!Double.isFinite(from) || !Double.isFinite(to) || !(step > 0) || !Double.isFinite(step) || to < from) {
+                    throw new IllegalArgumentException("Empty range for " + name + ": " + spec);
+                }
+                double count = Math.floor((to - from) / step + 1e-9) + 1;
+                if (!(count <= maxValues)) throw tooLarge(name, count, maxCombinations);
+                int n = (int) count;
+                double[] out = new double[n];
+                for (int i = 0; i < n; i++) out[i] = from + i * step;
+                return out;
+            }
+            List<Double> list = new ArrayList<>();
+            for (String v : s.split(",")) {
+                if (!v.isBlank()) list.add(Double.parseDouble(v.trim()));
+            }
+            if (list.isEmpty()) throw new IllegalArgumentException("No values for " + name);
+            if (list.size() > maxValues) throw tooLarge(name, list.size(), maxCombinations);
+            return list.stream().mapToDouble(Double::doubleValue).toArray();
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for " + name + ": " + spec);
+        }
+    }
+
+    private static IllegalArgumentException tooLarge(String name, double values, long maxCombinations) {
+        return new IllegalArgumentException(String.format(
+                "%s has %.0f values; with the other parameters the grid would exceed the limit of %d combinations",
+                name, values, maxCombinations));
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public List<String> names() {
+        return names;
+    }
+
+    /**
+     * Decode combination {@code index} into {@code into} (mixed radix, last parameter varies fastest).
+     */
+    public void combination(long index, double[] into) {
+        for (int i = values.length - 1; i >= 0; i--) {
+            int radix = values[i].length;
+            into[i] = values[i][(int) (index % radix)];
+            index /= radix;
+        }
+    }
+
+    public Map<String, Double> describe(double[] combination) {
+        Map<String, Double> out = new LinkedHashMap<>();
+        for (int i = 0; i < names.size(); i++) out.put(names.get(i), combination[i]);
+        return out;
+    }
+}
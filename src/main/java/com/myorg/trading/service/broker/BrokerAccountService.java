@@ -26,6 +26,13 @@ public class BrokerAccountService {
         return repository.findByUserId(userId);
     }
 
+    /**
+     * Single-row ownership check: the account if it belongs to the user, empty otherwise.
+     */
+    public Optional<BrokerAccount> findOwnedAccount(Long userId, Long accountId) {
+        return repository.findByIdAndUserId(accountId, userId);
+    }
+
     public Optional<BrokerAccount> findForUserAndBroker(Long userId, String brokerId) {
         return repository.findByUserIdAndBrokerId(userId, brokerId);
     }
@@ -0,0 +1,181 @@
+package com.myorg.trading.service.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myorg.trading.broker.api.MarketDataTick;
+import com.myorg.trading.config.properties.WebSocketBrokerProperties;
+import com.myorg.trading.service.marketdata.MarketDataService;
+import com.myorg.trading.service.marketdata.depth.DepthUpdate;
+import com.myorg.trading.service.marketdata.depth.MarketDepthService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.ReactorNettyTcpStompClient;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Type;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * In RELAY mode, carries the market data ingested by feed-leader nodes to every other node. Browser
+ * clients already get /topic/** from the external broker wherever they are connected. In-process
+ * consumers (watchlists, indicators, strategies, risk last-price, depth snapshots) still need the data
+ * locally, so each tick and depth delta is also published once to a cluster topic. Every node
+ * subscribes to those topics over its own STOMP connection and skips its own messages.
+ *
+ * In SIMPLE mode this does nothing.
+ */
+@Slf4j
+@Component
+public class ClusterFeedRelay {
+
+    public static final String CLUSTER_TICKS = "/topic/cluster-ticks";
+    public static final String CLUSTER_DEPTH = "/topic/cluster-depth";
+    private static final String ORIGIN_HEADER = "origin";
+    private static final String TOKEN_HEADER = "token";
+    private static final long RECONNECT_DELAY_MS = 5000;
+
+    private final boolean enabled;
+    private final WebSocketBrokerProperties.Relay relay;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final MarketDataService marketDataService;
+    // Provider: MarketDepthService publishes through this relay
+    private final ObjectProvider<MarketDepthService> marketDepthService;
+    private final FeedLeaderElection feedLeaderElection;
+    private final ObjectMapper objectMapper;
+    private final TaskScheduler taskScheduler;
+
+    private volatile ReactorNettyTcpStompClient client;
+
+    public ClusterFeedRelay(WebSocketBrokerProperties brokerProperties,
+                            SimpMessagingTemplate messagingTemplate,
+                            MarketDataService marketDataService,
+                            ObjectProvider<MarketDepthService> marketDepthService,
+                            FeedLeaderElection feedLeaderElection,
+                            ObjectMapper objectMapper,
+                            TaskScheduler taskScheduler) {
+        this.enabled = brokerProperties.getMode() == WebSocketBrokerProperties.Mode.RELAY;
+        this.relay = brokerProperties.getRelay();
+        this.messagingTemplate = messagingTemplate;
+        this.marketDataService = marketDataService;
+        this.marketDepthService = marketDepthService;
+        this.feedLeaderElection = feedLeaderElection;
+        this.objectMapper = objectMapper;
+        this.taskScheduler = taskScheduler;
+    }
+
+    /**
+     * True when other nodes may have clients, so topic subscriber counts on this node are not the whole picture.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Share a tick ingested on this node. Call only for ticks from a local feed, never for relayed ones.
+     */
+    public void publishTick(String instrumentToken, MarketDataTick tick) {
+        if (!enabled) return;
+        messagingTemplate.convertAndSend(CLUSTER_TICKS, tick,
+                Map.of(ORIGIN_HEADER, feedLeaderElection.nodeId(), TOKEN_HEADER, instrumentToken));
+    }
+
+    public void publishDepth(DepthUpdate delta) {
+        if (!enabled) return;
+        messagingTemplate.convertAndSend(CLUSTER_DEPTH, delta, Map.of(ORIGIN_HEADER, feedLeaderElection.nodeId()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) return;
+        ReactorNettyTcpStompClient c = new ReactorNettyTcpStompClient(relay.getHost(), relay.getPort());
+        c.setMessageConverter(new MappingJackson2MessageConverter(objectMapper));
+        c.setTaskScheduler(taskScheduler);
+        client = c;
+        connect();
+    }
+
+    @PreDestroy
+    public void stop() {
+        ReactorNettyTcpStompClient c = client;
+        client = null;
+        if (c != null) c.shutdown();
+    }
+
+    private void connect() {
+        ReactorNettyTcpStompClient c = client;
+        if (c == null) return;
+        StompHeaders headers = new StompHeaders();
+        headers.setLogin(relay.getSystemLogin());
+        headers.setPasscode(relay.getSystemPasscode());
+        if (relay.getVirtualHost() != null) headers.setHost(relay.getVirtualHost());
+        c.connectAsync(headers, new Handler()).whenComplete((session, e) -> {
+            if (e != null) {
+                log.warn("Cluster feed relay could not connect to {}:{}: {}", relay.getHost(), relay.getPort(), e.getMessage());
+                scheduleReconnect();
+            }
+        });
+    }
+
+    private void scheduleReconnect() {
+        if (client != null) taskScheduler.schedule(this::connect, Instant.now().plusMillis(RECONNECT_DELAY_MS));
+    }
+
+    private boolean fromThisNode(StompHeaders headers) {
+        return feedLeaderElection.nodeId().equals(headers.getFirst(ORIGIN_HEADER));
+    }
+
+    private final class Handler extends StompSessionHandlerAdapter {
+
+        @Override
+        public void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+            session.subscribe(CLUSTER_TICKS, new StompSessionHandlerAdapter() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return MarketDataTick.class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    String token = headers.getFirst(TOKEN_HEADER);
+                    if (token != null && !fromThisNode(headers)) marketDataService.pushTick(token, (MarketDataTick) payload);
+                }
+            });
+            session.subscribe(CLUSTER_DEPTH, new StompSessionHandlerAdapter() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return DepthUpdate.class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    if (!fromThisNode(headers)) marketDepthService.getObject().applyRemote((DepthUpdate) payload);
+                }
+            });
+            log.info("Cluster feed relay subscribed via {}:{} as node {}", relay.getHost(), relay.getPort(),
+                    feedLeaderElection.nodeId());
+        }
+
+        @Override
+        public void handleException(StompSession session, StompCommand command, StompHeaders headers,
+                                    byte[] payload, Throwable exception) {
+            log.warn("Cluster feed relay failed to handle a frame: {}", exception.toString());
+        }
+
+        @Override
+        public void handleTransportError(StompSession session, Throwable exception) {
+            if (session.isConnected()) return;
+            log.warn("Cluster feed relay lost its broker connection: {}", exception.toString());
+            scheduleReconnect();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.myorg.trading.service.cluster;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Live node list kept in cluster_nodes by heartbeats, and the broker-account to node assignment derived
+ * from it. Every node computes the same owner for an account by rendezvous hashing over the live node
+ * ids. Nothing is stored per account, and when a node dies only its own accounts move.
+ *
+ * The owner is the only node that logs in to the account's broker, places its orders and polls its
+ * order book, so sessions stay warm in one place. With membership disabled (the single-node default)
+ * this node owns everything.
+ */
+@Slf4j
+@Component
+public class ClusterMembership {
+
+    private static final String HEARTBEAT_SQL =
+            "INSERT INTO cluster_nodes (node_id, endpoint, started_at, heartbeat_at) VALUES (?, ?, NOW(3), NOW(3)) "
+                    + "ON DUPLICATE KEY UPDATE endpoint = VALUES(endpoint), heartbeat_at = NOW(3)";
+    private static final String LIVE_SQL =
+            "SELECT node_id, endpoint FROM cluster_nodes WHERE heartbeat_at > NOW(3) - INTERVAL ? MICROSECOND "
+                    + "ORDER BY node_id";
+    private static final String PURGE_SQL =
+            "DELETE FROM cluster_nodes WHERE heartbeat_at < NOW(3) - INTERVAL ? MICROSECOND";
+    private static final String LEAVE_SQL = "DELETE FROM cluster_nodes WHERE node_id = ?";
+    // Rows of nodes dead this many timeouts are deleted
+    private static final int PURGE_AFTER_TIMEOUTS = 20;
+
+    public record Member(String nodeId, String endpoint) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher events;
+    private final boolean enabled;
+    private final long nodeTimeoutMs;
+    private final Member self;
+
+    // Members sorted by id, with each id's hash precomputed; replaced as a whole
+    private record View(List<Member> members, long[] hashes) {
+    }
+
+    private volatile View view;
+
+    public ClusterMembership(JdbcTemplate jdbcTemplate,
+                             ApplicationEventPublisher events,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.cluster.membership.enabled:false}") boolean enabled,
+                             @Value("${app.cluster.membership.node-timeout-ms:15000}") long nodeTimeoutMs,
+                             @Value("${app.cluster.node-id:}") String nodeId,
+                             @Value("${app.cluster.endpoint:}") String endpoint,
+                             @Value("${server.port:8080}") int serverPort) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.events = events;
+        this.enabled = enabled;
+        this.nodeTimeoutMs = nodeTimeoutMs;
+        this.self = new Member(FeedLeaderElection.resolveNodeId(nodeId),
+                endpoint.isBlank() ? "http://" + hostName() + ":" + serverPort : endpoint);
+        this.view = viewOf(List.of(self));
+        Gauge.builder("trading.cluster.nodes", this, m -> m.view.members().size())
+                .description("Live nodes in this node's view of the cluster")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Member self() {
+        return self;
+    }
+
+    public List<Member> members() {
+        return view.members();
+    }
+
+    /**
+     * Node that should hold sessions for a broker account: the live member with the highest hash of
+     * (node, account).
+     */
+    public Member ownerOf(Long brokerAccountId) {
+        View v = view;
+        long[] hashes = v.hashes();
+        int best = 0;
+        long bestScore = Long.MIN_VALUE;
+        for (int i = 0; i < hashes.length; i++) {
+            long score = mix(hashes[i] ^ brokerAccountId);
+            if (score > bestScore) {
+                bestScore = score;
+                best = i;
+            }
+        }
+        return v.members().get(best);
+    }
+
+    public boolean isLocal(Long brokerAccountId) {
+        return !enabled || ownerOf(brokerAccountId).equals(self);
+    }
+
+    /**
+     * Drop a member that refused a connection, without waiting for its heartbeat to expire. It comes
+     * back with the next refresh if it is in fact still heartbeating.
+     */
+    public synchronized void suspect(Member member) {
+        if (member.equals(self) || !view.members().contains(member)) return;
+        List<Member> next = view.members().stream().filter(m -> !m.equals(member)).toList();
+        log.warn("Suspecting cluster node {} at {}", member.nodeId(), member.endpoint());
+        changeTo(next);
+    }
+
+    @Scheduled(fixedDelayString = "${app.cluster.membership.heartbeat-ms:5000}")
+    public synchronized void heartbeat() {
+        if (!enabled) return;
+        List<Member> live;
+        try {
+            long timeoutMicros = nodeTimeoutMs * 1000;
+            jdbcTemplate.update(HEARTBEAT_SQL, self.nodeId(), self.endpoint());
+            live = jdbcTemplate.query(LIVE_SQL, (rs, i) -> new Member(rs.getString(1), rs.getString(2)), timeoutMicros);
+            jdbcTemplate.update(PURGE_SQL, timeoutMicros * PURGE_AFTER_TIMEOUTS);
+        } catch (DataAccessException e) {
+            // Keep the last view: every node sees the same database, so guessing here would only diverge
+            log.warn("Cluster heartbeat failed: {}", e.getMessage());
+            return;
+        }
+        if (!live.contains(self)) {
+            live = new ArrayList<>(live);
+            live.add(self);
+            live.sort(Comparator.comparing(Member::nodeId));
+        }
+        changeTo(List.copyOf(live));
+    }
+
+    private void changeTo(List<Member> next) {
+        List<Member> previous = view.members();
+        if (previous.equals(next)) return;
+        view = viewOf(next);
+        log.info("Cluster membership changed: {} -> {}", ids(previous), ids(next));
+        events.publishEvent(new ClusterMembershipChangedEvent(previous, next));
+    }
+
+    @PreDestroy
+    public void leave() {
+        if (!enabled) return;
+        try {
+            // Let the others take over this node's accounts now rather than after the timeout
+            jdbcTemplate.update(LEAVE_SQL, self.nodeId());
+        } catch (DataAccessException e) {
+            log.warn("Could not remove {} from cluster_nodes: {}", self.nodeId(), e.getMessage());
+        }
+    }
+
+    private static View viewOf(List<Member> members) {
+        long[] hashes = new long[members.size()];
+        for (int i = 0; i < hashes.length; i++) hashes[i] = hash(members.get(i).nodeId());
+        return new View(members, hashes);
+    }
+
+    private static List<String> ids(List<Member> view) {
+        return view.stream().map(Member::nodeId).toList();
+    }
+
+    // FNV-1a over the UTF-8 id, so every node derives the same value
+    private static long hash(String nodeId) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : nodeId.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    // 64-bit finalizer (SplitMix64) so nearby account ids spread across nodes
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "localhost";
+        }
+    }
+}
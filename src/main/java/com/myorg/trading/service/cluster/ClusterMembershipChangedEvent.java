@@ -0,0 +1,9 @@
+package com.myorg.trading.service.cluster;
+
+import java.util.List;
+
+/**
+ * Published when the set of live nodes changes, so broker-account ownership may have moved.
+ */
+public record ClusterMembershipChangedEvent(List<ClusterMembership.Member> previous, List<ClusterMembership.Member> current) {
+}
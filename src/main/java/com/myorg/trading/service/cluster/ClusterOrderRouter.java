@@ -0,0 +1,223 @@
+package com.myorg.trading.service.cluster;
+
+import com.myorg.trading.broker.api.OrderType;
+import com.myorg.trading.domain.entity.Order;
+import com.myorg.trading.domain.repository.OrderRepository;
+import com.myorg.trading.service.risk.PreTradeRiskService;
+import com.myorg.trading.service.trading.IdempotencyConflictException;
+import com.myorg.trading.service.trading.OrderExecutionService;
+import com.myorg.trading.service.trading.OrderModificationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Sends order execution to the node that owns the order's broker account (see {@link ClusterMembership}),
+ * where the broker session is already warm. Local orders go straight to {@link OrderExecutionService}.
+ *
+ * If the owner refuses the connection (or its address does not resolve) the request never reached it, so
+ * the order runs here and the owner is suspected until its next heartbeat. Any other failure (timeout,
+ * reset, premature close, 5xx) may have happened after the owner started placing the order, so it is not
+ * retried elsewhere. {@link OrderExecutionService#executeOrder} also claims the order row before sending,
+ * so even a mistaken fallback cannot reach the broker twice.
+ *
+ * Once a forward has reached the owner, the order's risk reservation is dropped here; the owner adopts it
+ * (see {@link PreTradeRiskService#handOff}). Modifications go to the owner as well: it holds the order's
+ * risk reservation and polls its status, which a cancel-replace has to pause.
+ */
+@Slf4j
+@Service
+public class ClusterOrderRouter {
+
+    public static final String SECRET_HEADER = "X-Cluster-Secret";
+    static final String EXECUTE_PATH = "/internal/cluster/orders/{id}/execute";
+    static final String MODIFY_PATH = "/internal/cluster/orders/{id}/modify";
+
+    public record ForwardedOrder(String tradingSymbol, Map<String, Object> meta) {
+    }
+
+    public record ForwardedModify(Long userId, BigDecimal quantity, BigDecimal price, OrderType orderType) {
+    }
+
+    private final ClusterMembership membership;
+    private final OrderRepository orderRepository;
+    private final OrderExecutionService executionService;
+    private final OrderModificationService modificationService;
+    private final PreTradeRiskService riskService;
+    private final WebClient webClient;
+    private final String secret;
+    private final Duration forwardTimeout;
+    private final Counter forwarded;
+    private final Counter fallbacks;
+
+    public ClusterOrderRouter(ClusterMembership membership,
+                              OrderRepository orderRepository,
+                              OrderExecutionService executionService,
+                              OrderModificationService modificationService,
+                              PreTradeRiskService riskService,
+                              WebClient.Builder webClientBuilder,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.cluster.secret:}") String secret,
+                              @Value("${app.cluster.forward-timeout-ms:10000}") long forwardTimeoutMs) {
+        this.membership = membership;
+        this.orderRepository = orderRepository;
+        this.executionService = executionService;
+        this.modificationService = modificationService;
+        this.riskService = riskService;
+        this.webClient = webClientBuilder.clone().build();
+        this.secret = secret;
+        this.forwardTimeout = Duration.ofMillis(forwardTimeoutMs);
+        this.forwarded = Counter.builder("trading.cluster.orders.forwarded")
+                .description("Order executions sent to the node owning the broker account")
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("trading.cluster.orders.fallback")
+                .description("Forwarded executions run locally because the owner was unreachable")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Execute now and wait (Quartz jobs).
+     */
+    public void execute(Long orderId) {
+        // Scheduled orders reserve their risk when they fire, on whichever node Quartz picked
+        if (!executionService.reserveScheduled(orderId)) return;
+        ClusterMembership.Member owner = remoteOwner(orderId);
+        if (owner == null) {
+            executionService.executeOrder(orderId);
+            return;
+        }
+        forward(owner, orderId, new ForwardedOrder(null, null))
+                .doOnSuccess(v -> riskService.handOff(orderId))
+                .doOnError(e -> !neverSent(e), e -> riskService.handOff(orderId))
+                .onErrorResume(ClusterOrderRouter::neverSent, e -> {
+                    fallback(owner, orderId, e);
+                    return Mono.fromRunnable(() -> executionService.executeOrder(orderId));
+                })
+                .block();
+    }
+
+    /**
+     * Execute in the background (orders placed from the UI and by strategies).
+     */
+    public void executeAsync(Long orderId, String tradingSymbol, Map<String, Object> meta) {
+        ClusterMembership.Member owner = remoteOwner(orderId);
+        if (owner == null) {
+            executionService.executeOrderAsync(orderId, tradingSymbol, meta);
+            return;
+        }
+        forward(owner, orderId, new ForwardedOrder(tradingSymbol, meta)).subscribe(
+                v -> { },
+                e -> {
+                    if (neverSent(e)) {
+                        fallback(owner, orderId, e);
+                        executionService.executeOrderAsync(orderId, tradingSymbol, meta);
+                    } else {
+                        riskService.handOff(orderId);
+                        log.error("Forwarding order {} to {} failed; its outcome is on that node", orderId, owner.nodeId(), e);
+                    }
+                },
+                () -> riskService.handOff(orderId));
+    }
+
+    /**
+     * Modify a live order on the node owning its account (see {@link OrderModificationService#modify}).
+     *
+     * @return the order as it now stands
+     */
+    public Order modify(Long userId, Long orderId, BigDecimal quantity, BigDecimal price, OrderType orderType) {
+        ClusterMembership.Member owner = remoteOwner(orderId);
+        if (owner == null) return modificationService.modify(userId, orderId, quantity, price, orderType);
+        forwarded.increment();
+        log.info("Routing modification of order {} to owner node {}", orderId, owner.nodeId());
+        try {
+            return webClient.post()
+                    .uri(owner.endpoint() + MODIFY_PATH, orderId)
+                    .header(SECRET_HEADER, secret)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(new ForwardedModify(userId, quantity, price, orderType))
+                    .retrieve()
+                    .bodyToMono(Order.class)
+                    .timeout(forwardTimeout)
+                    .block();
+        } catch (WebClientResponseException e) {
+            throw remoteError(e);
+        } catch (RuntimeException e) {
+            if (!neverSent(e)) {
+                throw new IllegalStateException("Node " + owner.nodeId() + " did not confirm the modification of order "
+                        + orderId + "; check the order before retrying", e);
+            }
+            fallback(owner, orderId, e);
+            return modificationService.modify(userId, orderId, quantity, price, orderType);
+        }
+    }
+
+    /**
+     * The owner's answer as the exception it threw there, so the caller gets the same HTTP status.
+     */
+    private static RuntimeException remoteError(WebClientResponseException e) {
+        String message;
+        try {
+            Map<?, ?> body = e.getResponseBodyAs(Map.class);
+            Object m = body != null ? (body.get("message") != null ? body.get("message") : body.get("error")) : null;
+            message = m != null ? m.toString() : e.getMessage();
+        } catch (RuntimeException unreadable) {
+            message = e.getMessage();
+        }
+        return switch (e.getStatusCode().value()) {
+            case 400 -> new IllegalArgumentException(message);
+            case 409 -> new IdempotencyConflictException(message);
+            default -> new IllegalStateException("Owner node failed: " + message, e);
+        };
+    }
+
+    private ClusterMembership.Member remoteOwner(Long orderId) {
+        if (!membership.isEnabled()) return null;
+        Long accountId = orderRepository.findById(orderId).map(Order::getBrokerAccountId)
+                .orElseThrow(() -> new IllegalArgumentException("Order not found"));
+        ClusterMembership.Member owner = membership.ownerOf(accountId);
+        return owner.equals(membership.self()) ? null : owner;
+    }
+
+    private Mono<Void> forward(ClusterMembership.Member owner, Long orderId, ForwardedOrder body) {
+        forwarded.increment();
+        log.info("Routing order {} to owner node {}", orderId, owner.nodeId());
+        return webClient.post()
+                .uri(owner.endpoint() + EXECUTE_PATH, orderId)
+                .header(SECRET_HEADER, secret)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(forwardTimeout)
+                .then();
+    }
+
+    /**
+     * Connection refused or unknown host: the owner cannot have seen the request. Other request errors
+     * (reset, premature close) can happen after it arrived.
+     */
+    private static boolean neverSent(Throwable e) {
+        if (!(e instanceof WebClientRequestException)) return false;
+        Throwable cause = e.getCause();
+        return cause instanceof ConnectException || cause instanceof UnknownHostException;
+    }
+
+    private void fallback(ClusterMembership.Member owner, Long orderId, Throwable e) {
+        fallbacks.increment();
+        log.warn("Owner node {} unreachable for order {} ({}); executing locally", owner.nodeId(), orderId, e.getMessage());
+        membership.suspect(owner);
+    }
+}
@@ -0,0 +1,74 @@
+package com.myorg.trading.service.cluster;
+
+import com.myorg.trading.service.broker.CredentialManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Broker feed logins in feed_credentials, encrypted with the {@link CredentialManager} key. A login made
+ * on any node is stored here, so the node that holds (or later takes) the feed lease can connect with it.
+ *
+ * Failures are logged and swallowed: the node that took the login still connects with its own copy.
+ */
+@Slf4j
+@Component
+public class FeedCredentialStore {
+
+    private static final String SAVE_SQL =
+            "INSERT INTO feed_credentials (feed, client_code, credentials_encrypted, expires_at, updated_at) "
+                    + "VALUES (?, ?, ?, ?, NOW(3)) "
+                    + "ON DUPLICATE KEY UPDATE credentials_encrypted = VALUES(credentials_encrypted), "
+                    + "expires_at = VALUES(expires_at), updated_at = NOW(3)";
+    private static final String LOAD_SQL =
+            "SELECT client_code, credentials_encrypted FROM feed_credentials WHERE feed = ? AND expires_at > NOW(3)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CredentialManager credentialManager;
+
+    public FeedCredentialStore(JdbcTemplate jdbcTemplate, CredentialManager credentialManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.credentialManager = credentialManager;
+    }
+
+    /**
+     * Store (or replace) a client's login for a feed.
+     *
+     * @param plain     the credentials as the feed client serialises them
+     * @param expiresAt when the broker session ends; the row is ignored after that
+     */
+    public void save(String feed, String clientCode, String plain, Instant expiresAt) {
+        try {
+            jdbcTemplate.update(SAVE_SQL, feed, clientCode, credentialManager.encrypt(plain), Timestamp.from(expiresAt));
+        } catch (DataAccessException e) {
+            log.warn("Could not share {} feed login for client {}: {}", feed, clientCode, e.getMessage());
+        }
+    }
+
+    /**
+     * Unexpired logins for a feed, decrypted, by client code. Empty if the table cannot be read.
+     */
+    public Map<String, String> load(String feed) {
+        Map<String, String> out = new LinkedHashMap<>();
+        try {
+            jdbcTemplate.query(LOAD_SQL, rs -> {
+                String clientCode = rs.getString(1);
+                try {
+                    out.put(clientCode, credentialManager.decrypt(rs.getString(2)));
+                } catch (RuntimeException e) {
+                    // Written under another key (e.g. before a key rotation): that client must log in again
+                    log.warn("Stored {} feed login for client {} cannot be decrypted: {}", feed, clientCode, e.getMessage());
+                }
+            }, feed);
+        } catch (DataAccessException e) {
+            log.warn("Could not load shared {} feed logins: {}", feed, e.getMessage());
+        }
+        return out;
+    }
+}
@@ -0,0 +1,199 @@
+package com.myorg.trading.service.cluster;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.net.InetAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Picks one node per broker feed to ingest it, using a lease row per feed in feed_leases. The holder
+ * renews every renew-ms. Any node may take a lease once it has gone unrenewed for lease-ms. A holder
+ * that cannot renew steps down after half a lease, well before anyone else can acquire it.
+ *
+ * That deadline is kept on the local clock, from the start of the last renew that succeeded. Renews run on
+ * their own thread and are waited for at most a quarter of a lease, with a query timeout to match, so a
+ * slow database or a pool out of connections (whose connection timeout can exceed the lease) cannot hold
+ * the scheduler past the point where it must step down.
+ *
+ * With election disabled (the single-node default) every node leads every feed.
+ */
+@Slf4j
+@Component
+public class FeedLeaderElection {
+
+    private static final String RENEW_SQL =
+            "UPDATE feed_leases SET owner = ?, expires_at = NOW(3) + INTERVAL ? MICROSECOND, renewed_at = NOW(3) "
+                    + "WHERE feed = ? AND (owner = ? OR expires_at < NOW(3))";
+    private static final String ACQUIRE_SQL =
+            "INSERT IGNORE INTO feed_leases (feed, owner, expires_at, renewed_at) "
+                    + "VALUES (?, ?, NOW(3) + INTERVAL ? MICROSECOND, NOW(3))";
+    private static final String RELEASE_SQL =
+            "UPDATE feed_leases SET expires_at = NOW(3) WHERE feed = ? AND owner = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final long leaseMs;
+    private final long attemptTimeoutMs;
+    private final String nodeId;
+    private final Map<String, Participant> feeds = new ConcurrentHashMap<>();
+    private final ExecutorService leaseCalls = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "feed-lease");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public FeedLeaderElection(DataSource dataSource,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.cluster.leader-election.enabled:false}") boolean enabled,
+                              @Value("${app.cluster.leader-election.lease-ms:15000}") long leaseMs,
+                              @Value("${app.cluster.node-id:}") String nodeId) {
+        // Own template so the lease statements get a query timeout without changing the shared one
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setQueryTimeout((int) Math.max(1, leaseMs / 4000));
+        this.enabled = enabled;
+        this.leaseMs = leaseMs;
+        this.attemptTimeoutMs = leaseMs / 4;
+        this.nodeId = resolveNodeId(nodeId);
+        Gauge.builder("trading.cluster.feeds.led", feeds, m -> m.values().stream().filter(p -> p.leader).count())
+                .description("Broker feeds this node currently ingests")
+                .register(meterRegistry);
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    public boolean isLeader(String feed) {
+        Participant p = feeds.get(feed);
+        return p != null && p.leader;
+    }
+
+    /**
+     * Compete for a feed. {@code onElected} / {@code onRevoked} run on the scheduler thread when leadership
+     * changes and should only start or stop the feed, not block. Without election the node leads at once.
+     */
+    public void participate(String feed, Runnable onElected, Runnable onRevoked) {
+        Participant p = new Participant(feed, onElected, onRevoked);
+        if (feeds.putIfAbsent(feed, p) != null) throw new IllegalStateException("Already participating for " + feed);
+        if (!enabled) {
+            change(p, true);
+        } else {
+            renew(p, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(attemptTimeoutMs));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.cluster.leader-election.renew-ms:5000}")
+    public void renewAll() {
+        if (!enabled) return;
+        // One wait budget for the whole round, however many feeds there are
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(attemptTimeoutMs);
+        feeds.values().forEach(p -> renew(p, deadline));
+    }
+
+    private synchronized void renew(Participant p, long deadline) {
+        if (p.pending == null) {
+            p.pendingStartedAt = System.nanoTime();
+            p.pending = leaseCalls.submit(() -> hold(p.feed));
+        }
+        Boolean held = null;
+        try {
+            held = p.pending.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            p.pending = null;
+            // The database extended the lease from no earlier than when this renew started
+            if (held) p.renewedAt = p.pendingStartedAt;
+        } catch (TimeoutException e) {
+            // Left running; the next round collects it rather than queueing another behind it
+            log.warn("Lease renewal for feed {} has not answered yet", p.feed);
+        } catch (ExecutionException e) {
+            p.pending = null;
+            log.warn("Lease renewal for feed {} failed: {}", p.feed, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Keep leading through a short database blip, but give up well before the lease can be taken
+        boolean fresh = System.nanoTime() - p.renewedAt < TimeUnit.MILLISECONDS.toNanos(leaseMs / 2);
+        boolean leading = held != null ? held && fresh : p.leader && fresh;
+        if (held == null && p.leader) log.warn("Feed {}: {}", p.feed, leading ? "still leading" : "not leading");
+        change(p, leading);
+    }
+
+    private boolean hold(String feed) {
+        long leaseMicros = leaseMs * 1000;
+        return jdbcTemplate.update(RENEW_SQL, nodeId, leaseMicros, feed, nodeId) > 0
+                || jdbcTemplate.update(ACQUIRE_SQL, feed, nodeId, leaseMicros) > 0;
+    }
+
+    private void change(Participant p, boolean leader) {
+        if (p.leader == leader) return;
+        p.leader = leader;
+        log.info("Node {} {} feed {}", nodeId, leader ? "now leads" : "no longer leads", p.feed);
+        try {
+            (leader ? p.onElected : p.onRevoked).run();
+        } catch (RuntimeException e) {
+            log.error("Feed {} leadership callback failed", p.feed, e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void releaseAll() {
+        leaseCalls.shutdownNow();
+        for (Participant p : feeds.values()) {
+            if (!p.leader) continue;
+            change(p, false);
+            if (!enabled) continue;
+            try {
+                // Let another node take over now rather than after the lease runs out
+                jdbcTemplate.update(RELEASE_SQL, p.feed, nodeId);
+            } catch (DataAccessException e) {
+                log.warn("Could not release lease for feed {}: {}", p.feed, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * The configured app.cluster.node-id, or hostname:pid when it is blank.
+     */
+    static String resolveNodeId(String configured) {
+        if (!configured.isBlank()) return configured;
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + ":" + ProcessHandle.current().pid();
+    }
+
+    private static final class Participant {
+        final String feed;
+        final Runnable onElected;
+        final Runnable onRevoked;
+        volatile boolean leader;
+        long renewedAt;
+        Future<Boolean> pending;
+        long pendingStartedAt;
+
+        Participant(String feed, Runnable onElected, Runnable onRevoked) {
+            this.feed = feed;
+            this.onElected = onElected;
+            this.onRevoked = onRevoked;
+        }
+    }
+}
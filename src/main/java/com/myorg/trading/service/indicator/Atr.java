@@ -0,0 +1,50 @@
+package com.myorg.trading.service.indicator;
+
+/**
+ * Wilder's average true range. The first bar's true range is its high - low; the ATR is seeded with the
+ * mean of the first {@code period} true ranges.
+ */
+public final class Atr implements Indicator {
+
+    private final int period;
+    private double prevClose = Double.NaN;
+    private int count;
+    private double value;
+
+    public Atr(int period) {
+        if (period < 1) throw new IllegalArgumentException("Period must be positive");
+        this.period = period;
+    }
+
+    @Override
+    public void update(double high, double low, double close, double volume) {
+        double tr = high - low;
+        if (!Double.isNaN(prevClose)) {
+            tr = Math.max(tr, Math.max(Math.abs(high - prevClose), Math.abs(low - prevClose)));
+        }
+        prevClose = close;
+        if (count < period) {
+            value += tr;
+            if (++count == period) value /= period;
+        } else {
+            value = (value * (period - 1) + tr) / period;
+        }
+    }
+
+    @Override
+    public double value() {
+        return count >= period ? value : Double.NaN;
+    }
+
+    @Override
+    public boolean isReady() {
+        return count >= period;
+    }
+
+    @Override
+    public void reset() {
+        prevClose = Double.NaN;
+        count = 0;
+        value = 0;
+    }
+}
@@ -0,0 +1,8 @@
+package com.myorg.trading.service.indicator;
+
+/**
+ * A completed OHLCV bar built from live ticks; {@code startMillis} is the bucket start (epoch millis).
+ */
+public record Bar(String instrumentToken, Timeframe timeframe, long startMillis,
+                  double open, double high, double low, double close, double volume) {
+}
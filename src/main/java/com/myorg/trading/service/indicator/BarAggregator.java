@@ -0,0 +1,47 @@
+package com.myorg.trading.service.indicator;
+
+/**
+ * Builds fixed-width bars for one instrument from its ticks. A bar is only closed by the first tick of
+ * a later bucket, so a quiet instrument's last bar completes late. Bars are bucketed in UTC epoch time;
+ * for minute and hour bars that lines up with IST session times (IST is UTC+5:30, so hour bars start at :30).
+ */
+public final class BarAggregator {
+
+    private final String instrumentToken;
+    private final Timeframe timeframe;
+    private long start = Long.MIN_VALUE;
+    private double open, high, low, close, volume;
+    private long lastCumulativeVolume = -1;
+
+    public BarAggregator(String instrumentToken, Timeframe timeframe) {
+        if (timeframe.isTick()) throw new IllegalArgumentException("Tick timeframe has no bars");
+        this.instrumentToken = instrumentToken;
+        this.timeframe = timeframe;
+    }
+
+    /**
+     * @param cumulativeVolume the feed's traded volume for the day (0 if not provided)
+     * @return the bar this tick completed, or null
+     */
+    public Bar onTick(long epochMillis, double price, long cumulativeVolume) {
+        long bucket = Math.floorDiv(epochMillis, timeframe.millis()) * timeframe.millis();
+        // Day volume resets at the session start; a drop means a new day, not negative volume
+        double traded = lastCumulativeVolume >= 0 && cumulativeVolume >= lastCumulativeVolume
+                ? cumulativeVolume - lastCumulativeVolume : 0;
+        lastCumulativeVolume = cumulativeVolume;
+
+        if (bucket <= start) { // same bar, or a late tick from feed jitter
+            if (price > high) high = price;
+            if (price < low) low = price;
+            close = price;
+            volume += traded;
+            return null;
+        }
+        Bar completed = start == Long.MIN_VALUE ? null
+                : new Bar(instrumentToken, timeframe, start, open, high, low, close, volume);
+        start = bucket;
+        open = high = low = close = price;
+        volume = traded;
+        return completed;
+    }
+}
@@ -0,0 +1,59 @@
+package com.myorg.trading.service.indicator;
+
+/**
+ * Bollinger bands: SMA of closes (the {@link #value()}) plus/minus {@code k} population standard
+ * deviations, from running sums of x and x^2 over the window.
+ */
+public final class BollingerBands implements Indicator {
+
+    private final DoubleRingBuffer window;
+    private final RunningSum sum;
+    private final RunningSum sumSq;
+    private final double k;
+
+    public BollingerBands(int period, double k) {
+        this.window = new DoubleRingBuffer(period);
+        this.sum = new RunningSum(window, false);
+        this.sumSq = new RunningSum(window, true);
+        this.k = k;
+    }
+
+    @Override
+    public void update(double high, double low, double close, double volume) {
+        double evicted = window.push(close);
+        sum.add(close, evicted);
+        sumSq.add(close, evicted);
+    }
+
+    @Override
+    public double value() {
+        return window.isFull() ? sum.value() / window.capacity() : Double.NaN;
+    }
+
+    public double stdDev() {
+        if (!window.isFull()) return Double.NaN;
+        int n = window.capacity();
+        double mean = sum.value() / n;
+        return Math.sqrt(Math.max(0, sumSq.value() / n - mean * mean));
+    }
+
+    public double upper() {
+        return value() + k * stdDev();
+    }
+
+    public double lower() {
+        return value() - k * stdDev();
+    }
+
+    @Override
+    public boolean isReady() {
+        return window.isFull();
+    }
+
+    @Override
+    public void reset() {
+        window.clear();
+        sum.reset();
+        sumSq.reset();
+    }
+}
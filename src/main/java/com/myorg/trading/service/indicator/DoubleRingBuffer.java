@@ -0,0 +1,68 @@
+package com.myorg.trading.service.indicator;
+
+/**
+ * Fixed-capacity FIFO window of primitive doubles. Pushing into a full buffer evicts the oldest value.
+ * Not thread-safe; each indicator owns its buffers.
+ */
+public final class DoubleRingBuffer {
+
+    private final double[] data;
+    private int next;
+    private int size;
+
+    public DoubleRingBuffer(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be positive");
+        this.data = new double[capacity];
+    }
+
+    /**
+     * Append a value.
+     *
+     * @return the value evicted to make room, or NaN if the buffer was not full yet
+     */
+    public double push(double value) {
+        double evicted = size == data.length ? data[next] : Double.NaN;
+        data[next] = value;
+        if (++next == data.length) next = 0;
+        if (size < data.length) size++;
+        return evicted;
+    }
+
+    /**
+     * @param i 0 = oldest
+     */
+    public double get(int i) {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException(i);
+        int idx = (size == data.length ? next : 0) + i;
+        return data[idx >= data.length ? idx - data.length : idx];
+    }
+
+    public double sum() {
+        double s = 0;
+        for (int i = 0; i < size; i++) s += data[i];
+        return s;
+    }
+
+    public double sumOfSquares() {
+        double s = 0;
+        for (int i = 0; i < size; i++) s += data[i] * data[i];
+        return s;
+    }
+
+    public boolean isFull() {
+        return size == data.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return data.length;
+    }
+
+    public void clear() {
+        next = 0;
+        size = 0;
+    }
+}
@@ -0,0 +1,45 @@
+package com.myorg.trading.service.indicator;
+
+/**
+ * Exponential moving average of closes, alpha = 2 / (period + 1), seeded with the SMA of the first
+ * {@code period} closes.
+ */
+public final class Ema implements Indicator {
+
+    private final int period;
+    private final double alpha;
+    private int count;
+    private double value;
+
+    public Ema(int period) {
+        if (period < 1) throw new IllegalArgumentException("Period must be positive");
+        this.period = period;
+        this.alpha = 2.0 / (period + 1);
+    }
+
+    @Override
+    public void update(double high, double low, double close, double volume) {
+        if (count < period) {
+            value += close;
+            if (++count == period) value /= period;
+        } else {
+            value += alpha * (close - value);
+        }
+    }
+
+    @Override
+    public double value() {
+        return count >= period ? value : Double.NaN;
+    }
+
+    @Override
+    public boolean isReady() {
+        return count >= period;
+    }
+
+    @Override
+    public void reset() {
+        count = 0;
+        value = 0;
+    }
+}
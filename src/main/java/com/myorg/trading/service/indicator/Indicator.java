@@ -0,0 +1,26 @@
+package com.myorg.trading.service.indicator;
+
+/**
+ * Incrementally updated technical indicator: each update is O(1) regardless of the window length.
+ * Implementations are single-writer and not thread-safe; {@link IndicatorRegistry} handles sharing.
+ */
+public interface Indicator {
+
+    /**
+     * Feed one completed bar, or one tick with {@code high == low == close}.
+     */
+    void update(double high, double low, double close, double volume);
+
+    default void update(double price) {
+        update(price, price, price, 0);
+    }
+
+    /**
+     * Current value, NaN until {@link #isReady()}.
+     */
+    double value();
+
+    boolean isReady();
+
+    void reset();
+}
@@ -0,0 +1,59 @@
+package com.myorg.trading.service.indicator;
+
+/**
+ * A subscriber's reference to a shared indicator. Reads are lock-free and see the value published after
+ * the most recent update; call {@link IndicatorRegistry#release} when done.
+ */
+public final class IndicatorHandle {
+
+    final SharedIndicator shared;
+    volatile boolean released;
+
+    IndicatorHandle(SharedIndicator shared) {
+        this.shared = shared;
+    }
+
+    public String instrumentToken() {
+        return shared.instrumentToken;
+    }
+
+    public Timeframe timeframe() {
+        return shared.timeframe;
+    }
+
+    public IndicatorSpec spec() {
+        return shared.spec;
+    }
+
+    /**
+     * NaN until the indicator has seen enough data.
+     */
+    public double value() {
+        return shared.value;
+    }
+
+    /**
+     * Upper Bollinger band; NaN for other indicators.
+     */
+    public double upper() {
+        return shared.upper;
+    }
+
+    /**
+     * Lower Bollinger band; NaN for other indicators.
+     */
+    public double lower() {
+        return shared.lower;
+    }
+
+    public boolean isReady() {
+        return !Double.isNaN(shared.value);
+    }
+
+    /**
+     * Epoch millis of the tick or bar start behind the current value, 0 before the first update.
+     */
+    public long updatedAt() {
+        return shared.updatedAt;
+    }
+}
@@ -0,0 +1,155 @@
+package com.myorg.trading.service.indicator;
+
+import com.myorg.trading.broker.api.MarketDataTick;
+import com.myorg.trading.service.marketdata.TickListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live indicators shared by (instrument, timeframe, spec): however many strategies ask for RSI(14) on
+ * 5-minute bars of one instrument, it is computed once per bar. Instruments nobody has asked about cost
+ * one map lookup per tick.
+ *
+ * Updates for one instrument run under that instrument's monitor on the feed thread; subscribers read
+ * the published values through their {@link IndicatorHandle} without locking.
+ */
+@Component
+@Order(100)
+public class IndicatorRegistry implements TickListener {
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final long IST_OFFSET_MILLIS = 19_800_000L; // session VWAP restarts at IST midnight
+
+    private final Map<String, InstrumentIndicators> instruments = new ConcurrentHashMap<>();
+
+    public IndicatorHandle acquire(String instrumentToken, Timeframe timeframe, IndicatorSpec spec) {
+        IndicatorHandle[] out = new IndicatorHandle[1];
+        instruments.compute(instrumentToken, (token, ii) -> {
+            if (ii == null) ii = new InstrumentIndicators(token);
+            out[0] = new IndicatorHandle(ii.acquire(timeframe, spec));
+            return ii;
+        });
+        return out[0];
+    }
+
+    public void release(IndicatorHandle handle) {
+        if (handle == null || handle.released) return;
+        handle.released = true;
+        instruments.computeIfPresent(handle.instrumentToken(), (token, ii) -> ii.release(handle.shared) ? null : ii);
+    }
+
+    /**
+     * Number of distinct indicators currently being computed.
+     */
+    public int activeCount() {
+        int n = 0;
+        for (InstrumentIndicators ii : instruments.values()) n += ii.count();
+        return n;
+    }
+
+    @Override
+    public void onTick(String instrumentToken, MarketDataTick tick) {
+        InstrumentIndicators ii = instruments.get(instrumentToken);
+        if (ii == null || tick.getLastPrice() == null) return;
+        long ts = tick.getTimestamp() != null ? tick.getTimestamp().toEpochMilli() : System.currentTimeMillis();
+        ii.onTick(ts, tick.getLastPrice().doubleValue(), tick.getVolume());
+    }
+
+    private static final class InstrumentIndicators {
+        final String token;
+        final List<TimeframeGroup> groups = new ArrayList<>();
+        long day = Long.MIN_VALUE;
+        long lastCumulativeVolume = -1;
+
+        InstrumentIndicators(String token) {
+            this.token = token;
+        }
+
+        synchronized SharedIndicator acquire(Timeframe timeframe, IndicatorSpec spec) {
+            TimeframeGroup group = null;
+            for (TimeframeGroup g : groups) {
+                if (g.timeframe.equals(timeframe)) group = g;
+            }
+            if (group == null) {
+                group = new TimeframeGroup(token, timeframe);
+                groups.add(group);
+            }
+            for (SharedIndicator s : group.indicators) {
+                if (s.spec.equals(spec)) {
+                    s.refs++;
+                    return s;
+                }
+            }
+            SharedIndicator s = new SharedIndicator(token, timeframe, spec);
+            s.refs = 1;
+            group.indicators.add(s);
+            return s;
+        }
+
+        /**
+         * @return true if nothing is left for this instrument
+         */
+        synchronized boolean release(SharedIndicator s) {
+            if (--s.refs <= 0) {
+                for (TimeframeGroup g : groups) g.indicators.remove(s);
+                groups.removeIf(g -> g.indicators.isEmpty());
+            }
+            return groups.isEmpty();
+        }
+
+        synchronized int count() {
+            int n = 0;
+            for (TimeframeGroup g : groups) n += g.indicators.size();
+            return n;
+        }
+
+        synchronized void onTick(long ts, double price, long cumulativeVolume) {
+            double traded = lastCumulativeVolume >= 0 && cumulativeVolume >= lastCumulativeVolume
+                    ? cumulativeVolume - lastCumulativeVolume : 0;
+            lastCumulativeVolume = cumulativeVolume;
+
+            // Bars completed by this tick belong to the previous session, so they go in before any reset
+            for (int i = 0; i < groups.size(); i++) {
+                TimeframeGroup g = groups.get(i);
+                if (g.bars == null) continue;
+                Bar bar = g.bars.onTick(ts, price, cumulativeVolume);
+                if (bar == null) continue;
+                for (int j = 0; j < g.indicators.size(); j++) {
+                    g.indicators.get(j).update(bar.high(), bar.low(), bar.close(), bar.volume(), bar.startMillis());
+                }
+            }
+
+            long today = (ts + IST_OFFSET_MILLIS) / MILLIS_PER_DAY;
+            if (today != day) {
+                if (day != Long.MIN_VALUE) {
+                    for (TimeframeGroup g : groups) for (SharedIndicator s : g.indicators) s.resetSession();
+                }
+                day = today;
+            }
+
+            for (int i = 0; i < groups.size(); i++) {
+                TimeframeGroup g = groups.get(i);
+                if (g.bars != null) continue;
+                for (int j = 0; j < g.indicators.size(); j++) {
+                    g.indicators.get(j).update(price, price, price, traded, ts);
+                }
+            }
+        }
+    }
+
+    private static final class TimeframeGroup {
+        final Timeframe timeframe;
+        final BarAggregator bars;
+        final List<SharedIndicator> indicators = new ArrayList<>();
+
+        TimeframeGroup(String token, Timeframe timeframe) {
+            this.timeframe = timeframe;
+            this.bars = timeframe.isTick() ? null : new BarAggregator(token, timeframe);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.myorg.trading.service.indicator;
+
+import java.util.Locale;
+
+/**
+ * Indicator type plus parameters, written as e.g. {@code SMA(20)}, {@code RSI(14)}, {@code VWAP(0)},
+ * {@code BB(20,2)}. Equal specs share one computed instance in the {@link IndicatorRegistry}.
+ */
+public record IndicatorSpec(Type type, int period, double multiplier) {
+
+    public enum Type {
+        SMA, EMA, RSI, ATR, VWAP, BB
+    }
+
+    public IndicatorSpec {
+        if (type == null) throw new IllegalArgumentException("Indicator type is required");
+        if (period < (type == Type.VWAP ? 0 : 1)) throw new IllegalArgumentException("Invalid period " + period + " for " + type);
+        if (type != Type.BB) multiplier = 0;
+    }
+
+    public static IndicatorSpec of(Type type, int period) {
+        return new IndicatorSpec(type, period, type == Type.BB ? 2 : 0);
+    }
+
+    public static IndicatorSpec parse(String spec) {
+        String s = spec.trim().toUpperCase(Locale.ROOT).replace(" ", "");
+        int open = s.indexOf('(');
+        if (open < 0 || !s.endsWith(")")) throw new IllegalArgumentException("Invalid indicator " + spec + ", expected e.g. SMA(20)");
+        Type type;
+        try {
+            type = Type.valueOf(s.substring(0, open));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown indicator " + s.substring(0, open));
+        }
+        String[] args = s.substring(open + 1, s.length() - 1).split(",");
+        try {
+            int period = Integer.parseInt(args[0]);
+            double multiplier = args.length > 1 ? Double.parseDouble(args[1]) : (type == Type.BB ? 2 : 0);
+            return new IndicatorSpec(type, period, multiplier);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid indicator parameters in " + spec);
+        }
+    }
+
+    public Indicator create() {
+        return switch (type) {
+            case SMA -> new Sma(period);
+            case EMA -> new Ema(period);
+            case RSI -> new Rsi(period);
+            case ATR -> new Atr(period);
+            case VWAP -> new Vwap(period);
+            case BB -> new BollingerBands(period, multiplier);
+        };
+    }
+
+    @Override
+    public String toString() {
+        return type == Type.BB ? type + "(" + period + "," + multiplier + ")" : type + "(" + period + ")";
+    }
+}
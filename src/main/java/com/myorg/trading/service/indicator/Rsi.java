@@ -0,0 +1,59 @@
+package com.myorg.trading.service.indicator;
+
+/**
+ * Wilder's RSI of closes. The first value is available after {@code period + 1} closes (the average gain
+ * and loss are seeded with the simple mean of the first {@code period} changes).
+ */
+public final class Rsi implements Indicator {
+
+    private final int period;
+    private double prevClose = Double.NaN;
+    private int changes;
+    private double avgGain;
+    private double avgLoss;
+
+    public Rsi(int period) {
+        if (period < 1) throw new IllegalArgumentException("Period must be positive");
+        this.period = period;
+    }
+
+    @Override
+    public void update(double high, double low, double close, double volume) {
+        if (!Double.isNaN(prevClose)) {
+            double d = close - prevClose;
+            double gain = d > 0 ? d : 0;
+            double loss = d < 0 ? -d : 0;
+            if (changes < period) {
+                avgGain += gain;
+                avgLoss += loss;
+                if (++changes == period) {
+                    avgGain /= period;
+                    avgLoss /= period;
+                }
+            } else {
+                avgGain = (avgGain * (period - 1) + gain) / period;
+                avgLoss = (avgLoss * (period - 1) + loss) / period;
+            }
+        }
+        prevClose = close;
+    }
+
+    @Override
+    public double value() {
+        if (changes < period) return Double.NaN;
+        return avgLoss == 0 ? 100 : 100 - 100 / (1 + avgGain / avgLoss);
+    }
+
+    @Override
+    public boolean isReady() {
+        return changes >= period;
+    }
+
+    @Override
+    public void reset() {
+        prevClose = Double.NaN;
+        changes = 0;
+        avgGain = 0;
+        avgLoss = 0;
+    }
+}
@@ -0,0 +1,43 @@
+package com.myorg.trading.service.indicator;
+
+/**
+ * Sum (or sum of squares) of a ring buffer's contents maintained by add/subtract. Floating-point error
+ * from the subtractions accumulates, so the sum is recomputed from the buffer every
+ * {@value #RESUM_INTERVAL} updates, which keeps the amortised cost O(1).
+ */
+final class RunningSum {
+
+    static final int RESUM_INTERVAL = 1 << 14;
+
+    private final DoubleRingBuffer window;
+    private final boolean squares;
+    private double sum;
+    private int sinceResum;
+
+    RunningSum(DoubleRingBuffer window, boolean squares) {
+        this.window = window;
+        this.squares = squares;
+    }
+
+    /**
+     * Account for {@code added} having been pushed into the window, evicting {@code evicted} (NaN if none).
+     */
+    void add(double added, double evicted) {
+        if (++sinceResum >= RESUM_INTERVAL) {
+            sinceResum = 0;
+            sum = squares ? window.sumOfSquares() : window.sum();
+            return;
+        }
+        sum += squares ? added * added : added;
+        if (!Double.isNaN(evicted)) sum -= squares ? evicted * evicted : evicted;
+    }
+
+    double value() {
+        return sum;
+    }
+
+    void reset() {
+        sum = 0;
+        sinceResum = 0;
+    }
+}
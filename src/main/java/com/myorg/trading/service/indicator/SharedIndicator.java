@@ -0,0 +1,43 @@
+package com.myorg.trading.service.indicator;
+
+/**
+ * One computed indicator and the values it last published. {@link #indicator} is only touched under the
+ * owning instrument's monitor; the published fields are volatile for lock-free readers.
+ */
+final class SharedIndicator {
+
+    final String instrumentToken;
+    final Timeframe timeframe;
+    final IndicatorSpec spec;
+    final Indicator indicator;
+    int refs;
+
+    volatile double value = Double.NaN;
+    volatile double upper = Double.NaN;
+    volatile double lower = Double.NaN;
+    volatile long updatedAt;
+
+    SharedIndicator(String instrumentToken, Timeframe timeframe, IndicatorSpec spec) {
+        this.instrumentToken = instrumentToken;
+        this.timeframe = timeframe;
+        this.spec = spec;
+        this.indicator = spec.create();
+    }
+
+    void update(double high, double low, double close, double volume, long at) {
+        indicator.update(high, low, close, volume);
+        if (indicator instanceof BollingerBands bb) {
+            upper = bb.upper();
+            lower = bb.lower();
+        }
+        updatedAt = at;
+        value = indicator.value();
+    }
+
+    void resetSession() {
+        if (indicator instanceof Vwap vwap && vwap.isSession()) {
+            vwap.reset();
+            value = Double.NaN;
+        }
+    }
+}
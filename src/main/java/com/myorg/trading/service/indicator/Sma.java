@@ -0,0 +1,36 @@
+package com.myorg.trading.service.indicator;
+
+/**
+ * Simple moving average of closes over a ring-buffer window with a running sum.
+ */
+public final class Sma implements Indicator {
+
+    private final DoubleRingBuffer window;
+    private final RunningSum sum;
+
+    public Sma(int period) {
+        this.window = new DoubleRingBuffer(period);
+        this.sum = new RunningSum(window, false);
+    }
+
+    @Override
+    public void update(double high, double low, double close, double volume) {
+        sum.add(close, window.push(close));
+    }
+
+    @Override
+    public double value() {
+        return window.isFull() ? sum.value() / window.capacity() : Double.NaN;
+    }
+
+    @Override
+    public boolean isReady() {
+        return window.isFull();
+    }
+
+    @Override
+    public void reset() {
+        window.clear();
+        sum.reset();
+    }
+}
@@ -0,0 +1,52 @@
+package com.myorg.trading.service.indicator;
+
+import java.util.Locale;
+
+/**
+ * Bar width; {@link #TICK} means indicators update on every tick instead of on bar close.
+ */
+public record Timeframe(long millis) {
+
+    public static final Timeframe TICK = new Timeframe(0);
+
+    public Timeframe {
+        if (millis < 0) throw new IllegalArgumentException("Timeframe must not be negative");
+    }
+
+    public boolean isTick() {
+        return millis == 0;
+    }
+
+    /**
+     * "TICK", or a count plus unit: "30S", "1M", "5M", "1H", "1D".
+     */
+    public static Timeframe parse(String value) {
+        String s = value.trim().toUpperCase(Locale.ROOT);
+        if (s.equals("TICK")) return TICK;
+        if (s.length() < 2) throw new IllegalArgumentException("Invalid timeframe " + value);
+        long n;
+        try {
+            n = Long.parseLong(s.substring(0, s.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid timeframe " + value);
+        }
+        long unit = switch (s.charAt(s.length() - 1)) {
+            case 'S' -> 1_000L;
+            case 'M' -> 60_000L;
+            case 'H' -> 3_600_000L;
+            case 'D' -> 86_400_000L;
+            default -> throw new IllegalArgumentException("Invalid timeframe " + value);
+        };
+        if (n <= 0) throw new IllegalArgumentException("Invalid timeframe " + value);
+        return new Timeframe(n * unit);
+    }
+
+    @Override
+    public String toString() {
+        if (millis == 0) return "TICK";
+        if (millis % 86_400_000L == 0) return millis / 86_400_000L + "D";
+        if (millis % 3_600_000L == 0) return millis / 3_600_000L + "H";
+        if (millis % 60_000L == 0) return millis / 60_000L + "M";
+        return millis / 1_000L + "S";
+    }
+}
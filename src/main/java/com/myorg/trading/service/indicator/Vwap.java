@@ -0,0 +1,67 @@
+package com.myorg.trading.service.indicator;
+
+/**
+ * Volume-weighted average of the typical price (high + low + close) / 3. With period 0 it accumulates
+ * since the last {@link #reset()} (session VWAP; the registry resets it at the start of each trading
+ * day), otherwise over the last {@code period} updates.
+ */
+public final class Vwap implements Indicator {
+
+    private final DoubleRingBuffer pv;
+    private final DoubleRingBuffer vol;
+    private final RunningSum pvSum;
+    private final RunningSum volSum;
+    private double cumPv;
+    private double cumVol;
+
+    public Vwap(int period) {
+        if (period < 0) throw new IllegalArgumentException("Period must not be negative");
+        this.pv = period > 0 ? new DoubleRingBuffer(period) : null;
+        this.vol = period > 0 ? new DoubleRingBuffer(period) : null;
+        this.pvSum = period > 0 ? new RunningSum(pv, false) : null;
+        this.volSum = period > 0 ? new RunningSum(vol, false) : null;
+    }
+
+    @Override
+    public void update(double high, double low, double close, double volume) {
+        double p = (high + low + close) / 3 * volume;
+        if (pv == null) {
+            cumPv += p;
+            cumVol += volume;
+        } else {
+            pvSum.add(p, pv.push(p));
+            volSum.add(volume, vol.push(volume));
+        }
+    }
+
+    @Override
+    public double value() {
+        double v = pv == null ? cumVol : volSum.value();
+        if (v <= 0 || (pv != null && !pv.isFull())) return Double.NaN;
+        return (pv == null ? cumPv : pvSum.value()) / v;
+    }
+
+    @Override
+    public boolean isReady() {
+        return !Double.isNaN(value());
+    }
+
+    /**
+     * True for session VWAP, which should be reset when a new trading day starts.
+     */
+    public boolean isSession() {
+        return pv == null;
+    }
+
+    @Override
+    public void reset() {
+        cumPv = 0;
+        cumVol = 0;
+        if (pv != null) {
+            pv.clear();
+            vol.clear();
+            pvSum.reset();
+            volSum.reset();
+        }
+    }
+}
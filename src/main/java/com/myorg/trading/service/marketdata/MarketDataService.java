@@ -1,12 +1,22 @@
 package com.myorg.trading.service.marketdata;
 
 import com.myorg.trading.broker.api.MarketDataTick;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.core.publisher.Sinks;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 
 /**
  * Market data router: adapters can push ticks into the service; consumers can subscribe by token.
@@ -16,17 +26,140 @@ import java.util.concurrent.ConcurrentHashMap;
 public class MarketDataService {
 
     private final Map<String, Sinks.Many<MarketDataTick>> registry = new ConcurrentHashMap<>();
+    private final Map<String, MarketDataTick> lastTicks = new ConcurrentHashMap<>();
+    private final Counter ticksReceived;
+    // Instruments something needs live ticks for, and the feeds to tell; guarded by feedRequests
+    private final Map<String, FeedRequest> feedRequests = new LinkedHashMap<>();
+    private final List<FeedSubscriber> feedSubscribers = new ArrayList<>();
+    // Listeners (strategies, algos) depend on services that need market data, so the list is a lazy proxy
+    // resolved on the first tick rather than in the constructor
+    private final List<TickListener> listenerBeans;
+    private volatile TickListener[] tickListeners;
+
+    public MarketDataService(MeterRegistry meterRegistry, @Lazy List<TickListener> tickListeners) {
+        this.listenerBeans = tickListeners;
+        this.ticksReceived = Counter.builder("trading.ticks.received")
+                .description("Ticks pushed in by broker feeds")
+                .register(meterRegistry);
+        Gauge.builder("trading.marketdata.sinks", registry, Map::size)
+                .description("Instruments with a live tick sink")
+                .register(meterRegistry);
+        Gauge.builder("trading.marketdata.subscribers", this, MarketDataService::subscriberCount)
+                .description("Subscribers across all instrument sinks")
+                .register(meterRegistry);
+        Gauge.builder("trading.marketdata.feeds", this, MarketDataService::requestedFeeds)
+                .description("Instruments requested from the broker feeds")
+                .register(meterRegistry);
+    }
 
     public Flux<MarketDataTick> streamFor(String instrumentToken) {
-        Sinks.Many<MarketDataTick> sink = registry.computeIfAbsent(instrumentToken, k -> Sinks.many().multicast().onBackpressureBuffer());
-        return sink.asFlux();
+        return sinkFor(instrumentToken).asFlux();
     }
 
     /**
      * Called by adapter when it receives a tick from broker streaming API.
      */
     public void pushTick(String instrumentToken, MarketDataTick tick) {
-        Sinks.Many<MarketDataTick> sink = registry.computeIfAbsent(instrumentToken, k -> Sinks.many().multicast().onBackpressureBuffer());
-        sink.tryEmitNext(tick);
+        ticksReceived.increment();
+        lastTicks.put(instrumentToken, tick);
+        for (TickListener l : tickListeners()) l.onTick(instrumentToken, tick);
+        sinkFor(instrumentToken).tryEmitNext(tick);
+    }
+
+    private TickListener[] tickListeners() {
+        TickListener[] l = tickListeners;
+        if (l == null) tickListeners = l = listenerBeans.toArray(new TickListener[0]);
+        return l;
+    }
+
+    /**
+     * Ask the broker feeds to stream an instrument. Requests are counted per token: each call must be
+     * matched by one {@link #releaseFeed}, and a feed hears about a token once however many hold it.
+     *
+     * @param exchange exchange code as used in orders (NSE, NFO, BSE...); null means NSE
+     */
+    public void requestFeed(String exchange, String instrumentToken) {
+        String ex = exchange != null ? exchange : "NSE";
+        // Feeds are told under the lock so a release can never overtake the subscribe it undoes
+        synchronized (feedRequests) {
+            FeedRequest request = feedRequests.get(instrumentToken);
+            if (request != null) {
+                request.holders++;
+                return;
+            }
+            feedRequests.put(instrumentToken, new FeedRequest(ex));
+            for (FeedSubscriber s : feedSubscribers) s.subscribe.accept(ex, instrumentToken);
+        }
+    }
+
+    /**
+     * Hold a feed for a while, for one-shot reads (snapshots) that expect later reads to find data.
+     */
+    public void requestFeedFor(String exchange, String instrumentToken, Duration hold) {
+        requestFeed(exchange, instrumentToken);
+        Mono.delay(hold).subscribe(t -> releaseFeed(instrumentToken));
+    }
+
+    /**
+     * Drop one {@link #requestFeed} hold; the feeds stop streaming the instrument when the last one goes.
+     */
+    public void releaseFeed(String instrumentToken) {
+        synchronized (feedRequests) {
+            FeedRequest request = feedRequests.get(instrumentToken);
+            if (request == null || --request.holders > 0) return;
+            feedRequests.remove(instrumentToken);
+            for (FeedSubscriber s : feedSubscribers) s.unsubscribe.accept(request.exchange, instrumentToken);
+        }
+    }
+
+    /**
+     * Register a broker feed for {@link #requestFeed} and {@link #releaseFeed} as (exchange, token); it is
+     * first subscribed to every instrument already requested.
+     */
+    public void addFeedSubscriber(BiConsumer<String, String> subscribe, BiConsumer<String, String> unsubscribe) {
+        synchronized (feedRequests) {
+            feedSubscribers.add(new FeedSubscriber(subscribe, unsubscribe));
+            feedRequests.forEach((token, request) -> subscribe.accept(request.exchange, token));
+        }
+    }
+
+    /**
+     * Number of instruments currently requested from the feeds.
+     */
+    int requestedFeeds() {
+        synchronized (feedRequests) {
+            return feedRequests.size();
+        }
+    }
+
+    /**
+     * Most recent tick seen for the instrument, or null if none has arrived yet.
+     */
+    public MarketDataTick lastTick(String instrumentToken) {
+        return lastTicks.get(instrumentToken);
+    }
+
+    private double subscriberCount() {
+        int total = 0;
+        for (Sinks.Many<MarketDataTick> sink : registry.values()) total += sink.currentSubscriberCount();
+        return total;
+    }
+
+    private Sinks.Many<MarketDataTick> sinkFor(String instrumentToken) {
+        // Best-effort multicast: a slow subscriber drops ticks instead of buffering stale ones, and the sink
+        // survives subscribers coming and going (onBackpressureBuffer auto-cancels when the last one leaves).
+        return registry.computeIfAbsent(instrumentToken, k -> Sinks.many().multicast().directBestEffort());
+    }
+
+    private static final class FeedRequest {
+        final String exchange;
+        int holders = 1;
+
+        FeedRequest(String exchange) {
+            this.exchange = exchange;
+        }
+    }
+
+    private record FeedSubscriber(BiConsumer<String, String> subscribe, BiConsumer<String, String> unsubscribe) {
     }
 }
@@ -6,11 +6,15 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,6 +22,8 @@ import java.util.stream.Collectors;
 public class SecurityMasterService {
 
     private final List<SecurityMaster> securityList = new ArrayList<>();
+    // securityId (exchange token) -> instrument, for O(1) lookups when netting positions across brokers
+    private final Map<String, SecurityMaster> bySecurityId = new ConcurrentHashMap<>();
     // Dhan Open API Scrip Master URL
     private static final String CSV_URL = "https://images.dhan.co/api-data/api-scrip-master.csv";
 
@@ -33,38 +39,50 @@ public class SecurityMasterService {
         try {
             URL url = new URL(CSV_URL);
             try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream()))) {
-                String line;
-                reader.readLine(); // Skip Header
+                load(reader);
+            }
+            log.info("Security Master Loaded: {} records in {}ms", securityList.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Failed to load Security Master", e);
+        }
+    }
 
-                while ((line = reader.readLine()) != null) {
-                    // CSV Format: SEM_EXM_EXCH_ID, SEM_SEGMENT, SEM_SMST_SECURITY_ID, SEM_GMT_INSTRUMENT_TYPE, SEM_INSTRUMENT_NAME, SEM_TRADING_SYMBOL, ...
-                    String[] cols = line.split(",");
-                    if (cols.length < 6) continue;
+    /**
+     * Parse a scrip master CSV (header line first). Package-private so benchmarks can load a fixed file.
+     */
+    void load(BufferedReader reader) throws IOException {
+        String line;
+        reader.readLine(); // Skip Header
 
-                    SecurityMaster sm = new SecurityMaster();
-                    sm.setExchangeSegment(cols[0].trim()); // NSE/BSE
-                    sm.setSecurityId(cols[2].trim());      // Token
-                    sm.setInstrumentType(cols[3].trim());  // EQUITY/OPTIDX
-                    sm.setName(cols[4].trim());            // RELIANCE
-                    sm.setTradingSymbol(cols[5].trim());   // RELIANCE-EQ
+        while ((line = reader.readLine()) != null) {
+            // CSV Format: SEM_EXM_EXCH_ID, SEM_SEGMENT, SEM_SMST_SECURITY_ID, SEM_GMT_INSTRUMENT_TYPE, SEM_INSTRUMENT_NAME, SEM_TRADING_SYMBOL, ...
+            String[] cols = line.split(",");
+            if (cols.length < 6) continue;
 
-                    // Optional parsing for Lot/Tick
-                    if (cols.length > 8) {
-                        try { sm.setLotSize(Integer.parseInt(cols[8].trim())); } catch (Exception e) { sm.setLotSize(1); }
-                    }
+            SecurityMaster sm = new SecurityMaster();
+            sm.setExchangeSegment(cols[0].trim()); // NSE/BSE
+            sm.setSecurityId(cols[2].trim());      // Token
+            sm.setInstrumentType(cols[3].trim());  // EQUITY/OPTIDX
+            sm.setName(cols[4].trim());            // RELIANCE
+            sm.setTradingSymbol(cols[5].trim());   // RELIANCE-EQ
 
-                    // Optimization: Only keep NSE Equity & FNO to save memory/search time
-                    if (sm.getExchangeSegment().contains("NSE")) {
-                        securityList.add(sm);
-                    }
-                }
+            // Optional parsing for Lot/Tick
+            if (cols.length > 8) {
+                try { sm.setLotSize(Integer.parseInt(cols[8].trim())); } catch (Exception e) { sm.setLotSize(1); }
+            }
+
+            // Optimization: Only keep NSE Equity & FNO to save memory/search time
+            if (sm.getExchangeSegment().contains("NSE")) {
+                securityList.add(sm);
+                bySecurityId.putIfAbsent(sm.getSecurityId(), sm);
             }
-            log.info("Security Master Loaded: {} records in {}ms", securityList.size(), System.currentTimeMillis() - start);
-        } catch (Exception e) {
-            log.error("Failed to load Security Master", e);
         }
     }
 
+    public Optional<SecurityMaster> findBySecurityId(String securityId) {
+        return securityId == null ? Optional.empty() : Optional.ofNullable(bySecurityId.get(securityId));
+    }
+
     public List<SecurityMaster> search(String query) {
         if (query == null || query.length() < 2) return List.of();
 
@@ -0,0 +1,11 @@
+package com.myorg.trading.service.marketdata;
+
+import com.myorg.trading.broker.api.MarketDataTick;
+
+/**
+ * Synchronous hook for every live tick entering MarketDataService (called on the feed thread, so keep it cheap).
+ * Replayed ticks are not passed to listeners.
+ */
+public interface TickListener {
+    void onTick(String instrumentToken, MarketDataTick tick);
+}
@@ -0,0 +1,7 @@
+package com.myorg.trading.service.marketdata.depth;
+
+/**
+ * One changed (or, in a snapshot, every) level of a book side. Quantity 0 means the level is now empty.
+ */
+public record DepthLevel(int level, double price, long quantity, int orders) {
+}
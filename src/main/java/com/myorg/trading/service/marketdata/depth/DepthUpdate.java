@@ -0,0 +1,12 @@
+package com.myorg.trading.service.marketdata.depth;
+
+import java.util.List;
+
+/**
+ * Message on /topic/depth/{token}. Deltas carry only the levels that changed since sequence {@code seq - 1};
+ * a client that sees a gap in {@code seq} should refetch the snapshot (GET /api/v1/marketdata/depth/{token}),
+ * which has {@code snapshot = true} and all levels.
+ */
+public record DepthUpdate(String instrumentToken, long seq, long timestamp, boolean snapshot,
+                          List<DepthLevel> bids, List<DepthLevel> asks) {
+}
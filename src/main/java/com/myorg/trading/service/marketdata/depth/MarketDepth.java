@@ -0,0 +1,73 @@
+package com.myorg.trading.service.marketdata.depth;
+
+/**
+ * Five levels of bids and asks held in fixed primitive arrays. Level 0 is the best price; an empty level
+ * has price 0 and quantity 0.
+ *
+ * Used both as the per-instrument book inside {@link MarketDepthService} (updated in place, never
+ * reallocated) and as the scratch buffer an adapter decodes a depth packet into. Not thread-safe.
+ */
+public final class MarketDepth {
+
+    public static final int LEVELS = 5;
+
+    final double[] bidPrice = new double[LEVELS];
+    final long[] bidQty = new long[LEVELS];
+    final int[] bidOrders = new int[LEVELS];
+    final double[] askPrice = new double[LEVELS];
+    final long[] askQty = new long[LEVELS];
+    final int[] askOrders = new int[LEVELS];
+    long timestampMillis;
+
+    public void setBid(int level, double price, long quantity, int orders) {
+        bidPrice[level] = price;
+        bidQty[level] = quantity;
+        bidOrders[level] = orders;
+    }
+
+    public void setAsk(int level, double price, long quantity, int orders) {
+        askPrice[level] = price;
+        askQty[level] = quantity;
+        askOrders[level] = orders;
+    }
+
+    public void setTimestampMillis(long timestampMillis) {
+        this.timestampMillis = timestampMillis;
+    }
+
+    public void clear() {
+        for (int i = 0; i < LEVELS; i++) {
+            setBid(i, 0, 0, 0);
+            setAsk(i, 0, 0, 0);
+        }
+        timestampMillis = 0;
+    }
+
+    public double bidPrice(int level) {
+        return bidPrice[level];
+    }
+
+    public long bidQuantity(int level) {
+        return bidQty[level];
+    }
+
+    public int bidOrders(int level) {
+        return bidOrders[level];
+    }
+
+    public double askPrice(int level) {
+        return askPrice[level];
+    }
+
+    public long askQuantity(int level) {
+        return askQty[level];
+    }
+
+    public int askOrders(int level) {
+        return askOrders[level];
+    }
+
+    public long timestampMillis() {
+        return timestampMillis;
+    }
+}
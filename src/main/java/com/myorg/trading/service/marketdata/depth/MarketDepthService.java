@@ -0,0 +1,147 @@
+package com.myorg.trading.service.marketdata.depth;
+
+import com.myorg.trading.service.cluster.ClusterFeedRelay;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latest five-level book per instrument, fed by broker depth packets. Each update is diffed against the
+ * stored book level by level, the book is overwritten in place, and only the changed levels are pushed
+ * to /topic/depth/{token}. Quote feeds resend the whole book on every packet while usually only one or
+ * two levels move, so this cuts most of the depth traffic.
+ */
+@Slf4j
+@Service
+public class MarketDepthService {
+
+    public static final String DEPTH_TOPIC = "/topic/depth/";
+
+    private final Map<String, Book> books = new ConcurrentHashMap<>();
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ClusterFeedRelay clusterFeedRelay;
+    private final Counter updates;
+    private final Counter levelsSent;
+
+    public MarketDepthService(SimpMessagingTemplate messagingTemplate, ClusterFeedRelay clusterFeedRelay,
+                              MeterRegistry meterRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        this.clusterFeedRelay = clusterFeedRelay;
+        this.updates = Counter.builder("trading.depth.updates")
+                .description("Depth packets received from broker feeds")
+                .register(meterRegistry);
+        this.levelsSent = Counter.builder("trading.depth.levels.sent")
+                .description("Changed depth levels published to clients")
+                .register(meterRegistry);
+        Gauge.builder("trading.depth.books", books, Map::size)
+                .description("Instruments with a depth book")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Apply a decoded depth packet. {@code incoming} is only read, so adapters can reuse one buffer.
+     */
+    public void update(String instrumentToken, MarketDepth incoming) {
+        updates.increment();
+        Book book = books.computeIfAbsent(instrumentToken, k -> new Book());
+        DepthUpdate delta;
+        synchronized (book) {
+            List<DepthLevel> bids = diff(book.depth.bidPrice, book.depth.bidQty, book.depth.bidOrders,
+                    incoming.bidPrice, incoming.bidQty, incoming.bidOrders);
+            List<DepthLevel> asks = diff(book.depth.askPrice, book.depth.askQty, book.depth.askOrders,
+                    incoming.askPrice, incoming.askQty, incoming.askOrders);
+            book.depth.timestampMillis = incoming.timestampMillis;
+            if (bids.isEmpty() && asks.isEmpty()) return;
+            book.seq++;
+            delta = new DepthUpdate(instrumentToken, book.seq, incoming.timestampMillis, false, bids, asks);
+            // Sent under the lock so a token's deltas reach the broker channel in sequence order
+            publish(delta);
+        }
+        levelsSent.increment(delta.bids().size() + delta.asks().size());
+    }
+
+    /**
+     * Apply a delta produced by the feed leader on another node (cluster relay). Clients already got it
+     * from the broker, so it is not published again; the book just takes over the leader's sequence.
+     */
+    public void applyRemote(DepthUpdate delta) {
+        Book book = books.computeIfAbsent(delta.instrumentToken(), k -> new Book());
+        synchronized (book) {
+            for (DepthLevel l : delta.bids()) book.depth.setBid(l.level(), l.price(), l.quantity(), l.orders());
+            for (DepthLevel l : delta.asks()) book.depth.setAsk(l.level(), l.price(), l.quantity(), l.orders());
+            book.depth.timestampMillis = delta.timestamp();
+            book.seq = delta.seq();
+        }
+    }
+
+    /**
+     * Full book with its current sequence number, or null if no depth has arrived for the instrument.
+     */
+    public DepthUpdate snapshot(String instrumentToken) {
+        Book book = books.get(instrumentToken);
+        if (book == null) return null;
+        synchronized (book) {
+            MarketDepth d = book.depth;
+            List<DepthLevel> bids = new ArrayList<>(MarketDepth.LEVELS);
+            List<DepthLevel> asks = new ArrayList<>(MarketDepth.LEVELS);
+            for (int i = 0; i < MarketDepth.LEVELS; i++) {
+                bids.add(new DepthLevel(i, d.bidPrice[i], d.bidQty[i], d.bidOrders[i]));
+                asks.add(new DepthLevel(i, d.askPrice[i], d.askQty[i], d.askOrders[i]));
+            }
+            return new DepthUpdate(instrumentToken, book.seq, d.timestampMillis, true, bids, asks);
+        }
+    }
+
+    /**
+     * Copy the current book into {@code into} without allocating. Returns false if there is no book yet.
+     */
+    public boolean copyInto(String instrumentToken, MarketDepth into) {
+        Book book = books.get(instrumentToken);
+        if (book == null) return false;
+        synchronized (book) {
+            MarketDepth d = book.depth;
+            for (int i = 0; i < MarketDepth.LEVELS; i++) {
+                into.setBid(i, d.bidPrice[i], d.bidQty[i], d.bidOrders[i]);
+                into.setAsk(i, d.askPrice[i], d.askQty[i], d.askOrders[i]);
+            }
+            into.timestampMillis = d.timestampMillis;
+            return true;
+        }
+    }
+
+    private static List<DepthLevel> diff(double[] price, long[] qty, int[] orders,
+                                         double[] newPrice, long[] newQty, int[] newOrders) {
+        List<DepthLevel> changed = null;
+        for (int i = 0; i < MarketDepth.LEVELS; i++) {
+            if (price[i] == newPrice[i] && qty[i] == newQty[i] && orders[i] == newOrders[i]) continue;
+            price[i] = newPrice[i];
+            qty[i] = newQty[i];
+            orders[i] = newOrders[i];
+            if (changed == null) changed = new ArrayList<>(2);
+            changed.add(new DepthLevel(i, newPrice[i], newQty[i], newOrders[i]));
+        }
+        return changed != null ? changed : List.of();
+    }
+
+    private void publish(DepthUpdate delta) {
+        try {
+            messagingTemplate.convertAndSend(DEPTH_TOPIC + delta.instrumentToken(), delta);
+            clusterFeedRelay.publishDepth(delta);
+        } catch (Exception e) {
+            log.warn("Failed to push depth for {}: {}", delta.instrumentToken(), e.getMessage());
+        }
+    }
+
+    private static final class Book {
+        final MarketDepth depth = new MarketDepth();
+        long seq;
+    }
+}
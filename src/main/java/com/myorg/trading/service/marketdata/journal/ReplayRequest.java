@@ -0,0 +1,14 @@
+package com.myorg.trading.service.marketdata.journal;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * @param tokens instruments to replay; empty or null = every instrument recorded that day
+ * @param speed  1 = real time, N = N times faster, 0 = as fast as possible
+ * @param from   optional inclusive start (tick time)
+ * @param to     optional exclusive end (tick time)
+ */
+public record ReplayRequest(LocalDate day, List<String> tokens, double speed, Instant from, Instant to) {
+}
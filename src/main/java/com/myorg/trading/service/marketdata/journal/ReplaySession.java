@@ -0,0 +1,16 @@
+package com.myorg.trading.service.marketdata.journal;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+public record ReplaySession(
+        String id,
+        LocalDate day,
+        double speed,
+        String state,          // RUNNING, COMPLETED, STOPPED, FAILED
+        long ticksEmitted,
+        Instant tickTime,      // timestamp of the last replayed tick
+        Instant startedAt,
+        String error
+) {
+}
@@ -0,0 +1,232 @@
+package com.myorg.trading.service.marketdata.journal;
+
+import com.myorg.trading.broker.api.MarketDataTick;
+import com.myorg.trading.service.marketdata.TickListener;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of every live tick, one directory per trading day (IST):
+ * <pre>
+ *   {dir}/2026-10-18/ticks.dat    fixed-size {@link TickRecord}s in arrival order, memory-mapped in chunks
+ *   {dir}/2026-10-18/symbols.txt  instrument dictionary; line n = instrument id n
+ *   {dir}/2026-10-18/index.bin    (instrumentId, timestamp, recordNo) at most once per instrument per index interval
+ * </pre>
+ * The data file is pre-extended a chunk at a time; unused space is zero, so after a crash the end of the
+ * journal is found by binary search for the first record with a zero timestamp.
+ */
+@Slf4j
+@Component
+public class TickJournal implements TickListener {
+
+    static final String DATA_FILE = "ticks.dat";
+    static final String SYMBOLS_FILE = "symbols.txt";
+    static final String INDEX_FILE = "index.bin";
+    static final int INDEX_ENTRY_SIZE = 20;
+    // Records per mapped chunk (~75 MB); records never straddle chunks
+    static final int CHUNK_RECORDS = 1 << 21;
+    static final ZoneId TRADING_ZONE = ZoneId.of("Asia/Kolkata");
+
+    private final boolean enabled;
+    private final Path baseDir;
+    private final long indexIntervalNanos;
+
+    private DayWriter writer;
+
+    public TickJournal(@Value("${app.ticks.journal.enabled:true}") boolean enabled,
+                       @Value("${app.ticks.journal.dir:./data/ticks}") String dir,
+                       @Value("${app.ticks.journal.index-interval-ms:1000}") long indexIntervalMs) {
+        this.enabled = enabled;
+        this.baseDir = Path.of(dir);
+        this.indexIntervalNanos = indexIntervalMs * 1_000_000L;
+    }
+
+    @Override
+    public void onTick(String instrumentToken, MarketDataTick tick) {
+        if (!enabled || tick.getLastPrice() == null) return;
+        try {
+            append(instrumentToken, tick);
+        } catch (IOException | RuntimeException e) {
+            // never let journaling break the live feed
+            log.warn("Tick journal append failed for {}: {}", instrumentToken, e.toString());
+        }
+    }
+
+    synchronized void append(String instrumentToken, MarketDataTick tick) throws IOException {
+        long nowMillis = System.currentTimeMillis();
+        if (writer == null || nowMillis >= writer.rollAtMillis) {
+            roll(nowMillis);
+        }
+        writer.append(instrumentToken, tick, nowMillis * 1_000_000L);
+    }
+
+    private void roll(long nowMillis) throws IOException {
+        if (writer != null) writer.close();
+        LocalDate day = LocalDate.ofInstant(Instant.ofEpochMilli(nowMillis), TRADING_ZONE);
+        writer = new DayWriter(baseDir.resolve(day.toString()), indexIntervalNanos,
+                day.plusDays(1).atStartOfDay(TRADING_ZONE).toInstant().toEpochMilli());
+        log.info("Tick journal writing to {} ({} records already present)", writer.dir, writer.count);
+    }
+
+    /**
+     * Push dirty pages to disk so a crash loses at most one flush interval.
+     */
+    @Scheduled(fixedDelayString = "${app.ticks.journal.flush-ms:1000}")
+    public synchronized void flush() {
+        if (writer == null) return;
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            log.warn("Tick journal flush failed: {}", e.toString());
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (writer == null) return;
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.warn("Tick journal close failed: {}", e.toString());
+        }
+        writer = null;
+    }
+
+    public List<LocalDate> recordedDays() {
+        if (!Files.isDirectory(baseDir)) return List.of();
+        try (Stream<Path> dirs = Files.list(baseDir)) {
+            return dirs.filter(d -> Files.exists(d.resolve(DATA_FILE)))
+                    .map(d -> {
+                        try {
+                            return LocalDate.parse(d.getFileName().toString());
+                        } catch (RuntimeException e) {
+                            return null;
+                        }
+                    })
+                    .filter(d -> d != null)
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Open a day for reading. Safe while that day is still being written: the reader sees records up to
+     * the point it was opened.
+     */
+    public TickJournalReader open(LocalDate day) throws IOException {
+        flush();
+        return TickJournalReader.open(baseDir.resolve(day.toString()));
+    }
+
+    private static final class DayWriter {
+        final Path dir;
+        final long rollAtMillis;
+        final long indexIntervalNanos;
+        final FileChannel data;
+        final FileChannel index;
+        final FileChannel symbols;
+        final Map<String, Integer> ids = new HashMap<>();
+        final ByteBuffer indexBuf = ByteBuffer.allocate(INDEX_ENTRY_SIZE * 1024).order(ByteOrder.LITTLE_ENDIAN);
+        final TickRecord record = new TickRecord();
+        long[] lastIndexed; // per instrument, 0 = not indexed yet
+        MappedByteBuffer chunk;
+        long chunkNo = -1;
+        long count;
+
+        DayWriter(Path dir, long indexIntervalNanos, long rollAtMillis) throws IOException {
+            this.dir = dir;
+            this.rollAtMillis = rollAtMillis;
+            this.indexIntervalNanos = indexIntervalNanos;
+            Files.createDirectories(dir);
+            data = FileChannel.open(dir.resolve(DATA_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            index = FileChannel.open(dir.resolve(INDEX_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            symbols = FileChannel.open(dir.resolve(SYMBOLS_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+
+            // Resume a day we already wrote to (restart mid-session)
+            List<String> known = TickJournalReader.readSymbols(dir.resolve(SYMBOLS_FILE));
+            for (int i = 0; i < known.size(); i++) ids.put(known.get(i), i);
+            count = TickJournalReader.committedCount(data);
+            lastIndexed = new long[Math.max(256, known.size() * 2)];
+        }
+
+        void append(String token, MarketDataTick tick, long fallbackNanos) throws IOException {
+            Integer id = ids.get(token);
+            if (id == null) id = register(token);
+
+            long chunkIdx = count / CHUNK_RECORDS;
+            if (chunkIdx != chunkNo) mapChunk(chunkIdx);
+
+            record.from(id, tick, fallbackNanos);
+            record.write(chunk, (int) (count % CHUNK_RECORDS) * TickRecord.SIZE);
+
+            if (lastIndexed[id] == 0 || record.timestampNanos - lastIndexed[id] >= indexIntervalNanos) {
+                lastIndexed[id] = record.timestampNanos;
+                if (indexBuf.remaining() < INDEX_ENTRY_SIZE) flushIndex();
+                indexBuf.putInt(id).putLong(record.timestampNanos).putLong(count);
+            }
+            count++;
+        }
+
+        private int register(String token) throws IOException {
+            int id = ids.size();
+            symbols.write(ByteBuffer.wrap((token + "\n").getBytes(StandardCharsets.UTF_8)));
+            ids.put(token, id);
+            if (id >= lastIndexed.length) lastIndexed = Arrays.copyOf(lastIndexed, lastIndexed.length * 2);
+            return id;
+        }
+
+        private void mapChunk(long chunkIdx) throws IOException {
+            if (chunk != null) chunk.force();
+            long chunkBytes = (long) CHUNK_RECORDS * TickRecord.SIZE;
+            // READ_WRITE mapping past EOF extends the file (zero-filled)
+            chunk = data.map(FileChannel.MapMode.READ_WRITE, chunkIdx * chunkBytes, chunkBytes);
+            chunk.order(ByteOrder.LITTLE_ENDIAN);
+            chunkNo = chunkIdx;
+        }
+
+        private void flushIndex() throws IOException {
+            indexBuf.flip();
+            while (indexBuf.hasRemaining()) index.write(indexBuf);
+            indexBuf.clear();
+        }
+
+        void flush() throws IOException {
+            flushIndex();
+            if (chunk != null) chunk.force();
+        }
+
+        void close() throws IOException {
+            flush();
+            data.close();
+            index.close();
+            symbols.close();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.myorg.trading.service.marketdata.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only view of one journal day. Records are decoded into a caller-supplied {@link TickRecord}, so a
+ * full-day scan does not allocate per tick. Not thread-safe; open one reader per consumer.
+ */
+public class TickJournalReader implements AutoCloseable {
+
+    private final FileChannel data;
+    private final long count;
+    private final List<String> symbols;
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final MappedByteBuffer[] chunks;
+
+    // index.bin, column-wise
+    private final int[] indexInstrument;
+    private final long[] indexTimestamp;
+    private final long[] indexRecord;
+
+    private TickJournalReader(Path dir) throws IOException {
+        data = FileChannel.open(dir.resolve(TickJournal.DATA_FILE), StandardOpenOption.READ);
+        count = committedCount(data);
+        symbols = readSymbols(dir.resolve(TickJournal.SYMBOLS_FILE));
+        for (int i = 0; i < symbols.size(); i++) ids.put(symbols.get(i), i);
+        chunks = new MappedByteBuffer[(int) ((count + TickJournal.CHUNK_RECORDS - 1) / TickJournal.CHUNK_RECORDS)];
+
+        Path indexPath = dir.resolve(TickJournal.INDEX_FILE);
+        ByteBuffer idx = ByteBuffer.wrap(Files.exists(indexPath) ? Files.readAllBytes(indexPath) : new byte[0])
+                .order(ByteOrder.LITTLE_ENDIAN);
+        int entries = idx.remaining() / TickJournal.INDEX_ENTRY_SIZE;
+        indexInstrument = new int[entries];
+        indexTimestamp = new long[entries];
+        indexRecord = new long[entries];
+        for (int i = 0; i < entries; i++) {
+            indexInstrument[i] = idx.getInt();
+            indexTimestamp[i] = idx.getLong();
+            indexRecord[i] = idx.getLong();
+        }
+    }
+
+    public static TickJournalReader open(Path dayDir) throws IOException {
+        if (!Files.exists(dayDir.resolve(TickJournal.DATA_FILE))) {
+            throw new IllegalArgumentException("No tick journal at " + dayDir);
+        }
+        return new TickJournalReader(dayDir);
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public List<String> symbols() {
+        return symbols;
+    }
+
+    public String symbol(int instrumentId) {
+        return symbols.get(instrumentId);
+    }
+
+    /**
+     * @return the instrument id, or -1 if the instrument has no ticks that day
+     */
+    public int instrumentId(String token) {
+        Integer id = ids.get(token);
+        return id == null ? -1 : id;
+    }
+
+    public void read(long recordNo, TickRecord into) throws IOException {
+        int chunkIdx = (int) (recordNo / TickJournal.CHUNK_RECORDS);
+        MappedByteBuffer chunk = chunks[chunkIdx];
+        if (chunk == null) {
+            long chunkBytes = (long) TickJournal.CHUNK_RECORDS * TickRecord.SIZE;
+            long start = chunkIdx * chunkBytes;
+            chunk = data.map(FileChannel.MapMode.READ_ONLY, start, Math.min(chunkBytes, data.size() - start));
+            chunk.order(ByteOrder.LITTLE_ENDIAN);
+            chunks[chunkIdx] = chunk;
+        }
+        into.read(chunk, (int) (recordNo % TickJournal.CHUNK_RECORDS) * TickRecord.SIZE);
+    }
+
+    /**
+     * First record whose timestamp is >= the given time (binary search; records are in arrival order, which
+     * matches timestamp order up to feed jitter).
+     */
+    public long firstRecordAtOrAfter(long timestampNanos) throws IOException {
+        TickRecord r = new TickRecord();
+        long lo = 0, hi = count;
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            read(mid, r);
+            if (r.timestampNanos < timestampNanos) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * Where to start scanning for one instrument from a given time: the last index entry of that instrument
+     * at or before the time, or its first entry if the instrument only starts later. -1 if it never traded.
+     */
+    public long startFor(int instrumentId, long fromNanos) {
+        long best = -1;
+        long first = -1;
+        for (int i = 0; i < indexInstrument.length; i++) {
+            if (indexInstrument[i] != instrumentId) continue;
+            if (first < 0) first = indexRecord[i];
+            if (indexTimestamp[i] <= fromNanos) best = indexRecord[i];
+            else break;
+        }
+        return best >= 0 ? best : first;
+    }
+
+    @Override
+    public void close() throws IOException {
+        data.close();
+    }
+
+    static List<String> readSymbols(Path file) throws IOException {
+        if (!Files.exists(file)) return new ArrayList<>();
+        List<String> out = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (!line.isEmpty()) out.add(line);
+        }
+        return out;
+    }
+
+    /**
+     * Number of records written: the data file is zero-filled past the last record, and every record has a
+     * non-zero timestamp.
+     */
+    static long committedCount(FileChannel data) throws IOException {
+        long lo = 0, hi = data.size() / TickRecord.SIZE;
+        ByteBuffer ts = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            ts.clear();
+            data.read(ts, mid * TickRecord.SIZE);
+            if (ts.getLong(0) != 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,80 @@
+package com.myorg.trading.service.marketdata.journal;
+
+import com.myorg.trading.broker.api.MarketDataTick;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+
+/**
+ * One journal record, fixed 36 bytes, little-endian:
+ * <pre>
+ *   0  long  timestamp, epoch nanos
+ *   8  long  last price, 1/10000 rupee
+ *  16  long  volume
+ *  24  int   instrument id (line number in symbols.txt)
+ *  28  int   bid - last, 1/10000 rupee (NO_QUOTE if absent)
+ *  32  int   ask - last, 1/10000 rupee (NO_QUOTE if absent)
+ * </pre>
+ * Mutable so readers can decode into one instance without allocating per record.
+ */
+public final class TickRecord {
+
+    public static final int SIZE = 36;
+    static final int NO_QUOTE = Integer.MIN_VALUE;
+    private static final int PRICE_SCALE = 4;
+
+    public long timestampNanos;
+    public long price;
+    public long volume;
+    public int instrumentId;
+    public int bidOffset;
+    public int askOffset;
+
+    void write(ByteBuffer buf, int pos) {
+        buf.putLong(pos, timestampNanos);
+        buf.putLong(pos + 8, price);
+        buf.putLong(pos + 16, volume);
+        buf.putInt(pos + 24, instrumentId);
+        buf.putInt(pos + 28, bidOffset);
+        buf.putInt(pos + 32, askOffset);
+    }
+
+    void read(ByteBuffer buf, int pos) {
+        timestampNanos = buf.getLong(pos);
+        price = buf.getLong(pos + 8);
+        volume = buf.getLong(pos + 16);
+        instrumentId = buf.getInt(pos + 24);
+        bidOffset = buf.getInt(pos + 28);
+        askOffset = buf.getInt(pos + 32);
+    }
+
+    void from(int instrumentId, MarketDataTick tick, long fallbackNanos) {
+        Instant ts = tick.getTimestamp();
+        this.timestampNanos = ts != null ? ts.getEpochSecond() * 1_000_000_000L + ts.getNano() : fallbackNanos;
+        this.instrumentId = instrumentId;
+        this.price = scaled(tick.getLastPrice());
+        this.volume = tick.getVolume();
+        this.bidOffset = offset(tick.getBid(), price);
+        this.askOffset = offset(tick.getAsk(), price);
+    }
+
+    public MarketDataTick toTick(String instrumentToken) {
+        return new MarketDataTick(instrumentToken,
+                BigDecimal.valueOf(price, PRICE_SCALE),
+                bidOffset == NO_QUOTE ? BigDecimal.ZERO : BigDecimal.valueOf(price + bidOffset, PRICE_SCALE),
+                askOffset == NO_QUOTE ? BigDecimal.ZERO : BigDecimal.valueOf(price + askOffset, PRICE_SCALE),
+                volume,
+                Instant.ofEpochSecond(0, timestampNanos));
+    }
+
+    private static long scaled(BigDecimal v) {
+        return v == null ? 0 : v.movePointRight(PRICE_SCALE).longValue();
+    }
+
+    private static int offset(BigDecimal quote, long price) {
+        if (quote == null || quote.signum() == 0) return NO_QUOTE;
+        long d = scaled(quote) - price;
+        return d > Integer.MIN_VALUE && d <= Integer.MAX_VALUE ? (int) d : NO_QUOTE;
+    }
+}
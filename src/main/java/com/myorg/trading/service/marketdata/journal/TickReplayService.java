@@ -0,0 +1,219 @@
+package com.myorg.trading.service.marketdata.journal;
+
+import com.myorg.trading.broker.api.MarketDataTick;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a recorded day from the {@link TickJournal} at 1x, Nx or maximum speed. Each replay runs on its
+ * own thread and keeps the original inter-tick spacing divided by the speed factor; ticks keep their
+ * recorded timestamps.
+ *
+ * Replayed ticks never touch the live feed (MarketDataService sinks, tick listeners, position marks): each
+ * session has its own stream, visible only to the user who started it (and admins). The stream buffers
+ * ahead of a slow or not-yet-connected client and the replay waits for it rather than dropping ticks; a
+ * replay nobody reads within the subscribe timeout fails.
+ */
+@Slf4j
+@Service
+public class TickReplayService {
+
+    private static final int STREAM_BUFFER = 4096;
+
+    private final TickJournal journal;
+    private final int maxConcurrent;
+    private final long subscribeTimeoutNanos;
+
+    private final Map<String, Replay> replays = new ConcurrentHashMap<>();
+
+    public TickReplayService(TickJournal journal,
+                             @Value("${app.ticks.replay.max-concurrent:2}") int maxConcurrent,
+                             @Value("${app.ticks.replay.subscribe-timeout-ms:30000}") long subscribeTimeoutMs) {
+        this.journal = journal;
+        this.maxConcurrent = maxConcurrent;
+        this.subscribeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(subscribeTimeoutMs);
+    }
+
+    public ReplaySession start(Long userId, ReplayRequest req) throws IOException {
+        if (req.day() == null) throw new IllegalArgumentException("day is required");
+        if (req.speed() < 0) throw new IllegalArgumentException("speed must be >= 0");
+        long running = replays.values().stream().filter(r -> "RUNNING".equals(r.state)).count();
+        if (running >= maxConcurrent) {
+            throw new IllegalArgumentException("Too many replays running (max " + maxConcurrent + ")");
+        }
+
+        TickJournalReader reader = journal.open(req.day());
+        Replay replay = new Replay(UUID.randomUUID().toString(), userId, req, reader);
+        replays.values().removeIf(r -> !"RUNNING".equals(r.state));
+        replays.put(replay.id, replay);
+
+        Thread t = new Thread(replay::run, "tick-replay-" + replay.id.substring(0, 8));
+        t.setDaemon(true);
+        replay.thread = t;
+        t.start();
+        return replay.view();
+    }
+
+    /**
+     * The session's ticks; completes when the replay ends.
+     *
+     * @return null if there is no such session visible to this user
+     */
+    public Flux<MarketDataTick> stream(Long userId, boolean admin, String id) {
+        Replay r = visible(userId, admin, id);
+        return r != null ? r.sink.asFlux() : null;
+    }
+
+    public boolean stop(Long userId, boolean admin, String id) {
+        Replay r = visible(userId, admin, id);
+        if (r == null) return false;
+        r.stopRequested = true;
+        LockSupport.unpark(r.thread);
+        return true;
+    }
+
+    public Collection<ReplaySession> list(Long userId, boolean admin) {
+        return replays.values().stream().filter(r -> admin || r.ownerId.equals(userId)).map(Replay::view).toList();
+    }
+
+    private Replay visible(Long userId, boolean admin, String id) {
+        Replay r = replays.get(id);
+        return r != null && (admin || r.ownerId.equals(userId)) ? r : null;
+    }
+
+    private final class Replay {
+        final String id;
+        final Long ownerId;
+        final ReplayRequest req;
+        final TickJournalReader reader;
+        // Survives the client reconnecting; buffers until it (re)subscribes
+        final Sinks.Many<MarketDataTick> sink = Sinks.many().multicast().onBackpressureBuffer(STREAM_BUFFER, false);
+        final Instant startedAt = Instant.now();
+        volatile String state = "RUNNING";
+        volatile long emitted;
+        volatile long lastTickNanos;
+        volatile String error;
+        volatile boolean stopRequested;
+        Thread thread;
+
+        Replay(String id, Long ownerId, ReplayRequest req, TickJournalReader reader) {
+            this.id = id;
+            this.ownerId = ownerId;
+            this.req = req;
+            this.reader = reader;
+        }
+
+        void run() {
+            try (reader) {
+                replay();
+                state = stopRequested ? "STOPPED" : "COMPLETED";
+                sink.tryEmitComplete();
+            } catch (Exception e) {
+                error = e.toString();
+                state = "FAILED";
+                sink.tryEmitError(e);
+                log.warn("Replay {} of {} failed", id, req.day(), e);
+            }
+            log.info("Replay {} of {} {} after {} ticks", id, req.day(), state, emitted);
+        }
+
+        private void replay() throws IOException {
+            long fromNanos = req.from() != null ? toNanos(req.from()) : Long.MIN_VALUE;
+            long toNanos = req.to() != null ? toNanos(req.to()) : Long.MAX_VALUE;
+
+            // Instrument filter and the earliest record worth scanning from
+            BitSet wanted = null;
+            long start;
+            if (req.tokens() == null || req.tokens().isEmpty()) {
+                start = req.from() != null ? reader.firstRecordAtOrAfter(fromNanos) : 0;
+            } else {
+                wanted = new BitSet();
+                start = Long.MAX_VALUE;
+                for (String token : req.tokens()) {
+                    int id = reader.instrumentId(token);
+                    if (id < 0) continue;
+                    wanted.set(id);
+                    start = Math.min(start, reader.startFor(id, fromNanos));
+                }
+                if (wanted.isEmpty()) return;
+                if (start < 0 || start == Long.MAX_VALUE) start = 0;
+            }
+
+            String[] tokens = reader.symbols().toArray(new String[0]);
+            double speed = req.speed();
+            TickRecord r = new TickRecord();
+            long firstTickNanos = Long.MIN_VALUE;
+            long wallStart = 0;
+
+            for (long n = start; n < reader.count() && !stopRequested; n++) {
+                reader.read(n, r);
+                if (wanted != null && !wanted.get(r.instrumentId)) continue;
+                if (r.timestampNanos < fromNanos) continue;
+                if (r.timestampNanos >= toNanos) break;
+
+                if (speed > 0) {
+                    if (firstTickNanos == Long.MIN_VALUE) {
+                        firstTickNanos = r.timestampNanos;
+                        wallStart = System.nanoTime();
+                    }
+                    long due = wallStart + (long) ((r.timestampNanos - firstTickNanos) / speed);
+                    long wait;
+                    while ((wait = due - System.nanoTime()) > 0 && !stopRequested) LockSupport.parkNanos(wait);
+                }
+
+                String token = tokens[r.instrumentId];
+                MarketDataTick tick = r.toTick(token);
+                if (!emit(tick)) break;
+                lastTickNanos = r.timestampNanos;
+                emitted++;
+            }
+        }
+
+        /**
+         * @return false if the replay was stopped while waiting for the client
+         */
+        private boolean emit(MarketDataTick tick) {
+            long unreadSince = 0;
+            while (!stopRequested) {
+                Sinks.EmitResult result = sink.tryEmitNext(tick);
+                if (result.isSuccess()) return true;
+                if (result != Sinks.EmitResult.FAIL_OVERFLOW && result != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+                    throw new IllegalStateException("Replay stream closed: " + result);
+                }
+                // Buffer full: wait for the client to catch up, but not forever if nobody is reading
+                long now = System.nanoTime();
+                if (sink.currentSubscriberCount() > 0) {
+                    unreadSince = 0;
+                } else if (unreadSince == 0) {
+                    unreadSince = now;
+                } else if (now - unreadSince > subscribeTimeoutNanos) {
+                    throw new IllegalStateException("Nobody subscribed to the replay stream");
+                }
+                LockSupport.parkNanos(1_000_000);
+            }
+            return false;
+        }
+
+        ReplaySession view() {
+            return new ReplaySession(id, req.day(), req.speed(), state, emitted,
+                    lastTickNanos == 0 ? null : Instant.ofEpochSecond(0, lastTickNanos), startedAt, error);
+        }
+    }
+
+    private static long toNanos(Instant i) {
+        return i.getEpochSecond() * 1_000_000_000L + i.getNano();
+    }
+}
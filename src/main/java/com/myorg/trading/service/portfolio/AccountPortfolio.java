@@ -0,0 +1,23 @@
+package com.myorg.trading.service.portfolio;
+
+import com.myorg.trading.broker.api.BrokerPosition;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Positions of one linked account inside a consolidated portfolio view.
+ * status is OK, TIMEOUT (missed the per-call deadline) or ERROR.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountPortfolio {
+    private Long accountId;
+    private String brokerId;
+    private String status;
+    private String message;
+    private List<BrokerPosition> positions;
+}
@@ -0,0 +1,100 @@
+package com.myorg.trading.service.portfolio;
+
+import com.myorg.trading.broker.api.BrokerPosition;
+
+import java.math.BigDecimal;
+
+/**
+ * Mutable, primitive-backed view of a broker position that can be re-marked on every tick
+ * without allocating. The realized part of the broker-reported P&L is fixed at refresh time;
+ * only the unrealized part moves with the last traded price.
+ */
+public class LivePosition {
+
+    private final String symbol;
+    private final String securityId;
+    private final String exchange;
+    private final String productType;
+
+    private final double netQuantity;
+    private final double avgPrice;
+    private final double buyQty;
+    private final double sellQty;
+    private final double realizedPnl;
+
+    private volatile double ltp;
+
+    public LivePosition(BrokerPosition p) {
+        this.symbol = p.getSymbol();
+        this.securityId = p.getSecurityId();
+        this.exchange = p.getExchange();
+        this.productType = p.getProductType();
+        this.netQuantity = toDouble(p.getNetQuantity());
+        this.avgPrice = toDouble(p.getAvgPrice());
+        this.buyQty = toDouble(p.getBuyQty());
+        this.sellQty = toDouble(p.getSellQty());
+        this.ltp = toDouble(p.getLtp());
+        // Broker P&L = realized + unrealized(ltp); keep the realized part so ticks only move the rest
+        this.realizedPnl = toDouble(p.getPnl()) - unrealized(this.ltp);
+    }
+
+    /**
+     * Re-mark against a new last traded price. Returns true if the price actually changed.
+     */
+    public boolean mark(double price) {
+        if (price == ltp) return false;
+        ltp = price;
+        return true;
+    }
+
+    public double pnl() {
+        return realizedPnl + unrealized(ltp);
+    }
+
+    private double unrealized(double price) {
+        return netQuantity == 0 || price == 0 ? 0 : (price - avgPrice) * netQuantity;
+    }
+
+    public String getSecurityId() {
+        return securityId;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public String getExchange() {
+        return exchange;
+    }
+
+    public double getNetQuantity() {
+        return netQuantity;
+    }
+
+    public double getAvgPrice() {
+        return avgPrice;
+    }
+
+    public double getLtp() {
+        return ltp;
+    }
+
+    public BrokerPosition toBrokerPosition() {
+        return BrokerPosition.builder()
+                .symbol(symbol)
+                .securityId(securityId)
+                .exchange(exchange)
+                .productType(productType)
+                .netQuantity(BigDecimal.valueOf(netQuantity))
+                .avgPrice(BigDecimal.valueOf(avgPrice))
+                .ltp(BigDecimal.valueOf(ltp))
+                .pnl(BigDecimal.valueOf(pnl()))
+                .buyQty(BigDecimal.valueOf(buyQty))
+                .sellQty(BigDecimal.valueOf(sellQty))
+                .build();
+    }
+
+    private static double toDouble(BigDecimal v) {
+        return v == null ? 0.0 : v.doubleValue();
+    }
+}
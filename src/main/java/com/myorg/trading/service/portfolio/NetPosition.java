@@ -0,0 +1,23 @@
+package com.myorg.trading.service.portfolio;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Exposure in one instrument netted across every linked account.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NetPosition {
+    private String securityId;
+    private String tradingSymbol;
+    private String name;
+    private double netQuantity;
+    private double avgPrice;
+    private double ltp;
+    private double pnl;
+    private double exposure;  // netQuantity * ltp (signed)
+    private int accounts;     // number of accounts holding the instrument
+}
@@ -0,0 +1,120 @@
+package com.myorg.trading.service.portfolio;
+
+import com.myorg.trading.broker.api.BrokerPosition;
+import com.myorg.trading.domain.entity.BrokerAccount;
+import com.myorg.trading.domain.model.SecurityMaster;
+import com.myorg.trading.service.broker.BrokerAccountService;
+import com.myorg.trading.service.marketdata.SecurityMasterService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Builds the consolidated multi-account portfolio.
+ *
+ * All linked accounts are fetched concurrently (through the positions cache), each with its own deadline,
+ * so the page costs max(broker latency) instead of the sum. Accounts that miss the deadline are reported
+ * as TIMEOUT and the rest is returned. Positions are then netted per instrument using the security master.
+ */
+@Slf4j
+@Service
+public class PortfolioService {
+
+    private final BrokerAccountService brokerAccountService;
+    private final PositionCacheService positionCacheService;
+    private final SecurityMasterService securityMasterService;
+
+    @Value("${app.portfolio.per-account-timeout-ms:3000}")
+    private long perAccountTimeoutMs;
+
+    public PortfolioService(BrokerAccountService brokerAccountService,
+                            PositionCacheService positionCacheService,
+                            SecurityMasterService securityMasterService) {
+        this.brokerAccountService = brokerAccountService;
+        this.positionCacheService = positionCacheService;
+        this.securityMasterService = securityMasterService;
+    }
+
+    public PortfolioView getPortfolio(Long userId) {
+        List<BrokerAccount> accounts = brokerAccountService.listAccountsForUser(userId);
+        if (accounts.isEmpty()) {
+            return new PortfolioView(List.of(), List.of(), 0, 0, true);
+        }
+
+        Duration deadline = Duration.ofMillis(perAccountTimeoutMs);
+        List<AccountPortfolio> results = Flux.fromIterable(accounts)
+                .flatMap(acc -> positionCacheService.getPositions(acc)
+                        // adapters read credentials from JPA on subscribe; keep that off the request thread
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .timeout(deadline)
+                        .map(positions -> new AccountPortfolio(acc.getId(), acc.getBrokerId(), "OK", null, positions))
+                        .onErrorResume(TimeoutException.class, e -> Mono.just(
+                                new AccountPortfolio(acc.getId(), acc.getBrokerId(), "TIMEOUT", "No response within " + perAccountTimeoutMs + "ms", List.of())))
+                        .onErrorResume(e -> Mono.just(
+                                new AccountPortfolio(acc.getId(), acc.getBrokerId(), "ERROR", e.getMessage(), List.of()))),
+                        accounts.size())
+                .collectList()
+                .block();
+
+        if (results == null) results = List.of();
+        results = new ArrayList<>(results);
+        results.sort(Comparator.comparing(AccountPortfolio::getAccountId));
+
+        List<NetPosition> net = netByInstrument(results);
+        double totalPnl = net.stream().mapToDouble(NetPosition::getPnl).sum();
+        double gross = net.stream().mapToDouble(n -> Math.abs(n.getExposure())).sum();
+        boolean complete = results.stream().allMatch(r -> "OK".equals(r.getStatus()));
+
+        return new PortfolioView(results, net, totalPnl, gross, complete);
+    }
+
+    private List<NetPosition> netByInstrument(List<AccountPortfolio> accounts) {
+        Map<String, NetPosition> byKey = new LinkedHashMap<>();
+        Map<String, Double> costByKey = new LinkedHashMap<>();
+
+        for (AccountPortfolio account : accounts) {
+            for (BrokerPosition p : account.getPositions()) {
+                SecurityMaster sm = securityMasterService.findBySecurityId(p.getSecurityId()).orElse(null);
+                // Angel and Dhan both key NSE instruments by exchange token; fall back to the broker symbol
+                String key = sm != null ? sm.getSecurityId() : p.getExchange() + ":" + p.getSymbol();
+
+                NetPosition n = byKey.computeIfAbsent(key, k -> new NetPosition(
+                        sm != null ? sm.getSecurityId() : p.getSecurityId(),
+                        sm != null ? sm.getTradingSymbol() : p.getSymbol(),
+                        sm != null ? sm.getName() : p.getSymbol(),
+                        0, 0, 0, 0, 0, 0));
+
+                double qty = toDouble(p.getNetQuantity());
+                double ltp = toDouble(p.getLtp());
+                n.setNetQuantity(n.getNetQuantity() + qty);
+                n.setPnl(n.getPnl() + toDouble(p.getPnl()));
+                if (ltp > 0) n.setLtp(ltp);
+                n.setAccounts(n.getAccounts() + 1);
+                costByKey.merge(key, qty * toDouble(p.getAvgPrice()), Double::sum);
+            }
+        }
+
+        for (Map.Entry<String, NetPosition> e : byKey.entrySet()) {
+            NetPosition n = e.getValue();
+            n.setAvgPrice(n.getNetQuantity() != 0 ? costByKey.get(e.getKey()) / n.getNetQuantity() : 0);
+            n.setExposure(n.getNetQuantity() * n.getLtp());
+        }
+        return new ArrayList<>(byKey.values());
+    }
+
+    private static double toDouble(BigDecimal v) {
+        return v == null ? 0.0 : v.doubleValue();
+    }
+}
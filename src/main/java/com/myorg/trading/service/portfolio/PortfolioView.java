@@ -0,0 +1,22 @@
+package com.myorg.trading.service.portfolio;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Consolidated portfolio across all linked broker accounts.
+ * complete is false when at least one account timed out or failed (its positions are then missing).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioView {
+    private List<AccountPortfolio> accounts;
+    private List<NetPosition> netPositions;
+    private double totalPnl;
+    private double grossExposure;
+    private boolean complete;
+}
@@ -0,0 +1,242 @@
+package com.myorg.trading.service.portfolio;
+
+import com.myorg.trading.broker.api.BrokerPosition;
+import com.myorg.trading.broker.api.MarketDataTick;
+import com.myorg.trading.broker.registry.BrokerRegistry;
+import com.myorg.trading.domain.entity.BrokerAccount;
+import com.myorg.trading.domain.entity.OrderStatus;
+import com.myorg.trading.service.marketdata.MarketDataService;
+import com.myorg.trading.service.trading.OrderEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-account positions cache.
+ *
+ * Positions are fetched from the broker on first use, after fills (OrderEvent) and on a low-frequency
+ * schedule. In between, P&L is re-marked in memory from the tick stream and the changed accounts are
+ * pushed to their owner on /user/queue/positions at most once per push interval.
+ */
+@Slf4j
+@Service
+public class PositionCacheService {
+
+    public static final String USER_POSITIONS_DESTINATION = "/queue/positions";
+
+    private final BrokerRegistry brokerRegistry;
+    private final MarketDataService marketDataService;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    @Value("${app.positions.max-age-ms:120000}")
+    private long maxAgeMs;
+
+    @Value("${app.positions.idle-evict-ms:600000}")
+    private long idleEvictMs;
+
+    private final Map<Long, AccountPositions> accounts = new ConcurrentHashMap<>();
+    private final Map<Long, Mono<List<BrokerPosition>>> inFlight = new ConcurrentHashMap<>();
+
+    // instrument token -> accounts holding it, and the tick subscription feeding them
+    private final Map<String, Set<AccountPositions>> holders = new ConcurrentHashMap<>();
+    private final Map<String, Disposable> tickSubscriptions = new ConcurrentHashMap<>();
+
+    public PositionCacheService(BrokerRegistry brokerRegistry,
+                                MarketDataService marketDataService,
+                                SimpMessagingTemplate messagingTemplate) {
+        this.brokerRegistry = brokerRegistry;
+        this.marketDataService = marketDataService;
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    private static final class AccountPositions {
+        final Long accountId;
+        final Long userId;
+        final String brokerId;
+        volatile List<LivePosition> positions = List.of();
+        volatile long refreshedAt;
+        volatile long lastAccess = System.currentTimeMillis();
+        volatile boolean dirty;
+
+        AccountPositions(Long accountId, Long userId, String brokerId) {
+            this.accountId = accountId;
+            this.userId = userId;
+            this.brokerId = brokerId;
+        }
+
+        Set<String> openTokens() {
+            Set<String> tokens = new HashSet<>();
+            for (LivePosition p : positions) {
+                if (p.getNetQuantity() != 0 && p.getSecurityId() != null) tokens.add(p.getSecurityId());
+            }
+            return tokens;
+        }
+
+        String exchangeOf(String token) {
+            for (LivePosition p : positions) {
+                if (token.equals(p.getSecurityId())) return p.getExchange();
+            }
+            return null;
+        }
+
+        List<BrokerPosition> snapshot() {
+            return positions.stream().map(LivePosition::toBrokerPosition).toList();
+        }
+
+        double totalPnl() {
+            double total = 0;
+            for (LivePosition p : positions) total += p.pnl();
+            return total;
+        }
+    }
+
+    /**
+     * Cached positions for the account, fetching from the broker only if missing or stale.
+     */
+    public Mono<List<BrokerPosition>> getPositions(BrokerAccount account) {
+        AccountPositions cached = accounts.get(account.getId());
+        long now = System.currentTimeMillis();
+        if (cached != null && now - cached.refreshedAt < maxAgeMs) {
+            cached.lastAccess = now;
+            return Mono.just(cached.snapshot());
+        }
+        return refresh(account.getId(), account.getUserId(), account.getBrokerId());
+    }
+
+    /**
+     * Live primitive positions of a cached account (empty if the account isn't cached).
+     */
+    public List<LivePosition> livePositions(Long accountId) {
+        AccountPositions cached = accounts.get(accountId);
+        return cached != null ? cached.positions : List.of();
+    }
+
+    /**
+     * Drop the cached entry so the next read goes to the broker.
+     */
+    public void invalidate(Long accountId) {
+        AccountPositions cached = accounts.get(accountId);
+        if (cached != null) cached.refreshedAt = 0;
+    }
+
+    private Mono<List<BrokerPosition>> refresh(Long accountId, Long userId, String brokerId) {
+        // Concurrent callers share one broker round-trip
+        return inFlight.computeIfAbsent(accountId, id -> brokerRegistry.getById(brokerId)
+                .getPositions(id.toString())
+                .map(list -> store(accountId, userId, brokerId, list))
+                .doFinally(signal -> inFlight.remove(accountId))
+                .cache());
+    }
+
+    private List<BrokerPosition> store(Long accountId, Long userId, String brokerId, List<BrokerPosition> fetched) {
+        AccountPositions acct = accounts.computeIfAbsent(accountId, id -> new AccountPositions(id, userId, brokerId));
+        Set<String> before = acct.openTokens();
+
+        acct.positions = fetched.stream().map(LivePosition::new).toList();
+        acct.refreshedAt = System.currentTimeMillis();
+        acct.dirty = true;
+
+        Set<String> after = acct.openTokens();
+        for (String token : after) {
+            if (!before.contains(token)) subscribe(token, acct);
+        }
+        for (String token : before) {
+            if (!after.contains(token)) unsubscribe(token, acct);
+        }
+        return acct.snapshot();
+    }
+
+    private synchronized void subscribe(String token, AccountPositions acct) {
+        holders.computeIfAbsent(token, t -> {
+            marketDataService.requestFeed(acct.exchangeOf(t), t);
+            tickSubscriptions.put(t, marketDataService.streamFor(t).subscribe(tick -> onTick(t, tick)));
+            return ConcurrentHashMap.newKeySet();
+        }).add(acct);
+    }
+
+    private synchronized void unsubscribe(String token, AccountPositions acct) {
+        Set<AccountPositions> set = holders.get(token);
+        if (set == null) return;
+        set.remove(acct);
+        if (set.isEmpty()) {
+            holders.remove(token);
+            Disposable d = tickSubscriptions.remove(token);
+            if (d != null) d.dispose();
+            marketDataService.releaseFeed(token);
+        }
+    }
+
+    private void onTick(String token, MarketDataTick tick) {
+        if (tick.getLastPrice() == null) return;
+        double price = tick.getLastPrice().doubleValue();
+
+        Set<AccountPositions> set = holders.get(token);
+        if (set == null) return;
+        for (AccountPositions acct : set) {
+            for (LivePosition p : acct.positions) {
+                if (token.equals(p.getSecurityId()) && p.mark(price)) {
+                    acct.dirty = true;
+                }
+            }
+        }
+    }
+
+    @EventListener
+    public void onOrderEvent(OrderEvent event) {
+        if (event.getStatus() != OrderStatus.FILLED && event.getStatus() != OrderStatus.PARTIALLY_FILLED) return;
+
+        AccountPositions acct = accounts.get(event.getBrokerAccountId());
+        if (acct == null) return;
+        refresh(acct.accountId, acct.userId, acct.brokerId)
+                .subscribe(p -> {}, e -> log.debug("Post-fill refresh failed for account {}: {}", acct.accountId, e.getMessage()));
+    }
+
+    /**
+     * Low-frequency reconciliation with the broker; accounts nobody looked at recently are evicted.
+     */
+    @Scheduled(fixedDelayString = "${app.positions.refresh-ms:60000}")
+    public void refreshActive() {
+        long now = System.currentTimeMillis();
+        for (AccountPositions acct : accounts.values()) {
+            if (now - acct.lastAccess > idleEvictMs) {
+                evict(acct);
+                continue;
+            }
+            refresh(acct.accountId, acct.userId, acct.brokerId)
+                    .subscribe(p -> {}, e -> log.debug("Scheduled refresh failed for account {}: {}", acct.accountId, e.getMessage()));
+        }
+    }
+
+    private void evict(AccountPositions acct) {
+        accounts.remove(acct.accountId);
+        for (String token : acct.openTokens()) {
+            unsubscribe(token, acct);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${app.positions.push-interval-ms:1000}")
+    public void pushDirty() {
+        for (AccountPositions acct : accounts.values()) {
+            if (!acct.dirty) continue;
+            acct.dirty = false;
+            try {
+                messagingTemplate.convertAndSendToUser(acct.userId.toString(), USER_POSITIONS_DESTINATION,
+                        new PositionsUpdate(acct.accountId, acct.snapshot(), acct.totalPnl(), Instant.now()));
+            } catch (Exception e) {
+                log.warn("Failed to push positions for account {}: {}", acct.accountId, e.getMessage());
+            }
+        }
+    }
+}
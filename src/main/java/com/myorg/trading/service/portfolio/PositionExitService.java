@@ -0,0 +1,114 @@
+package com.myorg.trading.service.portfolio;
+
+import com.myorg.trading.broker.api.BrokerOrderRequest;
+import com.myorg.trading.broker.api.BrokerOrderResponse;
+import com.myorg.trading.broker.api.OrderSide;
+import com.myorg.trading.broker.api.OrderType;
+import com.myorg.trading.broker.registry.BrokerRegistry;
+import com.myorg.trading.domain.entity.BrokerAccount;
+import com.myorg.trading.service.audit.AuditAction;
+import com.myorg.trading.service.audit.AuditLogWriter;
+import com.myorg.trading.service.risk.PreTradeRiskService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Flattens a broker position with a market order in the opposite direction. Exit orders go straight to
+ * the broker, bypassing the orders table, so the positions cache and the risk ledger are updated here
+ * and every attempt is audited.
+ */
+@Slf4j
+@Service
+public class PositionExitService {
+
+    private final BrokerRegistry brokerRegistry;
+    private final PositionCacheService positionCacheService;
+    private final AuditLogWriter auditLog;
+    private final PreTradeRiskService riskService;
+
+    public PositionExitService(BrokerRegistry brokerRegistry,
+                               PositionCacheService positionCacheService,
+                               AuditLogWriter auditLog,
+                               PreTradeRiskService riskService) {
+        this.brokerRegistry = brokerRegistry;
+        this.positionCacheService = positionCacheService;
+        this.auditLog = auditLog;
+        this.riskService = riskService;
+    }
+
+    /**
+     * @param req positionType (LONG/SHORT), securityId, symbol, quantity and optionally exchange / productType,
+     *            as the positions screen sends them
+     * @throws IllegalArgumentException if securityId is missing
+     */
+    public Mono<BrokerOrderResponse> exit(BrokerAccount acc, Map<String, Object> req) {
+        // 🔥 FIX: Construct proper exit order
+        String positionType = (String) req.get("positionType");
+        String side = "LONG".equalsIgnoreCase(positionType) ? "SELL" : "BUY";
+
+        // Extract required fields with null checks
+        String securityId = (String) req.get("securityId");
+        String symbol = (String) req.get("symbol");
+        if (securityId == null || securityId.isEmpty()) {
+            throw new IllegalArgumentException("Security ID is required to close position");
+        }
+
+        String exchange = (String) req.getOrDefault("exchange", "NSE");
+        String productType = (String) req.getOrDefault("productType", "INTRADAY");
+        BigDecimal quantity = quantity(req.get("quantity"));
+
+        BrokerOrderRequest orderReq = BrokerOrderRequest.builder()
+                .symbol(securityId)  // Send securityId as symbol
+                .quantity(quantity)
+                .side(OrderSide.valueOf(side))
+                .orderType(OrderType.MARKET)
+                .meta(Map.of(
+                        "exchange", exchange,
+                        "productType", productType,
+                        "tradingSymbol", symbol != null ? symbol : ""
+                ))
+                .build();
+
+        Long accountId = acc.getId();
+        return brokerRegistry.getById(acc.getBrokerId()).placeOrder(accountId.toString(), orderReq)
+                // adapters read credentials from JPA on subscribe; keep that off the caller's thread
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnSuccess(response -> {
+                    // Exit orders bypass the order table, so no fill event will refresh the cache for us
+                    positionCacheService.invalidate(accountId);
+                    if (response != null && response.getOrderId() != null) {
+                        riskService.recordExit(acc.getUserId(), accountId, securityId, side, quantity);
+                    }
+                    auditLog.record(acc.getUserId(), AuditAction.EXIT_POSITION, AuditLogWriter.fields(
+                            "brokerAccountId", accountId,
+                            "securityId", securityId,
+                            "side", side,
+                            "quantity", quantity,
+                            "productType", productType,
+                            "brokerOrderId", response != null ? response.getOrderId() : null,
+                            "status", response != null ? response.getStatus() : null));
+                })
+                .doOnError(e -> {
+                    log.error("Failed to close position", e);
+                    auditLog.record(acc.getUserId(), AuditAction.EXIT_POSITION, AuditLogWriter.fields(
+                            "brokerAccountId", accountId,
+                            "securityId", securityId,
+                            "side", side,
+                            "quantity", quantity,
+                            "error", e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName()));
+                });
+    }
+
+    private static BigDecimal quantity(Object qtyObj) {
+        if (qtyObj instanceof Integer i) return new BigDecimal(i);
+        if (qtyObj instanceof Double d) return BigDecimal.valueOf(d);
+        if (qtyObj instanceof String s) return new BigDecimal(s);
+        if (qtyObj == null) throw new IllegalArgumentException("quantity is required to close position");
+        return new BigDecimal(qtyObj.toString());
+    }
+}
@@ -0,0 +1,22 @@
+package com.myorg.trading.service.portfolio;
+
+import com.myorg.trading.broker.api.BrokerPosition;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Payload pushed to /user/queue/positions whenever an account's positions are refreshed or re-marked.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PositionsUpdate {
+    private Long accountId;
+    private List<BrokerPosition> positions;
+    private double totalPnl;
+    private Instant timestamp;
+}
@@ -0,0 +1,310 @@
+package com.myorg.trading.service.risk;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory exposure counters per user / account / symbol, kept current from accepted orders and fills.
+ * Nothing here touches the database, so a pre-trade check is a few map lookups and some arithmetic.
+ *
+ * Each {@link UserBook} is guarded by its own monitor: checks for different users never contend, and
+ * check-then-reserve for one user is atomic.
+ */
+@Component
+public class ExposureLedger {
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final long IST_OFFSET_MILLIS = 19_800_000L; // trading day rolls over at IST midnight
+
+    private final Map<Long, UserBook> books = new ConcurrentHashMap<>();
+    private final Map<Long, OpenOrder> openOrders = new ConcurrentHashMap<>();
+
+    public UserBook book(Long userId) {
+        return books.computeIfAbsent(userId, k -> new UserBook());
+    }
+
+    public UserBook existingBook(Long userId) {
+        return books.get(userId);
+    }
+
+    /**
+     * Reserve pending quantity for an accepted order. Caller must hold the user's book monitor.
+     */
+    void reserve(UserBook book, RiskTicket ticket) {
+        reserve(book, ticket, ticket.quantity());
+    }
+
+    private void reserve(UserBook book, RiskTicket ticket, double qty) {
+        SymbolBook s = book.symbol(ticket.accountId(), ticket.symbol());
+        if (ticket.buy()) s.pendingBuyQty += qty;
+        else s.pendingSellQty += qty;
+        if (ticket.price() > 0) s.markPrice = ticket.price();
+    }
+
+    public void bind(RiskTicket ticket, Long orderId) {
+        openOrders.put(orderId, new OpenOrder(ticket));
+    }
+
+    /**
+     * Drop a reservation whose order never made it to the broker (e.g. the save failed).
+     */
+    public void release(RiskTicket ticket) {
+        UserBook book = book(ticket.userId());
+        synchronized (book) {
+            unreserve(book, ticket, ticket.quantity());
+        }
+    }
+
+    RiskTicket ticket(Long orderId) {
+        OpenOrder open = openOrders.get(orderId);
+        return open != null ? open.ticket : null;
+    }
+
+    /**
+     * Move a bound order onto new terms (an order modification): the unfilled part of the old ticket is
+     * released and the unfilled part of the new one reserved. Caller must hold the user's book monitor.
+     *
+     * @return the ticket that was replaced, or null if the order is not bound
+     */
+    RiskTicket amend(UserBook book, Long orderId, RiskTicket amended) {
+        OpenOrder open = openOrders.get(orderId);
+        if (open == null) return null;
+        RiskTicket previous = open.ticket;
+        unreserve(book, previous, Math.max(0, previous.quantity() - open.filled));
+        reserve(book, amended, Math.max(0, amended.quantity() - open.filled));
+        open.ticket = amended;
+        return previous;
+    }
+
+    /**
+     * Apply a (cumulative) fill for a bound order: pending converts into position and realized P&L.
+     */
+    public void onFill(Long orderId, double cumulativeFilled, double fillPrice, boolean complete) {
+        OpenOrder open = complete ? openOrders.remove(orderId) : openOrders.get(orderId);
+        if (open == null) return;
+        RiskTicket t = open.ticket;
+        UserBook book = book(t.userId());
+        synchronized (book) {
+            double delta = (complete ? t.quantity() : Math.min(cumulativeFilled, t.quantity())) - open.filled;
+            if (delta > 0) {
+                double price = fillPrice > 0 ? fillPrice : t.price();
+                SymbolBook s = book.symbol(t.accountId(), t.symbol());
+                unreserve(book, t, delta);
+                book.rollDay(System.currentTimeMillis());
+                book.realizedPnl += s.applyFill(t.buy(), delta, price);
+                if (price > 0) s.markPrice = price;
+                open.filled += delta;
+            }
+        }
+    }
+
+    /**
+     * Book a fill that has no bound order (a position exit sent straight to the broker). Caller must hold
+     * the user's book monitor.
+     *
+     * @param price fill price, or 0 to use the last mark (or the average price if never marked)
+     */
+    void bookFill(UserBook book, Long accountId, String symbol, boolean buy, double qty, double price) {
+        SymbolBook s = book.symbol(accountId, symbol);
+        double p = price > 0 ? price : (s.markPrice > 0 ? s.markPrice : s.avgPrice);
+        book.rollDay(System.currentTimeMillis());
+        book.realizedPnl += s.applyFill(buy, qty, p);
+        if (p > 0) s.markPrice = p;
+    }
+
+    /**
+     * Bind and reserve an order that was already live before this node started. Caller must hold the
+     * user's book monitor.
+     *
+     * @return false if the order is already bound (it was placed or re-bound since startup)
+     */
+    boolean adopt(UserBook book, Long orderId, RiskTicket ticket) {
+        if (openOrders.putIfAbsent(orderId, new OpenOrder(ticket)) != null) return false;
+        reserve(book, ticket);
+        return true;
+    }
+
+    /**
+     * Seed a position reported by the broker. Skipped if fills have already been booked for it here, as
+     * those are more recent than the broker snapshot. Caller must hold the user's book monitor.
+     *
+     * @return true if the position was seeded
+     */
+    boolean seedPosition(UserBook book, Long accountId, String symbol, double netQty, double avgPrice, double markPrice) {
+        SymbolBook s = book.symbol(accountId, symbol);
+        if (s.netQty != 0 || s.avgPrice != 0) return false;
+        s.netQty = netQty;
+        s.avgPrice = netQty != 0 ? avgPrice : 0;
+        if (markPrice > 0) s.markPrice = markPrice;
+        return true;
+    }
+
+    /**
+     * Order ended without (fully) filling: release whatever was still pending.
+     */
+    public void onClosed(Long orderId) {
+        OpenOrder open = openOrders.remove(orderId);
+        if (open == null) return;
+        UserBook book = book(open.ticket.userId());
+        synchronized (book) {
+            unreserve(book, open.ticket, open.ticket.quantity() - open.filled);
+        }
+    }
+
+    private void unreserve(UserBook book, RiskTicket t, double qty) {
+        SymbolBook s = book.symbol(t.accountId(), t.symbol());
+        if (t.buy()) s.pendingBuyQty = Math.max(0, s.pendingBuyQty - qty);
+        else s.pendingSellQty = Math.max(0, s.pendingSellQty - qty);
+    }
+
+    static long tradingDay(long nowMillis) {
+        return (nowMillis + IST_OFFSET_MILLIS) / MILLIS_PER_DAY;
+    }
+
+    private static final class OpenOrder {
+        RiskTicket ticket;
+        double filled;
+
+        OpenOrder(RiskTicket ticket) {
+            this.ticket = ticket;
+        }
+    }
+
+    /**
+     * Per-user counters. All access must hold the book's monitor.
+     */
+    public static final class UserBook {
+        final Map<Long, Map<String, SymbolBook>> accounts = new HashMap<>();
+        double realizedPnl;
+        long day = tradingDay(System.currentTimeMillis());
+
+        // Ring of recent accepted-order timestamps for the per-minute rate limit
+        long[] orderTimes = new long[0];
+        int orderIdx;
+
+        SymbolBook symbol(Long accountId, String symbol) {
+            return accounts.computeIfAbsent(accountId, k -> new HashMap<>())
+                    .computeIfAbsent(symbol, k -> new SymbolBook());
+        }
+
+        SymbolBook findSymbol(Long accountId, String symbol) {
+            Map<String, SymbolBook> m = accounts.get(accountId);
+            return m == null ? null : m.get(symbol);
+        }
+
+        void rollDay(long now) {
+            long today = tradingDay(now);
+            if (today != day) {
+                day = today;
+                realizedPnl = 0;
+            }
+        }
+
+        /**
+         * True if another order may be accepted within the last 60s; records it when it may.
+         */
+        boolean tryAcquireOrderSlot(int maxPerMinute, long now) {
+            if (maxPerMinute <= 0) return true;
+            if (orderTimes.length != maxPerMinute) {
+                orderTimes = new long[maxPerMinute];
+                orderIdx = 0;
+            }
+            long oldest = orderTimes[orderIdx];
+            if (oldest != 0 && now - oldest < 60_000) return false;
+            orderTimes[orderIdx] = now;
+            orderIdx = (orderIdx + 1) % orderTimes.length;
+            return true;
+        }
+
+        int ordersInLastMinute(long now) {
+            int n = 0;
+            for (long t : orderTimes) if (t != 0 && now - t < 60_000) n++;
+            return n;
+        }
+
+        /**
+         * Worst-case gross exposure across all symbols of one account, optionally valuing one symbol
+         * with a different (prospective) pending state.
+         */
+        double accountExposure(Long accountId, SymbolBook override, double extraBuy, double extraSell, double overridePrice) {
+            Map<String, SymbolBook> m = accounts.get(accountId);
+            double total = 0;
+            if (m != null) {
+                for (SymbolBook s : m.values()) {
+                    total += s == override
+                            ? s.worstCaseExposure(extraBuy, extraSell, overridePrice)
+                            : s.worstCaseExposure(0, 0, s.markPrice);
+                }
+            }
+            if (override == null) total += Math.max(extraBuy, extraSell) * overridePrice;
+            return total;
+        }
+
+        synchronized List<ExposureView> snapshot() {
+            List<ExposureView> out = new ArrayList<>();
+            accounts.forEach((accountId, symbols) -> symbols.forEach((symbol, s) -> {
+                if (s.netQty != 0 || s.pendingBuyQty != 0 || s.pendingSellQty != 0) {
+                    out.add(new ExposureView(accountId, symbol, s.netQty, s.avgPrice,
+                            s.pendingBuyQty, s.pendingSellQty, s.worstCaseExposure(0, 0, s.markPrice)));
+                }
+            }));
+            return out;
+        }
+    }
+
+    /**
+     * Position plus outstanding order quantity for one account / symbol.
+     */
+    static final class SymbolBook {
+        double netQty;
+        double avgPrice;
+        double pendingBuyQty;
+        double pendingSellQty;
+        double markPrice;
+
+        /**
+         * Exposure if every pending order (plus the prospective extra) fills on its worse side.
+         */
+        double worstCaseExposure(double extraBuy, double extraSell, double price) {
+            double p = price > 0 ? price : (markPrice > 0 ? markPrice : avgPrice);
+            double longSide = Math.abs(netQty + pendingBuyQty + extraBuy);
+            double shortSide = Math.abs(netQty - pendingSellQty - extraSell);
+            return Math.max(longSide, shortSide) * p;
+        }
+
+        /**
+         * Apply a fill to the net position and return the realized P&L it produced.
+         */
+        double applyFill(boolean buy, double qty, double price) {
+            double signed = buy ? qty : -qty;
+            if (netQty == 0 || Math.signum(netQty) == Math.signum(signed)) {
+                double newQty = netQty + signed;
+                avgPrice = (avgPrice * Math.abs(netQty) + price * qty) / Math.abs(newQty);
+                netQty = newQty;
+                return 0;
+            }
+            double closing = Math.min(Math.abs(netQty), qty);
+            double realized = (price - avgPrice) * closing * Math.signum(netQty);
+            netQty += signed;
+            if (netQty == 0) {
+                avgPrice = 0;
+            } else if (Math.signum(netQty) == Math.signum(signed)) {
+                avgPrice = price; // flipped through flat: remainder opened at this fill
+            }
+            return realized;
+        }
+
+        /**
+         * True if {@code qty} more on this side, together with what is already pending on it, can only
+         * shrink the position. Pending orders count, or several exits could oversell past the position.
+         */
+        boolean reducedBy(boolean buy, double qty) {
+            return buy ? netQty < 0 && pendingBuyQty + qty <= -netQty : netQty > 0 && pendingSellQty + qty <= netQty;
+        }
+    }
+}
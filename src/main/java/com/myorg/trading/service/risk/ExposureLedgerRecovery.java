@@ -0,0 +1,144 @@
+package com.myorg.trading.service.risk;
+
+import com.myorg.trading.broker.api.BrokerCapability;
+import com.myorg.trading.broker.api.BrokerPosition;
+import com.myorg.trading.broker.registry.BrokerRegistry;
+import com.myorg.trading.config.properties.RiskProperties;
+import com.myorg.trading.domain.entity.BrokerAccount;
+import com.myorg.trading.domain.entity.Order;
+import com.myorg.trading.domain.entity.OrderStatus;
+import com.myorg.trading.domain.repository.AlgoOrderRepository;
+import com.myorg.trading.domain.repository.BrokerAccountRepository;
+import com.myorg.trading.domain.repository.OrderRepository;
+import com.myorg.trading.domain.repository.ScheduledOrderRepository;
+import com.myorg.trading.service.portfolio.PositionCacheService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Rebuilds the in-memory {@link ExposureLedger} when the node starts, so limits hold across restarts:
+ * open orders from the orders table are reserved again (except algo parents, whose children hold the
+ * risk, and scheduled orders, which reserve when they fire), and every account's positions (with the
+ * P&L they realized today) are seeded from the broker. An account whose broker cannot be reached in
+ * time starts flat and is logged; its later fills are still booked.
+ */
+@Slf4j
+@Component
+public class ExposureLedgerRecovery {
+
+    private static final EnumSet<OrderStatus> OPEN_STATUSES = EnumSet.of(OrderStatus.PENDING, OrderStatus.SUBMITTING,
+            OrderStatus.PLACED, OrderStatus.PARTIALLY_FILLED);
+
+    private final RiskProperties properties;
+    private final PreTradeRiskService riskService;
+    private final OrderRepository orderRepository;
+    private final AlgoOrderRepository algoRepository;
+    private final ScheduledOrderRepository scheduledOrderRepository;
+    private final BrokerAccountRepository brokerAccountRepository;
+    private final BrokerRegistry brokerRegistry;
+    private final PositionCacheService positionCacheService;
+
+    public ExposureLedgerRecovery(RiskProperties properties,
+                                  PreTradeRiskService riskService,
+                                  OrderRepository orderRepository,
+                                  AlgoOrderRepository algoRepository,
+                                  ScheduledOrderRepository scheduledOrderRepository,
+                                  BrokerAccountRepository brokerAccountRepository,
+                                  BrokerRegistry brokerRegistry,
+                                  PositionCacheService positionCacheService) {
+        this.properties = properties;
+        this.riskService = riskService;
+        this.orderRepository = orderRepository;
+        this.algoRepository = algoRepository;
+        this.scheduledOrderRepository = scheduledOrderRepository;
+        this.brokerAccountRepository = brokerAccountRepository;
+        this.brokerRegistry = brokerRegistry;
+        this.positionCacheService = positionCacheService;
+    }
+
+    private record AccountPositions(BrokerAccount account, List<BrokerPosition> positions) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!properties.isEnabled()) return;
+
+        List<Order> open = new ArrayList<>(orderRepository.findByStatusIn(OPEN_STATUSES));
+        if (!open.isEmpty()) {
+            List<Long> ids = open.stream().map(Order::getId).toList();
+            // Algo parents stay open while their children trade; the children carry the reservations
+            Set<Long> skip = new HashSet<>(algoRepository.findParentOrderIdsIn(ids));
+            // Scheduled orders reserve when they fire
+            Set<Long> scheduled = new HashSet<>(scheduledOrderRepository.findScheduledOrderIdsIn(ids));
+            open.removeIf(o -> skip.contains(o.getId())
+                    || (o.getStatus() == OrderStatus.PENDING && scheduled.contains(o.getId())));
+        }
+        for (Order o : open) {
+            riskService.adopt(o.getId(), o.getUserId(), o.getBrokerAccountId(), o.getSymbol(), o.getSide(),
+                    o.getQuantity(), o.getPrice());
+        }
+
+        List<AccountPositions> fetched = Flux.fromIterable(brokerAccountRepository.findAll())
+                .filter(this::reportsPositions)
+                .flatMap(this::positions, properties.getRecovery().getConcurrency())
+                .collectList()
+                .block();
+        int seeded = 0;
+        for (AccountPositions a : fetched != null ? fetched : List.<AccountPositions>of()) {
+            for (BrokerPosition p : a.positions()) {
+                if (seed(a.account(), p)) seeded++;
+            }
+        }
+        log.info("Risk ledger rebuilt: {} open orders reserved, {} positions seeded from {} accounts",
+                open.size(), seeded, fetched != null ? fetched.size() : 0);
+    }
+
+    private boolean reportsPositions(BrokerAccount account) {
+        try {
+            return brokerRegistry.getById(account.getBrokerId()).capabilities().contains(BrokerCapability.GET_POSITIONS);
+        } catch (RuntimeException e) {
+            return false; // broker no longer registered
+        }
+    }
+
+    private Mono<AccountPositions> positions(BrokerAccount account) {
+        return positionCacheService.getPositions(account)
+                // adapters read credentials from JPA on subscribe; keep that off the reactor threads
+                .subscribeOn(Schedulers.boundedElastic())
+                .timeout(Duration.ofMillis(properties.getRecovery().getAccountTimeoutMs()))
+                .map(list -> new AccountPositions(account, list))
+                .onErrorResume(e -> {
+                    log.warn("Risk ledger: no positions for account {} ({}); it starts flat", account.getId(), e.toString());
+                    return Mono.empty();
+                });
+    }
+
+    private boolean seed(BrokerAccount account, BrokerPosition p) {
+        String symbol = p.getSecurityId() != null ? p.getSecurityId() : p.getSymbol();
+        if (symbol == null) return false;
+        double net = value(p.getNetQuantity());
+        double avg = value(p.getAvgPrice());
+        double ltp = value(p.getLtp());
+        // Brokers report one P&L figure; what is not the open position's mark-to-market was realized today
+        double unrealized = net != 0 && ltp > 0 && avg > 0 ? (ltp - avg) * net : 0;
+        double realized = value(p.getPnl()) - unrealized;
+        return riskService.seedPosition(account.getUserId(), account.getId(), symbol, net, avg, ltp, realized);
+    }
+
+    private static double value(BigDecimal v) {
+        return v != null ? v.doubleValue() : 0;
+    }
+}
@@ -0,0 +1,12 @@
+package com.myorg.trading.service.risk;
+
+public record ExposureView(
+        Long accountId,
+        String symbol,
+        double netQuantity,
+        double avgPrice,
+        double pendingBuyQuantity,
+        double pendingSellQuantity,
+        double worstCaseExposure
+) {
+}
@@ -0,0 +1,362 @@
+package com.myorg.trading.service.risk;
+
+import com.myorg.trading.broker.api.MarketDataTick;
+import com.myorg.trading.config.properties.RiskProperties;
+import com.myorg.trading.domain.entity.OrderStatus;
+import com.myorg.trading.service.marketdata.MarketDataService;
+import com.myorg.trading.service.risk.ExposureLedger.SymbolBook;
+import com.myorg.trading.service.risk.ExposureLedger.UserBook;
+import com.myorg.trading.service.trading.OrderEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pre-trade risk checks evaluated against the in-memory {@link ExposureLedger} before an order is saved or
+ * sent to a broker: max quantity / notional per order, worst-case exposure per symbol and per account,
+ * daily realized loss, and orders per minute. Orders that only reduce an existing position skip the
+ * exposure and loss checks so a user can always exit.
+ *
+ * Market orders are valued at the last tick for the instrument; if no tick has been seen yet the notional
+ * and exposure checks are skipped for that order (quantity and rate checks still apply).
+ *
+ * The ledger is per node. An order's reservation lives on the node that owns its broker account, since
+ * only that node polls its fills: orders forwarded there are handed off ({@link #handOff}) and adopted by
+ * the owner. Scheduled orders are only checked against per-order limits when scheduled ({@link #checkOrder})
+ * and reserve when they fire.
+ */
+@Slf4j
+@Service
+public class PreTradeRiskService {
+
+    private final RiskProperties properties;
+    private final ExposureLedger ledger;
+    private final MarketDataService marketDataService;
+
+    // Limits a user has set for themselves; only ever tighten the configured ones
+    private final Map<Long, RiskLimits> userLimits = new ConcurrentHashMap<>();
+    // Effective limits per user, resolved once so the hot path does not allocate
+    private final Map<Long, RiskLimits> effective = new ConcurrentHashMap<>();
+
+    public PreTradeRiskService(RiskProperties properties,
+                               ExposureLedger ledger,
+                               MarketDataService marketDataService) {
+        this.properties = properties;
+        this.ledger = ledger;
+        this.marketDataService = marketDataService;
+    }
+
+    /**
+     * Evaluate an order and, if it passes, reserve its quantity in the ledger.
+     * Bind the returned ticket to the saved order via {@link #bind}, or {@link #release} it if the order is dropped.
+     *
+     * @return null when risk checks are disabled
+     * @throws RiskRejectedException if any limit would be breached
+     */
+    public RiskTicket checkAndReserve(Long userId, Long accountId, String symbol, String side,
+                                      BigDecimal quantity, BigDecimal limitPrice) {
+        if (!properties.isEnabled()) return null;
+
+        RiskLimits limits = limitsFor(userId);
+        boolean buy = "BUY".equalsIgnoreCase(side);
+        double qty = quantity == null ? 0 : quantity.doubleValue();
+        double price = referencePrice(symbol, limitPrice);
+        long now = System.currentTimeMillis();
+
+        checkOrderLimits(limits, qty, price);
+
+        RiskTicket ticket = new RiskTicket(userId, accountId, symbol, buy, qty, price);
+        UserBook book = ledger.book(userId);
+        synchronized (book) {
+            book.rollDay(now);
+            SymbolBook current = book.findSymbol(accountId, symbol);
+            boolean reducing = current != null && current.reducedBy(buy, qty);
+
+            if (!reducing) {
+                if (limits.getMaxDailyLoss() > 0 && -book.realizedPnl >= limits.getMaxDailyLoss()) {
+                    throw new RiskRejectedException("MAX_DAILY_LOSS",
+                            "Daily loss " + fmt(-book.realizedPnl) + " reached limit " + fmt(limits.getMaxDailyLoss())
+                                    + "; only position-reducing orders are allowed");
+                }
+                checkExposure(book, limits, accountId, symbol, current, buy, qty, price);
+            }
+
+            if (!book.tryAcquireOrderSlot(limits.getMaxOrdersPerMinute(), now)) {
+                throw new RiskRejectedException("MAX_ORDER_RATE",
+                        "More than " + limits.getMaxOrdersPerMinute() + " orders in the last minute");
+            }
+            ledger.reserve(book, ticket);
+        }
+        return ticket;
+    }
+
+    /**
+     * Re-check a live order against amended terms and move its reservation onto them. Per-order limits
+     * apply to the new terms; exposure limits only to the added quantity, so reducing an order's size or
+     * price always passes. Modifications do not take an order-rate slot.
+     *
+     * @return the previous terms, to {@link #restore} if the broker refuses the change; null when risk
+     *         checks are disabled or the order holds no reservation
+     * @throws RiskRejectedException if any limit would be breached
+     */
+    public RiskTicket amend(Long orderId, BigDecimal quantity, BigDecimal limitPrice) {
+        if (!properties.isEnabled()) return null;
+        RiskTicket current = ledger.ticket(orderId);
+        if (current == null) return null;
+
+        RiskLimits limits = limitsFor(current.userId());
+        double qty = quantity == null ? current.quantity() : quantity.doubleValue();
+        double price = referencePrice(current.symbol(), limitPrice);
+        checkOrderLimits(limits, qty, price);
+
+        UserBook book = ledger.book(current.userId());
+        synchronized (book) {
+            RiskTicket previous = ledger.ticket(orderId);
+            if (previous == null) return null; // closed meanwhile
+            double added = qty - previous.quantity();
+            SymbolBook position = book.findSymbol(previous.accountId(), previous.symbol());
+            // Pending already holds this order's unfilled quantity, so only the increase is new
+            if (added > 0 && !(position != null && position.reducedBy(previous.buy(), added))) {
+                checkExposure(book, limits, previous.accountId(), previous.symbol(), position, previous.buy(), added, price);
+            }
+            ledger.amend(book, orderId, new RiskTicket(previous.userId(), previous.accountId(), previous.symbol(),
+                    previous.buy(), qty, price));
+            return previous;
+        }
+    }
+
+    /**
+     * Undo {@link #amend} after the broker refused the modification.
+     */
+    public void restore(Long orderId, RiskTicket previous) {
+        if (previous == null) return;
+        UserBook book = ledger.book(previous.userId());
+        synchronized (book) {
+            ledger.amend(book, orderId, previous);
+        }
+    }
+
+    /**
+     * Move a bound order's reservation to another account (SMART failover) and re-check the exposure and
+     * daily-loss limits there. Per-order limits are unchanged and no order-rate slot is taken.
+     *
+     * @throws RiskRejectedException if the other account would breach a limit; the reservation stays where it was
+     */
+    public void reroute(Long orderId, Long accountId) {
+        if (!properties.isEnabled()) return;
+        RiskTicket current = ledger.ticket(orderId);
+        if (current == null || current.accountId().equals(accountId)) return;
+
+        RiskLimits limits = limitsFor(current.userId());
+        UserBook book = ledger.book(current.userId());
+        synchronized (book) {
+            RiskTicket previous = ledger.ticket(orderId);
+            if (previous == null) return; // closed meanwhile
+            book.rollDay(System.currentTimeMillis());
+            SymbolBook position = book.findSymbol(accountId, previous.symbol());
+            boolean reducing = position != null && position.reducedBy(previous.buy(), previous.quantity());
+
+            ledger.amend(book, orderId, new RiskTicket(previous.userId(), accountId, previous.symbol(),
+                    previous.buy(), previous.quantity(), previous.price()));
+            if (reducing) return;
+            try {
+                if (limits.getMaxDailyLoss() > 0 && -book.realizedPnl >= limits.getMaxDailyLoss()) {
+                    throw new RiskRejectedException("MAX_DAILY_LOSS",
+                            "Daily loss " + fmt(-book.realizedPnl) + " reached limit " + fmt(limits.getMaxDailyLoss())
+                                    + "; only position-reducing orders are allowed");
+                }
+                // Already reserved on the new account, so nothing extra to add
+                checkExposure(book, limits, accountId, previous.symbol(), book.findSymbol(accountId, previous.symbol()),
+                        previous.buy(), 0, previous.price());
+            } catch (RiskRejectedException e) {
+                ledger.amend(book, orderId, previous);
+                throw e;
+            }
+        }
+    }
+
+    private static void checkOrderLimits(RiskLimits limits, double qty, double price) {
+        if (limits.getMaxOrderQuantity() > 0 && qty > limits.getMaxOrderQuantity()) {
+            throw new RiskRejectedException("MAX_ORDER_QUANTITY",
+                    "Quantity " + fmt(qty) + " exceeds limit " + limits.getMaxOrderQuantity());
+        }
+        double notional = qty * price;
+        if (limits.getMaxOrderNotional() > 0 && notional > limits.getMaxOrderNotional()) {
+            throw new RiskRejectedException("MAX_ORDER_NOTIONAL",
+                    "Order value " + fmt(notional) + " exceeds limit " + fmt(limits.getMaxOrderNotional()));
+        }
+    }
+
+    private void checkExposure(UserBook book, RiskLimits limits, Long accountId, String symbol,
+                               SymbolBook current, boolean buy, double qty, double price) {
+        if (price <= 0) return;
+        double extraBuy = buy ? qty : 0;
+        double extraSell = buy ? 0 : qty;
+
+        if (limits.getMaxSymbolExposure() > 0) {
+            // Same instrument held through several accounts counts once against the user
+            double symbolExposure = 0;
+            boolean seenAccount = false;
+            for (Map.Entry<Long, Map<String, SymbolBook>> e : book.accounts.entrySet()) {
+                SymbolBook s = e.getValue().get(symbol);
+                if (e.getKey().equals(accountId)) {
+                    seenAccount = true;
+                    symbolExposure += s == null
+                            ? Math.max(extraBuy, extraSell) * price
+                            : s.worstCaseExposure(extraBuy, extraSell, price);
+                } else if (s != null) {
+                    symbolExposure += s.worstCaseExposure(0, 0, price);
+                }
+            }
+            if (!seenAccount) symbolExposure += qty * price;
+            if (symbolExposure > limits.getMaxSymbolExposure()) {
+                throw new RiskRejectedException("MAX_SYMBOL_EXPOSURE",
+                        "Exposure in " + symbol + " would be " + fmt(symbolExposure)
+                                + ", limit " + fmt(limits.getMaxSymbolExposure()));
+            }
+        }
+
+        if (limits.getMaxAccountExposure() > 0) {
+            double accountExposure = book.accountExposure(accountId, current, extraBuy, extraSell, price);
+            if (accountExposure > limits.getMaxAccountExposure()) {
+                throw new RiskRejectedException("MAX_ACCOUNT_EXPOSURE",
+                        "Account exposure would be " + fmt(accountExposure)
+                                + ", limit " + fmt(limits.getMaxAccountExposure()));
+            }
+        }
+    }
+
+    /**
+     * Per-order limits only (quantity and notional), for an order that reserves later: a scheduled order
+     * takes its exposure, loss and rate checks when it fires.
+     *
+     * @throws RiskRejectedException if a per-order limit would be breached
+     */
+    public void checkOrder(Long userId, String symbol, BigDecimal quantity, BigDecimal limitPrice) {
+        if (!properties.isEnabled()) return;
+        checkOrderLimits(limitsFor(userId), quantity == null ? 0 : quantity.doubleValue(), referencePrice(symbol, limitPrice));
+    }
+
+    /**
+     * Drop the reservation of an order that was forwarded to the node owning its account. That node adopts
+     * it, and only its poller sees the order's fills and close.
+     */
+    public void handOff(Long orderId) {
+        ledger.onClosed(orderId);
+    }
+
+    /**
+     * Book a position exit that went straight to the broker (no order row, so no fill events follow). It is
+     * booked as filled at the last tick, so the position and realized P&L are current at once.
+     */
+    public void recordExit(Long userId, Long accountId, String symbol, String side, BigDecimal quantity) {
+        if (!properties.isEnabled() || quantity == null || quantity.signum() <= 0) return;
+        double price = referencePrice(symbol, null);
+        UserBook book = ledger.book(userId);
+        synchronized (book) {
+            ledger.bookFill(book, accountId, symbol, "BUY".equalsIgnoreCase(side), quantity.doubleValue(), price);
+        }
+    }
+
+    /**
+     * Re-reserve an order that was already open at startup, without any checks: it is live at the broker
+     * whatever the limits say. No-op if the order is already bound.
+     */
+    public void adopt(Long orderId, Long userId, Long accountId, String symbol, String side,
+                      BigDecimal quantity, BigDecimal limitPrice) {
+        if (!properties.isEnabled()) return;
+        RiskTicket ticket = new RiskTicket(userId, accountId, symbol, "BUY".equalsIgnoreCase(side),
+                quantity == null ? 0 : quantity.doubleValue(), referencePrice(symbol, limitPrice));
+        UserBook book = ledger.book(userId);
+        synchronized (book) {
+            ledger.adopt(book, orderId, ticket);
+        }
+    }
+
+    /**
+     * Seed a broker-reported position at startup, with the P&L it has already realized today.
+     *
+     * @return false if the ledger has booked fills for it since startup (and was left alone)
+     */
+    public boolean seedPosition(Long userId, Long accountId, String symbol, double netQty, double avgPrice,
+                                double markPrice, double realizedPnl) {
+        if (!properties.isEnabled()) return false;
+        UserBook book = ledger.book(userId);
+        synchronized (book) {
+            book.rollDay(System.currentTimeMillis());
+            if (!ledger.seedPosition(book, accountId, symbol, netQty, avgPrice, markPrice)) return false;
+            book.realizedPnl += realizedPnl;
+            return true;
+        }
+    }
+
+    public void bind(RiskTicket ticket, Long orderId) {
+        if (ticket != null) ledger.bind(ticket, orderId);
+    }
+
+    public void release(RiskTicket ticket) {
+        if (ticket != null) ledger.release(ticket);
+    }
+
+    /**
+     * Keep the ledger in step with the order lifecycle: fills become position, dead orders free their reservation.
+     */
+    @EventListener
+    public void onOrderEvent(OrderEvent event) {
+        OrderStatus status = event.getStatus();
+        // An algo parent holds no reservation; what it reports was booked from its children already
+        if (status == null || event.getOrderId() == null || event.isAlgoParent()) return;
+        if (status == OrderStatus.FILLED || status == OrderStatus.PARTIALLY_FILLED) {
+            double filled = event.getFilledQuantity() != null ? event.getFilledQuantity().doubleValue()
+                    : (event.getQuantity() != null ? event.getQuantity().doubleValue() : 0);
+            double px = event.getAvgFillPrice() != null ? event.getAvgFillPrice().doubleValue()
+                    : (event.getPrice() != null ? event.getPrice().doubleValue() : 0);
+            ledger.onFill(event.getOrderId(), filled, px, status == OrderStatus.FILLED);
+        } else if (status.isTerminal()) {
+            ledger.onClosed(event.getOrderId());
+        }
+    }
+
+    public RiskLimits limitsFor(Long userId) {
+        return effective.computeIfAbsent(userId, id -> {
+            RiskLimits configured = properties.getUsers().getOrDefault(id, properties.getDefaults());
+            RiskLimits own = userLimits.get(id);
+            return own == null ? configured.copy() : configured.tightest(own);
+        });
+    }
+
+    /**
+     * Set a user's own limits. They are combined with the configured limits field by field, keeping the
+     * tighter value, so a user can restrict themselves but never exceed what the operator allows.
+     */
+    public RiskLimits updateUserLimits(Long userId, RiskLimits limits) {
+        userLimits.put(userId, limits.copy());
+        effective.remove(userId);
+        return limitsFor(userId);
+    }
+
+    public RiskView view(Long userId) {
+        UserBook book = ledger.existingBook(userId);
+        if (book == null) return new RiskView(limitsFor(userId), 0, 0, List.of());
+        synchronized (book) {
+            book.rollDay(System.currentTimeMillis());
+            return new RiskView(limitsFor(userId), book.realizedPnl,
+                    book.ordersInLastMinute(System.currentTimeMillis()), book.snapshot());
+        }
+    }
+
+    private double referencePrice(String symbol, BigDecimal limitPrice) {
+        if (limitPrice != null && limitPrice.signum() > 0) return limitPrice.doubleValue();
+        MarketDataTick tick = marketDataService.lastTick(symbol);
+        return tick != null && tick.getLastPrice() != null ? tick.getLastPrice().doubleValue() : 0;
+    }
+
+    private static String fmt(double v) {
+        return String.format("%.2f", v);
+    }
+}
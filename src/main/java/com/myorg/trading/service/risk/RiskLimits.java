@@ -0,0 +1,45 @@
+package com.myorg.trading.service.risk;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pre-trade limits for one user. A value of 0 disables that particular check.
+ * Notional / exposure / loss values are in rupees.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RiskLimits {
+    private long maxOrderQuantity = 10_000;
+    private double maxOrderNotional = 1_000_000;
+    private double maxSymbolExposure = 2_000_000;
+    private double maxAccountExposure = 5_000_000;
+    private double maxDailyLoss = 50_000;
+    private int maxOrdersPerMinute = 60;
+
+    public RiskLimits copy() {
+        return new RiskLimits(maxOrderQuantity, maxOrderNotional, maxSymbolExposure,
+                maxAccountExposure, maxDailyLoss, maxOrdersPerMinute);
+    }
+
+    /**
+     * Field-wise tightest of the two (0 = unlimited is treated as the loosest value).
+     */
+    public RiskLimits tightest(RiskLimits other) {
+        return new RiskLimits(
+                (long) min(maxOrderQuantity, other.maxOrderQuantity),
+                min(maxOrderNotional, other.maxOrderNotional),
+                min(maxSymbolExposure, other.maxSymbolExposure),
+                min(maxAccountExposure, other.maxAccountExposure),
+                min(maxDailyLoss, other.maxDailyLoss),
+                (int) min(maxOrdersPerMinute, other.maxOrdersPerMinute));
+    }
+
+    private static double min(double a, double b) {
+        if (a <= 0) return b;
+        if (b <= 0) return a;
+        return Math.min(a, b);
+    }
+}
@@ -0,0 +1,24 @@
+package com.myorg.trading.service.risk;
+
+/**
+ * Thrown when an order fails a pre-trade risk check. Carries a machine-readable reason code.
+ */
+public class RiskRejectedException extends RuntimeException {
+
+    private final String reason;
+
+    public RiskRejectedException(String reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    // Rejections are routine control flow; skip the stack walk so they stay cheap
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
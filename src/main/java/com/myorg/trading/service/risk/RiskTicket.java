@@ -0,0 +1,8 @@
+package com.myorg.trading.service.risk;
+
+/**
+ * Exposure reserved by an accepted pre-trade check. Bound to the order id once the order is saved,
+ * and released / converted into position as the order is rejected or filled.
+ */
+public record RiskTicket(Long userId, Long accountId, String symbol, boolean buy, double quantity, double price) {
+}
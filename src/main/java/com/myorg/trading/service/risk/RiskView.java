@@ -0,0 +1,14 @@
+package com.myorg.trading.service.risk;
+
+import java.util.List;
+
+/**
+ * Current limits and ledger state for one user (GET /api/v1/risk).
+ */
+public record RiskView(
+        RiskLimits limits,
+        double realizedPnl,
+        int ordersLastMinute,
+        List<ExposureView> exposures
+) {
+}
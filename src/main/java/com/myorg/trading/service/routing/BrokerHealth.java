@@ -0,0 +1,18 @@
+package com.myorg.trading.service.routing;
+
+/**
+ * Point-in-time view of one broker as the router sees it.
+ *
+ * @param headroom share of this second's order allowance still unused, 0..1
+ */
+public record BrokerHealth(String brokerId, State state, double p50Ms, double p95Ms, double errorRate,
+                           double headroom, int samples) {
+
+    public enum State {
+        UP,
+        // Recent errors or throttling: still routable, but ranked behind healthy brokers
+        DEGRADED,
+        // Too many consecutive errors: skipped until the cool-down ends
+        DOWN
+    }
+}
@@ -0,0 +1,138 @@
+package com.myorg.trading.service.routing;
+
+import com.myorg.trading.config.properties.RoutingProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Live per-broker placement statistics for the {@link SmartOrderRouter}, fed by OrderExecutionService:
+ * a window of recent latencies, an error-rate average, consecutive failures (which take a broker
+ * out of rotation for a cool-down), 429 throttling, and this second's order count against the broker's
+ * order-rate limit.
+ */
+@Component
+public class BrokerHealthTracker {
+
+    // Weight of the newest outcome in the error-rate average (~ last 20 orders)
+    private static final double ERROR_ALPHA = 0.05;
+    private static final double DEGRADED_ERROR_RATE = 0.2;
+
+    private final RoutingProperties properties;
+    private final Map<String, Stats> brokers = new ConcurrentHashMap<>();
+
+    public BrokerHealthTracker(RoutingProperties properties) {
+        this.properties = properties;
+    }
+
+    public void recordSuccess(String brokerId, long latencyNanos) {
+        stats(brokerId).record(latencyNanos, false, System.nanoTime());
+    }
+
+    public void recordFailure(String brokerId, long latencyNanos, Throwable error) {
+        long now = System.nanoTime();
+        Stats s = stats(brokerId);
+        s.record(latencyNanos, true, now);
+        if (error instanceof WebClientResponseException w && w.getStatusCode().value() == 429) {
+            s.throttle(now + TimeUnit.MILLISECONDS.toNanos(retryAfterMs(w)));
+        }
+    }
+
+    /**
+     * Count an order about to be sent against the broker's per-second allowance.
+     */
+    public void recordSend(String brokerId) {
+        stats(brokerId).send(System.nanoTime());
+    }
+
+    public BrokerHealth health(String brokerId) {
+        return stats(brokerId).snapshot(brokerId, System.nanoTime());
+    }
+
+    private Stats stats(String brokerId) {
+        return brokers.computeIfAbsent(brokerId, id -> new Stats(properties.getLatencyWindow(),
+                properties.getOrdersPerSecond().getOrDefault(id, properties.getDefaultOrdersPerSecond())));
+    }
+
+    private long retryAfterMs(WebClientResponseException e) {
+        String retryAfter = e.getHeaders().getFirst("Retry-After");
+        if (retryAfter != null) {
+            try {
+                return Math.max(0, Long.parseLong(retryAfter.trim())) * 1000;
+            } catch (NumberFormatException ignored) {
+                // HTTP-date form; fall through to the default
+            }
+        }
+        return properties.getThrottleMs();
+    }
+
+    private final class Stats {
+        final long[] latencies;
+        final int ordersPerSecond;
+        int count;
+        int next;
+        double errorRate;
+        int consecutiveFailures;
+        long downUntil;
+        long throttledUntil;
+        long secondStart;
+        int sentThisSecond;
+
+        Stats(int window, int ordersPerSecond) {
+            this.latencies = new long[Math.max(1, window)];
+            this.ordersPerSecond = Math.max(1, ordersPerSecond);
+        }
+
+        synchronized void record(long latencyNanos, boolean failed, long now) {
+            latencies[next] = latencyNanos;
+            next = (next + 1) % latencies.length;
+            if (count < latencies.length) count++;
+            errorRate += ERROR_ALPHA * ((failed ? 1 : 0) - errorRate);
+            if (!failed) {
+                consecutiveFailures = 0;
+            } else if (++consecutiveFailures >= properties.getFailureThreshold()) {
+                downUntil = now + TimeUnit.MILLISECONDS.toNanos(properties.getDownMs());
+                // Half-open after the cool-down: one more failure puts it straight back
+                consecutiveFailures = properties.getFailureThreshold() - 1;
+            }
+        }
+
+        synchronized void throttle(long until) {
+            throttledUntil = Math.max(throttledUntil, until);
+        }
+
+        synchronized void send(long now) {
+            rollSecond(now);
+            sentThisSecond++;
+        }
+
+        private void rollSecond(long now) {
+            if (now - secondStart >= 1_000_000_000L) {
+                secondStart = now;
+                sentThisSecond = 0;
+            }
+        }
+
+        synchronized BrokerHealth snapshot(String brokerId, long now) {
+            rollSecond(now);
+            double headroom = now < throttledUntil ? 0 : Math.max(0, 1 - (double) sentThisSecond / ordersPerSecond);
+            BrokerHealth.State state;
+            if (now < downUntil) state = BrokerHealth.State.DOWN;
+            else if (errorRate > DEGRADED_ERROR_RATE || now < throttledUntil) state = BrokerHealth.State.DEGRADED;
+            else state = BrokerHealth.State.UP;
+
+            double p50 = 0, p95 = 0;
+            if (count > 0) {
+                long[] sorted = Arrays.copyOf(latencies, count);
+                Arrays.sort(sorted);
+                p50 = sorted[(count - 1) / 2] / 1e6;
+                p95 = sorted[(int) Math.ceil(count * 0.95) - 1] / 1e6;
+            }
+            return new BrokerHealth(brokerId, state, p50, p95, errorRate, headroom, count);
+        }
+    }
+}
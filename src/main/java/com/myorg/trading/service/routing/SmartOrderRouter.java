@@ -0,0 +1,96 @@
+package com.myorg.trading.service.routing;
+
+import com.myorg.trading.broker.api.BrokerCapability;
+import com.myorg.trading.broker.api.BrokerClient;
+import com.myorg.trading.broker.registry.BrokerRegistry;
+import com.myorg.trading.domain.entity.BrokerAccount;
+import com.myorg.trading.service.broker.BrokerAccountService;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Picks which of a user's linked broker accounts takes an order when the order asks for SMART routing.
+ * Accounts whose broker cannot place orders are skipped. The rest are ranked by recent p95 placement
+ * latency, inflated by the broker's error rate and by how little of this second's order allowance is
+ * left. DEGRADED brokers rank behind healthy ones. DOWN brokers are used only when nothing else is left.
+ *
+ * OrderExecutionService fails over only to the user's other accounts on the same broker: the request carries
+ * that broker's instrument ids (security id, trading symbol, exchange segment), which another broker would
+ * read as a different instrument or not at all.
+ */
+@Service
+public class SmartOrderRouter {
+
+    public static final String ROUTING_META = "routing";
+    public static final String SMART = "SMART";
+
+    // Latency assumed for a broker with no placements yet, so new brokers still get tried
+    private static final double PRIOR_LATENCY_MS = 200;
+    private static final double MIN_HEADROOM = 0.05;
+
+    public record RouteCandidate(Long brokerAccountId, String brokerId, BrokerHealth health, double score) {
+    }
+
+    private final BrokerAccountService brokerAccountService;
+    private final BrokerRegistry brokerRegistry;
+    private final BrokerHealthTracker healthTracker;
+
+    public SmartOrderRouter(BrokerAccountService brokerAccountService,
+                            BrokerRegistry brokerRegistry,
+                            BrokerHealthTracker healthTracker) {
+        this.brokerAccountService = brokerAccountService;
+        this.brokerRegistry = brokerRegistry;
+        this.healthTracker = healthTracker;
+    }
+
+    public static boolean isSmart(Map<String, Object> meta) {
+        return meta != null && SMART.equals(meta.get(ROUTING_META));
+    }
+
+    /**
+     * The user's order-capable accounts, best first.
+     */
+    public List<RouteCandidate> rank(Long userId) {
+        List<RouteCandidate> out = new ArrayList<>();
+        for (BrokerAccount account : brokerAccountService.listAccountsForUser(userId)) {
+            Optional<BrokerClient> client = brokerRegistry.findById(account.getBrokerId());
+            if (client.isEmpty() || !client.get().capabilities().contains(BrokerCapability.PLACE_ORDER)) continue;
+            BrokerHealth health = healthTracker.health(account.getBrokerId());
+            out.add(new RouteCandidate(account.getId(), account.getBrokerId(), health, score(health)));
+        }
+        out.sort(Comparator.comparing((RouteCandidate c) -> c.health().state())
+                .thenComparingDouble(RouteCandidate::score));
+        return out;
+    }
+
+    /**
+     * Account for a new SMART order.
+     *
+     * @throws IllegalArgumentException if the user has no account that can place orders
+     */
+    public Long select(Long userId) {
+        List<RouteCandidate> ranked = rank(userId);
+        if (ranked.isEmpty()) throw new IllegalArgumentException("No linked broker account can place orders");
+        return ranked.get(0).brokerAccountId();
+    }
+
+    /**
+     * The user's other accounts on {@code brokerId} not yet tried, best first.
+     */
+    public List<Long> failoverAccounts(Long userId, String brokerId, List<Long> triedAccounts) {
+        return rank(userId).stream()
+                .filter(c -> c.brokerId().equals(brokerId) && !triedAccounts.contains(c.brokerAccountId()))
+                .map(RouteCandidate::brokerAccountId)
+                .toList();
+    }
+
+    static double score(BrokerHealth h) {
+        double latency = h.samples() > 0 ? h.p95Ms() : PRIOR_LATENCY_MS;
+        return latency * (1 + 4 * h.errorRate()) / Math.max(h.headroom(), MIN_HEADROOM);
+    }
+}
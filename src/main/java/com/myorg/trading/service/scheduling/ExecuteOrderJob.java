@@ -1,13 +1,14 @@
 package com.myorg.trading.service.scheduling;
 
-import com.myorg.trading.service.trading.OrderExecutionService;
+import com.myorg.trading.service.cluster.ClusterOrderRouter;
 import com.myorg.trading.service.SpringContext;
 import org.quartz.Job;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
 
 /**
- * Quartz Job that fetches OrderExecutionService from SpringContext and invokes execution.
+ * Quartz Job that fetches ClusterOrderRouter from SpringContext and invokes execution, on whichever node
+ * owns the order's broker account.
  */
 public class ExecuteOrderJob implements Job {
 
@@ -16,9 +17,9 @@ public class ExecuteOrderJob implements Job {
     @Override
     public void execute(JobExecutionContext context) throws JobExecutionException {
         Long orderId = context.getMergedJobDataMap().getLong(ORDER_ID_KEY);
-        OrderExecutionService executor = SpringContext.getBean(OrderExecutionService.class);
+        ClusterOrderRouter executor = SpringContext.getBean(ClusterOrderRouter.class);
         try {
-            executor.executeOrder(orderId);
+            executor.execute(orderId);
         } catch (Exception e) {
             throw new JobExecutionException(e);
         }
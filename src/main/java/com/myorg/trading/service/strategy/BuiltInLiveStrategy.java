@@ -0,0 +1,151 @@
+package com.myorg.trading.service.strategy;
+
+import com.myorg.trading.service.indicator.Bar;
+import com.myorg.trading.service.indicator.DoubleRingBuffer;
+import com.myorg.trading.service.indicator.IndicatorHandle;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Live counterparts of the backtest strategies, with the same parameter names, so a combination found by
+ * a backtest sweep can be loaded as is. They act on bar close and hold at most {@code quantity} either way.
+ * Indicators start cold, so nothing is traded until enough live bars have been seen.
+ */
+public enum BuiltInLiveStrategy implements StrategyFactory {
+
+    SMA_CROSS("Long while the fast SMA is above the slow SMA", "fast", 10, "slow", 30, "allowShort", 0) {
+        @Override
+        public LiveStrategy create(StrategyDefinition def) {
+            int fast = period(def, "fast"), slow = period(def, "slow");
+            if (fast >= slow) throw new IllegalArgumentException("fast must be shorter than slow");
+            boolean shorts = flag(def, "allowShort");
+            return new LiveStrategy() {
+                IndicatorHandle f, s;
+
+                @Override
+                public void onStart(StrategyContext ctx) {
+                    f = ctx.indicator("SMA(" + fast + ")");
+                    s = ctx.indicator("SMA(" + slow + ")");
+                }
+
+                @Override
+                public void onBar(StrategyContext ctx, Bar bar) {
+                    if (!f.isReady() || !s.isReady()) return;
+                    int side = f.value() > s.value() ? 1 : (shorts ? -1 : 0);
+                    ctx.targetPosition(side * quantity(def));
+                }
+            };
+        }
+    },
+
+    BREAKOUT("Donchian breakout: enter beyond the prior entry-bar extreme, exit beyond the prior exit-bar extreme",
+            "entry", 20, "exit", 10, "allowShort", 0) {
+        @Override
+        public LiveStrategy create(StrategyDefinition def) {
+            int entry = period(def, "entry"), exit = period(def, "exit");
+            boolean shorts = flag(def, "allowShort");
+            return new LiveStrategy() {
+                final DoubleRingBuffer highs = new DoubleRingBuffer(Math.max(entry, exit));
+                final DoubleRingBuffer lows = new DoubleRingBuffer(Math.max(entry, exit));
+
+                @Override
+                public void onBar(StrategyContext ctx, Bar bar) {
+                    if (highs.isFull()) {
+                        double q = quantity(def), pos = ctx.position(), c = bar.close();
+                        if (c > max(highs, entry)) ctx.targetPosition(q);
+                        else if (shorts && c < min(lows, entry)) ctx.targetPosition(-q);
+                        else if (pos > 0 && c < min(lows, exit)) ctx.targetPosition(0);
+                        else if (pos < 0 && c > max(highs, exit)) ctx.targetPosition(0);
+                    }
+                    highs.push(bar.high());
+                    lows.push(bar.low());
+                }
+            };
+        }
+    },
+
+    RSI_REVERSION("Mean reversion: long below the lower RSI band, exit (or short) above the upper band",
+            "period", 14, "lower", 30, "upper", 70, "allowShort", 0) {
+        @Override
+        public LiveStrategy create(StrategyDefinition def) {
+            int period = period(def, "period");
+            double lower = param(def, "lower"), upper = param(def, "upper");
+            if (lower >= upper) throw new IllegalArgumentException("lower must be below upper");
+            boolean shorts = flag(def, "allowShort");
+            return new LiveStrategy() {
+                IndicatorHandle rsi;
+
+                @Override
+                public void onStart(StrategyContext ctx) {
+                    rsi = ctx.indicator("RSI(" + period + ")");
+                }
+
+                @Override
+                public void onBar(StrategyContext ctx, Bar bar) {
+                    if (!rsi.isReady()) return;
+                    double r = rsi.value();
+                    if (r < lower) ctx.targetPosition(quantity(def));
+                    else if (r > upper) ctx.targetPosition(shorts ? -quantity(def) : 0);
+                }
+            };
+        }
+    };
+
+    private final String description;
+    private final Map<String, Double> parameters = new LinkedHashMap<>();
+
+    BuiltInLiveStrategy(String description, Object... nameDefaultPairs) {
+        this.description = description;
+        for (int i = 0; i < nameDefaultPairs.length; i += 2) {
+            parameters.put((String) nameDefaultPairs[i], ((Number) nameDefaultPairs[i + 1]).doubleValue());
+        }
+    }
+
+    @Override
+    public String type() {
+        return name();
+    }
+
+    @Override
+    public String description() {
+        return description;
+    }
+
+    @Override
+    public Map<String, Double> parameters() {
+        return Collections.unmodifiableMap(parameters);
+    }
+
+    double param(StrategyDefinition def, String name) {
+        Double v = def.params() != null ? def.params().get(name) : null;
+        return v != null ? v : parameters.get(name);
+    }
+
+    int period(StrategyDefinition def, String name) {
+        int p = (int) Math.round(param(def, name));
+        if (p < 1) throw new IllegalArgumentException(name + " must be at least 1");
+        return p;
+    }
+
+    boolean flag(StrategyDefinition def, String name) {
+        return param(def, name) > 0;
+    }
+
+    static double quantity(StrategyDefinition def) {
+        return def.quantity() != null ? def.quantity() : 1;
+    }
+
+    private static double max(DoubleRingBuffer b, int last) {
+        double m = Double.NEGATIVE_INFINITY;
+        for (int i = b.size() - last; i < b.size(); i++) m = Math.max(m, b.get(i));
+        return m;
+    }
+
+    private static double min(DoubleRingBuffer b, int last) {
+        double m = Double.POSITIVE_INFINITY;
+        for (int i = b.size() - last; i < b.size(); i++) m = Math.min(m, b.get(i));
+        return m;
+    }
+}
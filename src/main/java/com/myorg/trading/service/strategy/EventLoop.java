@@ -0,0 +1,243 @@
+package com.myorg.trading.service.strategy;
+
+import com.myorg.trading.service.indicator.Bar;
+import com.myorg.trading.service.indicator.BarAggregator;
+import com.myorg.trading.service.indicator.Timeframe;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-threaded executor for the strategies of the instruments sharded onto it. Everything in
+ * {@link #slots} and every strategy callback runs on the owning thread only.
+ *
+ * Market ticks are bounded ({@code tickCapacity}); when the loop falls behind, new ticks are dropped
+ * rather than blocking the feed. Control tasks (load, unload, order rejections) are never dropped.
+ *
+ * If a callback hangs, the watchdog faults that instance and hands the loop to a fresh thread; the stuck
+ * thread notices it no longer owns the loop when (if ever) the callback returns, and exits.
+ */
+@Slf4j
+final class EventLoop {
+
+    interface Callback {
+        void call(LiveStrategy strategy, StrategyContext ctx);
+    }
+
+    record Budgets(long maxEventNanos, long maxEventCpuNanos, int maxViolations, int maxErrors) {
+    }
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    final int index;
+    private final StrategyRuntime runtime;
+    private final Budgets budgets;
+    private final boolean measureCpu;
+    private final int tickCapacity;
+    private final LinkedBlockingQueue<Runnable> queue = new LinkedBlockingQueue<>();
+    private final AtomicInteger pendingTicks = new AtomicInteger();
+    final AtomicLong droppedTicks = new AtomicLong();
+    private final Map<String, Slot> slots = new HashMap<>();
+
+    private volatile Thread owner;
+    private volatile boolean stopped;
+    volatile StrategyInstance running;
+    volatile long runningSince;
+    private int restarts;
+
+    EventLoop(int index, StrategyRuntime runtime, Budgets budgets, int tickCapacity) {
+        this.index = index;
+        this.runtime = runtime;
+        this.budgets = budgets;
+        this.tickCapacity = tickCapacity;
+        this.measureCpu = budgets.maxEventCpuNanos() > 0 && THREADS.isCurrentThreadCpuTimeSupported();
+    }
+
+    synchronized void start() {
+        Thread t = new Thread(this::run, "strategy-loop-" + index + (restarts > 0 ? "-r" + restarts : ""));
+        t.setDaemon(true);
+        owner = t;
+        t.start();
+    }
+
+    /**
+     * Called by the watchdog after faulting a hung instance.
+     */
+    synchronized void replaceThread() {
+        Thread old = owner;
+        restarts++;
+        start();
+        if (old != null) old.interrupt();
+        log.warn("Strategy event loop {} replaced its thread after a hang (restart #{})", index, restarts);
+    }
+
+    void stop() {
+        stopped = true;
+        Thread t = owner;
+        if (t != null) t.interrupt();
+    }
+
+    int queued() {
+        return queue.size();
+    }
+
+    private void run() {
+        Thread me = Thread.currentThread();
+        while (!stopped && owner == me) {
+            Runnable task;
+            try {
+                task = queue.poll(500, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                continue;
+            }
+            if (task == null) continue;
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.error("Strategy event loop {} task failed", index, e);
+            }
+        }
+    }
+
+    /**
+     * @return false if the tick was dropped because the loop is behind
+     */
+    boolean offerTick(String token, double price, long volume, long epochMillis) {
+        if (pendingTicks.incrementAndGet() > tickCapacity) {
+            pendingTicks.decrementAndGet();
+            droppedTicks.incrementAndGet();
+            return false;
+        }
+        queue.add(() -> {
+            pendingTicks.decrementAndGet();
+            dispatchTick(token, price, volume, epochMillis);
+        });
+        return true;
+    }
+
+    void post(Runnable task) {
+        queue.add(task);
+    }
+
+    // --- loop thread only below ---
+
+    void add(StrategyInstance inst) {
+        Slot slot = slots.computeIfAbsent(inst.definition.instrumentToken(), k -> new Slot());
+        slot.instances = append(slot.instances, inst);
+        if (!inst.timeframe.isTick()) {
+            slot.bars.computeIfAbsent(inst.timeframe, tf -> new BarAggregator(inst.definition.instrumentToken(), tf));
+        }
+    }
+
+    /**
+     * Drop an instance from dispatch. Safe to call during dispatch: the array being iterated is not modified.
+     */
+    void detach(StrategyInstance inst) {
+        Slot slot = slots.get(inst.definition.instrumentToken());
+        if (slot == null) return;
+        slot.instances = Arrays.stream(slot.instances).filter(i -> i != inst).toArray(StrategyInstance[]::new);
+    }
+
+    /**
+     * Drop aggregators and slots nobody uses any more. Not called during dispatch.
+     */
+    void compact(String token) {
+        Slot slot = slots.get(token);
+        if (slot == null) return;
+        if (slot.instances.length == 0) {
+            slots.remove(token);
+            return;
+        }
+        slot.bars.keySet().removeIf(tf -> Arrays.stream(slot.instances).noneMatch(i -> i.timeframe.equals(tf)));
+    }
+
+    private void dispatchTick(String token, double price, long volume, long epochMillis) {
+        Slot slot = slots.get(token);
+        if (slot == null) return;
+        StrategyInstance[] instances = slot.instances;
+        for (Map.Entry<Timeframe, BarAggregator> e : slot.bars.entrySet()) {
+            Bar bar = e.getValue().onTick(epochMillis, price, volume);
+            if (bar == null) continue;
+            for (StrategyInstance inst : instances) {
+                if (inst.state != StrategyState.RUNNING || !inst.timeframe.equals(e.getKey())) continue;
+                if (!invoke(inst, (s, ctx) -> s.onBar(ctx, bar))) return;
+            }
+        }
+        for (StrategyInstance inst : instances) {
+            if (inst.state != StrategyState.RUNNING) continue;
+            if (!invoke(inst, (s, ctx) -> s.onTick(ctx, price, volume, epochMillis))) return;
+        }
+    }
+
+    /**
+     * Run one callback under the event budgets.
+     *
+     * @return false if this thread lost ownership of the loop while the callback ran (watchdog restart);
+     *         the caller must stop immediately
+     */
+    boolean invoke(StrategyInstance inst, Callback callback) {
+        Thread me = Thread.currentThread();
+        long cpu0 = measureCpu ? THREADS.getCurrentThreadCpuTime() : 0;
+        long t0 = System.nanoTime();
+        runningSince = t0;
+        running = inst;
+        Throwable failure = null;
+        try {
+            callback.call(inst.strategy, inst);
+        } catch (OutOfMemoryError e) {
+            throw e;
+        } catch (Throwable t) {
+            failure = t;
+        } finally {
+            if (owner == me) running = null;
+        }
+        if (owner != me) return false;
+
+        long wall = System.nanoTime() - t0;
+        long cpu = measureCpu ? THREADS.getCurrentThreadCpuTime() - cpu0 : 0;
+        inst.events++;
+        inst.totalNanos += wall;
+        if (wall > inst.maxNanos) inst.maxNanos = wall;
+
+        if (failure != null) {
+            inst.errors++;
+            if (++inst.consecutiveErrors >= budgets.maxErrors()) {
+                runtime.fault(inst, "Failed " + inst.consecutiveErrors + " events in a row, last: " + failure);
+            } else {
+                log.warn("Strategy {} callback failed: {}", inst.id, failure.toString());
+            }
+        } else {
+            inst.consecutiveErrors = 0;
+        }
+
+        if (wall > budgets.maxEventNanos() || (measureCpu && cpu > budgets.maxEventCpuNanos())) {
+            inst.violations++;
+            if (++inst.consecutiveViolations >= budgets.maxViolations() && inst.isLive()) {
+                runtime.fault(inst, String.format("Over the event budget %d times in a row (last %.2f ms wall, %.2f ms cpu)",
+                        inst.consecutiveViolations, wall / 1e6, cpu / 1e6));
+            }
+        } else {
+            inst.consecutiveViolations = 0;
+        }
+        return true;
+    }
+
+    private static StrategyInstance[] append(StrategyInstance[] a, StrategyInstance inst) {
+        StrategyInstance[] out = Arrays.copyOf(a, a.length + 1);
+        out[a.length] = inst;
+        return out;
+    }
+
+    private static final class Slot {
+        StrategyInstance[] instances = new StrategyInstance[0];
+        final Map<Timeframe, BarAggregator> bars = new HashMap<>();
+    }
+}
@@ -0,0 +1,38 @@
+package com.myorg.trading.service.strategy;
+
+import com.myorg.trading.service.indicator.Bar;
+
+/**
+ * A live strategy instance. All callbacks for one instance run on the single event-loop thread that owns
+ * its instrument, so implementations keep plain fields and never need locks. Callbacks must return
+ * quickly: each one is measured against the runtime's per-event budgets, and an instance that keeps
+ * exceeding them, keeps throwing, or hangs is faulted and unloaded without affecting its neighbours.
+ */
+public interface LiveStrategy {
+
+    /**
+     * Called once on the event loop before any market event; acquire indicators here.
+     */
+    default void onStart(StrategyContext ctx) {
+    }
+
+    default void onTick(StrategyContext ctx, double price, long volume, long epochMillis) {
+    }
+
+    /**
+     * A bar of the instance's timeframe completed (not called for the TICK timeframe).
+     */
+    default void onBar(StrategyContext ctx, Bar bar) {
+    }
+
+    /**
+     * An order this instance sent was not (fully) executed: refused before placement (risk check, validation,
+     * persistence), rejected or failed at the broker, or cancelled. {@code quantity} is the unfilled part,
+     * already taken back out of the position.
+     */
+    default void onOrderFailed(StrategyContext ctx, String side, double quantity, String reason) {
+    }
+
+    default void onStop(StrategyContext ctx) {
+    }
+}
@@ -0,0 +1,37 @@
+package com.myorg.trading.service.strategy;
+
+import com.myorg.trading.service.indicator.IndicatorHandle;
+
+/**
+ * What a {@link LiveStrategy} can see and do. Only valid on the instance's event-loop thread.
+ */
+public interface StrategyContext {
+
+    StrategyDefinition definition();
+
+    /**
+     * A numeric parameter from the definition, or {@code defaultValue} if absent.
+     */
+    double param(String name, double defaultValue);
+
+    /**
+     * Shared indicator on this instance's instrument and timeframe, e.g. {@code "RSI(14)"}. Released
+     * automatically when the instance stops.
+     */
+    IndicatorHandle indicator(String spec);
+
+    /**
+     * Net quantity this instance has ordered (positive long, negative short). Updated when an order is
+     * sent and rolled back if it is rejected, not when the broker reports the fill.
+     */
+    double position();
+
+    /**
+     * Send a market order for the difference between {@code quantity} and the current position.
+     */
+    void targetPosition(double quantity);
+
+    void buy(double quantity);
+
+    void sell(double quantity);
+}
@@ -0,0 +1,22 @@
+package com.myorg.trading.service.strategy;
+
+import java.util.Map;
+
+/**
+ * What to run and where to trade: a strategy type, its numeric parameters, the instrument and timeframe
+ * it reacts to, and the account / order template used for its orders.
+ *
+ * @param timeframe   bar width ("1M", "5M", ...) or "TICK"
+ * @param quantity    base order size; strategies scale their targets by it
+ * @param productType INTRADAY (default), CNC, ...
+ */
+public record StrategyDefinition(String type,
+                                 String instrumentToken,
+                                 String tradingSymbol,
+                                 String exchange,
+                                 String timeframe,
+                                 Map<String, Double> params,
+                                 Long brokerAccountId,
+                                 Double quantity,
+                                 String productType) {
+}
@@ -0,0 +1,24 @@
+package com.myorg.trading.service.strategy;
+
+import java.util.Map;
+
+/**
+ * Creates instances of one strategy type. Register additional types as Spring beans; the built-ins are
+ * in {@link BuiltInLiveStrategy}.
+ */
+public interface StrategyFactory {
+
+    String type();
+
+    String description();
+
+    /**
+     * Parameter names and their defaults.
+     */
+    Map<String, Double> parameters();
+
+    /**
+     * @throws IllegalArgumentException if the parameters are invalid
+     */
+    LiveStrategy create(StrategyDefinition definition);
+}
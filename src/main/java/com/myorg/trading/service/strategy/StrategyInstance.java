@@ -0,0 +1,209 @@
+package com.myorg.trading.service.strategy;
+
+import com.myorg.trading.domain.entity.OrderStatus;
+import com.myorg.trading.service.indicator.IndicatorHandle;
+import com.myorg.trading.service.indicator.IndicatorRegistry;
+import com.myorg.trading.service.indicator.IndicatorSpec;
+import com.myorg.trading.service.indicator.Timeframe;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One loaded strategy and its {@link StrategyContext}. Mutable state is written only by the owning event
+ * loop; fields read by the REST views are volatile.
+ *
+ * The position counts every order sent as done, so a strategy can act on it at once. Each order is then
+ * tracked by id until it is final. A failure, broker rejection or cancellation takes the unfilled part
+ * back out of the position.
+ */
+final class StrategyInstance implements StrategyContext {
+
+    private static final double EPSILON = 1e-9;
+
+    final String id;
+    final Long userId;
+    final StrategyDefinition definition;
+    final LiveStrategy strategy;
+    final Timeframe timeframe;
+    final EventLoop loop;
+    final Instant loadedAt = Instant.now();
+
+    private final IndicatorRegistry indicators;
+    private final StrategyOrderGateway gateway;
+    // Shared with the runtime, which routes order events by id to the instance that sent the order
+    private final Map<Long, StrategyInstance> orderOwners;
+    private final List<IndicatorHandle> handles = new ArrayList<>();
+    // Orders sent and not yet final, by order id (loop thread only)
+    private final Map<Long, WorkingOrder> working = new HashMap<>();
+    final AtomicBoolean detached = new AtomicBoolean();
+
+    volatile StrategyState state = StrategyState.STARTING;
+    volatile String faultReason;
+    volatile double position;
+
+    volatile long events;
+    volatile long errors;
+    volatile long violations;
+    volatile long ordersSent;
+    volatile long totalNanos;
+    volatile long maxNanos;
+    int consecutiveErrors;
+    int consecutiveViolations;
+
+    StrategyInstance(String id, Long userId, StrategyDefinition definition, LiveStrategy strategy,
+                     Timeframe timeframe, EventLoop loop, IndicatorRegistry indicators, StrategyOrderGateway gateway,
+                     Map<Long, StrategyInstance> orderOwners) {
+        this.id = id;
+        this.userId = userId;
+        this.definition = definition;
+        this.strategy = strategy;
+        this.timeframe = timeframe;
+        this.loop = loop;
+        this.indicators = indicators;
+        this.gateway = gateway;
+        this.orderOwners = orderOwners;
+    }
+
+    boolean isLive() {
+        StrategyState s = state;
+        return s == StrategyState.STARTING || s == StrategyState.RUNNING;
+    }
+
+    void releaseIndicators() {
+        synchronized (handles) {
+            handles.forEach(indicators::release);
+            handles.clear();
+        }
+    }
+
+    @Override
+    public StrategyDefinition definition() {
+        return definition;
+    }
+
+    @Override
+    public double param(String name, double defaultValue) {
+        Double v = definition.params() != null ? definition.params().get(name) : null;
+        return v != null ? v : defaultValue;
+    }
+
+    @Override
+    public IndicatorHandle indicator(String spec) {
+        IndicatorHandle h = indicators.acquire(definition.instrumentToken(), timeframe, IndicatorSpec.parse(spec));
+        synchronized (handles) {
+            handles.add(h);
+        }
+        return h;
+    }
+
+    @Override
+    public double position() {
+        return position;
+    }
+
+    @Override
+    public void targetPosition(double quantity) {
+        double diff = quantity - position;
+        if (diff > EPSILON) buy(diff);
+        else if (diff < -EPSILON) sell(-diff);
+    }
+
+    @Override
+    public void buy(double quantity) {
+        order("BUY", quantity);
+    }
+
+    @Override
+    public void sell(double quantity) {
+        order("SELL", quantity);
+    }
+
+    private void order(String side, double quantity) {
+        if (quantity <= EPSILON || !isLive()) return;
+        WorkingOrder w = new WorkingOrder(side, quantity);
+        position += w.signed(quantity);
+        ordersSent++;
+        gateway.submit(userId, definition, side, quantity,
+                orderId -> {
+                    // Before the order reaches the broker, so no event for it can be missed
+                    w.orderId = orderId;
+                    orderOwners.put(orderId, this);
+                    loop.post(() -> {
+                        if (!w.done) working.put(orderId, w);
+                    });
+                },
+                reason -> loop.post(() -> settle(w, reason)));
+    }
+
+    /**
+     * A lifecycle event for one of this instance's orders (loop thread).
+     *
+     * @param filledQuantity cumulative fill reported with the event, or null
+     */
+    void onOrderUpdate(Long orderId, OrderStatus status, Double filledQuantity, String message) {
+        WorkingOrder w = working.get(orderId);
+        if (w == null) return;
+        if (filledQuantity != null) w.filled = Math.max(w.filled, Math.min(w.quantity, filledQuantity));
+        switch (status) {
+            case FILLED, EXECUTED -> {
+                w.filled = w.quantity;
+                settle(w, null);
+            }
+            case REJECTED, FAILED, CANCELLED -> settle(w, message != null ? message : status.name());
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * The order is final: back the unfilled part out of the position and tell the strategy.
+     */
+    private void settle(WorkingOrder w, String reason) {
+        if (w.done) return;
+        w.done = true;
+        if (w.orderId != null) {
+            working.remove(w.orderId);
+            orderOwners.remove(w.orderId, this);
+        }
+        double unfilled = w.quantity - w.filled;
+        if (unfilled <= EPSILON) return;
+        position -= w.signed(unfilled);
+        loop.invoke(this, (s, ctx) -> s.onOrderFailed(ctx, w.side, unfilled, reason));
+    }
+
+    /**
+     * Stop following this instance's orders (unload or fault).
+     */
+    void forgetOrders() {
+        orderOwners.values().removeIf(owner -> owner == this);
+    }
+
+    private static final class WorkingOrder {
+        final String side;
+        final double quantity;
+        // Assigned on a gateway thread once the order row exists
+        volatile Long orderId;
+        double filled;
+        boolean done;
+
+        WorkingOrder(String side, double quantity) {
+            this.side = side;
+            this.quantity = quantity;
+        }
+
+        double signed(double q) {
+            return "BUY".equals(side) ? q : -q;
+        }
+    }
+
+    StrategyView view() {
+        long n = events;
+        return new StrategyView(id, definition, state, faultReason, loop.index, position, n, errors, violations,
+                ordersSent, n > 0 ? totalNanos / 1_000.0 / n : 0, maxNanos / 1_000.0, loadedAt);
+    }
+}
@@ -0,0 +1,112 @@
+package com.myorg.trading.service.strategy;
+
+import com.myorg.trading.domain.entity.Order;
+import com.myorg.trading.domain.entity.OrderStatus;
+import com.myorg.trading.service.risk.PreTradeRiskService;
+import com.myorg.trading.service.risk.RiskTicket;
+import com.myorg.trading.service.trading.OrderService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Places strategy and execution algo orders off the event loops: the risk check, database save and broker
+ * hand-off run on a small bounded pool so a slow database or broker never blocks market event processing.
+ * Orders go through the same pre-trade risk checks as orders placed through the REST API.
+ */
+@Slf4j
+@Component
+public class StrategyOrderGateway {
+
+    private final OrderService orderService;
+    private final PreTradeRiskService riskService;
+    private final ThreadPoolExecutor executor;
+
+    public StrategyOrderGateway(OrderService orderService,
+                                PreTradeRiskService riskService,
+                                @Value("${app.strategies.order-threads:4}") int threads,
+                                @Value("${app.strategies.order-queue:1000}") int queue) {
+        this.orderService = orderService;
+        this.riskService = riskService;
+        AtomicInteger n = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queue), r -> {
+            Thread t = new Thread(r, "strategy-orders-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Queue a market order for a strategy instance.
+     *
+     * @param onCreated called (on a gateway thread) with the order id before it is sent to the broker; later
+     *                  broker outcomes arrive as {@link com.myorg.trading.service.trading.OrderEvent}s for it
+     * @param onFailure called (on a gateway thread) with the reason if the order was not accepted
+     */
+    public void submit(Long userId, StrategyDefinition def, String side, double quantity,
+                       Consumer<Long> onCreated, Consumer<String> onFailure) {
+        Order order = Order.builder()
+                .userId(userId)
+                .brokerAccountId(def.brokerAccountId())
+                .symbol(def.instrumentToken())
+                .side(side)
+                .quantity(BigDecimal.valueOf(quantity))
+                .orderType("MARKET")
+                .productType(def.productType() != null ? def.productType() : "INTRADAY")
+                .status(OrderStatus.PENDING)
+                .build();
+        Map<String, Object> meta = new HashMap<>();
+        meta.put("tradingSymbol", def.tradingSymbol() != null ? def.tradingSymbol() : def.instrumentToken());
+        if (def.exchange() != null) meta.put("exchange", def.exchange());
+        submit(order, meta, saved -> onCreated.accept(saved.getId()), onFailure);
+    }
+
+    /**
+     * Queue a prepared order (execution algo child slices use this).
+     *
+     * @param meta      placement context; must contain "tradingSymbol"
+     * @param onCreated called (on a gateway thread) with the saved order before it is sent to the broker
+     * @param onFailure called (on a gateway thread) with the reason if the order was not accepted
+     */
+    public void submit(Order order, Map<String, Object> meta, Consumer<Order> onCreated, Consumer<String> onFailure) {
+        try {
+            executor.execute(() -> place(order, meta, onCreated, onFailure));
+        } catch (RejectedExecutionException e) {
+            onFailure.accept("Order queue full");
+        }
+    }
+
+    private void place(Order order, Map<String, Object> meta, Consumer<Order> onCreated, Consumer<String> onFailure) {
+        RiskTicket ticket = null;
+        try {
+            ticket = riskService.checkAndReserve(order.getUserId(), order.getBrokerAccountId(), order.getSymbol(),
+                    order.getSide(), order.getQuantity(), order.getPrice());
+            Order saved = orderService.createOrder(order);
+            riskService.bind(ticket, saved.getId());
+            ticket = null;
+            onCreated.accept(saved);
+            orderService.placeOrderNow(saved.getId(), (String) meta.get("tradingSymbol"), meta);
+        } catch (RuntimeException e) {
+            riskService.release(ticket);
+            log.warn("Gateway order {} {} {} failed: {}", order.getSide(), order.getQuantity(), order.getSymbol(), e.getMessage());
+            onFailure.accept(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+}
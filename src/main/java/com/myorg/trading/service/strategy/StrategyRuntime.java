@@ -0,0 +1,264 @@
+package com.myorg.trading.service.strategy;
+
+import com.myorg.trading.broker.api.MarketDataTick;
+import com.myorg.trading.service.indicator.IndicatorRegistry;
+import com.myorg.trading.service.indicator.Timeframe;
+import com.myorg.trading.service.marketdata.MarketDataService;
+import com.myorg.trading.service.marketdata.TickListener;
+import com.myorg.trading.service.trading.OrderEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs live strategies on a fixed set of single-threaded {@link EventLoop}s. Instruments are sharded onto
+ * loops by token hash, so every strategy on an instrument, and that instrument's bar building, live on
+ * one thread and need no locks. The feed thread only enqueues ticks for instruments that have strategies.
+ *
+ * Each callback is measured against wall-clock and CPU budgets. An instance that keeps blowing them, keeps
+ * throwing, or hangs past the watchdog timeout is marked FAULTED and detached; the others keep running.
+ * Loaded strategies are held in memory only and must be reloaded after a restart.
+ */
+@Slf4j
+@Component
+@Order(200) // after IndicatorRegistry, so indicators already include a bar when strategies see it
+public class StrategyRuntime implements TickListener {
+
+    private final IndicatorRegistry indicators;
+    private final StrategyOrderGateway gateway;
+    private final MarketDataService marketDataService;
+    private final Map<String, StrategyFactory> factories = new LinkedHashMap<>();
+    private final EventLoop[] loops;
+    private final Map<String, StrategyInstance> instances = new ConcurrentHashMap<>();
+    // Strategy orders not yet final, so their broker outcomes reach the instance that sent them
+    private final Map<Long, StrategyInstance> orderOwners = new ConcurrentHashMap<>();
+    // Live instances per instrument; the feed thread's "anyone interested?" check
+    private final Map<String, Integer> liveByInstrument = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService watchdog;
+    private final long hangNanos;
+    private final int maxPerUser;
+    private final Counter dropped;
+    private final Counter faults;
+
+    public StrategyRuntime(IndicatorRegistry indicators,
+                           StrategyOrderGateway gateway,
+                           MarketDataService marketDataService,
+                           ObjectProvider<StrategyFactory> customFactories,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.strategies.event-loops:0}") int eventLoops,
+                           @Value("${app.strategies.tick-queue-capacity:10000}") int tickCapacity,
+                           @Value("${app.strategies.max-event-ms:5}") double maxEventMs,
+                           @Value("${app.strategies.max-event-cpu-ms:2}") double maxEventCpuMs,
+                           @Value("${app.strategies.max-budget-violations:20}") int maxViolations,
+                           @Value("${app.strategies.max-consecutive-errors:5}") int maxErrors,
+                           @Value("${app.strategies.hang-timeout-ms:2000}") long hangTimeoutMs,
+                           @Value("${app.strategies.max-per-user:20}") int maxPerUser) {
+        this.indicators = indicators;
+        this.gateway = gateway;
+        this.marketDataService = marketDataService;
+        for (BuiltInLiveStrategy s : BuiltInLiveStrategy.values()) factories.put(s.type(), s);
+        customFactories.orderedStream().forEach(f -> factories.put(f.type().toUpperCase(Locale.ROOT), f));
+        this.hangNanos = TimeUnit.MILLISECONDS.toNanos(hangTimeoutMs);
+        this.maxPerUser = maxPerUser;
+
+        EventLoop.Budgets budgets = new EventLoop.Budgets((long) (maxEventMs * 1_000_000), (long) (maxEventCpuMs * 1_000_000),
+                maxViolations, maxErrors);
+        int n = eventLoops > 0 ? eventLoops : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.loops = new EventLoop[n];
+        for (int i = 0; i < n; i++) {
+            loops[i] = new EventLoop(i, this, budgets, tickCapacity);
+            loops[i].start();
+        }
+
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "strategy-watchdog");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(50, hangTimeoutMs / 4);
+        watchdog.scheduleWithFixedDelay(this::checkForHangs, period, period, TimeUnit.MILLISECONDS);
+
+        this.dropped = Counter.builder("trading.strategies.ticks.dropped")
+                .description("Ticks dropped because a strategy event loop was behind")
+                .register(meterRegistry);
+        this.faults = Counter.builder("trading.strategies.faults").register(meterRegistry);
+        Gauge.builder("trading.strategies.running", instances,
+                m -> m.values().stream().filter(StrategyInstance::isLive).count()).register(meterRegistry);
+        Gauge.builder("trading.strategies.queued", this,
+                r -> Arrays.stream(r.loops).mapToInt(EventLoop::queued).sum()).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        watchdog.shutdownNow();
+        for (EventLoop loop : loops) loop.stop();
+    }
+
+    @Override
+    public void onTick(String instrumentToken, MarketDataTick tick) {
+        if (!liveByInstrument.containsKey(instrumentToken) || tick.getLastPrice() == null) return;
+        long ts = tick.getTimestamp() != null ? tick.getTimestamp().toEpochMilli() : System.currentTimeMillis();
+        if (!loopFor(instrumentToken).offerTick(instrumentToken, tick.getLastPrice().doubleValue(), tick.getVolume(), ts)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Broker outcomes of strategy orders: a rejection, failure or cancellation corrects the position.
+     */
+    @EventListener
+    public void onOrderEvent(OrderEvent event) {
+        if (event.getOrderId() == null || event.getStatus() == null) return;
+        StrategyInstance inst = orderOwners.get(event.getOrderId());
+        if (inst == null) return;
+        Double filled = event.getFilledQuantity() != null ? event.getFilledQuantity().doubleValue() : null;
+        inst.loop.post(() -> inst.onOrderUpdate(event.getOrderId(), event.getStatus(), filled, event.getMessage()));
+    }
+
+    public List<Map<String, Object>> types() {
+        return factories.values().stream()
+                .map(f -> Map.<String, Object>of("type", f.type(), "description", f.description(), "parameters", f.parameters()))
+                .toList();
+    }
+
+    /**
+     * Validate, create and start a strategy. Account ownership is checked by the caller.
+     */
+    public StrategyView load(Long userId, StrategyDefinition def) {
+        if (def.type() == null) throw new IllegalArgumentException("type is required");
+        if (def.instrumentToken() == null || def.instrumentToken().isBlank()) {
+            throw new IllegalArgumentException("instrumentToken is required");
+        }
+        if (def.brokerAccountId() == null) throw new IllegalArgumentException("brokerAccountId is required");
+        if (def.quantity() != null && def.quantity() <= 0) throw new IllegalArgumentException("quantity must be positive");
+        StrategyFactory factory = factories.get(def.type().toUpperCase(Locale.ROOT));
+        if (factory == null) throw new IllegalArgumentException("Unknown strategy type " + def.type() + "; known: " + factories.keySet());
+        if (def.params() != null) {
+            for (String p : def.params().keySet()) {
+                if (!factory.parameters().containsKey(p)) {
+                    throw new IllegalArgumentException("Unknown parameter " + p + " for " + factory.type()
+                            + "; expected " + factory.parameters().keySet());
+                }
+            }
+        }
+        long owned = instances.values().stream().filter(i -> i.userId.equals(userId)).count();
+        if (owned >= maxPerUser) throw new IllegalArgumentException("At most " + maxPerUser + " strategies per user");
+
+        Timeframe timeframe = Timeframe.parse(def.timeframe() != null ? def.timeframe() : "1M");
+        LiveStrategy strategy = factory.create(def);
+        StrategyInstance inst = new StrategyInstance(UUID.randomUUID().toString(), userId, def, strategy, timeframe,
+                loopFor(def.instrumentToken()), indicators, gateway, orderOwners);
+        instances.put(inst.id, inst);
+        liveByInstrument.merge(def.instrumentToken(), 1, Integer::sum);
+        marketDataService.requestFeed(def.exchange(), def.instrumentToken());
+
+        inst.loop.post(() -> {
+            inst.loop.add(inst);
+            long errorsBefore = inst.errors;
+            if (!inst.loop.invoke(inst, LiveStrategy::onStart)) return;
+            if (inst.errors > errorsBefore) {
+                fault(inst, "onStart failed");
+            } else if (inst.state == StrategyState.STARTING) {
+                inst.state = StrategyState.RUNNING;
+            }
+        });
+        log.info("Loaded strategy {} ({} on {} {}) for user {} on loop {}",
+                inst.id, factory.type(), def.instrumentToken(), timeframe, userId, inst.loop.index);
+        return inst.view();
+    }
+
+    /**
+     * Stop and remove a strategy (running or faulted).
+     *
+     * @return false if there is no such strategy for this user
+     */
+    public boolean unload(Long userId, String id) {
+        StrategyInstance inst = instances.get(id);
+        if (inst == null || !inst.userId.equals(userId) || !instances.remove(id, inst)) return false;
+        boolean wasLive = inst.isLive();
+        inst.loop.post(() -> {
+            if (wasLive && inst.state == StrategyState.RUNNING) {
+                inst.loop.invoke(inst, LiveStrategy::onStop);
+            }
+            inst.state = StrategyState.STOPPED;
+            inst.loop.detach(inst);
+            inst.loop.compact(inst.definition.instrumentToken());
+            detach(inst);
+        });
+        log.info("Unloading strategy {} for user {}", id, userId);
+        return true;
+    }
+
+    public List<StrategyView> list(Long userId) {
+        List<StrategyView> out = new ArrayList<>();
+        for (StrategyInstance inst : instances.values()) {
+            if (inst.userId.equals(userId)) out.add(inst.view());
+        }
+        out.sort(Comparator.comparing(StrategyView::loadedAt));
+        return out;
+    }
+
+    public StrategyView get(Long userId, String id) {
+        StrategyInstance inst = instances.get(id);
+        return inst != null && inst.userId.equals(userId) ? inst.view() : null;
+    }
+
+    /**
+     * Mark an instance FAULTED and stop feeding it. Called on its loop thread, or by the watchdog.
+     */
+    void fault(StrategyInstance inst, String reason) {
+        synchronized (inst) {
+            if (!inst.isLive()) return;
+            inst.faultReason = reason;
+            inst.state = StrategyState.FAULTED;
+        }
+        faults.increment();
+        log.warn("Strategy {} ({} on {}) faulted: {}", inst.id, inst.definition.type(),
+                inst.definition.instrumentToken(), reason);
+        inst.loop.post(() -> inst.loop.detach(inst));
+        detach(inst);
+    }
+
+    private void detach(StrategyInstance inst) {
+        if (!inst.detached.compareAndSet(false, true)) return;
+        inst.releaseIndicators();
+        inst.forgetOrders();
+        liveByInstrument.computeIfPresent(inst.definition.instrumentToken(), (k, n) -> n > 1 ? n - 1 : null);
+        marketDataService.releaseFeed(inst.definition.instrumentToken());
+    }
+
+    private void checkForHangs() {
+        long now = System.nanoTime();
+        for (EventLoop loop : loops) {
+            StrategyInstance inst = loop.running;
+            if (inst != null && now - loop.runningSince > hangNanos && loop.running == inst) {
+                fault(inst, "Callback ran longer than " + TimeUnit.NANOSECONDS.toMillis(hangNanos) + " ms");
+                loop.replaceThread();
+            }
+        }
+    }
+
+    private EventLoop loopFor(String instrumentToken) {
+        return loops[Math.floorMod(instrumentToken.hashCode(), loops.length)];
+    }
+}
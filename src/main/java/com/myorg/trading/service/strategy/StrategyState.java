@@ -0,0 +1,5 @@
+package com.myorg.trading.service.strategy;
+
+public enum StrategyState {
+    STARTING, RUNNING, FAULTED, STOPPED
+}
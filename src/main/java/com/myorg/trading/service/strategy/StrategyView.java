@@ -0,0 +1,21 @@
+package com.myorg.trading.service.strategy;
+
+import java.time.Instant;
+
+/**
+ * Runtime status of one loaded strategy. Event timings are in microseconds.
+ */
+public record StrategyView(String id,
+                           StrategyDefinition definition,
+                           StrategyState state,
+                           String faultReason,
+                           int eventLoop,
+                           double position,
+                           long events,
+                           long errors,
+                           long budgetViolations,
+                           long ordersSent,
+                           double meanEventMicros,
+                           double maxEventMicros,
+                           Instant loadedAt) {
+}
@@ -0,0 +1,17 @@
+package com.myorg.trading.service.trading;
+
+/**
+ * A request with the same idempotency key is still being processed. The client should retry shortly
+ * and will then get the original result.
+ */
+public class IdempotencyConflictException extends RuntimeException {
+
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
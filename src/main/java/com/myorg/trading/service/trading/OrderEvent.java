@@ -0,0 +1,40 @@
+package com.myorg.trading.service.trading;
+
+import com.myorg.trading.domain.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Order lifecycle transition (PENDING -> PLACED -> FILLED / REJECTED ...).
+ * Published as a Spring application event and pushed to the owning user over STOMP (/user/queue/orders).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderEvent {
+    private Long orderId;
+    private Long userId;
+    private Long brokerAccountId;
+    private String brokerOrderId;
+    private String symbol;
+    private String side;
+    private BigDecimal quantity;
+    private BigDecimal price;
+
+    private OrderStatus previousStatus;
+    private OrderStatus status;
+
+    private BigDecimal filledQuantity;
+    private BigDecimal avgFillPrice;
+    private String message;
+    private Instant timestamp;
+
+    // Progress of an execution algo's parent order; the fills are already in its children's events
+    private boolean algoParent;
+}
@@ -0,0 +1,79 @@
+package com.myorg.trading.service.trading;
+
+import com.myorg.trading.domain.entity.Order;
+import com.myorg.trading.domain.entity.OrderStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Fans order state transitions out to in-process listeners (@EventListener OrderEvent)
+ * and to the owning user's STOMP session(s) on /user/queue/orders.
+ */
+@Slf4j
+@Component
+public class OrderEventPublisher {
+
+    public static final String USER_ORDERS_DESTINATION = "/queue/orders";
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    public OrderEventPublisher(ApplicationEventPublisher applicationEventPublisher,
+                               SimpMessagingTemplate messagingTemplate) {
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    public void publish(Order order, OrderStatus previousStatus, String message) {
+        publish(order, previousStatus, null, null, message);
+    }
+
+    public void publish(Order order, OrderStatus previousStatus,
+                        BigDecimal filledQuantity, BigDecimal avgFillPrice, String message) {
+        publish(order, previousStatus, filledQuantity, avgFillPrice, message, false);
+    }
+
+    /**
+     * Progress of an execution algo's parent order. Marked so fill listeners do not book it again on top of
+     * the child orders that actually traded.
+     */
+    public void publishAlgoParent(Order order, OrderStatus previousStatus,
+                                  BigDecimal filledQuantity, BigDecimal avgFillPrice, String message) {
+        publish(order, previousStatus, filledQuantity, avgFillPrice, message, true);
+    }
+
+    private void publish(Order order, OrderStatus previousStatus, BigDecimal filledQuantity,
+                         BigDecimal avgFillPrice, String message, boolean algoParent) {
+        OrderEvent event = OrderEvent.builder()
+                .orderId(order.getId())
+                .userId(order.getUserId())
+                .brokerAccountId(order.getBrokerAccountId())
+                .brokerOrderId(order.getBrokerOrderId())
+                .symbol(order.getSymbol())
+                .side(order.getSide())
+                .quantity(order.getQuantity())
+                .price(order.getPrice())
+                .previousStatus(previousStatus)
+                .status(order.getStatus())
+                .filledQuantity(filledQuantity)
+                .avgFillPrice(avgFillPrice)
+                .message(message)
+                .timestamp(Instant.now())
+                .algoParent(algoParent)
+                .build();
+
+        applicationEventPublisher.publishEvent(event);
+
+        try {
+            // STOMP principals are named by userId (see StompAuthChannelInterceptor)
+            messagingTemplate.convertAndSendToUser(order.getUserId().toString(), USER_ORDERS_DESTINATION, event);
+        } catch (Exception e) {
+            log.warn("Failed to push order event for order {}: {}", order.getId(), e.getMessage());
+        }
+    }
+}
@@ -7,15 +7,28 @@ import com.myorg.trading.domain.entity.Order;
 import com.myorg.trading.domain.entity.OrderStatus;
 import com.myorg.trading.domain.repository.BrokerAccountRepository;
 import com.myorg.trading.domain.repository.OrderRepository;
+import com.myorg.trading.service.risk.PreTradeRiskService;
+import com.myorg.trading.service.risk.RiskRejectedException;
+import com.myorg.trading.service.risk.RiskTicket;
+import com.myorg.trading.service.routing.BrokerHealthTracker;
+import com.myorg.trading.service.routing.SmartOrderRouter;
+import com.myorg.trading.util.IdempotencyKeyGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
-import reactor.core.publisher.Mono;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Service
@@ -24,17 +37,94 @@ public class OrderExecutionService {
     private final OrderRepository orderRepository;
     private final BrokerRegistry brokerRegistry;
     private final BrokerAccountRepository brokerAccountRepository;
+    private final OrderEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final BrokerHealthTracker healthTracker;
+    private final SmartOrderRouter smartOrderRouter;
+    private final PreTradeRiskService riskService;
+    // Resolved broker request per live order, so a modification can resend the same context
+    private final Map<Long, BrokerOrderRequest> liveRequests = new ConcurrentHashMap<>();
 
     public OrderExecutionService(OrderRepository orderRepository,
                                  BrokerRegistry brokerRegistry,
-                                 BrokerAccountRepository brokerAccountRepository) {
+                                 BrokerAccountRepository brokerAccountRepository,
+                                 OrderEventPublisher eventPublisher,
+                                 MeterRegistry meterRegistry,
+                                 BrokerHealthTracker healthTracker,
+                                 SmartOrderRouter smartOrderRouter,
+                                 PreTradeRiskService riskService) {
         this.orderRepository = orderRepository;
         this.brokerRegistry = brokerRegistry;
         this.brokerAccountRepository = brokerAccountRepository;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.healthTracker = healthTracker;
+        this.smartOrderRouter = smartOrderRouter;
+        this.riskService = riskService;
+    }
+
+    /**
+     * One placement attempt.
+     *
+     * @param failoverSafe the broker refused this account without taking the order, so another account on the
+     *                     same broker may be tried
+     */
+    private record Attempt(BrokerOrderResponse response, boolean failoverSafe) {
+    }
+
+    /**
+     * Entry point for scheduled (Quartz) executions, which carry no UI meta.
+     */
+    @Transactional
+    public void executeOrder(Long orderId) {
+        executeOrder(orderId, null, null);
+    }
+
+    /**
+     * Execute an order forwarded by the node it was placed on. Its risk reservation moves here with it, as
+     * this node (the account owner) is the one that sees its fills.
+     */
+    @Transactional
+    public void executeForwarded(Long orderId, String tradingSymbol, Map<String, Object> meta) {
+        orderRepository.findById(orderId)
+                .filter(o -> o.getStatus() == OrderStatus.PENDING)
+                .ifPresent(o -> riskService.adopt(o.getId(), o.getUserId(), o.getBrokerAccountId(), o.getSymbol(),
+                        o.getSide(), o.getQuantity(), o.getPrice()));
+        executeOrder(orderId, tradingSymbol, meta);
+    }
+
+    /**
+     * Run the full pre-trade check for a scheduled order as it fires and reserve its risk. A breach rejects
+     * the order instead of sending it.
+     *
+     * @return false if the order was rejected
+     */
+    @Transactional
+    public boolean reserveScheduled(Long orderId) {
+        Order order = orderRepository.findById(orderId).orElseThrow();
+        if (order.getStatus() != OrderStatus.PENDING) return true; // executeOrder will not send it again
+        try {
+            RiskTicket ticket = riskService.checkAndReserve(order.getUserId(), order.getBrokerAccountId(),
+                    order.getSymbol(), order.getSide(), order.getQuantity(), order.getPrice());
+            riskService.bind(ticket, orderId);
+            return true;
+        } catch (RiskRejectedException e) {
+            if (orderRepository.compareAndSetStatus(orderId, OrderStatus.PENDING, OrderStatus.REJECTED) == 1) {
+                order.setStatus(OrderStatus.REJECTED);
+                eventPublisher.publish(order, OrderStatus.PENDING, e.getMessage());
+            }
+            log.warn("Scheduled order {} rejected by risk checks: {}", orderId, e.getMessage());
+            return false;
+        }
     }
 
     @Transactional
     public void executeOrder(Long orderId, String tradingSymbol, Map<String, Object> meta) {
+        // Only one caller may send an order: a forwarded execution can race the owner node's own attempt
+        if (orderRepository.compareAndSetStatus(orderId, OrderStatus.PENDING, OrderStatus.SUBMITTING) == 0) {
+            log.warn("Order {} is no longer PENDING; not sending it again", orderId);
+            return;
+        }
         Order order = orderRepository.findById(orderId).orElseThrow();
 
         // 🌟 CRITICAL: Log what we received
@@ -46,9 +136,72 @@ public class OrderExecutionService {
         }
 
         BrokerAccount brokerAccount = brokerAccountRepository.findById(order.getBrokerAccountId()).orElseThrow();
-        String accountId = brokerAccount.getId().toString();
-        BrokerClient client = brokerRegistry.getById(brokerAccount.getBrokerId());
 
+        BrokerOrderRequest brokerReq = buildRequest(order, tradingSymbol, meta);
+
+        Timer.Sample placement = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            Attempt attempt = send(brokerAccount, brokerReq);
+            if (attempt.failoverSafe() && SmartOrderRouter.isSmart(meta)) {
+                List<Long> tried = new ArrayList<>(List.of(brokerAccount.getId()));
+                for (Long next : smartOrderRouter.failoverAccounts(order.getUserId(), brokerAccount.getBrokerId(), tried)) {
+                    BrokerAccount alt = brokerAccountRepository.findById(next).orElse(null);
+                    if (alt == null) continue;
+                    try {
+                        // The reservation follows the order; the other account must be within its own limits
+                        riskService.reroute(orderId, alt.getId());
+                    } catch (RiskRejectedException e) {
+                        log.warn("Order {} not failed over to account {}: {}", orderId, alt.getId(), e.getMessage());
+                        break;
+                    }
+                    log.warn("Order {} not accepted by {} account {} ({}); failing over to account {}", orderId,
+                            brokerAccount.getBrokerId(), brokerAccount.getId(), attempt.response().getMessage(), alt.getId());
+                    meterRegistry.counter("trading.routing.failovers", "broker", alt.getBrokerId()).increment();
+                    brokerAccount = alt;
+                    attempt = send(alt, brokerReq);
+                    if (!attempt.failoverSafe()) break;
+                    tried.add(alt.getId());
+                }
+                order.setBrokerAccountId(brokerAccount.getId());
+            }
+            BrokerOrderResponse resp = attempt.response();
+
+            OrderStatus previous = order.getStatus();
+            if (resp != null && resp.getOrderId() != null) {
+                order.setBrokerOrderId(resp.getOrderId());
+                order.setTradingSymbol((String) brokerReq.getMeta().get("tradingSymbol"));
+                order.setExchange((String) brokerReq.getMeta().get("exchange"));
+                order.setStatus(OrderStatus.PLACED);
+                order.setExecutedAt(Instant.now());
+                liveRequests.put(order.getId(), brokerReq);
+                outcome = "placed";
+                log.info("✅ Order {} executed successfully. Broker Order ID: {}", orderId, resp.getOrderId());
+            } else {
+                order.setStatus(OrderStatus.REJECTED);
+                outcome = "rejected";
+                log.error("❌ Order {} failed: {}", orderId, resp != null ? resp.getMessage() : "Unknown error");
+            }
+            orderRepository.save(order);
+            eventPublisher.publish(order, previous, resp != null ? resp.getMessage() : null);
+        } catch (Exception e) {
+            OrderStatus previous = order.getStatus();
+            order.setStatus(OrderStatus.FAILED);
+            orderRepository.save(order);
+            eventPublisher.publish(order, previous, e.getMessage());
+            log.error("❌ Order {} execution crashed", orderId, e);
+            throw e;
+        } finally {
+            // Broker round trip plus persisting the outcome, as seen by the caller
+            placement.stop(Timer.builder("trading.order.placement")
+                    .description("Order placement latency")
+                    .tag("broker", brokerAccount.getBrokerId())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private static BrokerOrderRequest buildRequest(Order order, String tradingSymbol, Map<String, Object> meta) {
         String productType = order.getProductType() != null ? order.getProductType() : "INTRADAY";
         String exchange = meta != null ? (String) meta.getOrDefault("exchange", "NSE_EQ") : "NSE_EQ";
 
@@ -61,8 +214,8 @@ public class OrderExecutionService {
         log.info("✅ Final Order Payload: symbol={}, tradingSymbol={}, exchange={}, productType={}",
                 order.getSymbol(), tradingSymbol, exchange, productType);
 
-        BrokerOrderRequest brokerReq = BrokerOrderRequest.builder()
-                .clientOrderId("client-" + order.getId())
+        return BrokerOrderRequest.builder()
+                .clientOrderId(IdempotencyKeyGenerator.brokerTag(order.getId()))
                 .symbol(order.getSymbol()) // Security ID (numeric)
                 .side(OrderSide.valueOf(order.getSide()))
                 .quantity(order.getQuantity())
@@ -71,29 +224,72 @@ public class OrderExecutionService {
                 .timeInForce(TimeInForce.GTC)
                 .meta(metaMap)
                 .build();
+    }
+
+    /**
+     * The request a live order was placed with (trading symbol, exchange and product resolved), with the
+     * order's current quantity / price / type. Rebuilt from the trading symbol and exchange stored on the
+     * order when this node did not place it or has restarted since.
+     *
+     * @throws IllegalArgumentException if the order predates stored trading symbols and this node has no
+     *         record of how it was placed
+     */
+    public BrokerOrderRequest resolvedRequest(Order order) {
+        BrokerOrderRequest base = liveRequests.get(order.getId());
+        if (base == null) {
+            if (order.getTradingSymbol() == null || order.getExchange() == null) {
+                throw new IllegalArgumentException("Order " + order.getId()
+                        + " has no recorded trading symbol or exchange; cancel it and place a new order");
+            }
+            base = buildRequest(order, order.getTradingSymbol(), Map.of("exchange", order.getExchange()));
+        }
+        return base.toBuilder()
+                .quantity(order.getQuantity())
+                .price(order.getPrice())
+                .orderType(OrderType.valueOf(order.getOrderType()))
+                .build();
+    }
+
+    /**
+     * Remember the terms a live order now stands at (after a modification).
+     */
+    public void updateResolvedRequest(Long orderId, BrokerOrderRequest request) {
+        liveRequests.put(orderId, request);
+    }
+
+    @EventListener
+    public void onOrderEvent(OrderEvent event) {
+        if (event.getStatus() != null && event.getStatus().isTerminal()) liveRequests.remove(event.getOrderId());
+    }
 
+    private Attempt send(BrokerAccount account, BrokerOrderRequest req) {
+        BrokerClient client = brokerRegistry.getById(account.getBrokerId());
+        healthTracker.recordSend(account.getBrokerId());
+        long start = System.nanoTime();
         try {
-            Mono<BrokerOrderResponse> respMono = client.placeOrder(accountId, brokerReq);
-            BrokerOrderResponse resp = respMono.onErrorResume(e -> {
-                return Mono.just(new BrokerOrderResponse(null, "REJECTED", e.getMessage(), null));
-            }).block();
+            BrokerOrderResponse resp = client.placeOrder(account.getId().toString(), req).block();
+            // A business rejection is still a broker that answered
+            healthTracker.recordSuccess(account.getBrokerId(), System.nanoTime() - start);
+            return new Attempt(resp, false);
+        } catch (RuntimeException e) {
+            Throwable error = Exceptions.unwrap(e);
+            healthTracker.recordFailure(account.getBrokerId(), System.nanoTime() - start, error);
+            return new Attempt(new BrokerOrderResponse(null, "REJECTED", error.getMessage(), null), notAccepted(error));
+        }
+    }
 
-            if (resp != null && resp.getOrderId() != null) {
-                order.setBrokerOrderId(resp.getOrderId());
-                order.setStatus(OrderStatus.PLACED);
-                order.setExecutedAt(Instant.now());
-                log.info("✅ Order {} executed successfully. Broker Order ID: {}", orderId, resp.getOrderId());
-            } else {
-                order.setStatus(OrderStatus.FAILED);
-                log.error("❌ Order {} failed: {}", orderId, resp != null ? resp.getMessage() : "Unknown error");
-            }
-            orderRepository.save(order);
-        } catch (Exception e) {
-            order.setStatus(OrderStatus.FAILED);
-            orderRepository.save(order);
-            log.error("❌ Order {} execution crashed", orderId, e);
-            throw e;
+    /**
+     * Errors where the broker refused this account without taking the order: its session was rejected or it
+     * hit its own rate limit. Timeouts and 5xx are excluded, as the order may have been placed. Broker-wide
+     * failures (open breaker, 503, connection refused) are excluded too: another account on the same broker
+     * would fail the same way.
+     */
+    private static boolean notAccepted(Throwable e) {
+        if (e instanceof WebClientResponseException w) {
+            int status = w.getStatusCode().value();
+            return status == 401 || status == 403 || status == 429;
         }
+        return false;
     }
 
     public void executeOrderAsync(Long orderId, String tradingSymbol, Map<String, Object> meta) {
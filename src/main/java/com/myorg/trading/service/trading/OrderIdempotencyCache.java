@@ -0,0 +1,123 @@
+package com.myorg.trading.service.trading;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recent (user, idempotency key) pairs and the order each one created, so a retried or double-clicked
+ * submission gets the original order back without a DB read. Entries live for the replay window.
+ *
+ * This is the fast path only: the unique (user_id, client_order_id) index on orders still rejects a
+ * duplicate that reaches another node, or arrives after a restart or eviction.
+ */
+@Component
+public class OrderIdempotencyCache {
+
+    /**
+     * The fields that make two submissions the same order, compared field by field. Quantities and prices
+     * are held without trailing zeros, so 10 and 10.00 match.
+     */
+    public record Fingerprint(Long brokerAccountId, String symbol, String side, BigDecimal quantity,
+                              BigDecimal price, String orderType, String productType) {
+    }
+
+    private static final class Entry {
+        final Fingerprint fingerprint;
+        final long createdAt;
+        volatile Long orderId; // null while the first request is in flight
+
+        Entry(Fingerprint fingerprint, long createdAt) {
+            this.fingerprint = fingerprint;
+            this.createdAt = createdAt;
+        }
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long windowMs;
+    private final int maxEntries;
+    private final Counter replays;
+
+    public OrderIdempotencyCache(MeterRegistry meterRegistry,
+                                 @Value("${app.orders.idempotency.window-ms:900000}") long windowMs,
+                                 @Value("${app.orders.idempotency.max-entries:100000}") int maxEntries) {
+        this.windowMs = windowMs;
+        this.maxEntries = maxEntries;
+        this.replays = Counter.builder("trading.orders.idempotent.replays")
+                .description("Order submissions answered with the order an earlier request created")
+                .register(meterRegistry);
+        Gauge.builder("trading.orders.idempotent.keys", entries, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Same fields, same fingerprint: what decides whether a repeat is the same order.
+     */
+    public static Fingerprint fingerprint(Long brokerAccountId, String symbol, String side, BigDecimal quantity,
+                                          BigDecimal price, String orderType, String productType) {
+        return new Fingerprint(brokerAccountId, symbol, side, strip(quantity), strip(price), orderType, productType);
+    }
+
+    private static BigDecimal strip(BigDecimal v) {
+        return v != null ? v.stripTrailingZeros() : null;
+    }
+
+    /**
+     * Claim a key before creating the order.
+     *
+     * @return the order created by an earlier request with this key, or null if the caller now owns the key
+     * @throws IllegalArgumentException if the key was used for a different order
+     * @throws IdempotencyConflictException if the earlier request is still in flight
+     */
+    public Long begin(Long userId, String key, Fingerprint fingerprint) {
+        long now = System.currentTimeMillis();
+        Entry mine = new Entry(fingerprint, now);
+        String k = userId + ":" + key;
+        Entry existing = entries.putIfAbsent(k, mine);
+        if (existing != null && now - existing.createdAt > windowMs && entries.replace(k, existing, mine)) {
+            existing = null;
+        }
+        if (existing == null) {
+            if (entries.size() > maxEntries) evictExpired();
+            return null;
+        }
+        if (!existing.fingerprint.equals(fingerprint)) {
+            throw new IllegalArgumentException("Idempotency key " + key + " was already used for a different order");
+        }
+        Long orderId = existing.orderId;
+        if (orderId == null) throw new IdempotencyConflictException("Order with idempotency key " + key + " is still being placed");
+        replays.increment();
+        return orderId;
+    }
+
+    /**
+     * Record the order for a key claimed with {@link #begin}, or one found through the unique index.
+     */
+    public void complete(Long userId, String key, Fingerprint fingerprint, Long orderId) {
+        Entry e = entries.computeIfAbsent(userId + ":" + key, k -> new Entry(fingerprint, System.currentTimeMillis()));
+        e.orderId = orderId;
+    }
+
+    /**
+     * Release a claimed key whose request failed before creating an order, so it can be retried.
+     */
+    public void abandon(Long userId, String key) {
+        entries.computeIfPresent(userId + ":" + key, (k, e) -> e.orderId == null ? null : e);
+    }
+
+    public void replayed() {
+        replays.increment();
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.idempotency.sweep-ms:60000}")
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - windowMs;
+        entries.values().removeIf(e -> e.createdAt < cutoff);
+    }
+}
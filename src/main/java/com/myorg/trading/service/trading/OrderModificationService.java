@@ -0,0 +1,302 @@
+package com.myorg.trading.service.trading;
+
+import com.myorg.trading.broker.api.BrokerCapability;
+import com.myorg.trading.broker.api.BrokerClient;
+import com.myorg.trading.broker.api.BrokerOrderRequest;
+import com.myorg.trading.broker.api.BrokerOrderResponse;
+import com.myorg.trading.broker.api.BrokerOrderStatus;
+import com.myorg.trading.broker.api.OrderType;
+import com.myorg.trading.broker.registry.BrokerRegistry;
+import com.myorg.trading.domain.entity.BrokerAccount;
+import com.myorg.trading.domain.entity.Order;
+import com.myorg.trading.domain.entity.OrderStatus;
+import com.myorg.trading.domain.repository.BrokerAccountRepository;
+import com.myorg.trading.domain.repository.OrderRepository;
+import com.myorg.trading.service.audit.AuditAction;
+import com.myorg.trading.service.audit.AuditLogWriter;
+import com.myorg.trading.service.risk.PreTradeRiskService;
+import com.myorg.trading.service.risk.RiskTicket;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Changes the quantity, price or type of a live order. Brokers with native modify (MODIFY_ORDER) amend
+ * it in one round trip. Others get a cancel-replace: cancel, confirm at the broker that the original is
+ * dead with nothing filled, then place the amended order and point the same order row at it. The
+ * replacement is only sent once the original is confirmed cancelled, so both are never working at once.
+ *
+ * Either way the order keeps its id, its risk reservation moves to the new terms, and the amended request
+ * carries the context (trading symbol, exchange, product) resolved when the order was placed.
+ */
+@Slf4j
+@Service
+public class OrderModificationService {
+
+    private static final Set<OrderStatus> MODIFIABLE = EnumSet.of(OrderStatus.PLACED, OrderStatus.PARTIALLY_FILLED);
+
+    private final OrderRepository orderRepository;
+    private final BrokerAccountRepository brokerAccountRepository;
+    private final BrokerRegistry brokerRegistry;
+    private final OrderExecutionService executionService;
+    private final OrderStatusPoller statusPoller;
+    private final OrderEventPublisher eventPublisher;
+    private final PreTradeRiskService riskService;
+    private final MeterRegistry meterRegistry;
+    private final AuditLogWriter auditLog;
+    private final int confirmAttempts;
+    private final long confirmIntervalMs;
+    private final Set<Long> inProgress = ConcurrentHashMap.newKeySet();
+
+    public OrderModificationService(OrderRepository orderRepository,
+                                    BrokerAccountRepository brokerAccountRepository,
+                                    BrokerRegistry brokerRegistry,
+                                    OrderExecutionService executionService,
+                                    OrderStatusPoller statusPoller,
+                                    OrderEventPublisher eventPublisher,
+                                    PreTradeRiskService riskService,
+                                    MeterRegistry meterRegistry,
+                                    AuditLogWriter auditLog,
+                                    @Value("${app.orders.modify.confirm-attempts:10}") int confirmAttempts,
+                                    @Value("${app.orders.modify.confirm-interval-ms:100}") long confirmIntervalMs) {
+        this.orderRepository = orderRepository;
+        this.brokerAccountRepository = brokerAccountRepository;
+        this.brokerRegistry = brokerRegistry;
+        this.executionService = executionService;
+        this.statusPoller = statusPoller;
+        this.eventPublisher = eventPublisher;
+        this.riskService = riskService;
+        this.meterRegistry = meterRegistry;
+        this.auditLog = auditLog;
+        this.confirmAttempts = Math.max(1, confirmAttempts);
+        this.confirmIntervalMs = confirmIntervalMs;
+    }
+
+    /**
+     * Amend a live order. Null arguments keep the current value; a MARKET order has no price.
+     *
+     * @return the order as it now stands
+     */
+    public Order modify(Long userId, Long orderId, BigDecimal quantity, BigDecimal price, OrderType orderType) {
+        if (quantity == null && price == null && orderType == null) {
+            throw new IllegalArgumentException("Nothing to modify: give quantity, price or orderType");
+        }
+        if (quantity != null && quantity.signum() <= 0) throw new IllegalArgumentException("quantity must be positive");
+        if (price != null && price.signum() < 0) throw new IllegalArgumentException("price must not be negative");
+
+        Order order = orderRepository.findById(orderId)
+                .filter(o -> o.getUserId().equals(userId))
+                .orElseThrow(() -> new IllegalArgumentException("Order not found"));
+        if (!inProgress.add(orderId)) {
+            throw new IdempotencyConflictException("Order " + orderId + " is already being modified");
+        }
+        try {
+            return modify(order, quantity, price, orderType);
+        } finally {
+            inProgress.remove(orderId);
+        }
+    }
+
+    /**
+     * Ask the broker to cancel a live order. The CANCELLED status arrives through the status poller once
+     * the broker confirms it, so the order returned here is usually still open.
+     */
+    public Order cancel(Long userId, Long orderId) {
+        Order order = orderRepository.findById(orderId)
+                .filter(o -> o.getUserId().equals(userId))
+                .orElseThrow(() -> new IllegalArgumentException("Order not found"));
+        if (!MODIFIABLE.contains(order.getStatus()) || order.getBrokerOrderId() == null) {
+            throw new IllegalArgumentException("Order " + orderId + " is " + order.getStatus() + " and cannot be cancelled");
+        }
+        if (!inProgress.add(orderId)) {
+            throw new IdempotencyConflictException("Order " + orderId + " is being modified");
+        }
+        try {
+            BrokerAccount account = brokerAccountRepository.findById(order.getBrokerAccountId()).orElseThrow();
+            BrokerClient client = brokerRegistry.getById(account.getBrokerId());
+            if (!client.capabilities().contains(BrokerCapability.CANCEL_ORDER)) {
+                throw new IllegalArgumentException("Broker " + account.getBrokerId() + " does not support cancel");
+            }
+            client.cancelOrder(account.getId().toString(), order.getBrokerOrderId()).block();
+            auditLog.record(userId, AuditAction.CANCEL_ORDER, AuditLogWriter.fields(
+                    "orderId", orderId,
+                    "brokerAccountId", order.getBrokerAccountId(),
+                    "brokerOrderId", order.getBrokerOrderId()));
+            log.info("Cancel requested for order {} (brokerOrderId={})", orderId, order.getBrokerOrderId());
+            return order;
+        } finally {
+            inProgress.remove(orderId);
+        }
+    }
+
+    private Order modify(Order order, BigDecimal quantity, BigDecimal price, OrderType orderType) {
+        if (!MODIFIABLE.contains(order.getStatus()) || order.getBrokerOrderId() == null) {
+            throw new IllegalArgumentException("Order " + order.getId() + " is " + order.getStatus() + " and cannot be modified");
+        }
+        OrderType type = orderType != null ? orderType : OrderType.valueOf(order.getOrderType());
+        BigDecimal qty = quantity != null ? quantity : order.getQuantity();
+        BigDecimal px = type == OrderType.MARKET ? null : (price != null ? price : order.getPrice());
+        if (type == OrderType.LIMIT && (px == null || px.signum() <= 0)) {
+            throw new IllegalArgumentException("A LIMIT order needs a positive price");
+        }
+
+        BrokerAccount account = brokerAccountRepository.findById(order.getBrokerAccountId()).orElseThrow();
+        BrokerClient client = brokerRegistry.getById(account.getBrokerId());
+        Set<BrokerCapability> caps = client.capabilities();
+        boolean inPlace = caps.contains(BrokerCapability.MODIFY_ORDER);
+        if (!inPlace && !caps.contains(BrokerCapability.CANCEL_ORDER)) {
+            throw new IllegalArgumentException("Broker " + account.getBrokerId() + " supports neither modify nor cancel");
+        }
+        if (!inPlace && order.getStatus() == OrderStatus.PARTIALLY_FILLED) {
+            // A replacement would restart the broker's fill count; cancelling the rest is the honest option
+            throw new IllegalArgumentException("Order " + order.getId() + " is partially filled and " + account.getBrokerId()
+                    + " has no native modify; cancel the remainder and place a new order");
+        }
+
+        BrokerOrderRequest amended = executionService.resolvedRequest(order).toBuilder()
+                .quantity(qty)
+                .price(px)
+                .orderType(type)
+                .build();
+        RiskTicket previousTerms = riskService.amend(order.getId(), qty, px);
+
+        String mode = inPlace ? "native" : "cancel_replace";
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        String brokerOrderId;
+        try {
+            brokerOrderId = inPlace
+                    ? modifyInPlace(client, account, order, amended)
+                    : cancelReplace(client, account, order, amended);
+            outcome = "modified";
+        } catch (IllegalArgumentException e) {
+            riskService.restore(order.getId(), previousTerms);
+            outcome = "rejected";
+            throw e;
+        } catch (RuntimeException e) {
+            riskService.restore(order.getId(), previousTerms);
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("trading.order.modify")
+                    .description("Order modification latency")
+                    .tag("broker", account.getBrokerId())
+                    .tag("mode", mode)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+
+        OrderStatus previous = order.getStatus();
+        order.setQuantity(qty);
+        order.setPrice(px);
+        order.setOrderType(type.name());
+        order.setBrokerOrderId(brokerOrderId);
+        if (!inPlace) order.setStatus(OrderStatus.PLACED);
+        orderRepository.save(order);
+        executionService.updateResolvedRequest(order.getId(), amended);
+        eventPublisher.publish(order, previous, "Modified (" + mode + ")");
+        auditLog.record(order.getUserId(), AuditAction.MODIFY_ORDER, AuditLogWriter.fields(
+                "orderId", order.getId(),
+                "mode", mode,
+                "quantity", qty,
+                "price", px,
+                "orderType", type.name(),
+                "brokerOrderId", brokerOrderId));
+        log.info("Order {} modified via {}: qty={} price={} type={} brokerOrderId={}",
+                order.getId(), mode, qty, px, type, brokerOrderId);
+        return order;
+    }
+
+    private String modifyInPlace(BrokerClient client, BrokerAccount account, Order order, BrokerOrderRequest amended) {
+        BrokerOrderResponse resp = client.modifyOrder(account.getId().toString(), order.getBrokerOrderId(), amended).block();
+        if (resp == null || "REJECTED".equalsIgnoreCase(resp.getStatus())) {
+            throw new IllegalArgumentException("Broker rejected the modification: " + (resp != null ? resp.getMessage() : "no response"));
+        }
+        // Most brokers keep the order id on modify; take a new one if the broker issued it
+        return resp.getOrderId() != null && !resp.getOrderId().isBlank() ? resp.getOrderId() : order.getBrokerOrderId();
+    }
+
+    private String cancelReplace(BrokerClient client, BrokerAccount account, Order order, BrokerOrderRequest amended) {
+        String accountId = account.getId().toString();
+        String original = order.getBrokerOrderId();
+
+        // The poller must not apply the original's CANCELLED to the order that is about to be replaced
+        statusPoller.untrack(order.getBrokerAccountId(), original);
+        BrokerOrderStatus status;
+        try {
+            client.cancelOrder(accountId, original).block();
+            status = awaitTerminal(client, accountId, original);
+        } catch (RuntimeException e) {
+            statusPoller.track(order);
+            throw e;
+        }
+
+        OrderStatus dead = status != null ? OrderStatus.fromBrokerStatus(status.getStatus()) : null;
+        boolean filled = status != null && status.getFilledQuantity() != null && status.getFilledQuantity().signum() > 0;
+        if (dead != OrderStatus.CANCELLED || filled) {
+            // Not confirmed, or it (partly) filled first: leave the original to the poller and send nothing
+            statusPoller.track(order);
+            if (dead == null) {
+                throw new IllegalStateException("Cancel of order " + order.getId() + " was not confirmed by the broker; not replaced");
+            }
+            throw new IllegalArgumentException("Order " + order.getId() + " was " + (filled ? "filled" : dead)
+                    + " before it could be replaced");
+        }
+
+        BrokerOrderResponse resp;
+        try {
+            resp = client.placeOrder(accountId, amended).block();
+        } catch (RuntimeException e) {
+            resp = new BrokerOrderResponse(null, "REJECTED", e.getMessage(), null);
+        }
+        if (resp == null || resp.getOrderId() == null || resp.getOrderId().isBlank()) {
+            String reason = resp != null ? resp.getMessage() : "no response";
+            OrderStatus previous = order.getStatus();
+            order.setStatus(OrderStatus.CANCELLED);
+            orderRepository.save(order);
+            eventPublisher.publish(order, previous, "Cancelled; replacement rejected: " + reason);
+            throw new IllegalArgumentException("Order " + order.getId() + " was cancelled but its replacement was rejected: " + reason);
+        }
+        return resp.getOrderId();
+    }
+
+    /**
+     * Poll the broker until the order reports a terminal status.
+     *
+     * @return the last status seen, or null if it never became terminal
+     */
+    private BrokerOrderStatus awaitTerminal(BrokerClient client, String accountId, String brokerOrderId) {
+        for (int attempt = 0; attempt < confirmAttempts; attempt++) {
+            if (attempt > 0) sleep(confirmIntervalMs);
+            BrokerOrderStatus st = fetchStatus(client, accountId, brokerOrderId);
+            OrderStatus mapped = st != null ? OrderStatus.fromBrokerStatus(st.getStatus()) : null;
+            if (mapped != null && mapped.isTerminal()) return st;
+        }
+        return null;
+    }
+
+    private static BrokerOrderStatus fetchStatus(BrokerClient client, String accountId, String brokerOrderId) {
+        if (client.capabilities().contains(BrokerCapability.ORDER_BOOK)) {
+            List<BrokerOrderStatus> book = client.getOrderBook(accountId).block();
+            if (book == null) return null;
+            return book.stream().filter(s -> brokerOrderId.equals(s.getOrderId())).findFirst().orElse(null);
+        }
+        return client.getOrderStatus(accountId, brokerOrderId).block();
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while confirming cancel");
+        }
+    }
+}
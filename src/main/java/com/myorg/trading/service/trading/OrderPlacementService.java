@@ -0,0 +1,174 @@
+package com.myorg.trading.service.trading;
+
+import com.myorg.trading.controller.dto.PlaceOrderRequest;
+import com.myorg.trading.domain.entity.Order;
+import com.myorg.trading.domain.entity.OrderStatus;
+import com.myorg.trading.domain.repository.OrderRepository;
+import com.myorg.trading.service.risk.PreTradeRiskService;
+import com.myorg.trading.service.risk.RiskTicket;
+import com.myorg.trading.service.routing.SmartOrderRouter;
+import com.myorg.trading.util.IdempotencyKeyGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Accepts a new order from the API: idempotency, routing, pre-trade risk, the order row, then hands it to
+ * execution (asynchronously, so the caller never waits on the broker). Blocking (JPA); reactive callers
+ * run it on a worker scheduler.
+ */
+@Slf4j
+@Service
+public class OrderPlacementService {
+
+    /**
+     * @param replayed the idempotency key had already created this order
+     */
+    public record Placement(Long orderId, boolean replayed) {
+    }
+
+    private final OrderService orderService;
+    private final OrderRepository orderRepository;
+    private final PreTradeRiskService riskService;
+    private final OrderIdempotencyCache idempotencyCache;
+    private final SmartOrderRouter smartOrderRouter;
+
+    public OrderPlacementService(OrderService orderService,
+                                 OrderRepository orderRepository,
+                                 PreTradeRiskService riskService,
+                                 OrderIdempotencyCache idempotencyCache,
+                                 SmartOrderRouter smartOrderRouter) {
+        this.orderService = orderService;
+        this.orderRepository = orderRepository;
+        this.riskService = riskService;
+        this.idempotencyCache = idempotencyCache;
+        this.smartOrderRouter = smartOrderRouter;
+    }
+
+    /**
+     * @param idempotencyKey the Idempotency-Key header; the request's clientOrderId wins when both are set
+     */
+    public Placement place(Long userId, String idempotencyKey, PlaceOrderRequest req) {
+        // 🔥 CRITICAL FIX: Extract tradingSymbol from meta before creating order
+        String tradingSymbol = req.getSymbol(); // Default to securityId
+
+        if (req.getMeta() != null && req.getMeta().containsKey("tradingSymbol")) {
+            tradingSymbol = (String) req.getMeta().get("tradingSymbol");
+            log.debug("Trading symbol from meta: {}", tradingSymbol);
+        } else {
+            log.warn("⚠️ No tradingSymbol in meta; using securityId {} as fallback", tradingSymbol);
+        }
+
+        boolean smart = SmartOrderRouter.SMART.equalsIgnoreCase(req.getRouting());
+        if (!smart && req.getRouting() != null) {
+            throw new IllegalArgumentException("Unknown routing " + req.getRouting() + "; use SMART or omit it");
+        }
+        if (!smart && req.getBrokerAccountId() == null) {
+            throw new IllegalArgumentException("brokerAccountId is required unless routing is SMART");
+        }
+
+        // Retries and double-clicks carrying the same key get the first order back (no DB read when cached)
+        String key = IdempotencyKeyGenerator.normalize(req.getClientOrderId() != null ? req.getClientOrderId() : idempotencyKey);
+        Long requestedAccount = smart ? null : req.getBrokerAccountId();
+        OrderIdempotencyCache.Fingerprint fingerprint = OrderIdempotencyCache.fingerprint(requestedAccount,
+                req.getSymbol(), req.getSide().name(), req.getQuantity(), req.getPrice(), req.getOrderType().name(),
+                req.getProductType());
+        if (key != null) {
+            Long existing = idempotencyCache.begin(userId, key, fingerprint);
+            if (existing != null) return new Placement(existing, true);
+            // Not cached here (other node, restart, eviction): check the table before reserving risk again
+            Order original;
+            try {
+                original = orderRepository.findByUserIdAndClientOrderId(userId, key).orElse(null);
+            } catch (RuntimeException e) {
+                idempotencyCache.abandon(userId, key);
+                throw e;
+            }
+            if (original != null) return replay(userId, key, fingerprint, original, smart);
+        }
+
+        Map<String, Object> meta = req.getMeta();
+        Order saved;
+        try {
+            Long accountId = req.getBrokerAccountId();
+            if (smart) {
+                accountId = smartOrderRouter.select(userId);
+                meta = meta != null ? new HashMap<>(meta) : new HashMap<>();
+                meta.put(SmartOrderRouter.ROUTING_META, SmartOrderRouter.SMART);
+            }
+
+            // Pre-trade risk: rejected here (422) before anything is written or sent to the broker
+            RiskTicket ticket = riskService.checkAndReserve(userId, accountId, req.getSymbol(),
+                    req.getSide().name(), req.getQuantity(), req.getPrice());
+
+            Order o = Order.builder()
+                    .userId(userId)
+                    .brokerAccountId(accountId)
+                    .symbol(req.getSymbol()) // Security ID (numeric)
+                    .side(req.getSide().name())
+                    .quantity(req.getQuantity())
+                    .price(req.getPrice())
+                    .orderType(req.getOrderType().name())
+                    .productType(req.getProductType())
+                    .clientOrderId(key)
+                    .status(OrderStatus.PENDING)
+                    .build();
+
+            saved = saveWithRisk(o, ticket);
+        } catch (DataIntegrityViolationException e) {
+            // Key already used on another node, or before a restart: the unique index caught it
+            Order original = key != null ? orderRepository.findByUserIdAndClientOrderId(userId, key).orElse(null) : null;
+            if (original == null) {
+                if (key != null) idempotencyCache.abandon(userId, key);
+                throw e;
+            }
+            return replay(userId, key, fingerprint, original, smart);
+        } catch (RuntimeException e) {
+            if (key != null) idempotencyCache.abandon(userId, key);
+            throw e;
+        }
+        if (key != null) idempotencyCache.complete(userId, key, fingerprint, saved.getId());
+
+        // 🌟 NEW: Pass tradingSymbol explicitly to execution service
+        orderService.placeOrderNow(saved.getId(), tradingSymbol, meta);
+        return new Placement(saved.getId(), false);
+    }
+
+    /**
+     * Create the order row under a risk reservation, releasing the reservation if the insert fails.
+     */
+    public Order saveWithRisk(Order o, RiskTicket ticket) {
+        Order saved;
+        try {
+            saved = orderService.createOrder(o);
+        } catch (RuntimeException e) {
+            riskService.release(ticket);
+            throw e;
+        }
+        riskService.bind(ticket, saved.getId());
+        return saved;
+    }
+
+    /**
+     * Answer a repeat with the order its key already created, or refuse it if that order was a different one.
+     */
+    private Placement replay(Long userId, String key, OrderIdempotencyCache.Fingerprint fingerprint,
+                             Order original, boolean smart) {
+        if (!fingerprint(original, smart).equals(fingerprint)) {
+            idempotencyCache.abandon(userId, key);
+            throw new IllegalArgumentException("Idempotency key " + key + " was already used for a different order");
+        }
+        idempotencyCache.complete(userId, key, fingerprint, original.getId());
+        idempotencyCache.replayed();
+        return new Placement(original.getId(), true);
+    }
+
+    // A SMART request named no account, so the account the router chose is not part of its identity
+    private static OrderIdempotencyCache.Fingerprint fingerprint(Order o, boolean smart) {
+        return OrderIdempotencyCache.fingerprint(smart ? null : o.getBrokerAccountId(), o.getSymbol(), o.getSide(), o.getQuantity(),
+                o.getPrice(), o.getOrderType(), o.getProductType());
+    }
+}
@@ -1,48 +1,118 @@
 package com.myorg.trading.service.trading;
 
+import com.myorg.trading.controller.dto.OrderHistoryPage;
 import com.myorg.trading.domain.entity.Order;
+import com.myorg.trading.domain.entity.OrderStatus;
 import com.myorg.trading.domain.entity.ScheduledOrder;
+import com.myorg.trading.domain.model.OrderSummary;
 import com.myorg.trading.domain.repository.OrderRepository;
 import com.myorg.trading.domain.repository.ScheduledOrderRepository;
+import com.myorg.trading.service.audit.AuditAction;
+import com.myorg.trading.service.audit.AuditLogWriter;
+import com.myorg.trading.service.cluster.ClusterOrderRouter;
 import com.myorg.trading.service.scheduling.SchedulerService;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
 
 @Service
 public class OrderService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
     private final OrderRepository orderRepository;
     private final ScheduledOrderRepository scheduledOrderRepository;
-    private final OrderExecutionService executionService;
+    private final ClusterOrderRouter orderRouter;
     private final SchedulerService schedulerService;
+    private final OrderEventPublisher eventPublisher;
+    private final AuditLogWriter auditLog;
 
     public OrderService(OrderRepository orderRepository,
                         ScheduledOrderRepository scheduledOrderRepository,
-                        OrderExecutionService executionService,
-                        SchedulerService schedulerService) {
+                        ClusterOrderRouter orderRouter,
+                        SchedulerService schedulerService,
+                        OrderEventPublisher eventPublisher,
+                        AuditLogWriter auditLog) {
         this.orderRepository = orderRepository;
         this.scheduledOrderRepository = scheduledOrderRepository;
-        this.executionService = executionService;
+        this.orderRouter = orderRouter;
         this.schedulerService = schedulerService;
+        this.eventPublisher = eventPublisher;
+        this.auditLog = auditLog;
     }
 
     public Order createOrder(Order order) {
         order.setStatus(com.myorg.trading.domain.entity.OrderStatus.PENDING);
-        return orderRepository.save(order);
+        Order saved = orderRepository.save(order);
+        eventPublisher.publish(saved, null, null);
+        auditLog.record(saved.getUserId(), AuditAction.PLACE_ORDER, AuditLogWriter.fields(
+                "orderId", saved.getId(),
+                "brokerAccountId", saved.getBrokerAccountId(),
+                "symbol", saved.getSymbol(),
+                "side", saved.getSide(),
+                "quantity", saved.getQuantity(),
+                "price", saved.getPrice(),
+                "orderType", saved.getOrderType(),
+                "productType", saved.getProductType(),
+                "clientOrderId", saved.getClientOrderId(),
+                "parentOrderId", saved.getParentOrderId()));
+        return saved;
+    }
+
+    /**
+     * Keyset-paginated order history (newest first). Filters are optional (null = no filter).
+     */
+    public OrderHistoryPage getOrderHistory(Long userId, OrderStatus status, String symbol, Long accountId,
+                                            Instant from, Instant to, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        HistoryCursor after = cursor != null && !cursor.isBlank() ? decodeCursor(cursor) : null;
+
+        // Fetch one extra row to know whether another page exists
+        List<OrderSummary> rows = orderRepository.findHistoryPage(userId, status, symbol, accountId, from, to,
+                after != null ? after.createdAt() : null, after != null ? after.id() : null, Limit.of(pageSize + 1));
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            OrderSummary last = rows.get(pageSize - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+        }
+        return new OrderHistoryPage(rows, nextCursor);
+    }
+
+    private static String encodeCursor(Instant createdAt, Long id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private record HistoryCursor(Instant createdAt, Long id) {
     }
 
-    public List<Order> getOrdersForUser(Long userId) {
-        return orderRepository.findByUserId(userId);
+    private static HistoryCursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 2);
+            if (parts.length != 2) throw new IllegalArgumentException();
+            return new HistoryCursor(Instant.parse(parts[0]), Long.valueOf(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // Tampered or truncated cursors are a bad request, not a server error
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
     }
 
     @Transactional
     public Order placeOrderNow(Long orderId, String tradingSymbol, Map<String, Object> meta) {
         Order order = orderRepository.findById(orderId).orElseThrow();
-        executionService.executeOrderAsync(order.getId(), tradingSymbol, meta);
+        orderRouter.executeAsync(order.getId(), tradingSymbol, meta);
         return order;
     }
 
@@ -0,0 +1,245 @@
+package com.myorg.trading.service.trading;
+
+import com.myorg.trading.broker.api.BrokerCapability;
+import com.myorg.trading.broker.api.BrokerClient;
+import com.myorg.trading.broker.api.BrokerOrderStatus;
+import com.myorg.trading.broker.registry.BrokerRegistry;
+import com.myorg.trading.domain.entity.BrokerAccount;
+import com.myorg.trading.domain.entity.Order;
+import com.myorg.trading.domain.entity.OrderStatus;
+import com.myorg.trading.domain.repository.BrokerAccountRepository;
+import com.myorg.trading.domain.repository.OrderRepository;
+import com.myorg.trading.service.cluster.ClusterMembership;
+import com.myorg.trading.service.cluster.ClusterMembershipChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks open (PLACED / PARTIALLY_FILLED) orders in memory and polls the brokers for their state.
+ *
+ * Polling is batched per broker account: brokers with ORDER_BOOK fetch every order of the account
+ * in one call, others fall back to one getOrderStatus per open order. The DB is only touched when
+ * an order actually changes state, and each transition is pushed to the user via OrderEventPublisher.
+ * In a cluster every node tracks every open order, but only polls the accounts it owns.
+ */
+@Slf4j
+@Component
+public class OrderStatusPoller {
+
+    private static final EnumSet<OrderStatus> OPEN_STATUSES = EnumSet.of(OrderStatus.PLACED, OrderStatus.PARTIALLY_FILLED);
+
+    private final OrderRepository orderRepository;
+    private final BrokerAccountRepository brokerAccountRepository;
+    private final BrokerRegistry brokerRegistry;
+    private final OrderEventPublisher eventPublisher;
+    private final ClusterMembership membership;
+
+    @Value("${app.orders.status-poll-timeout-ms:5000}")
+    private long pollTimeoutMs;
+
+    @Value("${app.orders.status-poll-concurrency:8}")
+    private int pollConcurrency;
+
+    // accountId -> (brokerOrderId -> tracked order)
+    private final Map<Long, Map<String, TrackedOrder>> openOrders = new ConcurrentHashMap<>();
+
+    // accountId -> brokerId (accounts don't change broker, so resolve once)
+    private final Map<Long, String> accountBrokers = new ConcurrentHashMap<>();
+
+    public OrderStatusPoller(OrderRepository orderRepository,
+                             BrokerAccountRepository brokerAccountRepository,
+                             BrokerRegistry brokerRegistry,
+                             OrderEventPublisher eventPublisher,
+                             ClusterMembership membership) {
+        this.orderRepository = orderRepository;
+        this.brokerAccountRepository = brokerAccountRepository;
+        this.brokerRegistry = brokerRegistry;
+        this.eventPublisher = eventPublisher;
+        this.membership = membership;
+    }
+
+    private static final class TrackedOrder {
+        final Long orderId;
+        volatile OrderStatus status;
+        volatile BigDecimal filledQuantity;
+
+        TrackedOrder(Long orderId, OrderStatus status) {
+            this.orderId = orderId;
+            this.status = status;
+        }
+    }
+
+    private record AccountStatuses(Long accountId, List<BrokerOrderStatus> statuses) {}
+
+    /**
+     * Re-hydrate orders that were still open when the node last stopped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOpenOrders() {
+        List<Order> open = orderRepository.findByStatusIn(OPEN_STATUSES);
+        open.forEach(this::track);
+        if (!open.isEmpty()) {
+            log.info("Tracking {} open orders for status polling", open.size());
+        }
+    }
+
+    /**
+     * Orders placed or advanced on other nodes never reach this node's OrderEvents, so rebuild from the
+     * current open set when accounts may have moved here.
+     */
+    @EventListener
+    public void onMembershipChanged(ClusterMembershipChangedEvent event) {
+        openOrders.clear();
+        loadOpenOrders();
+    }
+
+    @EventListener
+    public void onOrderEvent(OrderEvent event) {
+        if (event.getBrokerOrderId() == null || event.getBrokerAccountId() == null) return;
+
+        if (OPEN_STATUSES.contains(event.getStatus())) {
+            openOrders.computeIfAbsent(event.getBrokerAccountId(), k -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(event.getBrokerOrderId(), k -> new TrackedOrder(event.getOrderId(), event.getStatus()));
+        } else if (event.getStatus() != null && event.getStatus().isTerminal()) {
+            untrack(event.getBrokerAccountId(), event.getBrokerOrderId());
+        }
+    }
+
+    public void track(Order order) {
+        if (order.getBrokerOrderId() == null) return;
+        openOrders.computeIfAbsent(order.getBrokerAccountId(), k -> new ConcurrentHashMap<>())
+                .put(order.getBrokerOrderId(), new TrackedOrder(order.getId(), order.getStatus()));
+    }
+
+    /**
+     * Stop polling a broker order id, e.g. one about to be cancelled and replaced, so its CANCELLED
+     * status is not applied to the order.
+     */
+    public void untrack(Long accountId, String brokerOrderId) {
+        Map<String, TrackedOrder> orders = openOrders.get(accountId);
+        if (orders != null) {
+            orders.remove(brokerOrderId);
+        }
+    }
+
+    public int openOrderCount() {
+        return openOrders.values().stream().mapToInt(Map::size).sum();
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.status-poll-ms:1000}")
+    public void poll() {
+        if (openOrderCount() == 0) return;
+
+        List<AccountStatuses> results;
+        try {
+            results = Flux.fromIterable(openOrders.entrySet())
+                    .filter(e -> !e.getValue().isEmpty() && membership.isLocal(e.getKey()))
+                    .flatMap(e -> fetchStatuses(e.getKey(), e.getValue()), pollConcurrency)
+                    .collectList()
+                    // each account has its own deadline, so a slow broker only costs its own results
+                    .block();
+        } catch (Exception e) {
+            log.warn("Order status poll did not complete: {}", e.getMessage());
+            return;
+        }
+
+        // Apply on the scheduler thread: transitions hit JPA, which must not run on Netty threads
+        if (results != null) {
+            results.forEach(this::apply);
+        }
+    }
+
+    private Mono<AccountStatuses> fetchStatuses(Long accountId, Map<String, TrackedOrder> orders) {
+        String brokerId = accountBrokers.computeIfAbsent(accountId, id -> brokerAccountRepository.findById(id)
+                .map(BrokerAccount::getBrokerId)
+                .orElse(null));
+        if (brokerId == null) {
+            openOrders.remove(accountId);
+            return Mono.empty();
+        }
+
+        BrokerClient client = brokerRegistry.getById(brokerId);
+        String account = accountId.toString();
+
+        Mono<List<BrokerOrderStatus>> statuses;
+        if (client.capabilities().contains(BrokerCapability.ORDER_BOOK)) {
+            statuses = client.getOrderBook(account);
+        } else {
+            statuses = Flux.fromIterable(orders.keySet())
+                    .flatMap(id -> client.getOrderStatus(account, id).onErrorResume(e -> Mono.empty()), 4)
+                    .collectList();
+        }
+
+        return statuses
+                .timeout(Duration.ofMillis(pollTimeoutMs))
+                .map(list -> new AccountStatuses(accountId, list))
+                .onErrorResume(e -> {
+                    log.debug("Status poll failed for account {}: {}", accountId, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private void apply(AccountStatuses result) {
+        Map<String, TrackedOrder> orders = openOrders.get(result.accountId());
+        if (orders == null) return;
+
+        for (BrokerOrderStatus st : result.statuses()) {
+            TrackedOrder tracked = orders.get(st.getOrderId());
+            if (tracked == null) continue;
+
+            OrderStatus next = OrderStatus.fromBrokerStatus(st.getStatus());
+            if (next == null) continue;
+            if (next == tracked.status && Objects.equals(st.getFilledQuantity(), tracked.filledQuantity)) continue;
+
+            boolean current;
+            try {
+                current = transition(tracked, next, st);
+            } catch (Exception e) {
+                log.error("Failed to apply status {} to order {}", next, tracked.orderId, e);
+                continue;
+            }
+
+            if (!current || next.isTerminal()) {
+                orders.remove(st.getOrderId());
+            }
+        }
+    }
+
+    /**
+     * @return false if the order no longer refers to this broker order (it was cancel-replaced, possibly
+     *         on another node), in which case nothing is applied
+     */
+    private boolean transition(TrackedOrder tracked, OrderStatus next, BrokerOrderStatus st) {
+        Order order = orderRepository.findById(tracked.orderId).orElse(null);
+        if (order == null) {
+            tracked.status = OrderStatus.CANCELLED;
+            return true;
+        }
+        if (!Objects.equals(order.getBrokerOrderId(), st.getOrderId())) return false;
+
+        OrderStatus previous = order.getStatus();
+        order.setStatus(next);
+        orderRepository.save(order);
+
+        tracked.status = next;
+        tracked.filledQuantity = st.getFilledQuantity();
+
+        log.info("Order {} {} -> {}", order.getId(), previous, next);
+        eventPublisher.publish(order, previous, st.getFilledQuantity(), st.getAvgFillPrice(), null);
+        return true;
+    }
+}
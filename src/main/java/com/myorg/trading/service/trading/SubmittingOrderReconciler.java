@@ -0,0 +1,116 @@
+package com.myorg.trading.service.trading;
+
+import com.myorg.trading.broker.api.BrokerCapability;
+import com.myorg.trading.broker.api.BrokerClient;
+import com.myorg.trading.broker.api.BrokerOrderStatus;
+import com.myorg.trading.broker.registry.BrokerRegistry;
+import com.myorg.trading.domain.entity.BrokerAccount;
+import com.myorg.trading.domain.entity.Order;
+import com.myorg.trading.domain.entity.OrderStatus;
+import com.myorg.trading.domain.repository.BrokerAccountRepository;
+import com.myorg.trading.domain.repository.OrderRepository;
+import com.myorg.trading.service.cluster.ClusterMembership;
+import com.myorg.trading.util.IdempotencyKeyGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Settles orders left SUBMITTING by a node that died between claiming them and recording the broker's
+ * answer. Each is looked up by its broker tag in the account's order book: found, it becomes PLACED and
+ * the status poller takes over; missing, it is REJECTED. Brokers without an order book cannot answer, so
+ * the order is FAILED with a note to check the broker. The terminal event releases its risk reservation.
+ *
+ * Only orders claimed longer than {@code submitting-timeout-ms} ago are touched, well past any broker
+ * timeout, so a placement still in flight on a live node is left alone. Each node settles the accounts
+ * it owns.
+ */
+@Slf4j
+@Component
+public class SubmittingOrderReconciler {
+
+    private final OrderRepository orderRepository;
+    private final BrokerAccountRepository brokerAccountRepository;
+    private final BrokerRegistry brokerRegistry;
+    private final OrderEventPublisher eventPublisher;
+    private final ClusterMembership membership;
+    private final Duration timeout;
+
+    public SubmittingOrderReconciler(OrderRepository orderRepository,
+                                     BrokerAccountRepository brokerAccountRepository,
+                                     BrokerRegistry brokerRegistry,
+                                     OrderEventPublisher eventPublisher,
+                                     ClusterMembership membership,
+                                     @Value("${app.orders.submitting-timeout-ms:120000}") long timeoutMs) {
+        this.orderRepository = orderRepository;
+        this.brokerAccountRepository = brokerAccountRepository;
+        this.brokerRegistry = brokerRegistry;
+        this.eventPublisher = eventPublisher;
+        this.membership = membership;
+        this.timeout = Duration.ofMillis(timeoutMs);
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.submitting-check-ms:30000}")
+    public void reconcile() {
+        List<Order> stuck = orderRepository.findByStatusAndUpdatedAtBefore(OrderStatus.SUBMITTING,
+                Instant.now().minus(timeout));
+        Map<Long, List<Order>> byAccount = stuck.stream()
+                .filter(o -> membership.isLocal(o.getBrokerAccountId()))
+                .collect(Collectors.groupingBy(Order::getBrokerAccountId));
+        byAccount.forEach(this::reconcile);
+    }
+
+    private void reconcile(Long accountId, List<Order> orders) {
+        BrokerAccount account = brokerAccountRepository.findById(accountId).orElse(null);
+        if (account == null) return;
+        BrokerClient client = brokerRegistry.getById(account.getBrokerId());
+
+        Map<String, BrokerOrderStatus> byTag = null;
+        if (client.capabilities().contains(BrokerCapability.ORDER_BOOK)) {
+            try {
+                List<BrokerOrderStatus> book = client.getOrderBook(accountId.toString()).block(timeout);
+                byTag = new HashMap<>();
+                for (BrokerOrderStatus st : book != null ? book : List.<BrokerOrderStatus>of()) {
+                    if (st.getClientOrderId() != null) byTag.put(st.getClientOrderId(), st);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Order book of account {} unavailable; {} SUBMITTING orders wait for the next check: {}",
+                        accountId, orders.size(), e.getMessage());
+                return;
+            }
+        }
+
+        for (Order order : orders) {
+            BrokerOrderStatus found = byTag != null ? byTag.get(IdempotencyKeyGenerator.brokerTag(order.getId())) : null;
+            if (found != null) {
+                settle(order, OrderStatus.PLACED, found.getOrderId(), "Found at the broker after an interrupted placement");
+            } else if (byTag != null) {
+                settle(order, OrderStatus.REJECTED, null, "Not found at the broker after an interrupted placement");
+            } else {
+                settle(order, OrderStatus.FAILED, null,
+                        "Placement was interrupted and " + account.getBrokerId() + " has no order book; check the broker");
+            }
+        }
+    }
+
+    private void settle(Order order, OrderStatus next, String brokerOrderId, String message) {
+        // Lose quietly to a placing node that finished after all
+        if (orderRepository.compareAndSetStatus(order.getId(), OrderStatus.SUBMITTING, next) == 0) return;
+        order.setStatus(next);
+        if (brokerOrderId != null) {
+            order.setBrokerOrderId(brokerOrderId);
+            order.setExecutedAt(Instant.now());
+        }
+        orderRepository.save(order);
+        eventPublisher.publish(order, OrderStatus.SUBMITTING, message);
+        log.warn("Order {} was stuck SUBMITTING; now {}: {}", order.getId(), next, message);
+    }
+}
@@ -2,6 +2,8 @@ package com.myorg.trading.service.user;
 
 import com.myorg.trading.domain.entity.User;
 import com.myorg.trading.domain.repository.UserRepository;
+import com.myorg.trading.security.AuthenticatedUser;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
@@ -25,6 +27,15 @@ public class UserService {
         return userRepository.findByUsername(username);
     }
 
+    /**
+     * The authenticated user's id: straight from the token's principal, or resolved by username for
+     * any other UserDetails.
+     */
+    public Long getUserId(UserDetails user) {
+        if (user instanceof AuthenticatedUser au && au.getUserId() != null) return au.getUserId();
+        return getUserIdForUsername(user.getUsername());
+    }
+
     /**
      * Resolve username -> userId or throw.
      */
@@ -1,4 +1,38 @@
 package com.myorg.trading.util;
 
-public class IdempotencyKeyGenerator {
+import java.util.regex.Pattern;
+
+/**
+ * Client idempotency keys (Idempotency-Key header / clientOrderId) and the order tags we send to brokers.
+ */
+public final class IdempotencyKeyGenerator {
+
+    public static final int MAX_KEY_LENGTH = 64;
+    private static final Pattern KEY = Pattern.compile("[A-Za-z0-9._:-]+");
+
+    private IdempotencyKeyGenerator() {
+    }
+
+    /**
+     * Trimmed client key, or null when none was supplied.
+     *
+     * @throws IllegalArgumentException if the key is too long or has characters outside [A-Za-z0-9._:-]
+     */
+    public static String normalize(String key) {
+        if (key == null || key.isBlank()) return null;
+        String k = key.trim();
+        if (k.length() > MAX_KEY_LENGTH || !KEY.matcher(k).matches()) {
+            throw new IllegalArgumentException("Idempotency key must be 1-" + MAX_KEY_LENGTH
+                    + " characters of A-Z a-z 0-9 . _ : -");
+        }
+        return k;
+    }
+
+    /**
+     * Tag sent to the broker with an order. Derived from our order id rather than the client key: brokers
+     * cap tag length (Angel One at 20), and our id is already unique per order.
+     */
+    public static String brokerTag(Long orderId) {
+        return "client-" + orderId;
+    }
 }
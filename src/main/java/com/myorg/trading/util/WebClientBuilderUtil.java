@@ -1,4 +1,36 @@
 package com.myorg.trading.util;
 
-public class WebClientBuilderUtil {
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Reactor Netty client setup shared by the broker WebClient. Every limit is finite: a broker that stops
+ * answering fails calls with a timeout instead of holding connections and callers forever.
+ */
+public final class WebClientBuilderUtil {
+
+    private WebClientBuilderUtil() {
+    }
+
+    public static ConnectionProvider brokerConnectionProvider(Duration acquireTimeout) {
+        return ConnectionProvider.builder("broker-pool")
+                .maxConnections(100)
+                .pendingAcquireMaxCount(500)
+                .pendingAcquireTimeout(acquireTimeout)
+                // brokers drop idle keep-alive connections; retire ours before they do
+                .maxIdleTime(Duration.ofSeconds(30))
+                .evictInBackground(Duration.ofSeconds(60))
+                .build();
+    }
+
+    public static HttpClient brokerHttpClient(ConnectionProvider provider, int connectTimeoutMs, Duration responseTimeout) {
+        return HttpClient.create(provider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(responseTimeout)
+                .followRedirect(true)
+                .compress(true);
+    }
 }
@@ -0,0 +1,80 @@
+package com.myorg.trading.web;
+
+import com.myorg.trading.service.marketdata.MarketDataService;
+import com.myorg.trading.service.marketdata.depth.MarketDepthService;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Requests the broker feed for every STOMP subscription to an instrument's ticks or depth, and releases it
+ * on UNSUBSCRIBE or DISCONNECT, so the feed streams what browsers are watching. A SUBSCRIBE may carry an
+ * "exchange" header (NSE, NFO...) for instruments not on NSE.
+ */
+@Component
+public class FeedSubscriptionInterceptor implements ChannelInterceptor {
+
+    public static final String EXCHANGE_HEADER = "exchange";
+    private static final List<String> PREFIXES = List.of(
+            TickEncodingInterceptor.JSON_PREFIX, TickEncodingInterceptor.BINARY_PREFIX, MarketDepthService.DEPTH_TOPIC);
+    // Session attribute: subscription id -> instrument token, for subscriptions holding a feed request
+    private static final String SUBSCRIPTIONS_ATTR = "feedSubscriptions";
+
+    private final MarketDataService marketDataService;
+
+    public FeedSubscriptionInterceptor(MarketDataService marketDataService) {
+        this.marketDataService = marketDataService;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null || accessor.getSessionAttributes() == null) {
+            return message;
+        }
+        Map<String, String> subscriptions = (Map<String, String>) accessor.getSessionAttributes()
+                .computeIfAbsent(SUBSCRIPTIONS_ATTR, k -> new ConcurrentHashMap<String, String>());
+
+        switch (accessor.getCommand()) {
+            case SUBSCRIBE -> {
+                String token = instrumentOf(accessor.getDestination());
+                String id = accessor.getSubscriptionId();
+                if (token == null || id == null) return message;
+                if (subscriptions.putIfAbsent(id, token) == null) {
+                    marketDataService.requestFeed(accessor.getFirstNativeHeader(EXCHANGE_HEADER), token);
+                }
+            }
+            case UNSUBSCRIBE -> {
+                String id = accessor.getSubscriptionId();
+                if (id != null) release(subscriptions.remove(id));
+            }
+            // DISCONNECT can arrive twice (client frame, then session close); removal makes the second a no-op
+            case DISCONNECT -> subscriptions.keySet().forEach(id -> release(subscriptions.remove(id)));
+            default -> {
+            }
+        }
+        return message;
+    }
+
+    private void release(String token) {
+        if (token != null) marketDataService.releaseFeed(token);
+    }
+
+    static String instrumentOf(String destination) {
+        if (destination == null) return null;
+        for (String prefix : PREFIXES) {
+            if (destination.startsWith(prefix) && destination.length() > prefix.length()) {
+                return destination.substring(prefix.length());
+            }
+        }
+        return null;
+    }
+}
@@ -1,5 +1,8 @@
 package com.myorg.trading.web;
 
+import com.myorg.trading.broker.resilience.BrokerUnavailableException;
+import com.myorg.trading.service.risk.RiskRejectedException;
+import com.myorg.trading.service.trading.IdempotencyConflictException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -42,6 +45,23 @@ public class GlobalExceptionHandler {
                 ));
     }
 
+    @ExceptionHandler(BrokerUnavailableException.class)
+    public ResponseEntity<?> handleBrokerUnavailable(BrokerUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("error", "broker_unavailable", "broker", ex.getBrokerId(), "message", ex.getMessage()));
+    }
+
+    @ExceptionHandler(RiskRejectedException.class)
+    public ResponseEntity<?> handleRiskRejected(RiskRejectedException ex) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(Map.of("error", "risk_rejected", "reason", ex.getReason(), "message", ex.getMessage()));
+    }
+
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<?> handleIdempotencyConflict(IdempotencyConflictException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "request_in_progress", "message", ex.getMessage()));
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<?> handleBadRequest(IllegalArgumentException ex) {
         return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
@@ -1,10 +1,25 @@
 package com.myorg.trading.web;
 
 import com.myorg.trading.broker.api.MarketDataTick;
+import com.myorg.trading.service.cluster.ClusterFeedRelay;
 import com.myorg.trading.service.marketdata.MarketDataService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
 import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.annotation.SendToUser;
 import org.springframework.stereotype.Controller;
+import org.springframework.util.MimeTypeUtils;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Controller that pushes market ticks to subscribed clients.
@@ -13,12 +28,31 @@ import org.springframework.stereotype.Controller;
 @Controller
 public class MarketDataWebSocketController {
 
+    // octet-stream makes Spring send the STOMP frame as a binary WebSocket message
+    private static final Map<String, Object> BINARY_HEADERS =
+            Map.of(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_OCTET_STREAM);
+
     private final SimpMessagingTemplate messagingTemplate;
     private final MarketDataService marketDataService;
+    private final TickEncodingInterceptor tickEncoding;
+    private final WatchlistPublisher watchlistPublisher;
+    private final ClusterFeedRelay clusterFeedRelay;
+    private final Timer tickLatency;
 
-    public MarketDataWebSocketController(SimpMessagingTemplate messagingTemplate, MarketDataService marketDataService) {
+    public MarketDataWebSocketController(SimpMessagingTemplate messagingTemplate,
+                                         MarketDataService marketDataService,
+                                         TickEncodingInterceptor tickEncoding,
+                                         WatchlistPublisher watchlistPublisher,
+                                         ClusterFeedRelay clusterFeedRelay,
+                                         MeterRegistry meterRegistry) {
         this.messagingTemplate = messagingTemplate;
         this.marketDataService = marketDataService;
+        this.tickEncoding = tickEncoding;
+        this.watchlistPublisher = watchlistPublisher;
+        this.clusterFeedRelay = clusterFeedRelay;
+        this.tickLatency = Timer.builder("trading.tick.latency")
+                .description("Tick timestamp to STOMP send")
+                .register(meterRegistry);
     }
 
     /**
@@ -33,8 +67,36 @@ public class MarketDataWebSocketController {
         // echo or test endpoint
     }
 
+    /**
+     * Set this connection's watchlist: SEND to /app/watchlist with a JSON array of instrument tokens
+     * (empty to clear), then subscribe to /user/queue/watchlist for batched updates.
+     */
+    @MessageMapping("/watchlist")
+    @SendToUser(destinations = "/queue/watchlist/ack", broadcast = false)
+    public Map<String, Object> watchlist(@Payload List<String> tokens, SimpMessageHeaderAccessor accessor) {
+        Principal user = accessor.getUser();
+        int watching = watchlistPublisher.register(accessor.getSessionId(), user != null ? user.getName() : null,
+                TickEncodingInterceptor.isBinary(accessor.getSessionAttributes()), tokens);
+        return Map.of("symbols", watching);
+    }
+
+    @MessageExceptionHandler(IllegalArgumentException.class)
+    @SendToUser(destinations = "/queue/errors", broadcast = false)
+    public Map<String, String> handleInvalid(IllegalArgumentException e) {
+        return Map.of("error", e.getMessage());
+    }
+
     // Helper method adapters can call to broadcast a tick:
     public void broadcastTick(String instrumentToken, MarketDataTick tick) {
-        messagingTemplate.convertAndSend("/topic/market/" + instrumentToken, tick);
+        messagingTemplate.convertAndSend(TickEncodingInterceptor.JSON_PREFIX + instrumentToken, tick);
+        // Binary subscribers on other nodes are not counted here, so a relayed cluster always encodes
+        if (clusterFeedRelay.isEnabled() || tickEncoding.hasBinarySubscribers(instrumentToken)) {
+            messagingTemplate.convertAndSend(TickEncodingInterceptor.BINARY_PREFIX + instrumentToken,
+                    TickFrameCodec.encode(tick), BINARY_HEADERS);
+        }
+        clusterFeedRelay.publishTick(instrumentToken, tick);
+        // Exchange timestamp when the feed carries one, otherwise the time the adapter decoded the tick
+        Instant ts = tick.getTimestamp();
+        if (ts != null) tickLatency.record(Duration.between(ts, Instant.now()));
     }
 }
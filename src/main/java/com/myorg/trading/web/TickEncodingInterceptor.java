@@ -0,0 +1,91 @@
+package com.myorg.trading.web;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Negotiates the tick encoding per STOMP connection. A client that sends "tick-encoding: binary" on
+ * CONNECT has its /topic/market/{token} subscriptions rewritten to /topic/market-bin/{token}, which
+ * carries {@link TickFrameCodec} frames. Other clients are untouched and keep receiving JSON.
+ *
+ * Binary subscriptions are counted per instrument so ticks are only encoded for instruments that
+ * someone is watching in binary.
+ */
+@Component
+public class TickEncodingInterceptor implements ChannelInterceptor {
+
+    public static final String ENCODING_HEADER = "tick-encoding";
+    public static final String JSON_PREFIX = "/topic/market/";
+    public static final String BINARY_PREFIX = "/topic/market-bin/";
+    // Session attribute: subscription id -> instrument token, present only on binary sessions
+    private static final String SUBSCRIPTIONS_ATTR = "binaryTickSubscriptions";
+
+    private final Map<String, AtomicInteger> binarySubscribers = new ConcurrentHashMap<>();
+
+    public boolean hasBinarySubscribers(String instrumentToken) {
+        return binarySubscribers.containsKey(instrumentToken);
+    }
+
+    /**
+     * Whether the connection owning these session attributes negotiated binary ticks on CONNECT.
+     */
+    public static boolean isBinary(Map<String, Object> sessionAttributes) {
+        return sessionAttributes != null && sessionAttributes.containsKey(SUBSCRIPTIONS_ATTR);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null || accessor.getSessionAttributes() == null) {
+            return message;
+        }
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        StompCommand command = accessor.getCommand();
+
+        if (command == StompCommand.CONNECT) {
+            if ("binary".equalsIgnoreCase(accessor.getFirstNativeHeader(ENCODING_HEADER))) {
+                attributes.put(SUBSCRIPTIONS_ATTR, new ConcurrentHashMap<String, String>());
+            }
+            return message;
+        }
+
+        Map<String, String> subscriptions = (Map<String, String>) attributes.get(SUBSCRIPTIONS_ATTR);
+        if (subscriptions == null) return message;
+
+        switch (command) {
+            case SUBSCRIBE -> {
+                String destination = accessor.getDestination();
+                if (destination == null || !destination.startsWith(JSON_PREFIX)) return message;
+                String token = destination.substring(JSON_PREFIX.length());
+                if (subscriptions.put(accessor.getSubscriptionId(), token) == null) {
+                    binarySubscribers.computeIfAbsent(token, k -> new AtomicInteger()).incrementAndGet();
+                }
+                StompHeaderAccessor rewritten = StompHeaderAccessor.wrap(message);
+                rewritten.setDestination(BINARY_PREFIX + token);
+                return MessageBuilder.createMessage(message.getPayload(), rewritten.getMessageHeaders());
+            }
+            case UNSUBSCRIBE -> release(subscriptions.remove(accessor.getSubscriptionId()));
+            // DISCONNECT can arrive twice (client frame, then session close); removal makes the second a no-op
+            case DISCONNECT -> subscriptions.keySet().forEach(id -> release(subscriptions.remove(id)));
+            default -> {
+            }
+        }
+        return message;
+    }
+
+    private void release(String token) {
+        if (token == null) return;
+        binarySubscribers.computeIfPresent(token, (k, n) -> n.decrementAndGet() > 0 ? n : null);
+    }
+}
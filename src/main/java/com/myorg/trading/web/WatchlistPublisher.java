@@ -0,0 +1,228 @@
+package com.myorg.trading.web;
+
+import com.myorg.trading.broker.api.MarketDataTick;
+import com.myorg.trading.service.marketdata.MarketDataService;
+import com.myorg.trading.service.marketdata.TickListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-connection watchlists. Instead of one /topic/market/{token} subscription per symbol, a client sends
+ * its symbol set to /app/watchlist. It then gets one frame per flush interval on /user/queue/watchlist,
+ * holding the latest tick of every symbol that changed since the previous frame. The frame is a
+ * token-to-tick JSON map, or a {@link TickFrameCodec} batch if the connection negotiated binary ticks.
+ *
+ * The feed thread only records the latest tick and marks watching sessions dirty. Each session's dirty
+ * set is bounded by its symbol count, so a slow flush coalesces ticks rather than queueing them.
+ *
+ * Each watched symbol holds one broker feed request (on NSE, as watchlists carry bare tokens) until its
+ * last watcher leaves.
+ */
+@Slf4j
+@Component
+public class WatchlistPublisher implements TickListener {
+
+    public static final String WATCHLIST_DESTINATION = "/queue/watchlist";
+    private static final int MAX_TOKEN_LENGTH = 64;
+
+    private final SimpMessagingTemplate messagingTemplate;
+    // Provider: MarketDataService is built with the tick listeners, this one included
+    private final ObjectProvider<MarketDataService> marketDataService;
+    private final int maxSymbols;
+    private final int maxSessionsPerUser;
+    private final int maxSessions;
+    private final Map<String, Watched> watched = new ConcurrentHashMap<>();
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final Counter frames;
+
+    public WatchlistPublisher(SimpMessagingTemplate messagingTemplate,
+                              ObjectProvider<MarketDataService> marketDataService,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.watchlist.max-symbols:500}") int maxSymbols,
+                              @Value("${app.watchlist.max-sessions-per-user:5}") int maxSessionsPerUser,
+                              @Value("${app.watchlist.max-sessions:10000}") int maxSessions) {
+        this.messagingTemplate = messagingTemplate;
+        this.marketDataService = marketDataService;
+        this.maxSymbols = maxSymbols;
+        this.maxSessionsPerUser = maxSessionsPerUser;
+        this.maxSessions = maxSessions;
+        this.frames = Counter.builder("trading.watchlist.frames")
+                .description("Batched watchlist frames sent")
+                .register(meterRegistry);
+        Gauge.builder("trading.watchlist.sessions", sessions, Map::size)
+                .description("Connections with a registered watchlist")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onTick(String instrumentToken, MarketDataTick tick) {
+        Watched w = watched.get(instrumentToken);
+        if (w == null) return;
+        w.last = tick;
+        for (Session s : w.watchers) s.dirty.add(w);
+    }
+
+    /**
+     * Replace the watchlist of a connection; an empty set removes it. The next frame carries the last
+     * known tick of every symbol in the new set.
+     *
+     * @param user principal name, or null for an anonymous connection
+     * @return number of symbols now watched
+     */
+    public synchronized int register(String sessionId, String user, boolean binary, Collection<String> tokens) {
+        Set<String> distinct = new LinkedHashSet<>(tokens);
+        if (distinct.size() > maxSymbols) {
+            throw new IllegalArgumentException("At most " + maxSymbols + " symbols per watchlist");
+        }
+        for (String token : distinct) {
+            if (token == null || token.isBlank() || token.length() > MAX_TOKEN_LENGTH
+                    || !token.chars().allMatch(c -> c > ' ' && c < 127)) {
+                throw new IllegalArgumentException("Invalid instrument token: " + token);
+            }
+        }
+
+        Session previous = sessions.get(sessionId);
+        if (previous == null && !distinct.isEmpty()) {
+            if (sessions.size() >= maxSessions) {
+                throw new IllegalArgumentException("Too many watchlist connections");
+            }
+            if (user != null && sessions.values().stream().filter(s -> user.equals(s.user)).count() >= maxSessionsPerUser) {
+                throw new IllegalArgumentException("At most " + maxSessionsPerUser + " watchlist connections per user");
+            }
+        }
+        if (previous != null) {
+            sessions.remove(sessionId);
+            detach(previous);
+        }
+        if (distinct.isEmpty()) return 0;
+
+        Session session = new Session(sessionId, user, binary, distinct.size());
+        for (String token : distinct) {
+            Watched w = watched.get(token);
+            if (w == null) {
+                MarketDataService feed = marketDataService.getObject();
+                w = new Watched(token, feed.lastTick(token));
+                watched.put(token, w);
+                feed.requestFeed(null, token);
+            }
+            Session[] watchers = Arrays.copyOf(w.watchers, w.watchers.length + 1);
+            watchers[watchers.length - 1] = session;
+            w.watchers = watchers;
+            session.entries.add(w);
+            if (w.last != null) session.dirty.add(w);
+        }
+        sessions.put(sessionId, session);
+        return distinct.size();
+    }
+
+    public synchronized void unregister(String sessionId) {
+        Session session = sessions.remove(sessionId);
+        if (session != null) detach(session);
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        unregister(event.getSessionId());
+    }
+
+    private void detach(Session session) {
+        for (Watched w : session.entries) {
+            w.watchers = Arrays.stream(w.watchers).filter(s -> s != session).toArray(Session[]::new);
+            if (w.watchers.length == 0 && watched.remove(w.token, w)) {
+                marketDataService.getObject().releaseFeed(w.token);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.watchlist.flush-ms:250}")
+    public void flush() {
+        for (Session s : sessions.values()) {
+            if (s.dirty.isEmpty()) continue;
+            int n = 0;
+            for (Iterator<Watched> it = s.dirty.iterator(); it.hasNext() && n < s.tokens.length; ) {
+                Watched w = it.next();
+                it.remove();
+                s.tokens[n] = w.token;
+                s.ticks[n] = w.last;
+                n++;
+            }
+            if (n > 0) send(s, n);
+        }
+    }
+
+    private void send(Session s, int n) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        // Addressed by session id so it reaches this connection only, anonymous or not
+        headers.setSessionId(s.id);
+        headers.setLeaveMutable(true);
+        Object payload;
+        if (s.binary) {
+            headers.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+            payload = TickFrameCodec.encodeBatch(s.tokens, s.ticks, n);
+        } else {
+            Map<String, MarketDataTick> batch = new LinkedHashMap<>(n * 2);
+            for (int i = 0; i < n; i++) batch.put(s.tokens[i], s.ticks[i]);
+            payload = batch;
+        }
+        try {
+            messagingTemplate.convertAndSendToUser(s.id, WATCHLIST_DESTINATION, payload, headers.getMessageHeaders());
+            frames.increment();
+        } catch (Exception e) {
+            log.warn("Failed to push watchlist frame to session {}: {}", s.id, e.getMessage());
+        }
+    }
+
+    private static final class Watched {
+        final String token;
+        volatile MarketDataTick last;
+        volatile Session[] watchers = new Session[0];
+
+        Watched(String token, MarketDataTick last) {
+            this.token = token;
+            this.last = last;
+        }
+    }
+
+    private static final class Session {
+        final String id;
+        final String user;
+        final boolean binary;
+        final List<Watched> entries;
+        final Set<Watched> dirty = ConcurrentHashMap.newKeySet();
+        // Flush scratch, reused every frame (flush is single-threaded)
+        final String[] tokens;
+        final MarketDataTick[] ticks;
+
+        Session(String id, String user, boolean binary, int size) {
+            this.id = id;
+            this.user = user;
+            this.binary = binary;
+            this.entries = new ArrayList<>(size);
+            this.tokens = new String[size];
+            this.ticks = new MarketDataTick[size];
+        }
+    }
+}
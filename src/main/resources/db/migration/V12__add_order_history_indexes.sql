@@ -0,0 +1,40 @@
+-- V12__add_order_history_indexes.sql
+-- Composite indexes backing keyset-paginated order history:
+--   (user_id, created_at)        -> per-user history ordered by time (InnoDB appends id, so the keyset tie-break is covered)
+--   (broker_account_id, status)  -> per-account filters and open-order lookups by the status poller
+
+-- idx_orders_user_created (skip if it already exists, e.g. created by Hibernate ddl-auto)
+SET @idx_exists = (
+    SELECT COUNT(*)
+    FROM INFORMATION_SCHEMA.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'orders'
+      AND INDEX_NAME = 'idx_orders_user_created'
+);
+
+SET @sql = IF(@idx_exists = 0,
+              'CREATE INDEX idx_orders_user_created ON orders (user_id, created_at)',
+              'SELECT ''Index idx_orders_user_created already exists'' AS message'
+           );
+
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- idx_orders_account_status
+SET @idx_exists = (
+    SELECT COUNT(*)
+    FROM INFORMATION_SCHEMA.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'orders'
+      AND INDEX_NAME = 'idx_orders_account_status'
+);
+
+SET @sql = IF(@idx_exists = 0,
+              'CREATE INDEX idx_orders_account_status ON orders (broker_account_id, status)',
+              'SELECT ''Index idx_orders_account_status already exists'' AS message'
+           );
+
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,10 @@
+-- V13__create_feed_leases.sql
+-- Leader lease per broker feed: the node named in owner ingests the feed until expires_at.
+-- Renewed by FeedLeaderElection; times are database time so node clocks do not matter.
+
+CREATE TABLE IF NOT EXISTS feed_leases (
+    feed       VARCHAR(64)  NOT NULL PRIMARY KEY,
+    owner      VARCHAR(128) NOT NULL,
+    expires_at DATETIME(3)  NOT NULL,
+    renewed_at DATETIME(3)  NOT NULL
+) ENGINE = InnoDB;
@@ -0,0 +1,11 @@
+-- V14__create_cluster_nodes.sql
+-- Cluster membership: every node upserts its row each heartbeat. Nodes whose heartbeat is older than the
+-- node timeout are treated as gone and their broker accounts move to the survivors.
+
+CREATE TABLE IF NOT EXISTS cluster_nodes (
+    node_id      VARCHAR(128) NOT NULL PRIMARY KEY,
+    endpoint     VARCHAR(255) NOT NULL,
+    started_at   DATETIME(3)  NOT NULL,
+    heartbeat_at DATETIME(3)  NOT NULL,
+    INDEX idx_cluster_nodes_heartbeat (heartbeat_at)
+) ENGINE = InnoDB;
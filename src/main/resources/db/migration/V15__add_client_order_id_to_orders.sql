@@ -0,0 +1,38 @@
+-- V15__add_client_order_id_to_orders.sql
+-- Client idempotency key per order. The unique index is the backstop behind the in-memory replay cache:
+-- a repeated key for the same user fails the insert and the original order is returned instead.
+-- (MySQL unique indexes allow any number of NULLs, so orders without a key are unaffected.)
+
+SET @col_exists = (
+    SELECT COUNT(*)
+    FROM INFORMATION_SCHEMA.COLUMNS
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'orders'
+      AND COLUMN_NAME = 'client_order_id'
+);
+
+SET @sql = IF(@col_exists = 0,
+              'ALTER TABLE orders ADD COLUMN client_order_id VARCHAR(64) NULL',
+              'SELECT ''Column client_order_id already exists'' AS message'
+           );
+
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @idx_exists = (
+    SELECT COUNT(*)
+    FROM INFORMATION_SCHEMA.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'orders'
+      AND INDEX_NAME = 'uq_orders_user_client_order'
+);
+
+SET @sql = IF(@idx_exists = 0,
+              'CREATE UNIQUE INDEX uq_orders_user_client_order ON orders (user_id, client_order_id)',
+              'SELECT ''Index uq_orders_user_client_order already exists'' AS message'
+           );
+
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
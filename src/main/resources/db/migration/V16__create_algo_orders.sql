@@ -0,0 +1,50 @@
+-- V16__create_algo_orders.sql
+-- Execution algos: a parent order is worked as child orders that point back at it, and the algo's
+-- progress is checkpointed to algo_orders every few seconds so a restart can resume it.
+
+SET @col_exists = (
+    SELECT COUNT(*)
+    FROM INFORMATION_SCHEMA.COLUMNS
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'orders'
+      AND COLUMN_NAME = 'parent_order_id'
+);
+
+SET @sql = IF(@col_exists = 0,
+              'ALTER TABLE orders ADD COLUMN parent_order_id BIGINT NULL',
+              'SELECT ''Column parent_order_id already exists'' AS message'
+           );
+
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @idx_exists = (
+    SELECT COUNT(*)
+    FROM INFORMATION_SCHEMA.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'orders'
+      AND INDEX_NAME = 'idx_orders_parent'
+);
+
+SET @sql = IF(@idx_exists = 0,
+              'CREATE INDEX idx_orders_parent ON orders (parent_order_id)',
+              'SELECT ''Index idx_orders_parent already exists'' AS message'
+           );
+
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+CREATE TABLE IF NOT EXISTS algo_orders (
+    parent_order_id   BIGINT       NOT NULL PRIMARY KEY,
+    user_id           BIGINT       NOT NULL,
+    broker_account_id BIGINT       NOT NULL,
+    algo_type         VARCHAR(16)  NOT NULL,
+    status            VARCHAR(16)  NOT NULL,
+    snapshot          TEXT         NOT NULL,
+    created_at        DATETIME(6)  NULL,
+    updated_at        DATETIME(6)  NULL,
+    INDEX idx_algo_orders_status (status),
+    INDEX idx_algo_orders_user (user_id)
+) ENGINE = InnoDB;
@@ -0,0 +1,13 @@
+-- V17__create_feed_credentials.sql
+-- Latest broker feed login per client, shared by all nodes so whichever node wins the feed lease can
+-- open the socket. credentials_encrypted is AES-GCM (app.crypto.key), like broker_accounts.
+-- Rows are only read until expires_at, when the broker session itself ends.
+
+CREATE TABLE IF NOT EXISTS feed_credentials (
+    feed                  VARCHAR(64)  NOT NULL,
+    client_code           VARCHAR(64)  NOT NULL,
+    credentials_encrypted TEXT         NOT NULL,
+    expires_at            DATETIME(3)  NOT NULL,
+    updated_at            DATETIME(3)  NOT NULL,
+    PRIMARY KEY (feed, client_code)
+) ENGINE = InnoDB;
@@ -0,0 +1,20 @@
+-- V18__add_cancel_requested_to_algo_orders.sql
+-- A cancel that reaches a node not running the algo is flagged here; the owner node stops the algo on
+-- its next checkpoint. Not mapped on the entity, so checkpoints never clear it.
+
+SET @col_exists = (
+    SELECT COUNT(*)
+    FROM INFORMATION_SCHEMA.COLUMNS
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'algo_orders'
+      AND COLUMN_NAME = 'cancel_requested'
+);
+
+SET @sql = IF(@col_exists = 0,
+              'ALTER TABLE algo_orders ADD COLUMN cancel_requested BOOLEAN NOT NULL DEFAULT FALSE',
+              'SELECT ''Column cancel_requested already exists'' AS message'
+           );
+
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,22 @@
+-- V19__widen_order_status.sql
+-- Hibernate creates an @Enumerated(STRING) column as a MySQL ENUM of the values it knew at the time, and
+-- ddl-auto=update never alters it, so new statuses (SUBMITTING, WORKING) would be rejected on insert.
+-- Store the status as plain text instead.
+
+SET @is_enum = (
+    SELECT COUNT(*)
+    FROM INFORMATION_SCHEMA.COLUMNS
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'orders'
+      AND COLUMN_NAME = 'status'
+      AND DATA_TYPE = 'enum'
+);
+
+SET @sql = IF(@is_enum > 0,
+              'ALTER TABLE orders MODIFY COLUMN status VARCHAR(30)',
+              'SELECT ''Column orders.status is not an ENUM'' AS message'
+           );
+
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
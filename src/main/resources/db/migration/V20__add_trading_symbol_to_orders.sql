@@ -0,0 +1,20 @@
+-- V20__add_trading_symbol_to_orders.sql
+-- The broker-facing trading symbol and exchange an order was placed with. A modification on a node that
+-- did not place the order (or after a restart) resends them instead of guessing.
+
+SET @col_exists = (
+    SELECT COUNT(*)
+    FROM INFORMATION_SCHEMA.COLUMNS
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'orders'
+      AND COLUMN_NAME = 'trading_symbol'
+);
+
+SET @sql = IF(@col_exists = 0,
+              'ALTER TABLE orders ADD COLUMN trading_symbol VARCHAR(64) NULL, ADD COLUMN exchange VARCHAR(16) NULL',
+              'SELECT ''Column trading_symbol already exists'' AS message'
+           );
+
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
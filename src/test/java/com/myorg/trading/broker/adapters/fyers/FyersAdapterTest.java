@@ -0,0 +1,98 @@
+package com.myorg.trading.broker.adapters.fyers;
+
+import com.myorg.trading.broker.api.BrokerOrderRequest;
+import com.myorg.trading.broker.api.BrokerOrderResponse;
+import com.myorg.trading.broker.api.OrderSide;
+import com.myorg.trading.broker.api.OrderType;
+import com.myorg.trading.broker.resilience.BrokerResilience;
+import com.myorg.trading.broker.token.InMemoryTokenStore;
+import com.myorg.trading.config.BrokerHttpMetricsFilter;
+import com.myorg.trading.config.properties.BrokerResilienceProperties;
+import com.myorg.trading.config.properties.FyersProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Account-aware sessions: cancel and modify go out with the token of the account that owns the order.
+ */
+class FyersAdapterTest {
+
+    private final List<ClientRequest> sent = new ArrayList<>();
+    private final InMemoryTokenStore<FyersAuthResponse> tokens = new InMemoryTokenStore<>();
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    private FyersAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        FyersProperties props = new FyersProperties();
+        props.setBaseUrl("http://fyers.test");
+        props.setApiKey("app-1");
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+            sent.add(request);
+            String body = request.url().getPath().equals(props.getAuthPath())
+                    ? "{\"access_token\":\"fresh\",\"expires_in\":3600}"
+                    : "{\"id\":\"F-1\",\"status\":\"ok\"}";
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body(body)
+                    .build());
+        });
+        adapter = new FyersAdapter(builder, new BrokerHttpMetricsFilter(meters), props, tokens,
+                new BrokerResilience(new BrokerResilienceProperties(), new SimpleMeterRegistry()));
+        tokens.saveToken("7", new FyersAuthResponse("tok-7", null, 3600L, "Bearer", null)).block();
+        tokens.saveToken("8", new FyersAuthResponse("tok-8", null, 3600L, "Bearer", null)).block();
+    }
+
+    @Test
+    void modifyUsesTheAccountsOwnSession() {
+        BrokerOrderResponse resp = adapter.modifyOrder("7", "F-1", amended()).block();
+
+        assertThat(resp.getOrderId()).isEqualTo("F-1");
+        assertThat(sent).hasSize(1);
+        assertThat(sent.get(0).headers().getFirst(HttpHeaders.AUTHORIZATION)).isEqualTo("Bearer tok-7");
+        assertThat(meters.find("broker.http.client").tag("method", "PATCH").timer()).isNotNull();
+    }
+
+    @Test
+    void cancelUsesTheAccountsOwnSession() {
+        adapter.cancelOrder("8", "F-2").block();
+
+        assertThat(sent).hasSize(1);
+        assertThat(sent.get(0).headers().getFirst(HttpHeaders.AUTHORIZATION)).isEqualTo("Bearer tok-8");
+    }
+
+    @Test
+    void accountWithoutASessionLogsInAndKeepsItsToken() {
+        adapter.cancelOrder("9", "F-3").block();
+        adapter.cancelOrder("9", "F-4").block();
+
+        assertThat(sent).extracting(r -> r.url().getPath())
+                .containsExactly("/api/v2/generate-token", "/api/v2/orders/cancel", "/api/v2/orders/cancel");
+        assertThat(sent.get(2).headers().getFirst(HttpHeaders.AUTHORIZATION)).isEqualTo("Bearer fresh");
+        assertThat(tokens.getToken("9").block().getAccessToken()).isEqualTo("fresh");
+    }
+
+    private static BrokerOrderRequest amended() {
+        return BrokerOrderRequest.builder()
+                .symbol("2885")
+                .side(OrderSide.BUY)
+                .quantity(BigDecimal.TEN)
+                .price(new BigDecimal("2500"))
+                .orderType(OrderType.LIMIT)
+                .build();
+    }
+}
@@ -0,0 +1,84 @@
+package com.myorg.trading.broker.resilience;
+
+import com.myorg.trading.config.properties.BrokerResilienceProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Which broker errors trip the shared per-endpoint breaker and which are retried.
+ */
+class BrokerResilienceTest {
+
+    private BrokerResilience resilience;
+
+    @BeforeEach
+    void setUp() {
+        BrokerResilienceProperties props = new BrokerResilienceProperties();
+        props.getBreaker().setMinCalls(4);
+        props.getHedge().setEnabled(false);
+        props.getRetry().setBackoffMs(1);
+        props.getRetry().setMaxBackoffMs(1);
+        resilience = new BrokerResilience(props, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void throttledAccountDoesNotOpenTheBreakerForTheOthers() {
+        for (int i = 0; i < 10; i++) {
+            assertThatThrownBy(() -> resilience.guard("dhan", "placeOrder", BrokerResilience.Kind.WRITE,
+                    () -> Mono.error(status(HttpStatus.TOO_MANY_REQUESTS))).block())
+                    .isInstanceOf(WebClientResponseException.class);
+        }
+
+        String other = resilience.guard("dhan", "placeOrder", BrokerResilience.Kind.WRITE, () -> Mono.just("ok")).block();
+
+        assertThat(other).isEqualTo("ok");
+    }
+
+    @Test
+    void serverErrorsOpenTheBreaker() {
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> resilience.guard("dhan", "placeOrder", BrokerResilience.Kind.WRITE,
+                    () -> Mono.error(status(HttpStatus.BAD_GATEWAY))).block())
+                    .isInstanceOf(WebClientResponseException.class);
+        }
+
+        assertThatThrownBy(() -> resilience.guard("dhan", "placeOrder", BrokerResilience.Kind.WRITE,
+                () -> Mono.just("ok")).block())
+                .isInstanceOf(BrokerUnavailableException.class);
+    }
+
+    @Test
+    void throttledReadIsRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = resilience.guard("dhan", "positions", BrokerResilience.Kind.READ, () ->
+                attempts.incrementAndGet() == 1 ? Mono.error(status(HttpStatus.TOO_MANY_REQUESTS)) : Mono.just("ok"))
+                .block();
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(attempts).hasValue(2);
+    }
+
+    @Test
+    void clientErrorsAreNeitherFaultsNorRetried() {
+        WebClientResponseException badRequest = status(HttpStatus.BAD_REQUEST);
+
+        assertThat(BrokerResilience.isBrokerFault(badRequest)).isFalse();
+        assertThat(BrokerResilience.isRetryable(badRequest)).isFalse();
+        assertThat(BrokerResilience.isBrokerFault(status(HttpStatus.TOO_MANY_REQUESTS))).isFalse();
+        assertThat(BrokerResilience.isRetryable(status(HttpStatus.TOO_MANY_REQUESTS))).isTrue();
+    }
+
+    private static WebClientResponseException status(HttpStatus status) {
+        return WebClientResponseException.create(status.value(), status.getReasonPhrase(), null, null, null);
+    }
+}
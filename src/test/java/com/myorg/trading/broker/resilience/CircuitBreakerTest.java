@@ -0,0 +1,133 @@
+package com.myorg.trading.broker.resilience;
+
+import com.myorg.trading.config.properties.BrokerResilienceProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Breaker state machine, driven with explicit clock readings.
+ */
+class CircuitBreakerTest {
+
+    private static final long MS = 1_000_000L;
+    private static final long FAST = 10 * MS;
+    private static final long SLOW = 500 * MS;
+
+    private CircuitBreaker breaker;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        BrokerResilienceProperties.Breaker config = new BrokerResilienceProperties.Breaker();
+        config.setWindow(10);
+        config.setMinCalls(4);
+        config.setFailureRatio(0.5);
+        config.setSlowCallMs(100);
+        config.setOpenMs(1000);
+        config.setHalfOpenCalls(2);
+        breaker = new CircuitBreaker(config);
+        now = 0;
+    }
+
+    @Test
+    void opensOnceTheFailureRatioIsReachedAndFailsFast() {
+        call(FAST, false);
+        call(FAST, false);
+        call(FAST, true);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        call(FAST, true);
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire(now + 999 * MS)).isFalse();
+    }
+
+    @Test
+    void staysClosedBelowMinCallsHoweverBadTheyAre() {
+        call(FAST, true);
+        call(FAST, true);
+        call(FAST, true);
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire(now)).isTrue();
+    }
+
+    @Test
+    void slowCallsOpenItLikeFailures() {
+        call(SLOW, false);
+        call(SLOW, false);
+        call(FAST, false);
+        call(FAST, false);
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void halfOpenLetsTrialsThroughAndClosesWhenTheyAllPass() {
+        tripOpen();
+        now += 1000 * MS;
+
+        assertThat(breaker.tryAcquire(now)).isTrue();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire(now)).isTrue();
+        assertThat(breaker.tryAcquire(now)).as("only halfOpenCalls trials").isFalse();
+
+        breaker.record(FAST, false, now);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        breaker.record(FAST, false, now);
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        // Closed with a fresh window: the failures that opened it are forgotten
+        call(FAST, true);
+        call(FAST, false);
+        call(FAST, false);
+        call(FAST, false);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void badTrialReopensIt() {
+        tripOpen();
+        now += 1000 * MS;
+        assertThat(breaker.tryAcquire(now)).isTrue();
+
+        breaker.record(SLOW, false, now);
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire(now + 500 * MS)).isFalse();
+        assertThat(breaker.tryAcquire(now + 1000 * MS)).isTrue();
+    }
+
+    @Test
+    void cancelledTrialIsGivenBack() {
+        tripOpen();
+        now += 1000 * MS;
+        assertThat(breaker.tryAcquire(now)).isTrue();
+        assertThat(breaker.tryAcquire(now)).isTrue();
+
+        breaker.cancelled();
+
+        assertThat(breaker.tryAcquire(now)).isTrue();
+    }
+
+    @Test
+    void p95FollowsRecentLatencies() {
+        assertThat(breaker.p95Nanos()).isEqualTo(-1);
+        for (int i = 1; i <= 10; i++) call(i * MS, false);
+
+        assertThat(breaker.p95Nanos()).isEqualTo(10 * MS);
+    }
+
+    private void tripOpen() {
+        for (int i = 0; i < 4; i++) call(FAST, true);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    private void call(long latency, boolean failed) {
+        assertThat(breaker.tryAcquire(now)).isTrue();
+        now += latency;
+        breaker.record(latency, failed, now);
+    }
+}
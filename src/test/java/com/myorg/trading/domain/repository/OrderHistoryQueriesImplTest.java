@@ -0,0 +1,81 @@
+package com.myorg.trading.domain.repository;
+
+import com.myorg.trading.domain.entity.OrderStatus;
+import com.myorg.trading.domain.model.OrderSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Limit;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The history query carries only the filters that were given.
+ */
+class OrderHistoryQueriesImplTest {
+
+    private final EntityManager entityManager = mock(EntityManager.class);
+    @SuppressWarnings("unchecked")
+    private final TypedQuery<OrderSummary> query = mock(TypedQuery.class);
+    private final ArgumentCaptor<String> jpql = ArgumentCaptor.forClass(String.class);
+
+    private OrderHistoryQueriesImpl queries;
+
+    @BeforeEach
+    void setUp() {
+        when(entityManager.createQuery(jpql.capture(), eq(OrderSummary.class))).thenReturn(query);
+        when(query.getResultList()).thenReturn(List.of());
+        queries = new OrderHistoryQueriesImpl(entityManager);
+    }
+
+    @Test
+    void unfilteredFirstPageIsJustTheUsersNewestOrders() {
+        queries.findHistoryPage(1L, null, null, null, null, null, null, null, Limit.of(51));
+
+        assertThat(jpql.getValue())
+                .contains("where o.userId = :userId order by o.createdAt desc, o.id desc")
+                .doesNotContain("is null");
+        verify(query).setParameter("userId", 1L);
+        verify(query, never()).setParameter(eq("status"), any());
+        verify(query).setMaxResults(51);
+    }
+
+    @Test
+    void onlyTheGivenFiltersAreApplied() {
+        Instant from = Instant.parse("2026-10-01T00:00:00Z");
+
+        queries.findHistoryPage(1L, OrderStatus.FILLED, null, 10L, from, null, null, null, Limit.of(51));
+
+        assertThat(jpql.getValue())
+                .contains("and o.status = :status", "and o.brokerAccountId = :accountId", "and o.createdAt >= :from")
+                .doesNotContain(":symbol", ":to", ":cursor", "is null");
+        verify(query).setParameter("status", OrderStatus.FILLED);
+        verify(query).setParameter("accountId", 10L);
+        verify(query).setParameter("from", from);
+        verify(query, never()).setParameter(eq("symbol"), anyString());
+    }
+
+    @Test
+    void cursorBoundsTheRangeAndBreaksTiesById() {
+        Instant at = Instant.parse("2026-10-18T09:15:00Z");
+
+        queries.findHistoryPage(1L, null, null, null, null, null, at, 99L, Limit.of(51));
+
+        assertThat(jpql.getValue()).contains(
+                "and o.createdAt <= :cursorCreatedAt and (o.createdAt < :cursorCreatedAt or o.id < :cursorId)");
+        verify(query).setParameter("cursorCreatedAt", at);
+        verify(query).setParameter("cursorId", 99L);
+    }
+}
@@ -0,0 +1,130 @@
+package com.myorg.trading.security;
+
+import com.myorg.trading.domain.entity.User;
+import com.myorg.trading.domain.repository.UserRepository;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifying a token once, dropping it at its exp, and staying within the entry bound.
+ */
+class VerifiedTokenCacheTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private final JwtUtil jwtUtil = spy(new JwtUtil(SECRET, 3600));
+    private final JwtUtil shortLived = new JwtUtil(SECRET, 1);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+
+    @Test
+    void tokenIsVerifiedOnceAndReadFromTheClaims() {
+        VerifiedTokenCache cache = cache(10);
+        String token = token(jwtUtil, "alice", 7L);
+
+        AuthenticatedUser first = cache.authenticate(token);
+        AuthenticatedUser second = cache.authenticate(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getUserId()).isEqualTo(7L);
+        assertThat(first.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_USER");
+        verify(jwtUtil, times(1)).validateToken(token);
+        verify(userRepository, never()).findByUsername(anyString());
+        assertThat(meters.counter("trading.auth.token.cache", "result", "hit").count()).isEqualTo(1);
+    }
+
+    @Test
+    void cachedTokenIsRejectedOnceExpired() {
+        VerifiedTokenCache cache = cache(10);
+        String token = token(shortLived, "alice", 7L);
+        cache.authenticate(token);
+
+        await().atMost(Duration.ofSeconds(5)).pollInterval(Duration.ofMillis(100)).untilAsserted(() ->
+                assertThatThrownBy(() -> cache.authenticate(token)).isInstanceOf(ExpiredJwtException.class));
+        assertThat(size()).isZero();
+    }
+
+    @Test
+    void fullCacheStillAuthenticatesButDoesNotGrow() {
+        VerifiedTokenCache cache = cache(2);
+        cache.authenticate(token(jwtUtil, "alice", 1L));
+        cache.authenticate(token(jwtUtil, "bob", 2L));
+        String third = token(jwtUtil, "carol", 3L);
+
+        assertThat(cache.authenticate(third).getUserId()).isEqualTo(3L);
+        cache.authenticate(third);
+
+        assertThat(size()).isEqualTo(2);
+        verify(jwtUtil, times(2)).validateToken(third);
+    }
+
+    @Test
+    void expiredEntriesAreEvictedToMakeRoom() {
+        VerifiedTokenCache cache = cache(2);
+        cache.authenticate(token(shortLived, "alice", 1L));
+        cache.authenticate(token(shortLived, "bob", 2L));
+        String fresh = token(jwtUtil, "carol", 3L);
+
+        await().atMost(Duration.ofSeconds(5)).pollInterval(Duration.ofMillis(100)).until(() -> {
+            cache.authenticate(fresh);
+            return size() == 1;
+        });
+
+        cache.authenticate(fresh);
+        assertThat(meters.counter("trading.auth.token.cache", "result", "hit").count()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void scheduledSweepDropsExpiredEntries() {
+        VerifiedTokenCache cache = cache(10);
+        cache.authenticate(token(shortLived, "alice", 1L));
+        cache.authenticate(token(jwtUtil, "bob", 2L));
+
+        await().atMost(Duration.ofSeconds(5)).pollInterval(Duration.ofMillis(100)).until(() -> {
+            cache.evictExpired();
+            return size() == 1;
+        });
+    }
+
+    @Test
+    void tokenWithoutUserIdIsResolvedOnceFromTheDatabase() {
+        VerifiedTokenCache cache = cache(10);
+        User alice = User.builder().id(7L).username("alice").role("ROLE_USER").build();
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(alice));
+        String legacy = jwtUtil.generateToken("alice", Map.of(VerifiedTokenCache.ROLE_CLAIM, "ROLE_USER"));
+
+        assertThat(cache.authenticate(legacy).getUserId()).isEqualTo(7L);
+        cache.authenticate(legacy);
+
+        verify(userRepository, times(1)).findByUsername("alice");
+    }
+
+    private VerifiedTokenCache cache(int maxEntries) {
+        return new VerifiedTokenCache(jwtUtil, userRepository, meters, maxEntries);
+    }
+
+    private double size() {
+        return meters.get("trading.auth.token.cache.size").gauge().value();
+    }
+
+    private static String token(JwtUtil issuer, String username, Long userId) {
+        return issuer.generateToken(username, Map.of(VerifiedTokenCache.USER_ID_CLAIM, userId,
+                VerifiedTokenCache.ROLE_CLAIM, "ROLE_USER"));
+    }
+}
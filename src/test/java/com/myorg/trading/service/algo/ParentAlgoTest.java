@@ -0,0 +1,119 @@
+package com.myorg.trading.service.algo;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Release schedules of the algo types and fill accounting of child orders.
+ */
+class ParentAlgoTest {
+
+    private static final long START = 1_000_000L;
+
+    @Test
+    void twapReleasesOneSliceAtTheStartOfEachInterval() {
+        ParentAlgo algo = algo(AlgoType.TWAP, request("TWAP", 600, null, null, null), START + 60_000, 6);
+
+        assertThat(algo.target(START)).isEqualTo(100);
+        assertThat(algo.target(START + 9_999)).isEqualTo(100);
+        assertThat(algo.target(START + 10_000)).isEqualTo(200);
+        assertThat(algo.target(START + 59_999)).isEqualTo(600);
+        assertThat(algo.target(START + 60_000)).isEqualTo(600);
+    }
+
+    @Test
+    void vwapFollowsTradedVolumeUpToTheQuantity() {
+        ParentAlgo algo = algo(AlgoType.VWAP, request("VWAP", 600, 0.1, null, null), 0, 1);
+
+        assertThat(algo.target(START)).isZero();
+        algo.volumeSeen = 2_000;
+        assertThat(algo.target(START)).isCloseTo(200, within(1e-9));
+        algo.volumeSeen = 10_000;
+        assertThat(algo.target(START)).isEqualTo(600);
+    }
+
+    @Test
+    void vwapSendsTheRemainderAtItsDeadline() {
+        ParentAlgo algo = algo(AlgoType.VWAP, request("VWAP", 600, 0.1, null, null), START + 30_000, 1);
+        algo.volumeSeen = 1_000;
+
+        assertThat(algo.target(START + 29_999)).isCloseTo(100, within(1e-9));
+        assertThat(algo.target(START + 30_000)).isEqualTo(600);
+    }
+
+    @Test
+    void icebergShowsOneDisplaySliceAtATime() {
+        ParentAlgo algo = algo(AlgoType.ICEBERG, request("ICEBERG", 120, null, 50.0, 100.0), 0, 1);
+
+        assertThat(algo.target(START)).isEqualTo(50);
+        ParentAlgo.ChildSlice first = child(algo, 50);
+        assertThat(algo.target(START)).isZero();
+
+        algo.applyFill(first, 50, 100);
+        algo.children.remove(first);
+        assertThat(algo.target(START)).isEqualTo(100);
+
+        ParentAlgo.ChildSlice second = child(algo, 50);
+        algo.applyFill(second, 50, 100);
+        algo.children.remove(second);
+        assertThat(algo.target(START)).isEqualTo(120);
+    }
+
+    @Test
+    void cumulativeFillsAreBookedOnce() {
+        ParentAlgo algo = algo(AlgoType.TWAP, request("TWAP", 200, null, null, null), START + 60_000, 2);
+        ParentAlgo.ChildSlice child = child(algo, 100);
+
+        assertThat(algo.applyFill(child, 40, 100)).isTrue();
+        assertThat(algo.applyFill(child, 40, 100)).isFalse();   // repeated event
+        assertThat(algo.applyFill(child, 100, 101)).isTrue();
+        assertThat(algo.applyFill(child, 60, 100)).isFalse();   // late, out-of-order event
+
+        assertThat(algo.filled).isEqualTo(100);
+        assertThat(algo.avgFillPrice()).isCloseTo(101, within(1e-9));
+        assertThat(algo.working()).isZero();
+    }
+
+    @Test
+    void averagePriceIsWeightedAcrossChildren() {
+        ParentAlgo algo = algo(AlgoType.TWAP, request("TWAP", 300, null, null, null), START + 60_000, 3);
+        ParentAlgo.ChildSlice a = child(algo, 100);
+        ParentAlgo.ChildSlice b = child(algo, 200);
+
+        algo.applyFill(a, 100, 100);
+        algo.applyFill(b, 200, 103);
+
+        assertThat(algo.filled).isEqualTo(300);
+        assertThat(algo.avgFillPrice()).isCloseTo(102, within(1e-9));
+    }
+
+    @Test
+    void fillWithoutAPriceCountsQuantityButKeepsTheNotional() {
+        ParentAlgo algo = algo(AlgoType.TWAP, request("TWAP", 100, null, null, null), START + 60_000, 1);
+        ParentAlgo.ChildSlice child = child(algo, 100);
+
+        algo.applyFill(child, 50, 100);
+        algo.applyFill(child, 80, Double.NaN);
+
+        assertThat(algo.filled).isEqualTo(80);
+        assertThat(algo.notional).isCloseTo(5_000, within(1e-9));
+        assertThat(algo.working()).isEqualTo(20);
+    }
+
+    private static ParentAlgo algo(AlgoType type, AlgoRequest request, long endsAt, int slices) {
+        return new ParentAlgo(1L, 7L, type, request, START, endsAt, slices, Double.MAX_VALUE);
+    }
+
+    private static ParentAlgo.ChildSlice child(ParentAlgo algo, double quantity) {
+        ParentAlgo.ChildSlice c = new ParentAlgo.ChildSlice(algo, quantity, null, START);
+        algo.children.add(c);
+        return c;
+    }
+
+    private static AlgoRequest request(String type, double quantity, Double participation, Double display, Double limit) {
+        return new AlgoRequest(type, 10L, "2885", "RELIANCE-EQ", "NSE", "BUY", quantity, limit, "INTRADAY",
+                null, null, participation, display, null, null);
+    }
+}
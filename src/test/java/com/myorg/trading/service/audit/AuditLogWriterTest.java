@@ -0,0 +1,120 @@
+package com.myorg.trading.service.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Spilling to disk when the queue is full or MySQL fails, and replaying spill files without duplicates.
+ */
+class AuditLogWriterTest {
+
+    @TempDir
+    Path spillDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    // Every row the database accepted, in insert order
+    private final List<String> inserted = Collections.synchronizedList(new ArrayList<>());
+    private AuditLogWriter writer;
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) writer.shutdown();
+    }
+
+    @Test
+    void fullQueueSpillsInsteadOfBlocking() throws IOException {
+        writer = writer(2, 500);
+        // Writer not started: nothing drains the queue
+
+        for (int i = 1; i <= 5; i++) writer.record(1L, AuditAction.PLACE_ORDER, Map.of("n", i));
+
+        assertThat(spilledLines()).hasSize(3);
+        assertThat(meters.counter("trading.audit.spilled").count()).isEqualTo(3);
+
+        writer.shutdown();
+        writer = null;
+        // The two still queued go to disk on shutdown, for the next start to replay
+        assertThat(spilledLines()).hasSize(5);
+    }
+
+    @Test
+    void failedBatchIsSpilled() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any()))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+        writer = writer(100, 500);
+        writer.start();
+
+        for (int i = 1; i <= 3; i++) writer.record(1L, AuditAction.PLACE_ORDER, Map.of("n", i));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> spilledLines().size() == 3);
+        assertThat(meters.counter("trading.audit.written").count()).isZero();
+    }
+
+    @Test
+    void interruptedReplayKeepsOnlyWhatIsNotInTheTable() throws IOException {
+        List<String> rows = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            rows.add(objectMapper.writeValueAsString(new AuditRow(1L, "R" + i, "{}", 1_000L + i)));
+        }
+        Path file = spillDir.resolve("audit-1-0.jsonl");
+        Files.write(file, rows, StandardCharsets.UTF_8);
+
+        // First batch goes in, the second fails once, then the database recovers
+        AtomicInteger calls = new AtomicInteger();
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any())).thenAnswer(inv -> {
+            if (calls.incrementAndGet() == 2) throw new DataAccessResourceFailureException("blip");
+            Collection<AuditRow> batch = inv.getArgument(1);
+            batch.forEach(r -> inserted.add(r.action()));
+            return new int[0][];
+        });
+        writer = writer(100, 2);
+        writer.start();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> calls.get() >= 2);
+        await().atMost(Duration.ofSeconds(5)).until(() -> !Files.exists(file));
+
+        assertThat(inserted).containsExactly("R1", "R2", "R3", "R4", "R5");
+    }
+
+    private AuditLogWriter writer(int capacity, int batchSize) {
+        return new AuditLogWriter(jdbcTemplate, objectMapper, meters, true, capacity, batchSize, 10, 1000, 50,
+                spillDir.toString());
+    }
+
+    private List<String> spilledLines() throws IOException {
+        List<String> out = new ArrayList<>();
+        try (Stream<Path> files = Files.list(spillDir)) {
+            for (Path f : files.sorted().toList()) out.addAll(Files.readAllLines(f, StandardCharsets.UTF_8));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,177 @@
+package com.myorg.trading.service.backtest;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Fill rules of the bar simulator: signals at the next open, stops and targets at their level or the gap open.
+ */
+class BacktestEngineTest {
+
+    private static final BacktestEngine.Costs NO_COSTS = new BacktestEngine.Costs(10, 0);
+
+    private final BacktestEngine engine = new BacktestEngine(1, 1_000, 100);
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void signalFillsAtTheNextBarsOpen() {
+        BarSeries s = bars(
+                new double[]{100, 100, 100, 100},
+                new double[]{101, 102, 102, 101},
+                new double[]{103, 104, 102, 103},
+                new double[]{103, 103, 103, 103});
+        List<BacktestTrade> trades = new ArrayList<>();
+
+        BacktestEngine.Metrics m = engine.simulate(s, targets(1, 1, 0, 0), 0, 0, NO_COSTS, trades);
+
+        assertThat(trades).singleElement().satisfies(t -> {
+            assertThat(t.side()).isEqualTo("LONG");
+            assertThat(t.entryPrice()).isEqualTo(101);
+            assertThat(t.entryTime().toEpochMilli()).isEqualTo(60_000);
+            assertThat(t.exitPrice()).isEqualTo(103);
+            assertThat(t.exitReason()).isEqualTo("SIGNAL");
+        });
+        assertThat(m.netPnl).isEqualTo(20);
+        assertThat(m.trades).isEqualTo(1);
+    }
+
+    @Test
+    void costsAreChargedOnBothLegs() {
+        BarSeries s = bars(
+                new double[]{100, 100, 100, 100},
+                new double[]{100, 100, 100, 100},
+                new double[]{103, 103, 103, 103});
+
+        BacktestEngine.Metrics m = engine.simulate(s, targets(1, 0, 0), 0, 0, new BacktestEngine.Costs(10, 10), null);
+
+        // 30 gross, less 10 bps of 1000 on entry and of 1030 on exit
+        assertThat(m.netPnl).isCloseTo(27.97, within(1e-9));
+    }
+
+    @Test
+    void stopFillsAtItsLevelOrAtAGapOpen() {
+        double[] entry = {100, 100, 100, 100};
+        double[] quiet = {100, 101, 99, 100};
+        List<BacktestTrade> trades = new ArrayList<>();
+
+        engine.simulate(bars(entry, quiet, new double[]{99, 99, 94, 95}), targets(1, 1, 1), 5, 0, NO_COSTS, trades);
+        engine.simulate(bars(entry, quiet, new double[]{90, 91, 89, 90}), targets(1, 1, 1), 5, 0, NO_COSTS, trades);
+
+        assertThat(trades).extracting(BacktestTrade::exitReason).containsExactly("STOP", "STOP");
+        assertThat(trades).extracting(BacktestTrade::exitPrice).containsExactly(95.0, 90.0);
+        assertThat(trades.get(0).pnl()).isEqualTo(-50);
+    }
+
+    @Test
+    void shortTargetFillsBelowEntryAndStopIsCheckedFirst() {
+        double[] entry = {100, 100, 100, 100};
+        List<BacktestTrade> trades = new ArrayList<>();
+
+        // 2% target only
+        engine.simulate(bars(entry, new double[]{100, 100, 97, 98}), targets(-1, -1), 0, 2, NO_COSTS, trades);
+        // Same bar reaches both the 1% stop and the 2% target: the stop wins
+        engine.simulate(bars(entry, new double[]{100, 102, 97, 98}), targets(-1, -1), 1, 2, NO_COSTS, trades);
+
+        assertThat(trades).extracting(BacktestTrade::side).containsExactly("SHORT", "SHORT");
+        assertThat(trades).extracting(BacktestTrade::exitReason).containsExactly("TARGET", "STOP");
+        assertThat(trades).extracting(BacktestTrade::exitPrice).containsExactly(98.0, 101.0);
+    }
+
+    @Test
+    void afterAStopTheStrategyMustGoFlatBeforeReEntering() {
+        BarSeries s = bars(
+                new double[]{100, 100, 100, 100},
+                new double[]{100, 100, 94, 95},   // stopped out
+                new double[]{95, 96, 94, 95},     // still long: blocked
+                new double[]{95, 96, 94, 95},     // flat: unblocks
+                new double[]{95, 96, 94, 95},     // long again
+                new double[]{97, 98, 96, 97});    // re-entry fills here
+        List<BacktestTrade> trades = new ArrayList<>();
+
+        engine.simulate(s, targets(1, 1, 1, 0, 1, 1), 5, 0, NO_COSTS, trades);
+
+        assertThat(trades).extracting(BacktestTrade::exitReason).containsExactly("STOP", "END");
+        assertThat(trades.get(1).entryPrice()).isEqualTo(97);
+        assertThat(trades.get(1).entryTime().toEpochMilli()).isEqualTo(5 * 60_000);
+    }
+
+    @Test
+    void gridOverTheLimitIsRejected() {
+        BacktestStrategy strategy = new FixedStrategy(targets(0));
+
+        assertThat(engine.grid(strategy, Map.of(BacktestEngine.STOP_LOSS, "1:10:1", BacktestEngine.TAKE_PROFIT, "1:100:1")).size())
+                .isEqualTo(1_000);
+        assertThatThrownBy(() -> engine.grid(strategy, Map.of(BacktestEngine.STOP_LOSS, "1:11:1", BacktestEngine.TAKE_PROFIT, "1:100:1")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Bars one minute apart from {open, high, low, close} rows.
+     */
+    private static BarSeries bars(double[]... ohlc) {
+        int n = ohlc.length;
+        long[] t = new long[n];
+        double[] o = new double[n], h = new double[n], l = new double[n], c = new double[n];
+        for (int i = 0; i < n; i++) {
+            t[i] = i * 60_000L;
+            o[i] = ohlc[i][0];
+            h[i] = ohlc[i][1];
+            l[i] = ohlc[i][2];
+            c[i] = ohlc[i][3];
+        }
+        return new BarSeries(t, o, h, l, c, new double[n]);
+    }
+
+    private static BacktestStrategy.Signal targets(int... wanted) {
+        return new BacktestStrategy.Signal() {
+            @Override
+            public int warmup() {
+                return 0;
+            }
+
+            @Override
+            public int target(int i, int position) {
+                return wanted[i];
+            }
+        };
+    }
+
+    private record FixedStrategy(BacktestStrategy.Signal signal) implements BacktestStrategy {
+        @Override
+        public String name() {
+            return "FIXED";
+        }
+
+        @Override
+        public String description() {
+            return "Replays a fixed list of targets";
+        }
+
+        @Override
+        public List<String> parameters() {
+            return List.of();
+        }
+
+        @Override
+        public double[] defaults() {
+            return new double[0];
+        }
+
+        @Override
+        public Signal prepare(BarSeries series, IndicatorCache indicators, double[] params) {
+            return signal;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.myorg.trading.service.backtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParameterGridTest {
+
+    private static final List<String> NAMES = List.of("fast", "slow");
+    private static final double[] DEFAULTS = {10, 30};
+
+    @Test
+    void rangesAndListsExpandAndDecodeLastParameterFastest() {
+        ParameterGrid grid = ParameterGrid.of(NAMES, DEFAULTS, Map.of("fast", "5:15:5", "slow", "20,50"), 100);
+
+        assertThat(grid.size()).isEqualTo(6);
+        double[] c = new double[2];
+        grid.combination(0, c);
+        assertThat(c).containsExactly(5, 20);
+        grid.combination(1, c);
+        assertThat(c).containsExactly(5, 50);
+        grid.combination(5, c);
+        assertThat(c).containsExactly(15, 50);
+    }
+
+    @Test
+    void unsweptParametersUseTheirDefault() {
+        ParameterGrid grid = ParameterGrid.of(NAMES, DEFAULTS, Map.of("slow", "40"), 100);
+
+        double[] c = new double[2];
+        grid.combination(0, c);
+        assertThat(grid.size()).isEqualTo(1);
+        assertThat(c).containsExactly(10, 40);
+    }
+
+    @Test
+    void hugeRangeIsRejectedBeforeAllocating() {
+        // 10^12 values: would throw OutOfMemoryError (or overflow the array size) if it were materialised
+        assertThatThrownBy(() -> ParameterGrid.of(NAMES, DEFAULTS, Map.of("fast", "1:1000000000000:1"), 200_000))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("fast");
+        assertThatThrownBy(() -> ParameterGrid.of(NAMES, DEFAULTS, Map.of("fast", "0:1e300:1e-300"), 200_000))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void productOverTheLimitIsRejected() {
+        assertThatThrownBy(() -> ParameterGrid.of(NAMES, DEFAULTS, Map.of("fast", "1:1000:1", "slow", "1:1000:1"), 200_000))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("slow");
+        assertThat(ParameterGrid.of(NAMES, DEFAULTS, Map.of("fast", "1:400:1", "slow", "1:500:1"), 200_000).size())
+                .isEqualTo(200_000);
+    }
+
+    @Test
+    void malformedSpecsAreRejected() {
+        for (String spec : List.of("1:5", "5:1:1", "1:5:0", "1:5:-1", "NaN:5:1", "1:Infinity:1", "1:5:Infinity", "a,b", " , ")) {
+            assertThatThrownBy(() -> ParameterGrid.of(NAMES, DEFAULTS, Map.of("fast", spec), 200_000))
+                    .as(spec)
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+        assertThatThrownBy(() -> ParameterGrid.of(NAMES, DEFAULTS, Map.of("medium", "5"), 200_000))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("medium");
+    }
+}
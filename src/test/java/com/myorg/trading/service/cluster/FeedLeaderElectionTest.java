@@ -0,0 +1,98 @@
+package com.myorg.trading.service.cluster;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Stepping down on the local clock when lease renewals stop answering.
+ */
+class FeedLeaderElectionTest {
+
+    private static final long LEASE_MS = 400;
+
+    private final DataSource dataSource = mock(DataSource.class);
+    private final CountDownLatch poolReleased = new CountDownLatch(1);
+    private final AtomicInteger elected = new AtomicInteger();
+    private final AtomicInteger revoked = new AtomicInteger();
+    private volatile boolean poolExhausted;
+    private FeedLeaderElection election;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(statement.executeUpdate()).thenReturn(1);
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(dataSource.getConnection()).thenAnswer(inv -> {
+            // Stands in for Hikari waiting out its connection-timeout, longer than the lease
+            if (poolExhausted) poolReleased.await(10, TimeUnit.SECONDS);
+            return connection;
+        });
+        election = new FeedLeaderElection(dataSource, new SimpleMeterRegistry(), true, LEASE_MS, "node-a");
+    }
+
+    @AfterEach
+    void tearDown() {
+        poolReleased.countDown();
+        election.releaseAll();
+    }
+
+    @Test
+    void renewedLeaseKeepsLeadership() {
+        election.participate("angelone", elected::incrementAndGet, revoked::incrementAndGet);
+        election.renewAll();
+
+        assertThat(election.isLeader("angelone")).isTrue();
+        assertThat(elected).hasValue(1);
+        assertThat(revoked).hasValue(0);
+    }
+
+    @Test
+    void stuckRenewStepsDownWithinHalfALease() throws InterruptedException {
+        election.participate("angelone", elected::incrementAndGet, revoked::incrementAndGet);
+        assertThat(election.isLeader("angelone")).isTrue();
+        long lastRenew = System.nanoTime();
+        poolExhausted = true;
+
+        // The first stuck round stays leader; a later one, half a lease on, must not
+        long start = System.nanoTime();
+        election.renewAll();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(LEASE_MS / 2);
+        while (election.isLeader("angelone")) {
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastRenew)).isLessThan(LEASE_MS);
+            election.renewAll();
+        }
+
+        assertThat(revoked).hasValue(1);
+    }
+
+    @Test
+    void stuckRenewThatFinallyAnswersIsCollectedNotRepeated() {
+        election.participate("angelone", elected::incrementAndGet, revoked::incrementAndGet);
+        poolExhausted = true;
+        while (election.isLeader("angelone")) election.renewAll();
+
+        poolExhausted = false;
+        poolReleased.countDown();
+        election.renewAll();
+        election.renewAll();
+
+        assertThat(election.isLeader("angelone")).isTrue();
+        assertThat(elected).hasValue(2);
+    }
+}
@@ -0,0 +1,247 @@
+package com.myorg.trading.service.indicator;
+
+import com.myorg.trading.broker.api.MarketDataTick;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Streaming indicators against straightforward batch implementations that recompute each window from scratch.
+ */
+class StreamingIndicatorTest {
+
+    private static final int N = 5_000;
+    private static final double EPS = 1e-7;
+
+    private static double[] high, low, close, volume;
+
+    @BeforeAll
+    static void series() {
+        Random rnd = new Random(42);
+        high = new double[N];
+        low = new double[N];
+        close = new double[N];
+        volume = new double[N];
+        double p = 2500;
+        for (int i = 0; i < N; i++) {
+            double open = p;
+            p *= 1 + rnd.nextGaussian() * 0.002;
+            close[i] = p;
+            high[i] = Math.max(open, p) * (1 + rnd.nextDouble() * 0.001);
+            low[i] = Math.min(open, p) * (1 - rnd.nextDouble() * 0.001);
+            volume[i] = 100 + rnd.nextInt(5_000);
+        }
+    }
+
+    @Test
+    void ringBufferEvictsOldestFirst() {
+        DoubleRingBuffer rb = new DoubleRingBuffer(3);
+        assertThat(rb.push(1)).isNaN();
+        assertThat(rb.push(2)).isNaN();
+        assertThat(rb.push(3)).isNaN();
+        assertThat(rb.push(4)).isEqualTo(1);
+        assertThat(rb.get(0)).isEqualTo(2);
+        assertThat(rb.get(2)).isEqualTo(4);
+        assertThat(rb.sum()).isEqualTo(9);
+    }
+
+    @Test
+    void smaMatchesWindowMean() {
+        int period = 20;
+        Sma sma = new Sma(period);
+        for (int i = 0; i < N; i++) {
+            sma.update(close[i]);
+            if (i < period - 1) {
+                assertThat(sma.isReady()).isFalse();
+                continue;
+            }
+            double expected = 0;
+            for (int j = i - period + 1; j <= i; j++) expected += close[j];
+            assertThat(sma.value()).isCloseTo(expected / period, within(EPS));
+        }
+    }
+
+    @Test
+    void smaStaysAccurateAcrossResums() {
+        Sma sma = new Sma(3);
+        double last = 0;
+        for (int i = 0; i < RunningSum.RESUM_INTERVAL * 3 + 7; i++) {
+            last = 1e6 + (i % 97) * 0.01;
+            sma.update(last);
+        }
+        assertThat(sma.value()).isCloseTo(last - 0.01, within(1e-6));
+    }
+
+    @Test
+    void emaMatchesRecursiveDefinition() {
+        int period = 12;
+        Ema ema = new Ema(period);
+        double alpha = 2.0 / (period + 1);
+        double expected = Double.NaN;
+        for (int i = 0; i < N; i++) {
+            ema.update(close[i]);
+            if (i == period - 1) {
+                expected = 0;
+                for (int j = 0; j < period; j++) expected += close[j];
+                expected /= period;
+            } else if (i >= period) {
+                expected = alpha * close[i] + (1 - alpha) * expected;
+            }
+            if (i >= period - 1) assertThat(ema.value()).isCloseTo(expected, within(EPS));
+            else assertThat(ema.value()).isNaN();
+        }
+    }
+
+    @Test
+    void rsiMatchesWilderBatch() {
+        int period = 14;
+        double[] expected = batchRsi(close, period);
+        Rsi rsi = new Rsi(period);
+        for (int i = 0; i < N; i++) {
+            rsi.update(close[i]);
+            if (Double.isNaN(expected[i])) assertThat(rsi.value()).isNaN();
+            else assertThat(rsi.value()).isCloseTo(expected[i], within(EPS));
+        }
+    }
+
+    @Test
+    void atrMatchesWilderBatch() {
+        int period = 14;
+        double[] tr = new double[N];
+        for (int i = 0; i < N; i++) {
+            tr[i] = i == 0 ? high[i] - low[i]
+                    : Math.max(high[i] - low[i], Math.max(Math.abs(high[i] - close[i - 1]), Math.abs(low[i] - close[i - 1])));
+        }
+        Atr atr = new Atr(period);
+        double expected = 0;
+        for (int i = 0; i < N; i++) {
+            atr.update(high[i], low[i], close[i], volume[i]);
+            if (i < period - 1) {
+                assertThat(atr.isReady()).isFalse();
+                continue;
+            }
+            if (i == period - 1) {
+                for (int j = 0; j < period; j++) expected += tr[j];
+                expected /= period;
+            } else {
+                expected = (expected * (period - 1) + tr[i]) / period;
+            }
+            assertThat(atr.value()).isCloseTo(expected, within(EPS));
+        }
+    }
+
+    @Test
+    void rollingVwapMatchesWindowSums() {
+        int period = 30;
+        Vwap vwap = new Vwap(period);
+        for (int i = 0; i < N; i++) {
+            vwap.update(high[i], low[i], close[i], volume[i]);
+            if (i < period - 1) continue;
+            double pv = 0, v = 0;
+            for (int j = i - period + 1; j <= i; j++) {
+                pv += (high[j] + low[j] + close[j]) / 3 * volume[j];
+                v += volume[j];
+            }
+            assertThat(vwap.value()).isCloseTo(pv / v, within(EPS));
+        }
+    }
+
+    @Test
+    void sessionVwapAccumulatesUntilReset() {
+        Vwap vwap = new Vwap(0);
+        double pv = 0, v = 0;
+        for (int i = 0; i < 100; i++) {
+            vwap.update(high[i], low[i], close[i], volume[i]);
+            pv += (high[i] + low[i] + close[i]) / 3 * volume[i];
+            v += volume[i];
+        }
+        assertThat(vwap.value()).isCloseTo(pv / v, within(EPS));
+        vwap.reset();
+        assertThat(vwap.isReady()).isFalse();
+    }
+
+    @Test
+    void bollingerMatchesWindowMeanAndStdDev() {
+        int period = 20;
+        BollingerBands bb = new BollingerBands(period, 2);
+        for (int i = 0; i < N; i++) {
+            bb.update(close[i]);
+            if (i < period - 1) continue;
+            double mean = 0;
+            for (int j = i - period + 1; j <= i; j++) mean += close[j];
+            mean /= period;
+            double var = 0;
+            for (int j = i - period + 1; j <= i; j++) var += (close[j] - mean) * (close[j] - mean);
+            double sd = Math.sqrt(var / period);
+            assertThat(bb.value()).isCloseTo(mean, within(EPS));
+            assertThat(bb.upper()).isCloseTo(mean + 2 * sd, within(1e-5));
+            assertThat(bb.lower()).isCloseTo(mean - 2 * sd, within(1e-5));
+        }
+    }
+
+    @Test
+    void specRoundTrips() {
+        assertThat(IndicatorSpec.parse("bb(20, 2.5)")).isEqualTo(new IndicatorSpec(IndicatorSpec.Type.BB, 20, 2.5));
+        assertThat(IndicatorSpec.parse("RSI(14)").toString()).isEqualTo("RSI(14)");
+        assertThat(Timeframe.parse("5m")).isEqualTo(new Timeframe(300_000));
+        assertThat(Timeframe.parse("TICK").isTick()).isTrue();
+    }
+
+    @Test
+    void registrySharesOneInstancePerKeyAndFeedsBars() {
+        IndicatorRegistry registry = new IndicatorRegistry();
+        Timeframe oneMinute = Timeframe.parse("1M");
+        IndicatorHandle a = registry.acquire("2885", oneMinute, IndicatorSpec.parse("SMA(3)"));
+        IndicatorHandle b = registry.acquire("2885", oneMinute, IndicatorSpec.parse("SMA(3)"));
+        IndicatorHandle tick = registry.acquire("2885", Timeframe.TICK, IndicatorSpec.parse("SMA(2)"));
+        assertThat(registry.activeCount()).isEqualTo(2);
+
+        long t0 = 1_760_000_000_000L - 1_760_000_000_000L % 60_000;
+        double[] closes = {100, 101, 102, 103, 104};
+        for (int m = 0; m < closes.length; m++) {
+            registry.onTick("2885", tick(closes[m] - 0.5, t0 + m * 60_000L + 1_000));
+            registry.onTick("2885", tick(closes[m], t0 + m * 60_000L + 30_000));
+        }
+        // Minute 5 is still open, so bars 0..3 have closed: SMA(3) of 101, 102, 103
+        assertThat(a.value()).isCloseTo(102, within(EPS));
+        assertThat(b.value()).isEqualTo(a.value());
+        assertThat(tick.value()).isCloseTo((103.5 + 104) / 2, within(EPS));
+
+        registry.release(a);
+        assertThat(registry.activeCount()).isEqualTo(2);
+        registry.release(b);
+        registry.release(tick);
+        assertThat(registry.activeCount()).isZero();
+    }
+
+    private static MarketDataTick tick(double price, long epochMillis) {
+        return new MarketDataTick("2885", BigDecimal.valueOf(price), null, null, 0, Instant.ofEpochMilli(epochMillis));
+    }
+
+    private static double[] batchRsi(double[] x, int period) {
+        double[] out = new double[x.length];
+        Arrays.fill(out, Double.NaN);
+        double gain = 0, loss = 0;
+        for (int i = 1; i <= period; i++) {
+            double d = x[i] - x[i - 1];
+            if (d > 0) gain += d; else loss -= d;
+        }
+        gain /= period;
+        loss /= period;
+        out[period] = 100 - 100 / (1 + gain / loss);
+        for (int i = period + 1; i < x.length; i++) {
+            double d = x[i] - x[i - 1];
+            gain = (gain * (period - 1) + Math.max(d, 0)) / period;
+            loss = (loss * (period - 1) + Math.max(-d, 0)) / period;
+            out[i] = 100 - 100 / (1 + gain / loss);
+        }
+        return out;
+    }
+}
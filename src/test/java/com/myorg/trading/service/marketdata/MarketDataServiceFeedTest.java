@@ -0,0 +1,62 @@
+package com.myorg.trading.service.marketdata;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reference-counted feed requests and what the broker feeds are told.
+ */
+class MarketDataServiceFeedTest {
+
+    private final List<String> subscribed = new ArrayList<>();
+    private final List<String> unsubscribed = new ArrayList<>();
+    private MarketDataService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new MarketDataService(new SimpleMeterRegistry(), List.of());
+        service.addFeedSubscriber((ex, token) -> subscribed.add(ex + ":" + token),
+                (ex, token) -> unsubscribed.add(ex + ":" + token));
+    }
+
+    @Test
+    void feedIsToldOnceAndReleasedWithTheLastHolder() {
+        service.requestFeed("NFO", "43210");
+        service.requestFeed("NFO", "43210");
+        assertThat(subscribed).containsExactly("NFO:43210");
+
+        service.releaseFeed("43210");
+        assertThat(unsubscribed).isEmpty();
+        service.releaseFeed("43210");
+        assertThat(unsubscribed).containsExactly("NFO:43210");
+        assertThat(service.requestedFeeds()).isZero();
+    }
+
+    @Test
+    void extraReleaseIsIgnored() {
+        service.releaseFeed("2885");
+        service.requestFeed(null, "2885");
+        service.releaseFeed("2885");
+        service.releaseFeed("2885");
+        service.requestFeed(null, "2885");
+
+        assertThat(subscribed).containsExactly("NSE:2885", "NSE:2885");
+        assertThat(unsubscribed).containsExactly("NSE:2885");
+        assertThat(service.requestedFeeds()).isEqualTo(1);
+    }
+
+    @Test
+    void lateFeedIsSubscribedToWhatIsAlreadyHeld() {
+        service.requestFeed("BSE", "500325");
+        List<String> late = new ArrayList<>();
+        service.addFeedSubscriber((ex, token) -> late.add(ex + ":" + token), (ex, token) -> { });
+
+        assertThat(late).containsExactly("BSE:500325");
+    }
+}
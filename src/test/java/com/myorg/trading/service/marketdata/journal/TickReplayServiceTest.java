@@ -0,0 +1,101 @@
+package com.myorg.trading.service.marketdata.journal;
+
+import com.myorg.trading.broker.api.MarketDataTick;
+import com.myorg.trading.service.marketdata.MarketDataService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.Disposable;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Replays stay in the session that started them: the owner's stream gets every tick, the live feed none,
+ * and other users cannot see, read or stop the session.
+ */
+class TickReplayServiceTest {
+
+    private static final long OWNER = 1L;
+    private static final long OTHER = 2L;
+    private static final int TICKS = 10_000;
+
+    @TempDir
+    Path dir;
+
+    private TickJournal journal;
+    private TickReplayService replays;
+    private LocalDate day;
+
+    @BeforeEach
+    void record() {
+        journal = new TickJournal(true, dir.toString(), 1000);
+        for (int i = 0; i < TICKS; i++) {
+            journal.onTick("2885", new MarketDataTick("2885", BigDecimal.valueOf(2500 + i % 100), null, null, i, Instant.now()));
+        }
+        journal.flush();
+        day = journal.recordedDays().get(0);
+        replays = new TickReplayService(journal, 2, 2000);
+    }
+
+    @AfterEach
+    void close() {
+        journal.close();
+    }
+
+    @Test
+    void ownerStreamGetsEveryTickAndTheLiveFeedNone() throws Exception {
+        List<MarketDataTick> live = new CopyOnWriteArrayList<>();
+        MarketDataService marketData = new MarketDataService(new SimpleMeterRegistry(), List.of((token, tick) -> live.add(tick)));
+        Disposable liveSubscription = marketData.streamFor("2885").subscribe(live::add);
+
+        // Max speed: far more ticks than the stream buffers, so the replay has to wait for its reader
+        ReplaySession session = replays.start(OWNER, new ReplayRequest(day, List.of("2885"), 0, null, null));
+        List<MarketDataTick> replayed = replays.stream(OWNER, false, session.id())
+                .delaySubscription(Duration.ofMillis(200))
+                .collectList()
+                .block(Duration.ofSeconds(30));
+
+        assertThat(replayed).hasSize(TICKS);
+        assertThat(replayed.get(TICKS - 1).getVolume()).isEqualTo(TICKS - 1);
+        assertThat(live).isEmpty();
+        assertThat(replays.list(OWNER, false)).singleElement().extracting(ReplaySession::state).isEqualTo("COMPLETED");
+        liveSubscription.dispose();
+    }
+
+    @Test
+    void otherUsersCannotSeeOrStopTheSession() throws Exception {
+        ReplaySession session = replays.start(OWNER, new ReplayRequest(day, null, 1, null, null));
+
+        assertThat(replays.list(OTHER, false)).isEmpty();
+        assertThat(replays.stream(OTHER, false, session.id())).isNull();
+        assertThat(replays.stop(OTHER, false, session.id())).isFalse();
+
+        assertThat(replays.list(OTHER, true)).hasSize(1);
+        assertThat(replays.stop(OTHER, true, session.id())).isTrue();
+    }
+
+    @Test
+    void replayNobodyReadsFails() throws Exception {
+        ReplaySession session = replays.start(OWNER, new ReplayRequest(day, null, 0, null, null));
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        String state;
+        while ("RUNNING".equals(state = replays.list(OWNER, false).iterator().next().state())
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(state).isEqualTo("FAILED");
+        assertThat(replays.stream(OWNER, false, session.id()).collectList().onErrorReturn(List.of()).block(Duration.ofSeconds(5)))
+                .isEmpty();
+    }
+}
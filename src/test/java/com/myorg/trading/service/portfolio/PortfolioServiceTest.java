@@ -0,0 +1,120 @@
+package com.myorg.trading.service.portfolio;
+
+import com.myorg.trading.broker.api.BrokerPosition;
+import com.myorg.trading.domain.entity.BrokerAccount;
+import com.myorg.trading.domain.model.SecurityMaster;
+import com.myorg.trading.service.broker.BrokerAccountService;
+import com.myorg.trading.service.marketdata.SecurityMasterService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Per-account deadlines on the consolidated portfolio and netting of the accounts that answered.
+ */
+class PortfolioServiceTest {
+
+    private static final long TIMEOUT_MS = 200;
+
+    private final BrokerAccountService brokerAccountService = mock(BrokerAccountService.class);
+    private final PositionCacheService positionCacheService = mock(PositionCacheService.class);
+    private final SecurityMasterService securityMasterService = mock(SecurityMasterService.class);
+
+    private PortfolioService service;
+
+    @BeforeEach
+    void setUp() {
+        when(securityMasterService.findBySecurityId(anyString())).thenReturn(Optional.empty());
+        service = new PortfolioService(brokerAccountService, positionCacheService, securityMasterService);
+        ReflectionTestUtils.setField(service, "perAccountTimeoutMs", TIMEOUT_MS);
+    }
+
+    @Test
+    void slowAndFailingAccountsAreReportedAndTheRestReturned() {
+        BrokerAccount ok = account(10L, "dhan");
+        BrokerAccount slow = account(11L, "angelone");
+        BrokerAccount failing = account(12L, "fyers");
+        when(brokerAccountService.listAccountsForUser(1L)).thenReturn(List.of(failing, slow, ok));
+        when(positionCacheService.getPositions(ok)).thenReturn(Mono.just(List.of(position("2885", "10", "2500", "2510"))));
+        when(positionCacheService.getPositions(slow)).thenReturn(Mono.never());
+        when(positionCacheService.getPositions(failing)).thenReturn(Mono.error(new IllegalStateException("token expired")));
+
+        long start = System.nanoTime();
+        PortfolioView view = service.getPortfolio(1L);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(elapsedMs).isLessThan(TIMEOUT_MS * 5);
+        assertThat(view.isComplete()).isFalse();
+        assertThat(view.getAccounts()).extracting(AccountPortfolio::getAccountId).containsExactly(10L, 11L, 12L);
+        assertThat(view.getAccounts()).extracting(AccountPortfolio::getStatus).containsExactly("OK", "TIMEOUT", "ERROR");
+        assertThat(view.getAccounts().get(2).getMessage()).isEqualTo("token expired");
+        assertThat(view.getNetPositions()).singleElement()
+                .satisfies(n -> assertThat(n.getNetQuantity()).isEqualTo(10.0));
+    }
+
+    @Test
+    void positionsAreNettedPerInstrumentAcrossAccounts() {
+        SecurityMaster reliance = new SecurityMaster();
+        reliance.setSecurityId("2885");
+        reliance.setTradingSymbol("RELIANCE-EQ");
+        reliance.setName("RELIANCE INDUSTRIES");
+        when(securityMasterService.findBySecurityId("2885")).thenReturn(Optional.of(reliance));
+
+        BrokerAccount dhan = account(10L, "dhan");
+        BrokerAccount angel = account(11L, "angelone");
+        when(brokerAccountService.listAccountsForUser(1L)).thenReturn(List.of(dhan, angel));
+        when(positionCacheService.getPositions(dhan)).thenReturn(Mono.just(List.of(position("2885", "10", "2500", "2510"))));
+        when(positionCacheService.getPositions(angel)).thenReturn(Mono.just(List.of(position("2885", "-4", "2520", "2510"))));
+
+        PortfolioView view = service.getPortfolio(1L);
+
+        assertThat(view.isComplete()).isTrue();
+        assertThat(view.getNetPositions()).singleElement().satisfies(n -> {
+            assertThat(n.getTradingSymbol()).isEqualTo("RELIANCE-EQ");
+            assertThat(n.getNetQuantity()).isEqualTo(6.0);
+            assertThat(n.getAccounts()).isEqualTo(2);
+            // (10 * 2500 - 4 * 2520) / 6
+            assertThat(n.getAvgPrice()).isCloseTo(2486.67, within(0.01));
+            assertThat(n.getExposure()).isEqualTo(6 * 2510.0);
+        });
+        assertThat(view.getGrossExposure()).isEqualTo(6 * 2510.0);
+    }
+
+    @Test
+    void noLinkedAccountsIsAnEmptyCompletePortfolio() {
+        when(brokerAccountService.listAccountsForUser(1L)).thenReturn(List.of());
+
+        PortfolioView view = service.getPortfolio(1L);
+
+        assertThat(view.isComplete()).isTrue();
+        assertThat(view.getAccounts()).isEmpty();
+    }
+
+    private static BrokerAccount account(Long id, String brokerId) {
+        return BrokerAccount.builder().id(id).userId(1L).brokerId(brokerId).build();
+    }
+
+    private static BrokerPosition position(String securityId, String qty, String avg, String ltp) {
+        return BrokerPosition.builder()
+                .symbol("RELIANCE")
+                .securityId(securityId)
+                .exchange("NSE_EQ")
+                .netQuantity(new BigDecimal(qty))
+                .avgPrice(new BigDecimal(avg))
+                .ltp(new BigDecimal(ltp))
+                .pnl(BigDecimal.ZERO)
+                .build();
+    }
+}
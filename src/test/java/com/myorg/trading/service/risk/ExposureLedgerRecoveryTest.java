@@ -0,0 +1,128 @@
+package com.myorg.trading.service.risk;
+
+import com.myorg.trading.broker.registry.BrokerRegistry;
+import com.myorg.trading.config.properties.RiskProperties;
+import com.myorg.trading.domain.entity.Order;
+import com.myorg.trading.domain.entity.OrderStatus;
+import com.myorg.trading.domain.repository.AlgoOrderRepository;
+import com.myorg.trading.domain.repository.BrokerAccountRepository;
+import com.myorg.trading.domain.repository.OrderRepository;
+import com.myorg.trading.domain.repository.ScheduledOrderRepository;
+import com.myorg.trading.service.marketdata.MarketDataService;
+import com.myorg.trading.service.portfolio.PositionCacheService;
+import com.myorg.trading.service.trading.OrderEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Startup rebuild of the ledger from open orders, with an execution algo among them.
+ */
+class ExposureLedgerRecoveryTest {
+
+    private static final long USER = 1L;
+    private static final long ACCOUNT = 10L;
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final AlgoOrderRepository algoRepository = mock(AlgoOrderRepository.class);
+    private final BrokerAccountRepository brokerAccountRepository = mock(BrokerAccountRepository.class);
+    private final ScheduledOrderRepository scheduledOrderRepository = mock(ScheduledOrderRepository.class);
+
+    private ExposureLedger ledger;
+    private PreTradeRiskService risk;
+    private ExposureLedgerRecovery recovery;
+
+    @BeforeEach
+    void setUp() {
+        RiskProperties properties = new RiskProperties();
+        properties.setDefaults(new RiskLimits(1_000, 100_000, 0, 150_000, 10_000, 0));
+        ledger = new ExposureLedger();
+        risk = new PreTradeRiskService(properties, ledger,
+                new MarketDataService(new SimpleMeterRegistry(), List.of()));
+        when(brokerAccountRepository.findAll()).thenReturn(List.of());
+        recovery = new ExposureLedgerRecovery(properties, risk, orderRepository, algoRepository, scheduledOrderRepository,
+                brokerAccountRepository, mock(BrokerRegistry.class), mock(PositionCacheService.class));
+    }
+
+    @Test
+    void algoParentIsNotReservedOnTopOfItsChildren() {
+        Order parent = order(1L, null, 300);
+        Order child = order(2L, 1L, 100);
+        Order manual = order(3L, null, 50);
+        when(orderRepository.findByStatusIn(any())).thenReturn(List.of(parent, child, manual));
+        when(algoRepository.findParentOrderIdsIn(anyCollection())).thenReturn(List.of(1L));
+
+        recovery.rebuild();
+
+        assertThat(ledger.ticket(1L)).isNull();
+        assertThat(ledger.ticket(2L)).isNotNull();
+        assertThat(ledger.ticket(3L)).isNotNull();
+        assertThat(exposure().pendingBuyQuantity()).isEqualTo(150);
+    }
+
+    @Test
+    void scheduledOrderWaitingToFireIsNotReserved() {
+        Order scheduled = order(1L, null, 100);
+        scheduled.setStatus(OrderStatus.PENDING);
+        when(orderRepository.findByStatusIn(any())).thenReturn(List.of(scheduled, order(2L, null, 40)));
+        when(scheduledOrderRepository.findScheduledOrderIdsIn(anyCollection())).thenReturn(List.of(1L));
+
+        recovery.rebuild();
+
+        assertThat(ledger.ticket(1L)).isNull();
+        assertThat(exposure().pendingBuyQuantity()).isEqualTo(40);
+    }
+
+    @Test
+    void completedAlgoBooksOnlyItsChildrensFills() {
+        when(orderRepository.findByStatusIn(any())).thenReturn(List.of(order(1L, null, 100), order(2L, 1L, 100)));
+        when(algoRepository.findParentOrderIdsIn(anyCollection())).thenReturn(List.of(1L));
+        recovery.rebuild();
+
+        risk.onOrderEvent(filled(2L, false));
+        risk.onOrderEvent(filled(1L, true));   // the parent's FILLED, published by the algo engine
+
+        assertThat(exposure().netQuantity()).isEqualTo(100);
+        assertThat(exposure().pendingBuyQuantity()).isZero();
+    }
+
+    private ExposureView exposure() {
+        return risk.view(USER).exposures().stream()
+                .filter(e -> e.accountId().equals(ACCOUNT) && e.symbol().equals("2885"))
+                .findFirst().orElseThrow();
+    }
+
+    private static Order order(Long id, Long parentOrderId, double qty) {
+        return Order.builder()
+                .id(id)
+                .userId(USER)
+                .brokerAccountId(ACCOUNT)
+                .symbol("2885")
+                .side("BUY")
+                .quantity(BigDecimal.valueOf(qty))
+                .price(BigDecimal.valueOf(500))
+                .status(OrderStatus.PLACED)
+                .parentOrderId(parentOrderId)
+                .build();
+    }
+
+    private static OrderEvent filled(Long orderId, boolean algoParent) {
+        return OrderEvent.builder()
+                .orderId(orderId)
+                .status(OrderStatus.FILLED)
+                .quantity(BigDecimal.valueOf(100))
+                .filledQuantity(BigDecimal.valueOf(100))
+                .avgFillPrice(BigDecimal.valueOf(500))
+                .algoParent(algoParent)
+                .build();
+    }
+}
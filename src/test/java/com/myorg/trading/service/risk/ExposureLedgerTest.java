@@ -0,0 +1,146 @@
+package com.myorg.trading.service.risk;
+
+import com.myorg.trading.service.risk.ExposureLedger.SymbolBook;
+import com.myorg.trading.service.risk.ExposureLedger.UserBook;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Position, realized P&L and worst-case exposure arithmetic of the ledger.
+ */
+class ExposureLedgerTest {
+
+    private static final long USER = 1L;
+    private static final long ACCOUNT = 10L;
+
+    private final ExposureLedger ledger = new ExposureLedger();
+
+    @Test
+    void addingToAPositionAveragesThePrice() {
+        SymbolBook s = new SymbolBook();
+
+        assertThat(s.applyFill(true, 10, 100)).isZero();
+        assertThat(s.applyFill(true, 30, 104)).isZero();
+
+        assertThat(s.netQty).isEqualTo(40);
+        assertThat(s.avgPrice).isCloseTo(103, within(1e-9));
+    }
+
+    @Test
+    void reducingRealizesAgainstTheAverageAndKeepsIt() {
+        SymbolBook s = new SymbolBook();
+        s.applyFill(true, 40, 103);
+
+        assertThat(s.applyFill(false, 10, 110)).isCloseTo(70, within(1e-9));
+        assertThat(s.netQty).isEqualTo(30);
+        assertThat(s.avgPrice).isCloseTo(103, within(1e-9));
+
+        assertThat(s.applyFill(false, 30, 100)).isCloseTo(-90, within(1e-9));
+        assertThat(s.netQty).isZero();
+        assertThat(s.avgPrice).isZero();
+    }
+
+    @Test
+    void flippingThroughFlatOpensTheRemainderAtTheFillPrice() {
+        SymbolBook s = new SymbolBook();
+        s.applyFill(false, 5, 200);  // short 5 @ 200
+
+        assertThat(s.applyFill(true, 8, 190)).isCloseTo(50, within(1e-9));
+        assertThat(s.netQty).isEqualTo(3);
+        assertThat(s.avgPrice).isEqualTo(190);
+    }
+
+    @Test
+    void worstCaseExposureTakesTheWorseSideOfPendingOrders() {
+        SymbolBook s = new SymbolBook();
+        s.applyFill(true, 10, 100);
+        s.pendingBuyQty = 5;
+        s.pendingSellQty = 30;
+
+        // long side 15, short side |10 - 30| = 20
+        assertThat(s.worstCaseExposure(0, 0, 100)).isEqualTo(2_000);
+        // a prospective buy of 20 makes the long side (35) the worse one
+        assertThat(s.worstCaseExposure(20, 0, 100)).isEqualTo(3_500);
+        // no price given: falls back to the mark, then the average
+        assertThat(s.worstCaseExposure(0, 0, 0)).isEqualTo(2_000);
+        s.markPrice = 120;
+        assertThat(s.worstCaseExposure(0, 0, 0)).isEqualTo(2_400);
+    }
+
+    @Test
+    void accountExposureSumsSymbolsAndValuesANewSymbol() {
+        UserBook book = ledger.book(USER);
+        book.symbol(ACCOUNT, "A").applyFill(true, 10, 100);
+        book.symbol(ACCOUNT, "A").markPrice = 100;
+        book.symbol(ACCOUNT, "B").applyFill(false, 4, 50);
+        book.symbol(ACCOUNT, "B").markPrice = 50;
+
+        assertThat(book.accountExposure(ACCOUNT, null, 0, 0, 0)).isEqualTo(1_200);
+        assertThat(book.accountExposure(ACCOUNT, null, 3, 0, 500)).isEqualTo(2_700);
+        assertThat(book.accountExposure(ACCOUNT, book.findSymbol(ACCOUNT, "B"), 0, 6, 50)).isEqualTo(1_500);
+    }
+
+    @Test
+    void fillsConvertPendingIntoPositionAndPnl() {
+        UserBook book = ledger.book(USER);
+        RiskTicket buy = new RiskTicket(USER, ACCOUNT, "A", true, 10, 100);
+        synchronized (book) {
+            ledger.reserve(book, buy);
+        }
+        ledger.bind(buy, 1L);
+
+        ledger.onFill(1L, 4, 100, false);
+        SymbolBook s = book.findSymbol(ACCOUNT, "A");
+        assertThat(s.netQty).isEqualTo(4);
+        assertThat(s.pendingBuyQty).isEqualTo(6);
+
+        // Cumulative fills: a repeated report adds nothing
+        ledger.onFill(1L, 4, 100, false);
+        assertThat(s.netQty).isEqualTo(4);
+
+        ledger.onClosed(1L);
+        assertThat(s.pendingBuyQty).isZero();
+        assertThat(s.netQty).isEqualTo(4);
+
+        RiskTicket sell = new RiskTicket(USER, ACCOUNT, "A", false, 4, 110);
+        synchronized (book) {
+            ledger.reserve(book, sell);
+        }
+        ledger.bind(sell, 2L);
+        ledger.onFill(2L, 4, 110, true);
+        assertThat(s.netQty).isZero();
+        assertThat(s.pendingSellQty).isZero();
+        assertThat(book.realizedPnl).isCloseTo(40, within(1e-9));
+    }
+
+    @Test
+    void externalFillsAndSeededPositionsBookLikeOrders() {
+        UserBook book = ledger.book(USER);
+        synchronized (book) {
+            assertThat(ledger.seedPosition(book, ACCOUNT, "A", -20, 250, 240)).isTrue();
+            // Seeding again after fills were booked here leaves the ledger alone
+            ledger.bookFill(book, ACCOUNT, "A", true, 5, 0);
+            assertThat(ledger.seedPosition(book, ACCOUNT, "A", -20, 250, 240)).isFalse();
+        }
+
+        SymbolBook s = book.findSymbol(ACCOUNT, "A");
+        assertThat(s.netQty).isEqualTo(-15);
+        // Covered at the last mark (240): 10 per share on 5 shares
+        assertThat(book.realizedPnl).isCloseTo(50, within(1e-9));
+    }
+
+    @Test
+    void adoptedOrdersAreReservedOnce() {
+        UserBook book = ledger.book(USER);
+        RiskTicket ticket = new RiskTicket(USER, ACCOUNT, "A", false, 7, 100);
+        synchronized (book) {
+            assertThat(ledger.adopt(book, 3L, ticket)).isTrue();
+            assertThat(ledger.adopt(book, 3L, ticket)).isFalse();
+        }
+
+        assertThat(book.findSymbol(ACCOUNT, "A").pendingSellQty).isEqualTo(7);
+        assertThat(ledger.ticket(3L)).isEqualTo(ticket);
+    }
+}
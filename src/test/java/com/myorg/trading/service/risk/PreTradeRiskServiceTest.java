@@ -0,0 +1,132 @@
+package com.myorg.trading.service.risk;
+
+import com.myorg.trading.config.properties.RiskProperties;
+import com.myorg.trading.service.marketdata.MarketDataService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Pre-trade checks and reservations against the exposure ledger.
+ */
+class PreTradeRiskServiceTest {
+
+    private static final long USER = 1L;
+    private static final long PRIMARY = 10L;
+    private static final long BACKUP = 20L;
+
+    private ExposureLedger ledger;
+    private PreTradeRiskService risk;
+
+    @BeforeEach
+    void setUp() {
+        RiskProperties properties = new RiskProperties();
+        properties.setDefaults(new RiskLimits(1_000, 100_000, 0, 150_000, 10_000, 0));
+        ledger = new ExposureLedger();
+        risk = new PreTradeRiskService(properties, ledger,
+                new MarketDataService(new SimpleMeterRegistry(), List.of()));
+    }
+
+    @Test
+    void rerouteMovesTheReservationToTheNewAccount() {
+        place(1L, PRIMARY, "2885", "BUY", 100, 500);
+
+        risk.reroute(1L, BACKUP);
+
+        assertThat(exposure(PRIMARY, "2885")).isNull();
+        assertThat(exposure(BACKUP, "2885").pendingBuyQuantity()).isEqualTo(100);
+        assertThat(ledger.ticket(1L).accountId()).isEqualTo(BACKUP);
+    }
+
+    @Test
+    void rerouteOverTheNewAccountsLimitLeavesTheReservationWhereItWas() {
+        place(1L, BACKUP, "1594", "BUY", 100, 1_000);   // 100k already on the backup account
+        place(2L, PRIMARY, "2885", "BUY", 150, 500);    // 75k more would breach its 150k limit
+
+        assertThatThrownBy(() -> risk.reroute(2L, BACKUP))
+                .isInstanceOfSatisfying(RiskRejectedException.class,
+                        e -> assertThat(e.getMessage()).contains("Account exposure"));
+
+        assertThat(ledger.ticket(2L).accountId()).isEqualTo(PRIMARY);
+        assertThat(exposure(PRIMARY, "2885").pendingBuyQuantity()).isEqualTo(150);
+        assertThat(exposure(BACKUP, "2885")).isNull();
+    }
+
+    @Test
+    void symbolAndAccountExposureLimitsCountPendingOrders() {
+        place(1L, PRIMARY, "2885", "BUY", 200, 500);    // 100k pending
+
+        assertThatThrownBy(() -> place(2L, PRIMARY, "1594", "BUY", 100, 600))
+                .isInstanceOfSatisfying(RiskRejectedException.class,
+                        e -> assertThat(e.getReason()).isEqualTo("MAX_ACCOUNT_EXPOSURE"));
+        // A sell against the pending buy: only one side can end up filled, so the worse side is still 100k
+        place(3L, PRIMARY, "2885", "SELL", 200, 500);
+        assertThat(exposure(PRIMARY, "2885").worstCaseExposure()).isEqualTo(100_000);
+        place(4L, PRIMARY, "1594", "BUY", 50, 900);     // 45k more still fits 150k
+    }
+
+    @Test
+    void dailyLossBlocksNewExposureButNotExits() {
+        risk.seedPosition(USER, PRIMARY, "2885", 100, 500, 500, 0);
+        risk.recordExit(USER, PRIMARY, "2885", "SELL", BigDecimal.valueOf(50));   // no tick: booked at the mark, flat P&L
+        assertThat(risk.view(USER).realizedPnl()).isZero();
+
+        risk.seedPosition(USER, PRIMARY, "1594", 100, 300, 180, -12_000);
+        assertThat(risk.view(USER).realizedPnl()).isEqualTo(-12_000);
+
+        assertThatThrownBy(() -> place(1L, PRIMARY, "11536", "BUY", 1, 100))
+                .isInstanceOfSatisfying(RiskRejectedException.class,
+                        e -> assertThat(e.getReason()).isEqualTo("MAX_DAILY_LOSS"));
+        place(2L, PRIMARY, "1594", "SELL", 100, 180);   // reduces the losing position
+    }
+
+    @Test
+    void pendingExitsCountBeforeAnOrderIsTreatedAsReducing() {
+        risk.seedPosition(USER, PRIMARY, "1594", 100, 300, 180, -12_000);   // over the daily loss limit
+
+        place(1L, PRIMARY, "1594", "SELL", 60, 180);
+        // Another 60 would take the pending exits past the 100 held: it opens a short, so the loss limit applies
+        assertThatThrownBy(() -> place(2L, PRIMARY, "1594", "SELL", 60, 180))
+                .isInstanceOfSatisfying(RiskRejectedException.class,
+                        e -> assertThat(e.getReason()).isEqualTo("MAX_DAILY_LOSS"));
+        place(3L, PRIMARY, "1594", "SELL", 40, 180);
+    }
+
+    @Test
+    void handOffDropsTheReservationOfAForwardedOrder() {
+        place(1L, PRIMARY, "2885", "BUY", 100, 500);
+
+        risk.handOff(1L);
+
+        assertThat(ledger.ticket(1L)).isNull();
+        assertThat(exposure(PRIMARY, "2885")).isNull();
+    }
+
+    @Test
+    void scheduledOrdersOnlyMeetPerOrderLimitsUpFront() {
+        place(1L, PRIMARY, "2885", "BUY", 200, 500);    // 100k: the account has 50k left
+
+        risk.checkOrder(USER, "1594", BigDecimal.valueOf(100), BigDecimal.valueOf(900));   // 90k: over, but not checked yet
+        assertThat(exposure(PRIMARY, "1594")).isNull();
+        assertThatThrownBy(() -> risk.checkOrder(USER, "1594", BigDecimal.valueOf(2_000), BigDecimal.valueOf(10)))
+                .isInstanceOfSatisfying(RiskRejectedException.class,
+                        e -> assertThat(e.getReason()).isEqualTo("MAX_ORDER_QUANTITY"));
+    }
+
+    private void place(Long orderId, Long accountId, String symbol, String side, double qty, double price) {
+        RiskTicket ticket = risk.checkAndReserve(USER, accountId, symbol, side, BigDecimal.valueOf(qty), BigDecimal.valueOf(price));
+        risk.bind(ticket, orderId);
+    }
+
+    private ExposureView exposure(Long accountId, String symbol) {
+        return risk.view(USER).exposures().stream()
+                .filter(e -> e.accountId().equals(accountId) && e.symbol().equals(symbol))
+                .findFirst().orElse(null);
+    }
+}
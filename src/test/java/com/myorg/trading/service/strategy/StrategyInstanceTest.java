@@ -0,0 +1,134 @@
+package com.myorg.trading.service.strategy;
+
+import com.myorg.trading.domain.entity.OrderStatus;
+import com.myorg.trading.service.indicator.Timeframe;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Position bookkeeping of a strategy instance against broker outcomes delivered as order events.
+ */
+class StrategyInstanceTest {
+
+    private static final StrategyDefinition DEF = new StrategyDefinition("SMA_CROSS", "2885", "RELIANCE-EQ", "NSE",
+            "1M", Map.of(), 1L, 1.0, "INTRADAY");
+
+    private final Map<Long, StrategyInstance> owners = new ConcurrentHashMap<>();
+    private final List<String> failures = new ArrayList<>();
+    private final RecordingGateway gateway = new RecordingGateway();
+    private EventLoop loop;
+    private StrategyInstance inst;
+
+    /**
+     * Assigns order ids like the database would and keeps the failure callbacks; never places anything.
+     */
+    private static final class RecordingGateway extends StrategyOrderGateway {
+        long nextId = 100;
+        final List<Consumer<String>> onFailure = new ArrayList<>();
+
+        RecordingGateway() {
+            super(null, null, 1, 1);
+        }
+
+        @Override
+        public void submit(Long userId, StrategyDefinition def, String side, double quantity,
+                           Consumer<Long> onCreated, Consumer<String> onFailure) {
+            this.onFailure.add(onFailure);
+            onCreated.accept(nextId++);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        loop = new EventLoop(0, null, new EventLoop.Budgets(Long.MAX_VALUE, 0, Integer.MAX_VALUE, Integer.MAX_VALUE), 100);
+        loop.start();
+        LiveStrategy strategy = new LiveStrategy() {
+            @Override
+            public void onOrderFailed(StrategyContext ctx, String side, double quantity, String reason) {
+                failures.add(side + " " + quantity + " " + reason);
+            }
+        };
+        inst = new StrategyInstance("s1", 7L, DEF, strategy, Timeframe.parse("1M"), loop, null, gateway, owners);
+        inst.state = StrategyState.RUNNING;
+    }
+
+    @AfterEach
+    void tearDown() {
+        gateway.shutdown();
+        loop.stop();
+    }
+
+    @Test
+    void brokerRejectionRollsThePositionBack() throws Exception {
+        onLoop(() -> inst.targetPosition(1));
+        assertThat(inst.position()).isEqualTo(1);
+        assertThat(owners).containsKey(100L);
+
+        onLoop(() -> inst.onOrderUpdate(100L, OrderStatus.PLACED, null, null));
+        onLoop(() -> inst.onOrderUpdate(100L, OrderStatus.REJECTED, null, "RMS: margin exceeded"));
+
+        assertThat(inst.position()).isZero();
+        assertThat(failures).containsExactly("BUY 1.0 RMS: margin exceeded");
+        assertThat(owners).isEmpty();
+
+        // The next signal flattens from the real position: no accidental short
+        onLoop(() -> inst.targetPosition(0));
+        assertThat(inst.position()).isZero();
+        assertThat(inst.ordersSent).isEqualTo(1);
+    }
+
+    @Test
+    void cancelAfterPartialFillKeepsOnlyTheFilledPart() throws Exception {
+        onLoop(() -> inst.sell(10));
+        onLoop(() -> inst.onOrderUpdate(100L, OrderStatus.PARTIALLY_FILLED, 4.0, null));
+        onLoop(() -> inst.onOrderUpdate(100L, OrderStatus.CANCELLED, null, null));
+
+        assertThat(inst.position()).isEqualTo(-4);
+        assertThat(failures).containsExactly("SELL 6.0 CANCELLED");
+    }
+
+    @Test
+    void fillConfirmsThePositionAndLaterEventsAreIgnored() throws Exception {
+        onLoop(() -> inst.buy(2));
+        onLoop(() -> inst.onOrderUpdate(100L, OrderStatus.FILLED, null, null));
+        onLoop(() -> inst.onOrderUpdate(100L, OrderStatus.CANCELLED, null, null));
+
+        assertThat(inst.position()).isEqualTo(2);
+        assertThat(failures).isEmpty();
+        assertThat(owners).isEmpty();
+    }
+
+    @Test
+    void failureBeforePlacementRollsBackOnce() throws Exception {
+        onLoop(() -> inst.buy(3));
+        onLoop(() -> gateway.onFailure.get(0).accept("Order queue full"));
+        onLoop(() -> inst.onOrderUpdate(100L, OrderStatus.FAILED, null, "late"));
+
+        assertThat(inst.position()).isZero();
+        assertThat(failures).containsExactly("BUY 3.0 Order queue full");
+    }
+
+    /**
+     * Run a task on the loop thread and wait until it, and anything it posted, has run.
+     */
+    private void onLoop(Runnable task) throws InterruptedException {
+        loop.post(task);
+        CountDownLatch done = new CountDownLatch(1);
+        loop.post(done::countDown);
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        CountDownLatch drained = new CountDownLatch(1);
+        loop.post(drained::countDown);
+        assertThat(drained.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+}
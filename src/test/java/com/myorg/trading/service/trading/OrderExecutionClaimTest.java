@@ -0,0 +1,105 @@
+package com.myorg.trading.service.trading;
+
+import com.myorg.trading.broker.api.BrokerClient;
+import com.myorg.trading.broker.api.BrokerOrderResponse;
+import com.myorg.trading.broker.registry.BrokerRegistry;
+import com.myorg.trading.domain.entity.BrokerAccount;
+import com.myorg.trading.domain.entity.Order;
+import com.myorg.trading.domain.entity.OrderStatus;
+import com.myorg.trading.domain.repository.BrokerAccountRepository;
+import com.myorg.trading.domain.repository.OrderRepository;
+import com.myorg.trading.service.risk.PreTradeRiskService;
+import com.myorg.trading.service.routing.BrokerHealthTracker;
+import com.myorg.trading.service.routing.SmartOrderRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The PENDING -> SUBMITTING claim that keeps a forwarded order and its owner's own attempt from both
+ * reaching the broker.
+ */
+class OrderExecutionClaimTest {
+
+    private static final long ORDER = 42L;
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final BrokerAccountRepository brokerAccountRepository = mock(BrokerAccountRepository.class);
+    private final BrokerRegistry brokerRegistry = mock(BrokerRegistry.class);
+    private final BrokerClient client = mock(BrokerClient.class);
+    // Stands in for the row's status column, with the repository's compare-and-set semantics
+    private final AtomicReference<OrderStatus> row = new AtomicReference<>(OrderStatus.PENDING);
+
+    private OrderExecutionService service;
+
+    @BeforeEach
+    void setUp() {
+        when(orderRepository.compareAndSetStatus(eq(ORDER), any(), any()))
+                .thenAnswer(inv -> row.compareAndSet(inv.getArgument(1), inv.getArgument(2)) ? 1 : 0);
+        when(orderRepository.findById(ORDER)).thenAnswer(inv -> Optional.of(Order.builder()
+                .id(ORDER)
+                .userId(1L)
+                .brokerAccountId(10L)
+                .symbol("2885")
+                .side("BUY")
+                .quantity(BigDecimal.TEN)
+                .orderType("MARKET")
+                .status(row.get())
+                .build()));
+        when(brokerAccountRepository.findById(10L))
+                .thenReturn(Optional.of(BrokerAccount.builder().id(10L).brokerId("simulator").build()));
+        when(brokerRegistry.getById("simulator")).thenReturn(client);
+        when(client.placeOrder(anyString(), any()))
+                .thenReturn(Mono.just(new BrokerOrderResponse("SIM1", "PLACED", "ok", null)));
+        service = new OrderExecutionService(orderRepository, brokerRegistry, brokerAccountRepository,
+                mock(OrderEventPublisher.class), new SimpleMeterRegistry(), mock(BrokerHealthTracker.class),
+                mock(SmartOrderRouter.class), mock(PreTradeRiskService.class));
+    }
+
+    @Test
+    void concurrentExecutionsSendTheOrderOnce() throws Exception {
+        CountDownLatch go = new CountDownLatch(1);
+        Runnable attempt = () -> {
+            try {
+                go.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            service.executeOrder(ORDER, "RELIANCE-EQ", null);
+        };
+        CompletableFuture<Void> a = CompletableFuture.runAsync(attempt);
+        CompletableFuture<Void> b = CompletableFuture.runAsync(attempt);
+        go.countDown();
+        CompletableFuture.allOf(a, b).get();
+
+        verify(client, times(1)).placeOrder(anyString(), any());
+        assertThat(row.get()).isEqualTo(OrderStatus.SUBMITTING);
+    }
+
+    @Test
+    void orderAlreadyClaimedIsNotSent() {
+        row.set(OrderStatus.SUBMITTING);
+
+        service.executeOrder(ORDER, "RELIANCE-EQ", null);
+
+        verify(client, never()).placeOrder(anyString(), any());
+        verify(orderRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,125 @@
+package com.myorg.trading.service.trading;
+
+import com.myorg.trading.broker.api.BrokerCapability;
+import com.myorg.trading.broker.api.BrokerClient;
+import com.myorg.trading.broker.api.BrokerOrderResponse;
+import com.myorg.trading.broker.registry.BrokerRegistry;
+import com.myorg.trading.config.properties.RoutingProperties;
+import com.myorg.trading.domain.entity.BrokerAccount;
+import com.myorg.trading.domain.entity.Order;
+import com.myorg.trading.domain.entity.OrderStatus;
+import com.myorg.trading.domain.repository.BrokerAccountRepository;
+import com.myorg.trading.domain.repository.OrderRepository;
+import com.myorg.trading.service.broker.BrokerAccountService;
+import com.myorg.trading.service.risk.PreTradeRiskService;
+import com.myorg.trading.service.routing.BrokerHealthTracker;
+import com.myorg.trading.service.routing.SmartOrderRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * SMART failover stays on the broker whose instrument ids the order carries.
+ */
+class OrderExecutionFailoverTest {
+
+    private static final long ORDER = 9L;
+    private static final Map<String, Object> SMART = Map.of(SmartOrderRouter.ROUTING_META, SmartOrderRouter.SMART,
+            "exchange", "NSE_EQ");
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final BrokerAccountRepository brokerAccountRepository = mock(BrokerAccountRepository.class);
+    private final BrokerRegistry brokerRegistry = mock(BrokerRegistry.class);
+    private final BrokerAccountService brokerAccountService = mock(BrokerAccountService.class);
+    private final PreTradeRiskService riskService = mock(PreTradeRiskService.class);
+    private final BrokerClient dhan = client("dhan");
+    private final BrokerClient angel = client("angelone");
+
+    private Order order;
+    private OrderExecutionService service;
+
+    @BeforeEach
+    void setUp() {
+        List<BrokerAccount> accounts = List.of(account(10L, "dhan"), account(11L, "angelone"), account(12L, "dhan"));
+        for (BrokerAccount a : accounts) when(brokerAccountRepository.findById(a.getId())).thenReturn(Optional.of(a));
+        when(brokerAccountService.listAccountsForUser(1L)).thenReturn(accounts);
+
+        order = Order.builder()
+                .id(ORDER)
+                .userId(1L)
+                .brokerAccountId(10L)
+                .symbol("2885")
+                .side("BUY")
+                .quantity(BigDecimal.TEN)
+                .orderType("MARKET")
+                .status(OrderStatus.PENDING)
+                .build();
+        when(orderRepository.compareAndSetStatus(eq(ORDER), eq(OrderStatus.PENDING), eq(OrderStatus.SUBMITTING))).thenReturn(1);
+        when(orderRepository.findById(ORDER)).thenReturn(Optional.of(order));
+
+        BrokerHealthTracker health = new BrokerHealthTracker(new RoutingProperties());
+        SmartOrderRouter router = new SmartOrderRouter(brokerAccountService, brokerRegistry, health);
+        service = new OrderExecutionService(orderRepository, brokerRegistry, brokerAccountRepository,
+                mock(OrderEventPublisher.class), new SimpleMeterRegistry(), health, router, riskService);
+    }
+
+    @Test
+    void throttledAccountFailsOverToAnotherAccountOnTheSameBroker() {
+        when(dhan.placeOrder(eq("10"), any())).thenReturn(Mono.error(status(HttpStatus.TOO_MANY_REQUESTS)));
+        when(dhan.placeOrder(eq("12"), any())).thenReturn(Mono.just(new BrokerOrderResponse("D2", "PLACED", "ok", null)));
+
+        service.executeOrder(ORDER, "RELIANCE-EQ", SMART);
+
+        verify(angel, never()).placeOrder(anyString(), any());
+        verify(riskService).reroute(ORDER, 12L);
+        assertThat(order.getBrokerAccountId()).isEqualTo(12L);
+        assertThat(order.getBrokerOrderId()).isEqualTo("D2");
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.PLACED);
+    }
+
+    @Test
+    void brokerWideOutageIsNotFailedOver() {
+        when(dhan.placeOrder(eq("10"), any())).thenReturn(Mono.error(status(HttpStatus.SERVICE_UNAVAILABLE)));
+
+        service.executeOrder(ORDER, "RELIANCE-EQ", SMART);
+
+        verify(dhan, never()).placeOrder(eq("12"), any());
+        verify(angel, never()).placeOrder(anyString(), any());
+        assertThat(order.getBrokerAccountId()).isEqualTo(10L);
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.REJECTED);
+    }
+
+    private BrokerClient client(String brokerId) {
+        BrokerClient client = mock(BrokerClient.class);
+        when(client.capabilities()).thenReturn(Set.of(BrokerCapability.PLACE_ORDER));
+        when(brokerRegistry.findById(brokerId)).thenReturn(Optional.of(client));
+        when(brokerRegistry.getById(brokerId)).thenReturn(client);
+        return client;
+    }
+
+    private static BrokerAccount account(Long id, String brokerId) {
+        return BrokerAccount.builder().id(id).userId(1L).brokerId(brokerId).build();
+    }
+
+    private static WebClientResponseException status(HttpStatus status) {
+        return WebClientResponseException.create(status.value(), status.getReasonPhrase(), null, null, null);
+    }
+}
@@ -0,0 +1,122 @@
+package com.myorg.trading.service.trading;
+
+import com.myorg.trading.broker.api.BrokerCapability;
+import com.myorg.trading.broker.api.BrokerClient;
+import com.myorg.trading.broker.api.BrokerOrderRequest;
+import com.myorg.trading.broker.api.BrokerOrderResponse;
+import com.myorg.trading.broker.api.BrokerOrderStatus;
+import com.myorg.trading.broker.registry.BrokerRegistry;
+import com.myorg.trading.domain.entity.BrokerAccount;
+import com.myorg.trading.domain.entity.Order;
+import com.myorg.trading.domain.entity.OrderStatus;
+import com.myorg.trading.domain.repository.BrokerAccountRepository;
+import com.myorg.trading.domain.repository.OrderRepository;
+import com.myorg.trading.service.audit.AuditLogWriter;
+import com.myorg.trading.service.risk.PreTradeRiskService;
+import com.myorg.trading.service.routing.BrokerHealthTracker;
+import com.myorg.trading.service.routing.SmartOrderRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cancel-replace on a node that did not place the order: the replacement is rebuilt from the trading
+ * symbol and exchange stored on the order, never guessed.
+ */
+class OrderModificationServiceTest {
+
+    private static final long ORDER = 5L;
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final BrokerAccountRepository brokerAccountRepository = mock(BrokerAccountRepository.class);
+    private final BrokerRegistry brokerRegistry = mock(BrokerRegistry.class);
+    private final PreTradeRiskService riskService = mock(PreTradeRiskService.class);
+    private final BrokerClient client = mock(BrokerClient.class);
+
+    private OrderModificationService service;
+
+    @BeforeEach
+    void setUp() {
+        when(brokerAccountRepository.findById(10L))
+                .thenReturn(Optional.of(BrokerAccount.builder().id(10L).brokerId("angelone").build()));
+        when(brokerRegistry.getById("angelone")).thenReturn(client);
+        when(client.capabilities()).thenReturn(Set.of(BrokerCapability.CANCEL_ORDER, BrokerCapability.ORDER_BOOK));
+        when(client.cancelOrder("10", "B1")).thenReturn(Mono.empty());
+        BrokerOrderStatus cancelled = new BrokerOrderStatus();
+        cancelled.setOrderId("B1");
+        cancelled.setStatus("CANCELLED");
+        cancelled.setFilledQuantity(BigDecimal.ZERO);
+        when(client.getOrderBook("10")).thenReturn(Mono.just(List.of(cancelled)));
+        when(client.placeOrder(anyString(), any()))
+                .thenReturn(Mono.just(new BrokerOrderResponse("B2", "PLACED", "ok", null)));
+
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        OrderEventPublisher events = mock(OrderEventPublisher.class);
+        OrderExecutionService execution = new OrderExecutionService(orderRepository, brokerRegistry,
+                brokerAccountRepository, events, meters, mock(BrokerHealthTracker.class), mock(SmartOrderRouter.class),
+                riskService);
+        service = new OrderModificationService(orderRepository, brokerAccountRepository, brokerRegistry, execution,
+                mock(OrderStatusPoller.class), events, riskService, meters, mock(AuditLogWriter.class), 3, 0);
+    }
+
+    @Test
+    void replacementResendsTheStoredTradingSymbolAndExchange() {
+        Order order = live("RELIANCE-EQ", "NSE_EQ");
+
+        Order modified = service.modify(1L, ORDER, null, new BigDecimal("2490"), null);
+
+        ArgumentCaptor<BrokerOrderRequest> sent = ArgumentCaptor.forClass(BrokerOrderRequest.class);
+        verify(client).placeOrder(eq("10"), sent.capture());
+        assertThat(sent.getValue().getMeta()).containsEntry("tradingSymbol", "RELIANCE-EQ").containsEntry("exchange", "NSE_EQ");
+        assertThat(sent.getValue().getPrice()).isEqualByComparingTo("2490");
+        assertThat(modified.getBrokerOrderId()).isEqualTo("B2");
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.PLACED);
+    }
+
+    @Test
+    void orderWithoutAStoredTradingSymbolIsNotTouched() {
+        live(null, null);
+
+        assertThatThrownBy(() -> service.modify(1L, ORDER, null, new BigDecimal("2490"), null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("no recorded trading symbol");
+        verify(client, never()).cancelOrder(anyString(), anyString());
+        verify(riskService, never()).amend(any(), any(), any());
+    }
+
+    private Order live(String tradingSymbol, String exchange) {
+        Order order = Order.builder()
+                .id(ORDER)
+                .userId(1L)
+                .brokerAccountId(10L)
+                .symbol("2885")
+                .side("BUY")
+                .quantity(BigDecimal.TEN)
+                .price(new BigDecimal("2500"))
+                .orderType("LIMIT")
+                .status(OrderStatus.PLACED)
+                .brokerOrderId("B1")
+                .tradingSymbol(tradingSymbol)
+                .exchange(exchange)
+                .build();
+        when(orderRepository.findById(ORDER)).thenReturn(Optional.of(order));
+        return order;
+    }
+}
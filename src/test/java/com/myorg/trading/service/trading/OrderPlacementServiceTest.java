@@ -0,0 +1,109 @@
+package com.myorg.trading.service.trading;
+
+import com.myorg.trading.broker.api.OrderSide;
+import com.myorg.trading.broker.api.OrderType;
+import com.myorg.trading.controller.dto.PlaceOrderRequest;
+import com.myorg.trading.domain.entity.Order;
+import com.myorg.trading.domain.entity.OrderStatus;
+import com.myorg.trading.domain.repository.OrderRepository;
+import com.myorg.trading.service.risk.PreTradeRiskService;
+import com.myorg.trading.service.routing.SmartOrderRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Idempotent placement when the key is not in this node's cache: the orders table answers before any
+ * risk is reserved.
+ */
+class OrderPlacementServiceTest {
+
+    private final OrderService orderService = mock(OrderService.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final PreTradeRiskService riskService = mock(PreTradeRiskService.class);
+
+    private OrderPlacementService service;
+
+    @BeforeEach
+    void setUp() {
+        OrderIdempotencyCache cache = new OrderIdempotencyCache(new SimpleMeterRegistry(), 900_000, 1000);
+        service = new OrderPlacementService(orderService, orderRepository, riskService, cache,
+                mock(SmartOrderRouter.class));
+    }
+
+    @Test
+    void keyUsedOnAnotherNodeReplaysWithoutReservingRisk() {
+        when(orderRepository.findByUserIdAndClientOrderId(1L, "k-1")).thenReturn(Optional.of(existing(new BigDecimal("10.00"))));
+
+        OrderPlacementService.Placement placement = service.place(1L, "k-1", request());
+
+        assertThat(placement.orderId()).isEqualTo(77L);
+        assertThat(placement.replayed()).isTrue();
+        verifyNoInteractions(riskService);
+        verify(orderService, never()).createOrder(any());
+
+        // Now cached: the repeat does not go back to the table
+        service.place(1L, "k-1", request());
+        verify(orderRepository).findByUserIdAndClientOrderId(1L, "k-1");
+    }
+
+    @Test
+    void keyUsedForADifferentOrderIsRefusedAndReleased() {
+        when(orderRepository.findByUserIdAndClientOrderId(1L, "k-2")).thenReturn(Optional.of(existing(new BigDecimal("11"))));
+
+        assertThatThrownBy(() -> service.place(1L, "k-2", request()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("different order");
+        verifyNoInteractions(riskService);
+
+        // The refused claim is released, so the key can be looked up again rather than reported in flight
+        assertThatThrownBy(() -> service.place(1L, "k-2", request())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void fingerprintsCompareFieldsNotHashes() {
+        // "Aa" and "BB" share a String hash code
+        assertThat(OrderIdempotencyCache.fingerprint(7L, "Aa", "BUY", BigDecimal.ONE, null, "MARKET", null))
+                .isNotEqualTo(OrderIdempotencyCache.fingerprint(7L, "BB", "BUY", BigDecimal.ONE, null, "MARKET", null));
+        assertThat(OrderIdempotencyCache.fingerprint(7L, "2885", "BUY", new BigDecimal("10"), new BigDecimal("2501.50"), "LIMIT", null))
+                .isEqualTo(OrderIdempotencyCache.fingerprint(7L, "2885", "BUY", new BigDecimal("10.0"), new BigDecimal("2501.5"), "LIMIT", null));
+    }
+
+    private static PlaceOrderRequest request() {
+        PlaceOrderRequest req = new PlaceOrderRequest();
+        req.setBrokerAccountId(10L);
+        req.setSymbol("2885");
+        req.setSide(OrderSide.BUY);
+        req.setQuantity(BigDecimal.TEN);
+        req.setOrderType(OrderType.MARKET);
+        req.setProductType("INTRADAY");
+        return req;
+    }
+
+    private static Order existing(BigDecimal quantity) {
+        return Order.builder()
+                .id(77L)
+                .userId(1L)
+                .brokerAccountId(10L)
+                .symbol("2885")
+                .side("BUY")
+                .quantity(quantity)
+                .orderType("MARKET")
+                .productType("INTRADAY")
+                .clientOrderId("k-1")
+                .status(OrderStatus.PLACED)
+                .build();
+    }
+}
@@ -0,0 +1,132 @@
+package com.myorg.trading.service.trading;
+
+import com.myorg.trading.broker.api.BrokerCapability;
+import com.myorg.trading.broker.api.BrokerClient;
+import com.myorg.trading.broker.api.BrokerOrderStatus;
+import com.myorg.trading.broker.registry.BrokerRegistry;
+import com.myorg.trading.domain.entity.BrokerAccount;
+import com.myorg.trading.domain.entity.Order;
+import com.myorg.trading.domain.entity.OrderStatus;
+import com.myorg.trading.domain.repository.BrokerAccountRepository;
+import com.myorg.trading.domain.repository.OrderRepository;
+import com.myorg.trading.service.cluster.ClusterMembership;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A broker that stops answering only costs its own accounts' results for the round.
+ */
+class OrderStatusPollerTest {
+
+    private static final long TIMEOUT_MS = 200;
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final BrokerAccountRepository brokerAccountRepository = mock(BrokerAccountRepository.class);
+    private final BrokerRegistry brokerRegistry = mock(BrokerRegistry.class);
+    private final OrderEventPublisher eventPublisher = mock(OrderEventPublisher.class);
+    private final ClusterMembership membership = mock(ClusterMembership.class);
+    private final BrokerClient dhan = client("dhan");
+    private final BrokerClient angel = client("angelone");
+
+    private OrderStatusPoller poller;
+
+    @BeforeEach
+    void setUp() {
+        when(membership.isLocal(anyLong())).thenReturn(true);
+        when(brokerAccountRepository.findById(10L)).thenReturn(Optional.of(account(10L, "dhan")));
+        when(brokerAccountRepository.findById(11L)).thenReturn(Optional.of(account(11L, "angelone")));
+
+        poller = new OrderStatusPoller(orderRepository, brokerAccountRepository, brokerRegistry, eventPublisher, membership);
+        ReflectionTestUtils.setField(poller, "pollTimeoutMs", TIMEOUT_MS);
+        ReflectionTestUtils.setField(poller, "pollConcurrency", 8);
+    }
+
+    @Test
+    void slowAccountDoesNotHoldBackTheOthers() {
+        Order fast = track(1L, 10L, "D1");
+        Order slow = track(2L, 11L, "A1");
+        when(dhan.getOrderBook("10")).thenReturn(Mono.just(List.of(status("D1", "TRADED"))));
+        when(angel.getOrderBook("11")).thenReturn(Mono.never());
+
+        long start = System.nanoTime();
+        poller.poll();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(elapsedMs).isLessThan(TIMEOUT_MS * 5);
+        assertThat(fast.getStatus()).isEqualTo(OrderStatus.FILLED);
+        verify(eventPublisher).publish(eq(fast), eq(OrderStatus.PLACED), any(), any(), any());
+        verify(orderRepository, never()).save(slow);
+
+        // The timed-out order is still tracked and picked up once its broker answers again
+        assertThat(poller.openOrderCount()).isEqualTo(1);
+        when(angel.getOrderBook("11")).thenReturn(Mono.just(List.of(status("A1", "COMPLETE"))));
+        poller.poll();
+
+        assertThat(slow.getStatus()).isEqualTo(OrderStatus.FILLED);
+        assertThat(poller.openOrderCount()).isZero();
+    }
+
+    @Test
+    void failedAccountIsSkippedForTheRound() {
+        Order order = track(1L, 10L, "D1");
+        when(dhan.getOrderBook("10")).thenReturn(Mono.error(new IllegalStateException("502")));
+
+        poller.poll();
+
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.PLACED);
+        assertThat(poller.openOrderCount()).isEqualTo(1);
+    }
+
+    private Order track(Long id, Long accountId, String brokerOrderId) {
+        Order order = Order.builder()
+                .id(id)
+                .userId(1L)
+                .brokerAccountId(accountId)
+                .brokerOrderId(brokerOrderId)
+                .symbol("2885")
+                .side("BUY")
+                .quantity(BigDecimal.TEN)
+                .orderType("MARKET")
+                .status(OrderStatus.PLACED)
+                .build();
+        when(orderRepository.findById(id)).thenReturn(Optional.of(order));
+        poller.track(order);
+        return order;
+    }
+
+    private BrokerClient client(String brokerId) {
+        BrokerClient client = mock(BrokerClient.class);
+        when(client.capabilities()).thenReturn(Set.of(BrokerCapability.ORDER_BOOK));
+        when(brokerRegistry.getById(brokerId)).thenReturn(client);
+        return client;
+    }
+
+    private static BrokerAccount account(Long id, String brokerId) {
+        return BrokerAccount.builder().id(id).userId(1L).brokerId(brokerId).build();
+    }
+
+    private static BrokerOrderStatus status(String brokerOrderId, String status) {
+        BrokerOrderStatus st = new BrokerOrderStatus();
+        st.setOrderId(brokerOrderId);
+        st.setStatus(status);
+        st.setFilledQuantity(BigDecimal.TEN);
+        return st;
+    }
+}
@@ -0,0 +1,150 @@
+package com.myorg.trading.service.trading;
+
+import com.myorg.trading.broker.api.BrokerCapability;
+import com.myorg.trading.broker.api.BrokerClient;
+import com.myorg.trading.broker.api.BrokerOrderStatus;
+import com.myorg.trading.broker.registry.BrokerRegistry;
+import com.myorg.trading.domain.entity.BrokerAccount;
+import com.myorg.trading.domain.entity.Order;
+import com.myorg.trading.domain.entity.OrderStatus;
+import com.myorg.trading.domain.repository.BrokerAccountRepository;
+import com.myorg.trading.domain.repository.OrderRepository;
+import com.myorg.trading.service.cluster.ClusterMembership;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Settling orders a dead node left SUBMITTING, by their broker tag.
+ */
+class SubmittingOrderReconcilerTest {
+
+    private static final long ACCOUNT = 10L;
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final BrokerAccountRepository brokerAccountRepository = mock(BrokerAccountRepository.class);
+    private final BrokerRegistry brokerRegistry = mock(BrokerRegistry.class);
+    private final OrderEventPublisher eventPublisher = mock(OrderEventPublisher.class);
+    private final ClusterMembership membership = mock(ClusterMembership.class);
+    private final BrokerClient client = mock(BrokerClient.class);
+
+    private SubmittingOrderReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        when(membership.isLocal(anyLong())).thenReturn(true);
+        when(brokerAccountRepository.findById(ACCOUNT))
+                .thenReturn(Optional.of(BrokerAccount.builder().id(ACCOUNT).brokerId("angelone").build()));
+        when(brokerRegistry.getById("angelone")).thenReturn(client);
+        when(client.capabilities()).thenReturn(Set.of(BrokerCapability.ORDER_BOOK));
+        when(orderRepository.compareAndSetStatus(anyLong(), eq(OrderStatus.SUBMITTING), any())).thenReturn(1);
+        reconciler = new SubmittingOrderReconciler(orderRepository, brokerAccountRepository, brokerRegistry,
+                eventPublisher, membership, 120_000);
+    }
+
+    @Test
+    void orderFoundAtTheBrokerBecomesPlaced() {
+        Order order = stuck(1L);
+        when(client.getOrderBook("10")).thenReturn(Mono.just(List.of(
+                bookEntry("B-7", "client-1"), bookEntry("B-8", "client-99"))));
+
+        reconciler.reconcile();
+
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.PLACED);
+        assertThat(order.getBrokerOrderId()).isEqualTo("B-7");
+        verify(eventPublisher).publish(eq(order), eq(OrderStatus.SUBMITTING), any());
+    }
+
+    @Test
+    void orderMissingAtTheBrokerIsRejected() {
+        Order order = stuck(2L);
+        when(client.getOrderBook("10")).thenReturn(Mono.just(List.of(bookEntry("B-8", "client-99"))));
+
+        reconciler.reconcile();
+
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.REJECTED);
+        assertThat(order.getBrokerOrderId()).isNull();
+        verify(eventPublisher).publish(eq(order), eq(OrderStatus.SUBMITTING), any());
+    }
+
+    @Test
+    void brokerWithoutAnOrderBookFailsTheOrder() {
+        Order order = stuck(3L);
+        when(client.capabilities()).thenReturn(Set.of(BrokerCapability.PLACE_ORDER));
+
+        reconciler.reconcile();
+
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.FAILED);
+    }
+
+    @Test
+    void unreachableOrderBookLeavesTheOrderForTheNextCheck() {
+        Order order = stuck(4L);
+        when(client.getOrderBook("10")).thenReturn(Mono.error(new IllegalStateException("timeout")));
+
+        reconciler.reconcile();
+
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.SUBMITTING);
+        verify(orderRepository, never()).compareAndSetStatus(anyLong(), any(), any());
+    }
+
+    @Test
+    void placingNodeThatFinishedFirstWins() {
+        Order order = stuck(5L);
+        when(client.getOrderBook("10")).thenReturn(Mono.just(List.of()));
+        when(orderRepository.compareAndSetStatus(anyLong(), eq(OrderStatus.SUBMITTING), any())).thenReturn(0);
+
+        reconciler.reconcile();
+
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.SUBMITTING);
+        verify(orderRepository, never()).save(any());
+        verify(eventPublisher, never()).publish(any(), any(), any());
+    }
+
+    @Test
+    void accountsOwnedByOtherNodesAreLeftToThem() {
+        Order order = stuck(6L);
+        when(membership.isLocal(ACCOUNT)).thenReturn(false);
+
+        reconciler.reconcile();
+
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.SUBMITTING);
+        verify(client, never()).getOrderBook(any());
+    }
+
+    private Order stuck(Long id) {
+        Order order = Order.builder()
+                .id(id)
+                .userId(1L)
+                .brokerAccountId(ACCOUNT)
+                .symbol("2885")
+                .side("BUY")
+                .quantity(BigDecimal.TEN)
+                .status(OrderStatus.SUBMITTING)
+                .build();
+        when(orderRepository.findByStatusAndUpdatedAtBefore(eq(OrderStatus.SUBMITTING), any())).thenReturn(List.of(order));
+        return order;
+    }
+
+    private static BrokerOrderStatus bookEntry(String brokerOrderId, String tag) {
+        BrokerOrderStatus st = new BrokerOrderStatus();
+        st.setOrderId(brokerOrderId);
+        st.setStatus("NEW");
+        st.setClientOrderId(tag);
+        return st;
+    }
+}
@@ -0,0 +1,121 @@
+package com.myorg.trading.web;
+
+import com.myorg.trading.broker.api.MarketDataTick;
+import com.myorg.trading.service.marketdata.MarketDataService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Coalescing ticks into one frame per flush, the watchlist limits, and releasing feeds with the last watcher.
+ */
+class WatchlistPublisherTest {
+
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    private final MarketDataService marketDataService = mock(MarketDataService.class);
+
+    private WatchlistPublisher publisher;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ObjectProvider<MarketDataService> provider = mock(ObjectProvider.class);
+        when(provider.getObject()).thenReturn(marketDataService);
+        publisher = new WatchlistPublisher(messagingTemplate, provider, new SimpleMeterRegistry(), 3, 2, 100);
+    }
+
+    @Test
+    void burstOfTicksIsOneFrameWithTheLatestOfEachChangedSymbol() {
+        publisher.register("s1", "alice", false, List.of("2885", "1333"));
+
+        publisher.onTick("2885", tick("2885", "2500"));
+        publisher.onTick("2885", tick("2885", "2501"));
+        publisher.onTick("2885", tick("2885", "2502"));
+        publisher.onTick("9999", tick("9999", "1"));
+        publisher.flush();
+
+        Map<String, MarketDataTick> frame = sentFrame("s1");
+        assertThat(frame).containsOnlyKeys("2885");
+        assertThat(frame.get("2885").getLastPrice()).isEqualByComparingTo("2502");
+
+        // Nothing changed since: no frame
+        publisher.flush();
+        verify(messagingTemplate, times(1)).convertAndSendToUser(anyString(), anyString(), any(), anyMap());
+    }
+
+    @Test
+    void newWatchlistStartsWithTheLastKnownTicks() {
+        when(marketDataService.lastTick("2885")).thenReturn(tick("2885", "2490"));
+
+        publisher.register("s1", null, false, List.of("2885", "1333"));
+        publisher.flush();
+
+        assertThat(sentFrame("s1")).containsOnlyKeys("2885");
+    }
+
+    @Test
+    void limitsAreEnforced() {
+        assertThatThrownBy(() -> publisher.register("s1", "alice", false, List.of("a", "b", "c", "d")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> publisher.register("s1", "alice", false, List.of("bad token")))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        publisher.register("s1", "alice", false, List.of("a"));
+        publisher.register("s2", "alice", false, List.of("a"));
+        assertThatThrownBy(() -> publisher.register("s3", "alice", false, List.of("a")))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        // Replacing an existing connection's watchlist is not a new connection
+        assertThat(publisher.register("s2", "alice", false, List.of("a", "b"))).isEqualTo(2);
+    }
+
+    @Test
+    void feedIsHeldUntilTheLastWatcherLeaves() {
+        publisher.register("s1", "alice", false, List.of("2885"));
+        publisher.register("s2", "bob", false, List.of("2885", "1333"));
+        verify(marketDataService, times(1)).requestFeed(null, "2885");
+
+        publisher.unregister("s1");
+        verify(marketDataService, never()).releaseFeed("2885");
+
+        publisher.unregister("s2");
+        verify(marketDataService).releaseFeed("2885");
+        verify(marketDataService).releaseFeed("1333");
+
+        publisher.onTick("2885", tick("2885", "2500"));
+        publisher.flush();
+        verify(messagingTemplate, never()).convertAndSendToUser(anyString(), anyString(), any(), anyMap());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, MarketDataTick> sentFrame(String sessionId) {
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate).convertAndSendToUser(eq(sessionId), eq(WatchlistPublisher.WATCHLIST_DESTINATION),
+                payload.capture(), anyMap());
+        return (Map<String, MarketDataTick>) payload.getValue();
+    }
+
+    private static MarketDataTick tick(String token, String price) {
+        return new MarketDataTick(token, new BigDecimal(price), null, null, 0, Instant.now());
+    }
+}